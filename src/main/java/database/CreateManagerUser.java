@@ -4,7 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import org.mindrot.jbcrypt.BCrypt;
+import server.PasswordHasher;
 
 public class CreateManagerUser {
   public static void main(String[] args) {
@@ -20,8 +20,8 @@ public class CreateManagerUser {
       String password = "manager123"; // Will be hashed
       String email = "manager@example.com";
 
-      // Hash the password using BCrypt
-      String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt(12));
+      // Hash the password using BCrypt at the calibrated cost
+      String hashedPassword = PasswordHasher.hash(password);
 
       // Create values map for insertion
       Map<String, Object> values = new HashMap<>();
@@ -5,12 +5,16 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
+import utils.StartupProfiler;
 
 public class Database {
 
   // Database URL loaded from the config.properties file
   public static final String DB_URL;
 
+  // All settings from config.properties
+  private static final Properties CONFIG = new Properties();
+
   static {
     String url = null;
     try (InputStream input = Database.class.getClassLoader().getResourceAsStream("config.properties")) {
@@ -18,9 +22,8 @@ public class Database {
       if (input == null) {
         throw new RuntimeException("❌ config.properties file not found in resources.");
       }
-      Properties prop = new Properties();
-      prop.load(input);
-      url = prop.getProperty("db.url"); // Read the db.url property
+      CONFIG.load(input);
+      url = CONFIG.getProperty("db.url"); // Read the db.url property
     } catch (Exception e) {
       // Handle exceptions if the properties file can't be found or loaded
       System.err.println("❌ Failed to load database configuration.");
@@ -28,6 +31,19 @@ public class Database {
       System.exit(1); // Exit the program if the configuration can't be loaded
     }
     DB_URL = url; // Assign the database URL after successful loading
+    StartupProfiler.mark("Database config loaded");
+  }
+
+  /**
+   * Reads a setting from config.properties.
+   * 
+   * @param key          the property name
+   * @param defaultValue the value to use if the property is not set
+   * @return the trimmed property value, or the default
+   */
+  public static String getConfigProperty(String key, String defaultValue) {
+    String value = CONFIG.getProperty(key);
+    return value != null ? value.trim() : defaultValue;
   }
 
   /**
@@ -8,22 +8,33 @@ import org.jooq.impl.SQLDataType;
 import java.sql.*;
 import java.util.*;
 
+import utils.StartupProfiler;
+
+/**
+ * Runs queries on one SQLite connection of its own. Services keep a
+ * QueryBuilder for their lifetime and may be called from the event dispatch
+ * thread and from ServiceExecutor workers at once, so every method holds
+ * this object's lock while it uses the connection, and inTransaction() holds
+ * it for the whole transaction. A lazy cursor takes it again for each row it
+ * fetches.
+ */
 public class QueryBuilder {
 
     private DSLContext create;
     private Connection connection;
-    private static final String DB_URL = "jdbc:sqlite:src/main/resources/EventEase.db";
 
     // Constructor initializes the database connection
     public QueryBuilder() {
         this.connection = connectToDatabase();
+        StartupProfiler.markOnce("First database connection opened");
         this.create = DSL.using(connection, SQLDialect.SQLITE);
+        StartupProfiler.markOnce("First jOOQ context created");
     }
 
-    // Establish connection to the SQLite database
+    // Establish connection to the SQLite database named in config.properties
     private Connection connectToDatabase() {
         try {
-            return DriverManager.getConnection(DB_URL);
+            return Database.getConnection();
         } catch (SQLException e) {
             e.printStackTrace();
             throw new RuntimeException("Failed to connect to the database", e);
@@ -31,7 +42,7 @@ public class QueryBuilder {
     }
 
     // Close the database connection
-    public void closeConnection() {
+    public synchronized void closeConnection() {
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -42,8 +53,30 @@ public class QueryBuilder {
         }
     }
 
+    // Run several queries inside one transaction so they all read the same
+    // consistent snapshot of the database. Rolled back if the work throws.
+    public synchronized <T> T inTransaction(java.util.function.Supplier<T> work) {
+        try {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.get();
+                connection.commit();
+                return result;
+            } catch (RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            throw new RuntimeException("Transaction failed", e);
+        }
+    }
+
     // Insert data into a table
-    public void insert(String table, Map<String, Object> values) {
+    public synchronized void insert(String table, Map<String, Object> values) {
         Table<?> targetTable = DSL.table(DSL.name(table));
 
         List<Field<?>> columns = new ArrayList<>();
@@ -66,7 +99,7 @@ public class QueryBuilder {
     }
 
     // Select data from a table
-    public List<Map<String, Object>> select(String table, String... columns) {
+    public synchronized List<Map<String, Object>> select(String table, String... columns) {
         Table<?> targetTable = DSL.table(DSL.name(table));
         List<Field<?>> fieldList = new ArrayList<>();
 
@@ -94,7 +127,7 @@ public class QueryBuilder {
     }
 
     // Select data from a table with filters
-    public List<Map<String, Object>> selectWithFilters(String table, Map<String, Object> filters, String[] columns) {
+    public synchronized List<Map<String, Object>> selectWithFilters(String table, Map<String, Object> filters, String[] columns) {
         Table<?> targetTable = DSL.table(DSL.name(table));
         List<Field<?>> fieldList = new ArrayList<>();
         List<Map<String, Object>> resultList = new ArrayList<>();
@@ -108,35 +141,7 @@ public class QueryBuilder {
             }
 
             // Build the conditions for filtering
-            Condition conditions = null;
-            for (Map.Entry<String, Object> filter : filters.entrySet()) {
-                String key = filter.getKey();
-                Object value = filter.getValue();
-
-                System.out.println("Processing filter: " + key + " = " + value);
-
-                // Handle different operators
-                if (key.contains(">=")) {
-                    String fieldName = key.replace(">=", "").trim();
-                    Condition newCondition = DSL.field(DSL.name(fieldName)).greaterOrEqual(value);
-                    conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
-                } else if (key.contains("<=")) {
-                    String fieldName = key.replace("<=", "").trim();
-                    Condition newCondition = DSL.field(DSL.name(fieldName)).lessOrEqual(value);
-                    conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
-                } else if (key.contains(">")) {
-                    String fieldName = key.replace(">", "").trim();
-                    Condition newCondition = DSL.field(DSL.name(fieldName)).greaterThan(value);
-                    conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
-                } else if (key.contains("<")) {
-                    String fieldName = key.replace("<", "").trim();
-                    Condition newCondition = DSL.field(DSL.name(fieldName)).lessThan(value);
-                    conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
-                } else {
-                    Condition newCondition = DSL.field(DSL.name(key)).eq(value);
-                    conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
-                }
-            }
+            Condition conditions = buildConditions(filters);
 
             // Execute the query with filters
             Result<Record> result;
@@ -163,18 +168,7 @@ public class QueryBuilder {
                     String fieldName = field.getName();
 
                     // Special handling for date fields
-                    if (value != null && fieldName.toLowerCase().contains("date")) {
-                        try {
-                            if (value instanceof java.sql.Timestamp) {
-                                value = new java.sql.Date(((java.sql.Timestamp) value).getTime());
-                            } else if (value instanceof String) {
-                                java.sql.Date sqlDate = java.sql.Date.valueOf((String) value);
-                                value = sqlDate;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Error converting date for field " + fieldName + ": " + e.getMessage());
-                        }
-                    }
+                    value = convertDateValue(fieldName, value);
 
                     row.put(fieldName, value);
                     System.out.println("Field: " + fieldName + " = " + value);
@@ -189,8 +183,71 @@ public class QueryBuilder {
         return resultList;
     }
 
+    // Select data from a table with filters, reading rows lazily through a
+    // cursor instead of materializing the whole result. The caller must close
+    // the returned cursor.
+    public synchronized RowCursor selectLazyWithFilters(String table, Map<String, Object> filters, String[] columns) {
+        Table<?> targetTable = DSL.table(DSL.name(table));
+        List<Field<?>> fieldList = new ArrayList<>();
+        for (String column : columns) {
+            fieldList.add(DSL.field(DSL.name(column)));
+        }
+
+        Condition conditions = buildConditions(filters);
+        Cursor<Record> cursor = (conditions != null)
+                ? create.select(fieldList).from(targetTable).where(conditions).fetchLazy()
+                : create.select(fieldList).from(targetTable).fetchLazy();
+
+        return new RowCursor(cursor, fieldList, this);
+    }
+
+    // Build an AND condition from filter keys such as "price >", "date <=" or
+    // a plain column name for equality. Returns null when there are no filters.
+    private Condition buildConditions(Map<String, Object> filters) {
+        Condition conditions = null;
+        for (Map.Entry<String, Object> filter : filters.entrySet()) {
+            String key = filter.getKey();
+            Object value = filter.getValue();
+
+            System.out.println("Processing filter: " + key + " = " + value);
+
+            // Handle different operators
+            Condition newCondition;
+            if (key.contains(">=")) {
+                newCondition = DSL.field(DSL.name(key.replace(">=", "").trim())).greaterOrEqual(value);
+            } else if (key.contains("<=")) {
+                newCondition = DSL.field(DSL.name(key.replace("<=", "").trim())).lessOrEqual(value);
+            } else if (key.contains(">")) {
+                newCondition = DSL.field(DSL.name(key.replace(">", "").trim())).greaterThan(value);
+            } else if (key.contains("<")) {
+                newCondition = DSL.field(DSL.name(key.replace("<", "").trim())).lessThan(value);
+            } else {
+                newCondition = DSL.field(DSL.name(key)).eq(value);
+            }
+            conditions = (conditions == null) ? newCondition : conditions.and(newCondition);
+        }
+        return conditions;
+    }
+
+    // Convert timestamp and yyyy-MM-dd string values of date columns to
+    // java.sql.Date
+    static Object convertDateValue(String fieldName, Object value) {
+        if (value != null && fieldName.toLowerCase().contains("date")) {
+            try {
+                if (value instanceof java.sql.Timestamp) {
+                    return new java.sql.Date(((java.sql.Timestamp) value).getTime());
+                } else if (value instanceof String) {
+                    return java.sql.Date.valueOf((String) value);
+                }
+            } catch (Exception e) {
+                System.err.println("Error converting date for field " + fieldName + ": " + e.getMessage());
+            }
+        }
+        return value;
+    }
+
     // Update data in a table
-    public void update(String table, Map<String, Object> values, String conditionColumn, Object conditionValue) {
+    public synchronized void update(String table, Map<String, Object> values, String conditionColumn, Object conditionValue) {
         Table<?> targetTable = DSL.table(DSL.name(table));
         UpdateSetFirstStep<?> updateQuery = create.update(targetTable);
 
@@ -210,8 +267,26 @@ public class QueryBuilder {
         }
     }
 
+    // Run a plain SQL statement with bind values. Unlike insert(), errors are
+    // thrown so that work inside inTransaction() is rolled back.
+    public synchronized int execute(String sql, Object... bindings) {
+        return create.execute(sql, bindings);
+    }
+
+    // Run a plain SQL query with bind values, one map per row
+    public synchronized List<Map<String, Object>> fetch(String sql, Object... bindings) {
+        return create.fetch(sql, bindings).intoMaps();
+    }
+
+    // Run a plain SQL query with bind values, reading rows lazily through a
+    // cursor. The caller must close the returned cursor.
+    public synchronized RowCursor fetchLazy(String sql, Object... bindings) {
+        Cursor<Record> cursor = create.resultQuery(sql, bindings).fetchLazy();
+        return new RowCursor(cursor, java.util.Arrays.asList(cursor.fields()), this);
+    }
+
     // Delete data from a table
-    public void delete(String table, String conditionColumn, Object conditionValue) {
+    public synchronized void delete(String table, String conditionColumn, Object conditionValue) {
         Table<?> targetTable = DSL.table(DSL.name(table));
 
         try {
@@ -0,0 +1,63 @@
+package database;
+
+import org.jooq.Cursor;
+import org.jooq.Field;
+import org.jooq.Record;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Forward-only iterator over query results that fetches one row at a time.
+ * Rows have the same shape as QueryBuilder.selectWithFilters results. Each
+ * fetch holds the lock of the QueryBuilder that opened the cursor, since it
+ * reads from that QueryBuilder's connection.
+ */
+public class RowCursor implements Iterator<Map<String, Object>>, AutoCloseable {
+
+    private final Cursor<Record> cursor;
+    private final List<Field<?>> fields;
+    private final Object lock;
+
+    RowCursor(Cursor<Record> cursor, List<Field<?>> fields, Object lock) {
+        this.cursor = cursor;
+        this.fields = fields;
+        this.lock = lock;
+    }
+
+    @Override
+    public boolean hasNext() {
+        synchronized (lock) {
+            return cursor.hasNext();
+        }
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        Record record;
+        synchronized (lock) {
+            record = cursor.fetchNext();
+        }
+        if (record == null) {
+            throw new NoSuchElementException();
+        }
+
+        Map<String, Object> row = new HashMap<>();
+        for (Field<?> field : fields) {
+            String fieldName = field.getName();
+            row.put(fieldName, QueryBuilder.convertDateValue(fieldName, record.get(field)));
+        }
+        return row;
+    }
+
+    // Release the underlying result set and statement
+    @Override
+    public void close() {
+        synchronized (lock) {
+            cursor.close();
+        }
+    }
+}
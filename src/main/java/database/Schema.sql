@@ -88,4 +88,47 @@ CREATE TABLE IF NOT EXISTS Sales (
 );
 
 -- Create index for faster date-based queries
-CREATE INDEX IF NOT EXISTS idx_sales_date ON Sales(sale_date);
\ No newline at end of file
+CREATE INDEX IF NOT EXISTS idx_sales_date ON Sales(sale_date);
+-- Sales rollups (per day, week and month by category; maintained as tickets are sold)
+CREATE TABLE IF NOT EXISTS SalesRollup (
+    grain TEXT CHECK (grain IN ('DAY', 'WEEK', 'MONTH')) NOT NULL,
+    bucket_start TEXT NOT NULL, -- First day of the bucket as yyyy-MM-dd (weeks start on Monday)
+    category TEXT NOT NULL,
+    tickets_sold INTEGER NOT NULL DEFAULT 0,
+    revenue REAL NOT NULL DEFAULT 0,
+    PRIMARY KEY (grain, bucket_start, category)
+);
+
+-- Notifications (written in batches by JdbcNotificationRepository)
+CREATE TABLE IF NOT EXISTS Notification (
+    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+    id TEXT NOT NULL UNIQUE,
+    user_id TEXT NOT NULL,
+    message TEXT,
+    type TEXT,
+    timestamp INTEGER NOT NULL, -- Epoch milliseconds
+    read INTEGER NOT NULL DEFAULT 0,
+    related_entity_id TEXT,
+    broadcast_id TEXT -- Set for broadcast recipients; message and related entity are then in NotificationBroadcast
+);
+
+-- Shared payload of a notification sent to several users
+CREATE TABLE IF NOT EXISTS NotificationBroadcast (
+    id TEXT PRIMARY KEY,
+    message TEXT,
+    related_entity_id TEXT
+);
+
+-- Unread badges and newest-first pages per user
+CREATE INDEX IF NOT EXISTS idx_notification_user_read_time ON Notification(user_id, read, timestamp);
+CREATE INDEX IF NOT EXISTS idx_notification_user_time ON Notification(user_id, timestamp);
+CREATE INDEX IF NOT EXISTS idx_notification_broadcast ON Notification(broadcast_id);
+
+-- Remove a broadcast's payload together with its last recipient
+CREATE TRIGGER IF NOT EXISTS delete_unused_notification_broadcast
+AFTER DELETE ON Notification
+WHEN OLD.broadcast_id IS NOT NULL
+    AND NOT EXISTS (SELECT 1 FROM Notification WHERE broadcast_id = OLD.broadcast_id)
+BEGIN
+    DELETE FROM NotificationBroadcast WHERE id = OLD.broadcast_id;
+END;
@@ -6,7 +6,20 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.sql.Timestamp;
-import org.mindrot.jbcrypt.BCrypt;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 import database.Database;
 
@@ -19,70 +32,305 @@ public class AuthenticationServer {
         UNKNOWN
     }
 
-    // Stores the currently logged in username
-    private static String currentUsername = null;
-    // Stores the currently logged in user's role
-    private static UserRole currentUserRole = UserRole.UNKNOWN;
+    // BCrypt is CPU-bound, so a couple of platform threads with a short queue;
+    // extra logins are rejected rather than piling up
+    private static final int BCRYPT_THREADS = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors()));
+    private static final int MAX_PENDING_LOGINS = 16;
+    private static final ThreadPoolExecutor BCRYPT_POOL = new ThreadPoolExecutor(
+            BCRYPT_THREADS, BCRYPT_THREADS, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_LOGINS), runnable -> {
+                Thread thread = new Thread(runnable, "bcrypt");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // How long a verified password is accepted without another BCrypt check
+    private static final long CREDENTIAL_TTL_MILLIS = 5 * 60 * 1000L;
+    // How long an idle session token stays valid, and how often expired ones are swept
+    private static final long SESSION_TTL_MILLIS = 60 * 1000L
+            * Long.parseLong(Database.getConfigProperty("auth.session.idleMinutes", "30"));
+    private static final long SESSION_SWEEP_MILLIS = 60 * 1000L;
+
+    // Per-process key for the credential cache; cached entries hold only an
+    // HMAC of the password, never the password itself
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final byte[] CACHE_KEY = randomBytes(32);
+
+    private static final Map<String, VerifiedCredential> verifiedCredentials = new ConcurrentHashMap<>();
+    private static final SessionStore sessions = new SessionStore(SESSION_TTL_MILLIS, SESSION_SWEEP_MILLIS);
+
+    // Session of the desktop operator, used when no session is bound to the thread
+    private static volatile Session desktopSession = null;
 
     public static boolean authenticate(String username, String password) {
-        // First check in ADMIN table
-        if (authenticateUser(username, password, "ADMIN")) {
-            currentUsername = username;
-            currentUserRole = UserRole.ADMIN;
-            return true;
+        try {
+            return authenticateAsync(username, password).join() != UserRole.UNKNOWN;
+        } catch (CompletionException e) {
+            System.err.println("Authentication failed: " + e.getCause().getMessage());
+            return false;
         }
+    }
 
-        // Then check in MANAGER table if not found in ADMIN
-        if (authenticateUser(username, password, "MANAGER")) {
-            currentUsername = username;
-            currentUserRole = UserRole.MANAGER;
-            return true;
-        }
+    /**
+     * Authenticates the desktop operator on the BCrypt executor, leaving the
+     * calling thread free. On success the user gets a new session, which
+     * replaces and ends the previous desktop session; a failed attempt leaves
+     * the desktop session as it was.
+     *
+     * @return Future of the user's role, UNKNOWN if the credentials are wrong;
+     *         completes exceptionally if too many logins are already pending
+     */
+    public static CompletableFuture<UserRole> authenticateAsync(String username, String password) {
+        return openSession(username, password).thenApply(session -> {
+            if (session == null) {
+                return UserRole.UNKNOWN;
+            }
+            Session previous = replaceDesktopSession(session);
+            if (previous != null && previous != session) {
+                sessions.remove(previous.getToken());
+            }
+            return session.getRole();
+        });
+    }
 
-        // Authentication failed
-        currentUsername = null;
-        currentUserRole = UserRole.UNKNOWN;
-        return false;
+    // Swaps the desktop session and returns the one it replaced
+    private static synchronized Session replaceDesktopSession(Session session) {
+        Session previous = desktopSession;
+        desktopSession = session;
+        return previous;
     }
 
-    private static boolean authenticateUser(String username, String password, String tableName) {
-        String query = "SELECT password FROM " + tableName + " WHERE username = ?";
+    /**
+     * Authenticates an operator without touching the desktop session, for
+     * serving several operators from one process. Pass the session's token
+     * to getSession on later requests and bind it with SessionContext.
+     *
+     * @return Future of the new session, or of null if the credentials are
+     *         wrong; completes exceptionally if too many logins are already
+     *         pending
+     */
+    public static CompletableFuture<Session> openSession(String username, String password) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                UserRole role = verify(username, password);
+                return role != UserRole.UNKNOWN ? sessions.create(username, role) : null;
+            }, BCRYPT_POOL);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Too many login attempts in progress", e));
+        }
+    }
+
+    /**
+     * Checks the password against the user's ADMIN and MANAGER rows, fetched
+     * with one query. ADMIN wins if the username exists in both tables.
+     */
+    private static UserRole verify(String username, String password) {
+        String query = "SELECT 'ADMIN' AS role, password FROM ADMIN WHERE username = ?"
+                + " UNION ALL SELECT 'MANAGER' AS role, password FROM MANAGER WHERE username = ?"
+                + " ORDER BY role";
 
         try (Connection connection = Database.getConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
 
             statement.setString(1, username);
+            statement.setString(2, username);
             ResultSet resultSet = statement.executeQuery();
 
-            if (resultSet.next()) {
+            while (resultSet.next()) {
+                UserRole role = UserRole.valueOf(resultSet.getString("role"));
                 String hashedPassword = resultSet.getString("password"); // Get hashed password from DB
 
                 // Ensure valid bcrypt hash before checking
-                if (hashedPassword != null && hashedPassword.startsWith("$2a$")) {
-                    return BCrypt.checkpw(password, hashedPassword);
+                if (!PasswordHasher.isSupportedHash(hashedPassword)) {
+                    continue;
+                }
+                if (isRecentlyVerified(username, role, hashedPassword, password)) {
+                    return role;
+                }
+                if (PasswordHasher.verify(password, hashedPassword)) {
+                    rememberCredential(username, role, hashedPassword, password);
+                    if (PasswordHasher.needsRehash(hashedPassword)) {
+                        scheduleRehash(username, role, hashedPassword, password);
+                    }
+                    return role;
                 }
-                return false; // Return false if the hash is invalid
             }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return false;
+        return UserRole.UNKNOWN;
+    }
+
+    private static void rememberCredential(String username, UserRole role, String hashedPassword,
+            String password) {
+        verifiedCredentials.put(username, new VerifiedCredential(role, hashedPassword,
+                credentialMac(username, password), System.currentTimeMillis() + CREDENTIAL_TTL_MILLIS));
+    }
+
+    /**
+     * Re-hashes a password stored with an outdated work factor, after the
+     * login has already been answered. The update only applies if the stored
+     * hash is still the one that was verified, so a concurrent password
+     * change wins. If the BCrypt pool is busy the rehash waits for the next
+     * login.
+     */
+    private static void scheduleRehash(String username, UserRole role, String oldHash, String password) {
+        try {
+            BCRYPT_POOL.execute(() -> {
+                String newHash = PasswordHasher.hash(password);
+                // The table name comes from the enum, never from input
+                String query = "UPDATE " + role.name() + " SET password = ?, updated_at = ?"
+                        + " WHERE username = ? AND password = ?";
+
+                try (Connection connection = Database.getConnection();
+                        PreparedStatement statement = connection.prepareStatement(query)) {
+
+                    statement.setString(1, newHash);
+                    statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                    statement.setString(3, username);
+                    statement.setString(4, oldHash);
+                    if (statement.executeUpdate() > 0) {
+                        rememberCredential(username, role, newHash, password);
+                        System.out.println("Password hash of " + username + " upgraded to cost "
+                                + PasswordHasher.getWorkFactor());
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Password rehash failed for " + username + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Busy with logins; the next successful login tries again
+        }
+    }
+
+    // The cache entry only counts while the stored hash is unchanged, so a
+    // password change or account removal invalidates it
+    private static boolean isRecentlyVerified(String username, UserRole role, String hashedPassword,
+            String password) {
+        VerifiedCredential credential = verifiedCredentials.get(username);
+        if (credential == null || credential.role != role || !credential.hashedPassword.equals(hashedPassword)) {
+            return false;
+        }
+        if (credential.expiresAt < System.currentTimeMillis()) {
+            verifiedCredentials.remove(username, credential);
+            return false;
+        }
+        return MessageDigest.isEqual(credential.mac, credentialMac(username, password));
+    }
+
+    private static byte[] credentialMac(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(CACHE_KEY, "HmacSHA256"));
+            return mac.doFinal((username + '\0' + password).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        RANDOM.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Looks up an open session and restarts its idle timeout
+     *
+     * @return The session, or null if the token is unknown or has expired
+     */
+    public static Session getSession(String token) {
+        return sessions.get(token);
+    }
+
+    /**
+     * Makes a session the desktop session again without a password, e.g.
+     * after the screen was locked. The session's idle timeout restarts.
+     *
+     * @return true if the token belongs to a session that has not expired
+     */
+    public static boolean resumeSession(String token) {
+        Session session = sessions.get(token);
+        if (session == null) {
+            return false;
+        }
+        desktopSession = session;
+        return true;
+    }
+
+    /**
+     * Using the desktop session restarts its idle timeout like any other
+     * lookup; once it has expired the desktop operator is logged out.
+     *
+     * @return The session bound to the calling thread, else the desktop
+     *         session; null if nobody is logged in
+     */
+    public static Session getCurrentSession() {
+        Session session = SessionContext.current();
+        if (session != null) {
+            return session;
+        }
+
+        Session desktop = desktopSession;
+        if (desktop == null) {
+            return null;
+        }
+        if (sessions.get(desktop.getToken()) == null) {
+            clearDesktopSession(desktop);
+            return null;
+        }
+        return desktop;
+    }
+
+    // Clears the desktop session unless a new login has replaced it meanwhile
+    private static synchronized void clearDesktopSession(Session expired) {
+        if (desktopSession == expired) {
+            desktopSession = null;
+        }
+    }
+
+    // Get the current session's token, or null if nobody is logged in
+    public static String getCurrentSessionToken() {
+        Session session = getCurrentSession();
+        return session != null ? session.getToken() : null;
     }
 
     // Get current user's role
     public static UserRole getCurrentUserRole() {
-        return currentUserRole;
+        Session session = getCurrentSession();
+        return session != null ? session.getRole() : UserRole.UNKNOWN;
     }
 
     // Get current username
     public static String getCurrentUsername() {
-        return currentUsername;
+        Session session = getCurrentSession();
+        return session != null ? session.getUsername() : null;
     }
 
-    // Logout method to reset current user
+    // Number of sessions that have not expired
+    public static int getActiveSessionCount() {
+        return sessions.getActiveSessions().size();
+    }
+
+    // Logout method to end the desktop session
     public static void logout() {
-        currentUsername = null;
-        currentUserRole = UserRole.UNKNOWN;
+        Session session = desktopSession;
+        desktopSession = null;
+        if (session != null) {
+            sessions.remove(session.getToken());
+        }
+    }
+
+    /**
+     * Ends a session by its token; ends the desktop session too if it is
+     * that session
+     */
+    public static void logout(String token) {
+        sessions.remove(token);
+        Session desktop = desktopSession;
+        if (desktop != null && desktop.getToken().equals(token)) {
+            desktopSession = null;
+        }
     }
 
     public static boolean register(String username, String password, int roleId, String email) {
@@ -107,9 +355,23 @@ public class AuthenticationServer {
         return false;
     }
 
-    // Helper method to hash a password using BCrypt
+    // Helper method to hash a password using BCrypt at the calibrated cost
     private static String hashPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt(12)); // 12 rounds for security
+        return PasswordHasher.hash(password);
+    }
+
+    private static class VerifiedCredential {
+        final UserRole role;
+        final String hashedPassword;
+        final byte[] mac;
+        final long expiresAt;
+
+        VerifiedCredential(UserRole role, String hashedPassword, byte[] mac, long expiresAt) {
+            this.role = role;
+            this.hashedPassword = hashedPassword;
+            this.mac = mac;
+            this.expiresAt = expiresAt;
+        }
     }
 }
 
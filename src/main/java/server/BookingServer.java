@@ -8,14 +8,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import server.notification.NotificationType;
+import server.sketch.TicketSketchStore;
 
 public class BookingServer {
 
     private QueryBuilder queryBuilder;
+    private SalesRollup salesRollup;
 
     // Constructor initializes the QueryBuilder
     public BookingServer() {
         queryBuilder = new QueryBuilder(); // Initializes QueryBuilder for database operations
+        salesRollup = new SalesRollup(queryBuilder);
     }
 
     // Method to add a customer booking event to the database
@@ -49,6 +52,8 @@ public class BookingServer {
                 System.out.println("A ticket of type " + ticketType + " for event ID " + eventId + " already exists. Updating sales only.");
                 
                 // Update the Sales table to record this sale
+                // No Ticket row backs this sale, so the ticket sketches,
+                // which are rebuilt from Ticket rows, leave it out too
                 updateSalesTable(ticketType, price);
                 return true;
             }
@@ -73,19 +78,15 @@ public class BookingServer {
             System.out.println("Inserting booking with data: " + ticketValues);            // Call the QueryBuilder to insert the booking into the Ticket table
             queryBuilder.insert("Ticket", ticketValues);
             System.out.println("Booking added to the database successfully!");
+            recordTicketSketch(filters, eventId, customerId, price);
             
             // Update the Sales table
             updateSalesTable(ticketType, price);
               // Send notification for the new ticket
-            NotificationManager notificationManager = NotificationManager.getInstance();
-            // Send to admin and manager users
-            notificationManager.sendNotification("admin", "New " + ticketType + " ticket created for event: " + selectedEvent, 
+            // to admin, manager and the system feed visible to any logged-in user
+            NotificationManager.getInstance().broadcastToStaff(
+                "New " + ticketType + " ticket created for event: " + selectedEvent,
                 NotificationType.TICKET_AVAILABLE, String.valueOf(eventId));
-            notificationManager.sendNotification("manager", "New " + ticketType + " ticket created for event: " + selectedEvent, 
-                NotificationType.TICKET_AVAILABLE, String.valueOf(eventId));
-            // Also send a system notification that will be visible to any logged-in user
-            notificationManager.sendSystemNotification("New " + ticketType + " ticket created for event: " + selectedEvent, 
-                NotificationType.TICKET_AVAILABLE);
                 
             return true;
         } catch (Exception e) {
@@ -95,60 +96,75 @@ public class BookingServer {
         }
     }
 
+    /**
+     * Adds the ticket just inserted to the ticket sketches; they skip ticket
+     * ids their initial scan already read
+     */
+    private void recordTicketSketch(Map<String, Object> filters, int eventId, int customerId, double price) {
+        List<Map<String, Object>> inserted = queryBuilder.selectWithFilters("Ticket", filters,
+                new String[]{"ticket_id"});
+        if (!inserted.isEmpty() && inserted.get(0).get("ticket_id") instanceof Number) {
+            long ticketId = ((Number) inserted.get(0).get("ticket_id")).longValue();
+            TicketSketchStore.getInstance().record(ticketId, LocalDate.now(), eventId, customerId, price);
+        }
+    }
+
     /**
      * Update the Sales table when a ticket is sold
-     * Aggregates sales by date and category
+     * Aggregates sales by date and category, and adds the sale to the
+     * day/week/month rollups in the same transaction
      */
     private void updateSalesTable(String ticketType, double price) {
         try {
-            // Today's date
-            String today = Date.valueOf(LocalDate.now()).toString();
-            String category = getCategoryFromTicketType(ticketType, price);
-            
-            // Check if a record for today and this category already exists
-            Map<String, Object> filters = new HashMap<>();
-            filters.put("sale_date", today);
-            filters.put("category", category);
-            
-            List<Map<String, Object>> existingSales = queryBuilder.selectWithFilters(
-                "Sales", 
-                filters,
-                new String[]{"sale_id", "tickets_sold", "revenue"}
-            );
-            
-            if (!existingSales.isEmpty()) {
-                // Update existing record
-                Map<String, Object> existingSale = existingSales.get(0);
-                int saleId = (Integer) existingSale.get("sale_id");
-                int currentTickets = (Integer) existingSale.get("tickets_sold");
-                double currentRevenue = (Double) existingSale.get("revenue");
-                
-                // Increment the count and revenue
-                Map<String, Object> updateValues = new HashMap<>();
-                updateValues.put("tickets_sold", currentTickets + 1);
-                updateValues.put("revenue", currentRevenue + price);
-                updateValues.put("updated_at", new Timestamp(System.currentTimeMillis()));
-                
-                // Use the correct update method that matches QueryBuilder's signature
-                queryBuilder.update("Sales", updateValues, "sale_id", saleId);
-                
-                System.out.println("Updated existing sales record for " + today + " and category " + category);
-            } else {
-                // Insert new record
-                Map<String, Object> newSale = new HashMap<>();
-                newSale.put("sale_date", today);
-                newSale.put("tickets_sold", 1);
-                newSale.put("revenue", price);
-                newSale.put("category", category);
-                
-                queryBuilder.insert("Sales", newSale);
-                System.out.println("Created new sales record for " + today + " and category " + category);
-            }
+            queryBuilder.inTransaction(() -> {
+                recordSale(ticketType, price);
+                return null;
+            });
         } catch (Exception e) {
             System.out.println("Error updating Sales table: " + e.getMessage());
             e.printStackTrace();
         }
     }
+
+    private void recordSale(String ticketType, double price) {
+        // Today's date
+        LocalDate saleDate = LocalDate.now();
+        String today = Date.valueOf(saleDate).toString();
+        String category = getCategoryFromTicketType(ticketType, price);
+
+        // Check if a record for today and this category already exists
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("sale_date", today);
+        filters.put("category", category);
+
+        List<Map<String, Object>> existingSales = queryBuilder.selectWithFilters(
+            "Sales", 
+            filters,
+            new String[]{"sale_id"}
+        );
+
+        if (!existingSales.isEmpty()) {
+            // Increment the count and revenue of the existing record.
+            // updated_at uses the database clock, which the sales store
+            // compares it with to pick up changed rows.
+            int saleId = (Integer) existingSales.get(0).get("sale_id");
+            queryBuilder.execute(
+                "UPDATE Sales SET tickets_sold = tickets_sold + 1, revenue = revenue + ?, "
+                    + "updated_at = CURRENT_TIMESTAMP WHERE sale_id = ?",
+                price, saleId);
+
+            System.out.println("Updated existing sales record for " + today + " and category " + category);
+        } else {
+            // Insert new record; execute() throws on failure so the rollup
+            // update below is rolled back with it
+            queryBuilder.execute(
+                "INSERT INTO Sales (sale_date, tickets_sold, revenue, category) VALUES (?, ?, ?, ?)",
+                today, 1, price, category);
+            System.out.println("Created new sales record for " + today + " and category " + category);
+        }
+
+        salesRollup.recordSale(saleDate, category, 1, price);
+    }
     
     /**
      * Maps ticket type and price to a sales category
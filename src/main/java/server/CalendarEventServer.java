@@ -157,19 +157,11 @@ public class CalendarEventServer {
       // Insert into database
       queryBuilder.insert("Event", eventData);
       
-      // Send notification for the new event
-      NotificationManager notificationManager = NotificationManager.getInstance();
+      // Send notification for the new event to admin, manager and the system
+      // feed visible to any logged-in user
       String notificationMessage = "New event created: " + eventName + " (" + category + ")";
-      
-      // Send to admin and manager users
-      notificationManager.sendNotification("admin", notificationMessage, 
-          NotificationType.EVENT_UPCOMING, null);
-      notificationManager.sendNotification("manager", notificationMessage, 
+      NotificationManager.getInstance().broadcastToStaff(notificationMessage,
           NotificationType.EVENT_UPCOMING, null);
-      
-      // Also send a system notification that will be visible to any logged-in user
-      notificationManager.sendSystemNotification(notificationMessage, 
-          NotificationType.EVENT_UPCOMING);
           
       return true;
     } catch (Exception e) {
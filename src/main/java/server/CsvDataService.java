@@ -0,0 +1,249 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Server-side service to read and write RFC 4180 CSV files. Both directions
+ * stream through a buffered file channel, so only one row is held in memory
+ * at a time.
+ */
+public class CsvDataService {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Exports data to a CSV file. The first line holds the column names; values
+   * are looked up with the same snake_case keys as the Excel export.
+   *
+   * @param data        The rows to export
+   * @param filePath    The full path where to save the CSV file
+   * @param columnNames The names of the columns
+   * @return True if export was successful, false otherwise
+   */
+  public boolean exportToCsv(Iterable<Map<String, Object>> data, String filePath, String[] columnNames) {
+    if (data == null || filePath == null || filePath.isEmpty() || columnNames == null) {
+      return false;
+    }
+
+    String[] keys = columnKeys(columnNames);
+    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+    try (Writer writer = openWriter(filePath)) {
+      for (int i = 0; i < columnNames.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writeField(writer, columnNames[i]);
+      }
+      writer.write("\r\n");
+
+      for (Map<String, Object> rowData : data) {
+        for (int i = 0; i < keys.length; i++) {
+          if (i > 0) {
+            writer.write(',');
+          }
+          Object value = rowData.get(keys[i]);
+          if (value instanceof Date) {
+            writer.write(dateFormat.format((Date) value));
+          } else if (value != null) {
+            writeField(writer, value.toString());
+          }
+        }
+        writer.write("\r\n");
+      }
+      return true;
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Reads a CSV file row by row. The first record is treated as the header and
+   * its values become the keys of every following row. Empty fields are
+   * reported as null.
+   *
+   * @param filePath   The CSV file to read
+   * @param rowHandler Receives each row and its 1-based record number (the
+   *                   header is record 1)
+   * @return The header columns
+   * @throws IOException if the file cannot be read or has an unterminated quote
+   */
+  public List<String> readCsv(String filePath, ObjIntConsumer<Map<String, Object>> rowHandler) throws IOException {
+    try (Reader reader = openReader(filePath)) {
+      CsvParser parser = new CsvParser(reader);
+
+      List<String> header = parser.nextRecord();
+      if (header == null) {
+        return new ArrayList<>();
+      }
+      if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+        header.set(0, header.get(0).substring(1));
+      }
+
+      int recordNumber = 1;
+      List<String> record;
+      while ((record = parser.nextRecord()) != null) {
+        recordNumber++;
+        if (record.size() == 1 && record.get(0).isEmpty()) {
+          continue; // Blank line
+        }
+
+        Map<String, Object> values = new HashMap<>();
+        for (int i = 0; i < header.size() && i < record.size(); i++) {
+          String field = record.get(i);
+          values.put(header.get(i), field.isEmpty() ? null : field);
+        }
+        rowHandler.accept(values, recordNumber);
+      }
+      return header;
+    }
+  }
+
+  private void writeField(Writer writer, String value) throws IOException {
+    boolean needsQuotes = false;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+        needsQuotes = true;
+        break;
+      }
+    }
+
+    if (!needsQuotes) {
+      writer.write(value);
+      return;
+    }
+
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        writer.write('"');
+      }
+      writer.write(c);
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Maps display column names to the snake_case keys used in the row maps
+   */
+  static String[] columnKeys(String[] columnNames) {
+    String[] keys = new String[columnNames.length];
+    for (int i = 0; i < columnNames.length; i++) {
+      keys[i] = columnNames[i].toLowerCase().replace(" ", "_");
+    }
+    return keys;
+  }
+
+  static Writer openWriter(String filePath) throws IOException {
+    FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  static BufferedReader openReader(String filePath) throws IOException {
+    FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+    return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), BUFFER_SIZE);
+  }
+
+  /**
+   * Minimal streaming CSV tokenizer supporting quoted fields with embedded
+   * commas, quotes and line breaks
+   */
+  private static class CsvParser {
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private final StringBuilder field = new StringBuilder();
+
+    CsvParser(Reader reader) {
+      this.reader = reader;
+    }
+
+    private int read() throws IOException {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position++];
+    }
+
+    private void unread() {
+      position--;
+    }
+
+    /**
+     * @return The next record, or null at end of input
+     */
+    List<String> nextRecord() throws IOException {
+      int c = read();
+      if (c == -1) {
+        return null;
+      }
+
+      List<String> record = new ArrayList<>();
+      field.setLength(0);
+      boolean quoted = false;
+
+      while (true) {
+        if (quoted) {
+          if (c == -1) {
+            throw new IOException("Unterminated quoted field in CSV input");
+          }
+          if (c == '"') {
+            int next = read();
+            if (next == '"') {
+              field.append('"');
+            } else {
+              quoted = false;
+              c = next;
+              continue;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == -1 || c == '\n') {
+          record.add(field.toString());
+          return record;
+        } else if (c == '\r') {
+          int next = read();
+          if (next != '\n' && next != -1) {
+            unread();
+          }
+          record.add(field.toString());
+          return record;
+        } else if (c == ',') {
+          record.add(field.toString());
+          field.setLength(0);
+        } else if (c == '"' && field.length() == 0) {
+          quoted = true;
+        } else {
+          field.append((char) c);
+        }
+        c = read();
+      }
+    }
+  }
+}
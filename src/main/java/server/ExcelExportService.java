@@ -1,10 +1,13 @@
 package server;
 
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.text.SimpleDateFormat;
@@ -14,6 +17,13 @@ import java.util.Date;
  * Server-side service to export data to Excel format with analysis capability
  */
 public class ExcelExportService {
+  // Lists larger than this are written with the streaming exporter
+  private static final int STREAMING_THRESHOLD = 10_000;
+  // Rows kept in memory by the streaming exporter; older rows go to a temp file
+  private static final int ROW_WINDOW = 100;
+  // Rows sampled to estimate column widths in streaming mode
+  private static final int WIDTH_SAMPLE_ROWS = 200;
+  private static final int MAX_COLUMN_CHARS = 60;
 
   /**
    * Exports data to an Excel file with the provided filename
@@ -29,6 +39,9 @@ public class ExcelExportService {
     if (data == null || data.isEmpty() || filePath == null || filePath.isEmpty()) {
       return false;
     }
+    if (data.size() > STREAMING_THRESHOLD) {
+      return exportToExcelStreaming(data.iterator(), filePath, sheetName, columnNames);
+    }
 
     try (Workbook workbook = new XSSFWorkbook()) {
       Sheet sheet = workbook.createSheet(sheetName);
@@ -38,6 +51,7 @@ public class ExcelExportService {
       CellStyle dataCellStyle = createDataCellStyle(workbook);
       CellStyle dateStyle = createDateStyle(workbook);
       CellStyle currencyStyle = createCurrencyStyle(workbook);
+      CellStyle wrapStyle = createWrapStyle(workbook, dataCellStyle);
 
       // Create header row
       Row headerRow = sheet.createRow(0);
@@ -47,10 +61,17 @@ public class ExcelExportService {
         cell.setCellStyle(headerStyle);
       }
 
+      // Summary totals are accumulated while the rows are written
+      boolean salesReport = isSalesReport(sheetName);
+      ExportSummary summary = new ExportSummary();
+
       // Create data rows
       int rowNum = 1;
       for (Map<String, Object> rowData : data) {
         Row row = sheet.createRow(rowNum++);
+        if (salesReport) {
+          summary.add(rowData);
+        }
 
         for (int i = 0; i < columnNames.length; i++) {
           Cell cell = row.createCell(i);
@@ -58,13 +79,13 @@ public class ExcelExportService {
           Object value = rowData.get(columnName);
 
           // Format cell based on value type and column name
-          formatCell(cell, value, columnName, dateStyle, currencyStyle, dataCellStyle);
+          formatCell(cell, value, columnName, dateStyle, currencyStyle, dataCellStyle, wrapStyle);
         }
       }
 
       // Add analysis section only for Sales Reports
-      if (sheetName.contains("Sales") || sheetName.toLowerCase().contains("sales report")) {
-        addAnalysisSection(workbook, sheet, data, columnNames, rowNum);
+      if (salesReport) {
+        writeAnalysisSection(workbook, sheet, rowNum, summary);
       }
 
       // Auto-size columns
@@ -84,6 +105,119 @@ public class ExcelExportService {
     }
   }
 
+  /**
+   * Exports rows to an Excel file using a streaming workbook, so memory stays
+   * bounded by a fixed row window regardless of the number of rows. Column
+   * widths are estimated from the first rows instead of measuring every cell.
+   * 
+   * @param rows        The rows to export, consumed once
+   * @param filePath    The full path where to save the Excel file
+   * @param sheetName   The name of the Excel sheet
+   * @param columnNames The names of the columns
+   * @return True if export was successful, false otherwise
+   */
+  public boolean exportToExcelStreaming(Iterator<Map<String, Object>> rows, String filePath,
+      String sheetName, String[] columnNames) {
+    if (rows == null || filePath == null || filePath.isEmpty()) {
+      return false;
+    }
+
+    SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+    workbook.setCompressTempFiles(true);
+    try {
+      SXSSFSheet sheet = workbook.createSheet(sheetName);
+
+      // Create styles once; creating them per cell exhausts the style table
+      CellStyle headerStyle = createHeaderStyle(workbook);
+      CellStyle dataCellStyle = createDataCellStyle(workbook);
+      CellStyle dateStyle = createDateStyle(workbook);
+      CellStyle currencyStyle = createCurrencyStyle(workbook);
+      CellStyle wrapStyle = createWrapStyle(workbook, dataCellStyle);
+
+      String[] columnKeys = new String[columnNames.length];
+      int[] columnChars = new int[columnNames.length];
+
+      // Create header row
+      Row headerRow = sheet.createRow(0);
+      for (int i = 0; i < columnNames.length; i++) {
+        Cell cell = headerRow.createCell(i);
+        cell.setCellValue(columnNames[i]);
+        cell.setCellStyle(headerStyle);
+        columnKeys[i] = columnNames[i].toLowerCase().replace(" ", "_");
+        columnChars[i] = columnNames[i].length();
+      }
+
+      boolean salesReport = isSalesReport(sheetName);
+      ExportSummary summary = new ExportSummary();
+
+      // Create data rows
+      int rowNum = 1;
+      while (rows.hasNext()) {
+        Map<String, Object> rowData = rows.next();
+        Row row = sheet.createRow(rowNum);
+
+        for (int i = 0; i < columnKeys.length; i++) {
+          Cell cell = row.createCell(i);
+          Object value = rowData.get(columnKeys[i]);
+          formatCell(cell, value, columnKeys[i], dateStyle, currencyStyle, dataCellStyle, wrapStyle);
+
+          if (rowNum <= WIDTH_SAMPLE_ROWS && value != null) {
+            columnChars[i] = Math.max(columnChars[i], estimateChars(value, columnKeys[i]));
+          }
+        }
+
+        if (salesReport) {
+          summary.add(rowData);
+        }
+        rowNum++;
+      }
+
+      if (salesReport) {
+        writeAnalysisSection(workbook, sheet, rowNum, summary);
+      }
+
+      // Apply estimated widths (units of 1/256 of a character, plus padding)
+      for (int i = 0; i < columnChars.length; i++) {
+        sheet.setColumnWidth(i, (Math.min(columnChars[i], MAX_COLUMN_CHARS) + 2) * 256);
+      }
+
+      // Write to file
+      try (FileOutputStream outputStream = new FileOutputStream(filePath)) {
+        workbook.write(outputStream);
+        return true;
+      }
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    } finally {
+      // Remove the temporary files backing the flushed rows
+      workbook.dispose();
+      try {
+        workbook.close();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  private boolean isSalesReport(String sheetName) {
+    return sheetName.contains("Sales") || sheetName.toLowerCase().contains("sales report");
+  }
+
+  /**
+   * Estimates the displayed width of a value in characters
+   */
+  private int estimateChars(Object value, String columnName) {
+    if (value instanceof Date || columnName.contains("date") || columnName.endsWith("_at")) {
+      return 10; // yyyy-mm-dd
+    }
+    if (value instanceof Number) {
+      // Currency values gain a "$", thousands separators and two decimals
+      return String.format("%,.2f", ((Number) value).doubleValue()).length() + 1;
+    }
+    return value.toString().length();
+  }
+
   private CellStyle createHeaderStyle(Workbook workbook) {
     CellStyle style = workbook.createCellStyle();
     style.setFillForegroundColor(IndexedColors.ROYAL_BLUE.getIndex());
@@ -118,8 +252,15 @@ public class ExcelExportService {
     return style;
   }
 
+  private CellStyle createWrapStyle(Workbook workbook, CellStyle dataCellStyle) {
+    CellStyle style = workbook.createCellStyle();
+    style.cloneStyleFrom(dataCellStyle);
+    style.setWrapText(true);
+    return style;
+  }
+
   private void formatCell(Cell cell, Object value, String columnName, CellStyle dateStyle,
-      CellStyle currencyStyle, CellStyle defaultStyle) {
+      CellStyle currencyStyle, CellStyle defaultStyle, CellStyle wrapStyle) {
     if (value == null) {
       cell.setCellValue("");
       cell.setCellStyle(defaultStyle);
@@ -167,9 +308,6 @@ public class ExcelExportService {
         int numberOfLines = strValue.length() / 50 + 1;
         cell.getRow().setHeight((short) (numberOfLines * 255));
       }
-      CellStyle wrapStyle = cell.getSheet().getWorkbook().createCellStyle();
-      wrapStyle.cloneStyleFrom(defaultStyle);
-      wrapStyle.setWrapText(true);
       cell.setCellStyle(wrapStyle);
       return;
     }
@@ -180,11 +318,10 @@ public class ExcelExportService {
   }
 
   /**
-   * Adds an analysis section to the Excel sheet with summary data
+   * Adds an analysis section to the Excel sheet with summary data computed
+   * while the rows were written
    */
-  private void addAnalysisSection(Workbook workbook, Sheet sheet,
-      List<Map<String, Object>> data,
-      String[] columnNames, int startRow) {
+  private void writeAnalysisSection(Workbook workbook, Sheet sheet, int startRow, ExportSummary summary) {
     // Skip a row
     startRow += 2;
 
@@ -202,59 +339,24 @@ public class ExcelExportService {
     analysisHeaderCell.setCellValue("Sales Analysis Summary");
     analysisHeaderCell.setCellStyle(analysisHeaderStyle);
 
-    // Add total revenue calculation
-    double totalRevenue = 0;
-    int totalTickets = 0;
-
-    for (Map<String, Object> rowData : data) {
-      // Get revenue value (handling both strings with $ and numeric values)
-      Object revenueObj = rowData.get("revenue");
-      if (revenueObj != null) {
-        if (revenueObj instanceof Number) {
-          totalRevenue += ((Number) revenueObj).doubleValue();
-        } else {
-          String revenueStr = revenueObj.toString().replace("$", "");
-          try {
-            totalRevenue += Double.parseDouble(revenueStr);
-          } catch (NumberFormatException e) {
-            // Skip invalid values
-          }
-        }
-      }
-
-      // Get tickets sold
-      Object ticketsObj = rowData.get("tickets_sold");
-      if (ticketsObj != null) {
-        if (ticketsObj instanceof Number) {
-          totalTickets += ((Number) ticketsObj).intValue();
-        } else {
-          try {
-            totalTickets += Integer.parseInt(ticketsObj.toString());
-          } catch (NumberFormatException e) {
-            // Skip invalid values
-          }
-        }
-      }
-    }
-
     // Add total revenue row
-    Row totalRevenueRow = sheet.createRow(startRow++);
-    totalRevenueRow.createCell(0).setCellValue("Total Revenue:");
-    Cell totalRevenueCell = totalRevenueRow.createCell(1);
-    totalRevenueCell.setCellValue(totalRevenue);
+    startRow = addAnalysisRow(sheet, startRow, "Total Revenue:", summary.getTotalRevenue());
 
     // Add total tickets row
-    Row totalTicketsRow = sheet.createRow(startRow++);
-    totalTicketsRow.createCell(0).setCellValue("Total Tickets Sold:");
-    Cell totalTicketsCell = totalTicketsRow.createCell(1);
-    totalTicketsCell.setCellValue(totalTickets);
+    startRow = addAnalysisRow(sheet, startRow, "Total Tickets Sold:", summary.getTotalTickets());
 
     // Add average revenue per ticket
-    Row avgRevenueRow = sheet.createRow(startRow++);
-    avgRevenueRow.createCell(0).setCellValue("Average Revenue per Ticket:");
-    Cell avgRevenueCell = avgRevenueRow.createCell(1);
-    double avgRevenue = totalTickets > 0 ? totalRevenue / totalTickets : 0;
-    avgRevenueCell.setCellValue(avgRevenue);
+    startRow = addAnalysisRow(sheet, startRow, "Average Revenue per Ticket:", summary.getAverageRevenuePerTicket());
+
+    // Add revenue range across rows
+    startRow = addAnalysisRow(sheet, startRow, "Lowest Revenue:", summary.getMinRevenue());
+    startRow = addAnalysisRow(sheet, startRow, "Highest Revenue:", summary.getMaxRevenue());
+
+    // Add per-category breakdown
+    for (String category : summary.getCategories()) {
+      startRow = addAnalysisRow(sheet, startRow, category + " Revenue:", summary.getCategoryRevenue(category));
+      startRow = addAnalysisRow(sheet, startRow, category + " Tickets Sold:", summary.getCategoryTickets(category));
+    }
 
     // Add a timestamp
     Row timestampRow = sheet.createRow(startRow + 1);
@@ -262,4 +364,14 @@ public class ExcelExportService {
     Cell timestampCell = timestampRow.createCell(1);
     timestampCell.setCellValue(new java.util.Date().toString());
   }
+
+  /**
+   * Writes a label/value row and returns the next row index
+   */
+  private int addAnalysisRow(Sheet sheet, int rowIndex, String label, double value) {
+    Row row = sheet.createRow(rowIndex);
+    row.createCell(0).setCellValue(label);
+    row.createCell(1).setCellValue(value);
+    return rowIndex + 1;
+  }
 }
\ No newline at end of file
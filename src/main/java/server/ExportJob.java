@@ -0,0 +1,291 @@
+package server;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Exports one snapshot of rows to several formats at once. Each output runs on
+ * a bounded shared pool and iterates the same in-memory snapshot, so the job
+ * takes about as long as its slowest writer instead of the sum of all of them.
+ */
+public class ExportJob {
+
+  /**
+   * Output formats supported by an export job
+   */
+  public enum Format {
+    XLSX("xlsx"),
+    PDF("pdf"),
+    CSV("csv"),
+    JSONL("jsonl");
+
+    private final String extension;
+
+    Format(String extension) {
+      this.extension = extension;
+    }
+
+    public String getExtension() {
+      return extension;
+    }
+  }
+
+  /**
+   * Receives progress updates from the writer threads. Implementations that
+   * touch Swing components must hand the update over to the EDT.
+   */
+  public interface ProgressListener {
+    /**
+     * Called periodically while a writer consumes the snapshot
+     *
+     * @param format      The output being written
+     * @param rowsWritten Rows handed to the writer so far
+     * @param totalRows   Rows in the snapshot
+     */
+    void onProgress(Format format, int rowsWritten, int totalRows);
+
+    /**
+     * Called once per output when its writer finishes
+     *
+     * @param format      The output that finished
+     * @param success     Whether the file was written
+     * @param elapsedNanos Time spent in the writer
+     */
+    void onFinished(Format format, boolean success, long elapsedNanos);
+  }
+
+  // Writers for all jobs, at most one thread per format and CPU. They cannot
+  // use ServiceExecutor: run() is itself called from a ServiceExecutor task
+  // holding one of its permits, and writers waiting for more permits could
+  // deadlock. Writers use no database connection (the snapshot is already
+  // read), so the shared permit cap on JDBC work still holds.
+  private static final ExecutorService WRITER_POOL = Executors.newFixedThreadPool(
+      Math.max(2, Math.min(Format.values().length, Runtime.getRuntime().availableProcessors())), runnable -> {
+        Thread thread = new Thread(runnable, "export-writer");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private static final int PROGRESS_INTERVAL = 500;
+
+  private final List<Map<String, Object>> snapshot;
+  private final String[] columnNames;
+  private final String sheetName;
+  private final String title;
+  private final Map<Format, String> outputs = new LinkedHashMap<>();
+  private volatile boolean cancelled;
+
+  /**
+   * @param snapshot    The rows to export; must not change while the job runs
+   * @param columnNames Column headers shared by all outputs
+   * @param sheetName   Sheet name for Excel output (also selects the sales
+   *                    analysis section)
+   * @param title       Document title for PDF output
+   */
+  public ExportJob(List<Map<String, Object>> snapshot, String[] columnNames, String sheetName, String title) {
+    this.snapshot = snapshot;
+    this.columnNames = columnNames;
+    this.sheetName = sheetName;
+    this.title = title;
+  }
+
+  /**
+   * Adds an output file to the job
+   *
+   * @param format   The output format
+   * @param filePath Where to write it
+   * @return This job
+   */
+  public ExportJob addOutput(Format format, String filePath) {
+    outputs.put(format, filePath);
+    return this;
+  }
+
+  public int getRowCount() {
+    return snapshot.size();
+  }
+
+  /**
+   * Runs every output concurrently and waits for all of them. Partial files of
+   * outputs that fail or are cancelled are deleted.
+   *
+   * @param listener Progress listener, or null
+   * @return Per-output success and timing
+   */
+  public Result run(ProgressListener listener) {
+    Map<Format, Future<Boolean>> futures = new EnumMap<>(Format.class);
+    Map<Format, Long> elapsed = new EnumMap<>(Format.class);
+    long start = System.nanoTime();
+
+    for (Map.Entry<Format, String> output : outputs.entrySet()) {
+      Format format = output.getKey();
+      String filePath = output.getValue();
+      futures.put(format, WRITER_POOL.submit(() -> {
+        long writerStart = System.nanoTime();
+        boolean success = false;
+        try {
+          if (!cancelled) {
+            success = write(format, filePath, new ProgressIterator(format, listener));
+          }
+        } catch (CancellationException e) {
+          success = false;
+        } finally {
+          long writerNanos = System.nanoTime() - writerStart;
+          synchronized (elapsed) {
+            elapsed.put(format, writerNanos);
+          }
+          if (!success || cancelled) {
+            new File(filePath).delete();
+          }
+          if (listener != null) {
+            listener.onFinished(format, success && !cancelled, writerNanos);
+          }
+        }
+        return success;
+      }));
+    }
+
+    Map<Format, Boolean> results = new EnumMap<>(Format.class);
+    for (Map.Entry<Format, Future<Boolean>> entry : futures.entrySet()) {
+      boolean success;
+      try {
+        success = entry.getValue().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        cancel();
+        success = false;
+      } catch (ExecutionException e) {
+        // A writer interrupted mid-document may fail while closing it
+        if (!cancelled) {
+          e.getCause().printStackTrace();
+        }
+        success = false;
+      }
+      results.put(entry.getKey(), success && !cancelled);
+    }
+
+    synchronized (elapsed) {
+      return new Result(results, new EnumMap<>(elapsed), System.nanoTime() - start, cancelled);
+    }
+  }
+
+  /**
+   * Stops all writers at their next row. Outputs not yet finished are
+   * reported as failed and their partial files removed. Safe to call from any
+   * thread.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  private boolean write(Format format, String filePath, Iterator<Map<String, Object>> rows) {
+    switch (format) {
+      case XLSX:
+        return new ExcelExportService().exportToExcelStreaming(rows, filePath, sheetName, columnNames);
+      case PDF:
+        return new PDFExportServer().exportToPDFStreaming(rows, filePath, title, columnNames);
+      case CSV:
+        return new CsvDataService().exportToCsv(() -> rows, filePath, columnNames);
+      case JSONL:
+        return new JsonLinesDataService().exportToJsonLines(() -> rows, filePath, columnNames);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Iterates the snapshot for one writer, reporting progress and stopping when
+   * the job is cancelled
+   */
+  private class ProgressIterator implements Iterator<Map<String, Object>> {
+    private final Format format;
+    private final ProgressListener listener;
+    private final Iterator<Map<String, Object>> delegate = snapshot.iterator();
+    private int position;
+
+    ProgressIterator(Format format, ProgressListener listener) {
+      this.format = format;
+      this.listener = listener;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (cancelled) {
+        throw new CancellationException("Export cancelled");
+      }
+      boolean hasNext = delegate.hasNext();
+      if (!hasNext && listener != null) {
+        listener.onProgress(format, position, snapshot.size());
+      }
+      return hasNext;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+      position++;
+      if (listener != null && position % PROGRESS_INTERVAL == 0) {
+        listener.onProgress(format, position, snapshot.size());
+      }
+      return delegate.next();
+    }
+  }
+
+  /**
+   * Outcome of an export job
+   */
+  public static class Result {
+    private final Map<Format, Boolean> success;
+    private final Map<Format, Long> writerNanos;
+    private final long totalNanos;
+    private final boolean cancelled;
+
+    public Result(Map<Format, Boolean> success, Map<Format, Long> writerNanos, long totalNanos,
+        boolean cancelled) {
+      this.success = success;
+      this.writerNanos = writerNanos;
+      this.totalNanos = totalNanos;
+      this.cancelled = cancelled;
+    }
+
+    /**
+     * @return True if every output was written
+     */
+    public boolean isSuccess() {
+      return !cancelled && !success.containsValue(false);
+    }
+
+    public boolean isSuccess(Format format) {
+      return Boolean.TRUE.equals(success.get(format));
+    }
+
+    /**
+     * @return Time spent in each writer
+     */
+    public Map<Format, Long> getWriterNanos() {
+      return writerNanos;
+    }
+
+    /**
+     * @return Wall-clock time of the whole job
+     */
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public boolean isCancelled() {
+      return cancelled;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming aggregator for export summaries. Rows are added once while they
+ * are written, and totals, averages, min/max and per-category breakdowns are
+ * kept in primitive accumulators, so a summary costs no extra pass over the
+ * data. Shared by the Excel and PDF exporters.
+ */
+public class ExportSummary {
+  // Row keys holding revenue and ticket counts; sales rows from the database use
+  // the first name, sales analysis rows the second
+  private static final String[] REVENUE_KEYS = { "revenue", "total_revenue" };
+  private static final String[] TICKET_KEYS = { "tickets_sold", "total_ticket_sold" };
+  private static final String CATEGORY_KEY = "category";
+
+  private int recordCount;
+  private double totalRevenue;
+  private long totalTickets;
+  private double minRevenue = Double.POSITIVE_INFINITY;
+  private double maxRevenue = Double.NEGATIVE_INFINITY;
+  private boolean hasRevenue;
+
+  private final Map<String, Integer> categoryIndex = new HashMap<>();
+  private final List<String> categories = new ArrayList<>();
+  private double[] categoryRevenue = new double[4];
+  private long[] categoryTickets = new long[4];
+  private int[] categoryCount = new int[4];
+
+  /**
+   * Adds a row read from an export data map
+   *
+   * @param rowData The row being exported
+   */
+  public void add(Map<String, Object> rowData) {
+    Object revenue = firstPresent(rowData, REVENUE_KEYS);
+    Object tickets = firstPresent(rowData, TICKET_KEYS);
+    Object category = rowData.get(CATEGORY_KEY);
+
+    add(revenue != null ? toDouble(revenue) : Double.NaN,
+        tickets != null ? (long) toDouble(tickets) : 0,
+        category != null ? category.toString() : null);
+  }
+
+  /**
+   * Adds a row from primitive values
+   *
+   * @param revenue  The row revenue, or NaN if the row has none
+   * @param tickets  The tickets sold in the row
+   * @param category The row category, or null
+   */
+  public void add(double revenue, long tickets, String category) {
+    recordCount++;
+    totalTickets += tickets;
+
+    boolean validRevenue = !Double.isNaN(revenue);
+    if (validRevenue) {
+      hasRevenue = true;
+      totalRevenue += revenue;
+      if (revenue < minRevenue) {
+        minRevenue = revenue;
+      }
+      if (revenue > maxRevenue) {
+        maxRevenue = revenue;
+      }
+    }
+
+    if (category != null) {
+      int index = indexOf(category);
+      categoryCount[index]++;
+      categoryTickets[index] += tickets;
+      if (validRevenue) {
+        categoryRevenue[index] += revenue;
+      }
+    }
+  }
+
+  private int indexOf(String category) {
+    Integer index = categoryIndex.get(category);
+    if (index != null) {
+      return index;
+    }
+
+    int newIndex = categories.size();
+    if (newIndex == categoryCount.length) {
+      int capacity = newIndex * 2;
+      categoryRevenue = Arrays.copyOf(categoryRevenue, capacity);
+      categoryTickets = Arrays.copyOf(categoryTickets, capacity);
+      categoryCount = Arrays.copyOf(categoryCount, capacity);
+    }
+    categories.add(category);
+    categoryIndex.put(category, newIndex);
+    return newIndex;
+  }
+
+  private static Object firstPresent(Map<String, Object> rowData, String[] keys) {
+    for (String key : keys) {
+      Object value = rowData.get(key);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  private static double toDouble(Object value) {
+    if (value instanceof Number) {
+      return ((Number) value).doubleValue();
+    }
+    String text = value.toString();
+    try {
+      return Double.parseDouble(text.indexOf('$') >= 0 ? text.replace("$", "") : text);
+    } catch (NumberFormatException e) {
+      return Double.NaN; // Skip invalid values
+    }
+  }
+
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  public double getTotalRevenue() {
+    return totalRevenue;
+  }
+
+  public long getTotalTickets() {
+    return totalTickets;
+  }
+
+  /**
+   * @return Total revenue divided by total tickets, or 0 if no tickets were sold
+   */
+  public double getAverageRevenuePerTicket() {
+    return totalTickets > 0 ? totalRevenue / totalTickets : 0;
+  }
+
+  /**
+   * @return Total revenue divided by the number of records, or 0 if empty
+   */
+  public double getAverageRevenuePerRecord() {
+    return recordCount > 0 ? totalRevenue / recordCount : 0;
+  }
+
+  /**
+   * @return The smallest row revenue, or 0 if no row had revenue
+   */
+  public double getMinRevenue() {
+    return hasRevenue ? minRevenue : 0;
+  }
+
+  /**
+   * @return The largest row revenue, or 0 if no row had revenue
+   */
+  public double getMaxRevenue() {
+    return hasRevenue ? maxRevenue : 0;
+  }
+
+  /**
+   * @return Categories in the order they were first seen
+   */
+  public List<String> getCategories() {
+    return categories;
+  }
+
+  public double getCategoryRevenue(String category) {
+    Integer index = categoryIndex.get(category);
+    return index != null ? categoryRevenue[index] : 0;
+  }
+
+  public long getCategoryTickets(String category) {
+    Integer index = categoryIndex.get(category);
+    return index != null ? categoryTickets[index] : 0;
+  }
+
+  public int getCategoryCount(String category) {
+    Integer index = categoryIndex.get(category);
+    return index != null ? categoryCount[index] : 0;
+  }
+}
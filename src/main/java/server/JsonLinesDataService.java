@@ -0,0 +1,299 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Server-side service to read and write newline-delimited JSON (one flat JSON
+ * object per line). Both directions stream through a buffered file channel.
+ */
+public class JsonLinesDataService {
+
+  /**
+   * Exports data to a JSON lines file. Each row becomes one object whose keys
+   * are the snake_case column keys used by the Excel export.
+   *
+   * @param data        The rows to export
+   * @param filePath    The full path where to save the file
+   * @param columnNames The names of the columns
+   * @return True if export was successful, false otherwise
+   */
+  public boolean exportToJsonLines(Iterable<Map<String, Object>> data, String filePath, String[] columnNames) {
+    if (data == null || filePath == null || filePath.isEmpty() || columnNames == null) {
+      return false;
+    }
+
+    String[] keys = CsvDataService.columnKeys(columnNames);
+    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+    try (Writer writer = CsvDataService.openWriter(filePath)) {
+      for (Map<String, Object> rowData : data) {
+        writer.write('{');
+        for (int i = 0; i < keys.length; i++) {
+          if (i > 0) {
+            writer.write(',');
+          }
+          writeString(writer, keys[i]);
+          writer.write(':');
+
+          Object value = rowData.get(keys[i]);
+          if (value == null) {
+            writer.write("null");
+          } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+          } else if (value instanceof Date) {
+            writeString(writer, dateFormat.format((Date) value));
+          } else {
+            writeString(writer, value.toString());
+          }
+        }
+        writer.write("}\n");
+      }
+      return true;
+    } catch (IOException e) {
+      e.printStackTrace();
+      return false;
+    }
+  }
+
+  /**
+   * Reads a JSON lines file row by row. Blank lines are skipped. Numbers are
+   * returned as Long when integral and Double otherwise.
+   *
+   * @param filePath   The file to read
+   * @param rowHandler Receives each row and its 1-based line number
+   * @return Every key seen, in first-seen order
+   * @throws IOException if the file cannot be read or a line is not a flat JSON
+   *                     object
+   */
+  public List<String> readJsonLines(String filePath, ObjIntConsumer<Map<String, Object>> rowHandler)
+      throws IOException {
+    Set<String> columns = new LinkedHashSet<>();
+
+    try (BufferedReader reader = CsvDataService.openReader(filePath)) {
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.isBlank()) {
+          continue;
+        }
+
+        Map<String, Object> values;
+        try {
+          values = new LineParser(line).parseObject();
+        } catch (IllegalArgumentException e) {
+          throw new IOException("Invalid JSON at line " + lineNumber + ": " + e.getMessage());
+        }
+        columns.addAll(values.keySet());
+        rowHandler.accept(values, lineNumber);
+      }
+    }
+
+    return new ArrayList<>(columns);
+  }
+
+  private void writeString(Writer writer, String value) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          writer.write("\\\"");
+          break;
+        case '\\':
+          writer.write("\\\\");
+          break;
+        case '\n':
+          writer.write("\\n");
+          break;
+        case '\r':
+          writer.write("\\r");
+          break;
+        case '\t':
+          writer.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            writer.write(String.format("\\u%04x", (int) c));
+          } else {
+            writer.write(c);
+          }
+      }
+    }
+    writer.write('"');
+  }
+
+  /**
+   * Parser for a single flat JSON object. Nested objects and arrays are
+   * rejected since rows map directly onto table columns.
+   */
+  private static class LineParser {
+    private final String text;
+    private int position;
+
+    LineParser(String text) {
+      this.text = text;
+    }
+
+    Map<String, Object> parseObject() {
+      Map<String, Object> values = new HashMap<>();
+      skipWhitespace();
+      expect('{');
+      skipWhitespace();
+      if (peek() == '}') {
+        position++;
+        return values;
+      }
+
+      while (true) {
+        skipWhitespace();
+        String key = parseString();
+        skipWhitespace();
+        expect(':');
+        skipWhitespace();
+        values.put(key, parseValue());
+        skipWhitespace();
+
+        char c = next();
+        if (c == '}') {
+          break;
+        }
+        if (c != ',') {
+          throw new IllegalArgumentException("expected ',' or '}' at column " + position);
+        }
+      }
+
+      skipWhitespace();
+      if (position < text.length()) {
+        throw new IllegalArgumentException("unexpected content after object at column " + (position + 1));
+      }
+      return values;
+    }
+
+    private Object parseValue() {
+      char c = peek();
+      if (c == '"') {
+        return parseString();
+      }
+      if (c == '{' || c == '[') {
+        throw new IllegalArgumentException("nested values are not supported at column " + (position + 1));
+      }
+      if (text.startsWith("null", position)) {
+        position += 4;
+        return null;
+      }
+      if (text.startsWith("true", position)) {
+        position += 4;
+        return Boolean.TRUE;
+      }
+      if (text.startsWith("false", position)) {
+        position += 5;
+        return Boolean.FALSE;
+      }
+      return parseNumber();
+    }
+
+    private Object parseNumber() {
+      int start = position;
+      boolean integral = true;
+      while (position < text.length()) {
+        char c = text.charAt(position);
+        if (c == '.' || c == 'e' || c == 'E') {
+          integral = false;
+        } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+          break;
+        }
+        position++;
+      }
+      if (start == position) {
+        throw new IllegalArgumentException("unexpected character at column " + (position + 1));
+      }
+
+      String number = text.substring(start, position);
+      try {
+        return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+      } catch (NumberFormatException e) {
+        return Double.parseDouble(number);
+      }
+    }
+
+    private String parseString() {
+      expect('"');
+      StringBuilder sb = new StringBuilder();
+      while (true) {
+        char c = next();
+        if (c == '"') {
+          return sb.toString();
+        }
+        if (c != '\\') {
+          sb.append(c);
+          continue;
+        }
+
+        char escaped = next();
+        switch (escaped) {
+          case 'b':
+            sb.append('\b');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'u':
+            if (position + 4 > text.length()) {
+              throw new IllegalArgumentException("truncated unicode escape");
+            }
+            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+            position += 4;
+            break;
+          default:
+            sb.append(escaped);
+        }
+      }
+    }
+
+    private void skipWhitespace() {
+      while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+        position++;
+      }
+    }
+
+    private char peek() {
+      if (position >= text.length()) {
+        throw new IllegalArgumentException("unexpected end of line");
+      }
+      return text.charAt(position);
+    }
+
+    private char next() {
+      char c = peek();
+      position++;
+      return c;
+    }
+
+    private void expect(char expected) {
+      if (next() != expected) {
+        throw new IllegalArgumentException("expected '" + expected + "' at column " + position);
+      }
+    }
+  }
+}
@@ -1,30 +1,127 @@
 package server;
 
+import database.Database;
 import server.notification.*;
-import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manager class for handling notifications in the system.
  * Implements the Observer pattern for real-time notification delivery.
+ * Observers are called on the notification bus's dispatcher thread, never
+ * on the thread that sends the notification. Old notifications are deleted
+ * in the background according to the retention settings.
  */
 public class NotificationManager implements NotificationService {
 
+  /**
+   * Recipients of staff broadcasts: both back-office roles and the system
+   * feed every logged-in user sees
+   */
+  public static final List<String> STAFF_RECIPIENTS = List.of("admin", "manager", "system");
+
   private static NotificationManager instance;
-  private NotificationRepository repository;
-  private List<NotificationObserver> observers;
+  // Also read by the compaction thread
+  private volatile NotificationRepository repository;
+  private final NotificationBus bus;
+
+  // Recent broadcasts by content, oldest first; guarded by itself
+  private final Map<String, RecentBroadcast> recentBroadcasts = new LinkedHashMap<>();
+  private final long dedupMillis = Long.parseLong(Database.getConfigProperty("notifications.dedupMillis", "2000"));
 
   /**
    * Private constructor for singleton pattern
    */
   private NotificationManager() {
-    observers = new ArrayList<>();
+    bus = createBus();
 
     // Initialize repository
-    repository = new InMemoryNotificationRepository();
+    repository = createRepository();
+
+    // Add some sample notifications to a fresh store
+    if (repository.findPage("system", null, false, null, 1).isEmpty()) {
+      createSampleNotifications();
+    }
+
+    scheduleCompaction();
+  }
 
-    // Add some sample notifications
-    createSampleNotifications();
+  /**
+   * Schedules compact() every notifications.compactionMinutes
+   * (config.properties; 0 disables it). The first run waits as long, so it
+   * stays out of the way of startup.
+   */
+  private void scheduleCompaction() {
+    long minutes = 60;
+    try {
+      minutes = Long.parseLong(Database.getConfigProperty("notifications.compactionMinutes", "60"));
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid notifications.compactionMinutes, using " + minutes + ": " + e.getMessage());
+    }
+    if (minutes <= 0) {
+      return;
+    }
+
+    ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "notification-compactor");
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MIN_PRIORITY);
+      return thread;
+    });
+    compactor.scheduleWithFixedDelay(this::compact, minutes, minutes, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Applies the retention policy from config.properties: deletes
+   * notifications older than notifications.retentionDays, and each user's
+   * oldest ones beyond notifications.maxPerUser. 0 disables either limit.
+   * 
+   * @return Number of notifications deleted
+   */
+  public int compact() {
+    try {
+      int retentionDays = Integer.parseInt(Database.getConfigProperty("notifications.retentionDays", "30"));
+      int maxPerUser = Integer.parseInt(Database.getConfigProperty("notifications.maxPerUser", "10000"));
+      Date olderThan = retentionDays > 0
+          ? new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays))
+          : null;
+
+      long start = System.nanoTime();
+      int deleted = repository.deleteExpired(olderThan, Math.max(0, maxPerUser));
+      if (deleted > 0) {
+        System.out.printf("Deleted %d expired notifications in %d ms%n", deleted,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      }
+      return deleted;
+    } catch (RuntimeException e) {
+      // Keep the schedule alive; the next run tries again
+      System.err.println("Notification compaction failed: " + e.getMessage());
+      return 0;
+    }
+  }
+
+  /**
+   * Creates the repository chosen by notifications.store in
+   * config.properties: "sqlite" (default) keeps notifications across
+   * restarts, "memory" keeps them for this run only
+   */
+  private static NotificationRepository createRepository() {
+    if ("memory".equalsIgnoreCase(Database.getConfigProperty("notifications.store", "sqlite"))) {
+      return new ConcurrentNotificationRepository();
+    }
+    try {
+      return new JdbcNotificationRepository();
+    } catch (IllegalStateException e) {
+      System.err.println("Notification store unavailable, keeping notifications in memory: " + e.getMessage());
+      return new ConcurrentNotificationRepository();
+    }
   }
 
   /**
@@ -39,6 +136,33 @@ public class NotificationManager implements NotificationService {
     return instance;
   }
 
+  /**
+   * Creates the bus from config.properties: notifications.queueCapacity,
+   * notifications.coalesceMillis and notifications.overflow (DROP_OLDEST,
+   * DROP_NEWEST or BLOCK)
+   */
+  private static NotificationBus createBus() {
+    int capacity = 1024;
+    long coalesceMillis = 50;
+    NotificationBus.OverflowPolicy policy = NotificationBus.OverflowPolicy.DROP_OLDEST;
+    try {
+      capacity = Integer.parseInt(Database.getConfigProperty("notifications.queueCapacity", "1024"));
+      coalesceMillis = Long.parseLong(Database.getConfigProperty("notifications.coalesceMillis", "50"));
+      policy = NotificationBus.OverflowPolicy.valueOf(
+          Database.getConfigProperty("notifications.overflow", "DROP_OLDEST").toUpperCase());
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid notification bus setting, using defaults: " + e.getMessage());
+    }
+    return new NotificationBus(Math.max(1, capacity), coalesceMillis, policy);
+  }
+
+  /**
+   * @return Counters of the notification bus, e.g. for diagnostics
+   */
+  public NotificationBus.Metrics getDispatchMetrics() {
+    return bus.getMetrics();
+  }
+
   /**
    * Set the notification repository
    * 
@@ -79,13 +203,13 @@ public class NotificationManager implements NotificationService {
 
   @Override
   public void sendNotification(String userId, String message, NotificationType type, String relatedEntityId) {
-    String notificationId = createNotification(userId, message, type, relatedEntityId);
-    Notification notification = repository.findById(notificationId);
+    // Observers get the saved object itself; reading it back would wait for
+    // a write-behind repository to commit
+    Notification notification = new Notification(userId, message, type, relatedEntityId);
+    repository.save(notification);
 
-    // Notify all observers
-    for (NotificationObserver observer : observers) {
-      observer.onNotificationReceived(notification);
-    }
+    // Notify all observers without waiting for them
+    bus.publish(notification);
   }
 
   @Override
@@ -93,6 +217,12 @@ public class NotificationManager implements NotificationService {
     return repository.findByUserIdAndFilters(userId, filterType, onlyUnread);
   }
 
+  @Override
+  public List<Notification> getNotificationsPage(String userId, NotificationType filterType, boolean onlyUnread,
+      Notification after, int limit) {
+    return repository.findPage(userId, filterType, onlyUnread, after, limit);
+  }
+
   @Override
   public boolean markAsRead(String notificationId) {
     Notification notification = repository.findById(notificationId);
@@ -130,14 +260,73 @@ public class NotificationManager implements NotificationService {
 
   @Override
   public void registerObserver(NotificationObserver observer) {
-    if (!observers.contains(observer)) {
-      observers.add(observer);
-    }
+    bus.register(observer);
   }
 
   @Override
   public void unregisterObserver(NotificationObserver observer) {
-    observers.remove(observer);
+    bus.unregister(observer);
+  }
+
+  /**
+   * Sends one notification to several users. The recipients share a single
+   * payload (message, related entity and timestamp) and each has their own
+   * read state; observers are notified once. The same broadcast sent again
+   * within notifications.dedupMillis (config.properties) is ignored.
+   * 
+   * @param recipients      The IDs of the users the notification is for
+   * @param message         The notification message
+   * @param type            The type of notification
+   * @param relatedEntityId Optional ID of the related entity
+   * @return The broadcast ID, or that of the earlier identical broadcast
+   */
+  public String broadcast(List<String> recipients, String message, NotificationType type, String relatedEntityId) {
+    List<String> sharedRecipients = List.copyOf(recipients);
+    String key = sharedRecipients + "\u0000" + type + "\u0000" + relatedEntityId + "\u0000" + message;
+    long now = System.currentTimeMillis();
+
+    String broadcastId;
+    synchronized (recentBroadcasts) {
+      // Entries are in time order, so expired ones are at the front
+      Iterator<RecentBroadcast> iterator = recentBroadcasts.values().iterator();
+      while (iterator.hasNext() && iterator.next().sentAt < now - dedupMillis) {
+        iterator.remove();
+      }
+      RecentBroadcast recent = recentBroadcasts.get(key);
+      if (recent != null) {
+        return recent.broadcastId;
+      }
+      broadcastId = UUID.randomUUID().toString();
+      recentBroadcasts.put(key, new RecentBroadcast(broadcastId, now));
+    }
+
+    Date timestamp = new Date(now);
+    Notification first = null;
+    for (String recipient : sharedRecipients) {
+      Notification notification = new Notification(recipient, message, type, relatedEntityId);
+      notification.setTimestamp(timestamp);
+      notification.setBroadcastId(broadcastId);
+      notification.setRecipients(sharedRecipients);
+      repository.save(notification);
+      if (first == null) {
+        first = notification;
+      }
+    }
+
+    // One delivery for all recipients; observers check getRecipients()
+    if (first != null) {
+      bus.publish(first);
+    }
+    return broadcastId;
+  }
+
+  /**
+   * Broadcasts to the admin and manager users and the system feed
+   * 
+   * @see #broadcast(List, String, NotificationType, String)
+   */
+  public String broadcastToStaff(String message, NotificationType type, String relatedEntityId) {
+    return broadcast(STAFF_RECIPIENTS, message, type, relatedEntityId);
   }
 
   /**
@@ -151,9 +340,17 @@ public class NotificationManager implements NotificationService {
     Notification notification = new Notification("system", message, type);
     repository.save(notification);
 
-    // Notify all observers
-    for (NotificationObserver observer : observers) {
-      observer.onNotificationReceived(notification);
+    // Notify all observers without waiting for them
+    bus.publish(notification);
+  }
+
+  private static class RecentBroadcast {
+    final String broadcastId;
+    final long sentAt;
+
+    RecentBroadcast(String broadcastId, long sentAt) {
+      this.broadcastId = broadcastId;
+      this.sentAt = sentAt;
     }
   }
 }
@@ -4,6 +4,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +28,10 @@ public class PDFExportServer {
   private static final Font HEADER_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.WHITE);
   private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
   private static final Font FOOTER_FONT = FontFactory.getFont(FontFactory.HELVETICA_OBLIQUE, 8, BaseColor.GRAY);
+  private static final BaseColor HEADER_BACKGROUND = new BaseColor(64, 133, 219);
+  private static final BaseColor SUMMARY_BACKGROUND = new BaseColor(240, 240, 240);
+  // Rows added to the incomplete table before it is flushed to the document
+  private static final int FLUSH_ROWS = 50;
 
   /**
    * Exports data to a PDF file
@@ -39,7 +44,27 @@ public class PDFExportServer {
    */
   public boolean exportToPDF(List<Map<String, Object>> data, String filePath,
       String title, String[] columnNames) {
-    if (data == null || filePath == null || title == null || columnNames == null) {
+    if (data == null) {
+      return false;
+    }
+    return exportToPDFStreaming(data.iterator(), filePath, title, columnNames);
+  }
+
+  /**
+   * Exports rows to a PDF file as they are read. The table is built with
+   * iText's large table support and flushed to the document every
+   * FLUSH_ROWS rows, and the summary totals are accumulated in the same pass,
+   * so memory stays flat regardless of the number of rows.
+   * 
+   * @param rows        The rows to export, consumed once
+   * @param filePath    Path where to save the PDF
+   * @param title       Title of the document
+   * @param columnNames Column headers for the table
+   * @return True if export was successful, false otherwise
+   */
+  public boolean exportToPDFStreaming(Iterator<Map<String, Object>> rows, String filePath,
+      String title, String[] columnNames) {
+    if (rows == null || filePath == null || title == null || columnNames == null) {
       return false;
     }
 
@@ -61,14 +86,54 @@ public class PDFExportServer {
       dateParagraph.setSpacingAfter(20);
       document.add(dateParagraph);
 
-      // Add table with data
-      PdfPTable table = createDataTable(data, columnNames);
+      // Add table with data, flushing completed rows as we go
+      PdfPTable table = createDataTable(columnNames);
+      PdfPCell template = table.getDefaultCell();
+
+      // Resolve per-column lookups once instead of per row
+      String[] keys = new String[columnNames.length];
+      String[] fallbackKeys = new String[columnNames.length];
+      boolean[] moneyColumns = new boolean[columnNames.length];
+      for (int i = 0; i < columnNames.length; i++) {
+        keys[i] = mapColumnName(columnNames[i]);
+        fallbackKeys[i] = columnNames[i].toLowerCase().replace(" ", "_");
+        String lowerName = columnNames[i].toLowerCase();
+        moneyColumns[i] = lowerName.contains("price") || lowerName.contains("revenue") || lowerName.contains("amount");
+      }
+      SimpleDateFormat cellDateFormat = new SimpleDateFormat("yyyy-MM-dd");
+
+      ExportSummary summary = new ExportSummary();
+
+      while (rows.hasNext()) {
+        Map<String, Object> rowData = rows.next();
+        for (int i = 0; i < columnNames.length; i++) {
+          // Sales analysis rows use the mapped keys, database exports the plain ones
+          Object value = rowData.get(keys[i]);
+          if (value == null) {
+            value = rowData.get(fallbackKeys[i]);
+          }
+
+          // Align numeric values to the right
+          template.setHorizontalAlignment(value instanceof Number || moneyColumns[i]
+              ? Element.ALIGN_RIGHT
+              : Element.ALIGN_LEFT);
+          table.addCell(new Phrase(formatValue(value, columnNames[i], cellDateFormat), NORMAL_FONT));
+        }
+
+        summary.add(rowData);
+
+        if (summary.getRecordCount() % FLUSH_ROWS == 0) {
+          document.add(table);
+        }
+      }
+
+      table.setComplete(true);
       document.add(table);
 
       // Add summary section if data exists
-      if (!data.isEmpty()) {
+      if (summary.getRecordCount() > 0) {
         document.add(new Paragraph("\n"));
-        document.add(createSummarySection(data));
+        document.add(createSummarySection(summary, isSalesReport(title)));
       }
 
       // Add footer
@@ -86,44 +151,26 @@ public class PDFExportServer {
   }
 
   /**
-   * Creates a table with the data
+   * Creates an incomplete (streamable) table with a repeating header row. Data
+   * cells are added through the table's default cell, which serves as the
+   * shared style template.
    */
-  private PdfPTable createDataTable(List<Map<String, Object>> data, String[] columnNames) throws DocumentException {
+  private PdfPTable createDataTable(String[] columnNames) {
     PdfPTable table = new PdfPTable(columnNames.length);
     table.setWidthPercentage(100);
+    table.setComplete(false);
+    table.setHeaderRows(1);
 
     // Add header row
     for (String columnName : columnNames) {
       PdfPCell headerCell = new PdfPCell(new Phrase(columnName, HEADER_FONT));
-      headerCell.setBackgroundColor(new BaseColor(64, 133, 219));
+      headerCell.setBackgroundColor(HEADER_BACKGROUND);
       headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
       headerCell.setPadding(5);
       table.addCell(headerCell);
     }
 
-    // Add data rows
-    for (Map<String, Object> rowData : data) {
-      for (String columnName : columnNames) {
-        String dbColumnName = mapColumnName(columnName);
-        Object value = rowData.get(dbColumnName);
-
-        PdfPCell cell = new PdfPCell(new Phrase(formatValue(value, columnName), NORMAL_FONT));
-
-        // Align numeric values to the right
-        if (value instanceof Number ||
-            columnName.toLowerCase().contains("price") ||
-            columnName.toLowerCase().contains("revenue") ||
-            columnName.toLowerCase().contains("amount")) {
-          cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-        } else {
-          cell.setHorizontalAlignment(Element.ALIGN_LEFT);
-        }
-
-        cell.setPadding(5);
-        table.addCell(cell);
-      }
-    }
-
+    table.getDefaultCell().setPadding(5);
     return table;
   }
 
@@ -154,89 +201,73 @@ public class PDFExportServer {
   /**
    * Creates a summary section with totals and averages
    */
-  private PdfPTable createSummarySection(List<Map<String, Object>> data) throws DocumentException {
+  private PdfPTable createSummarySection(ExportSummary summary, boolean salesReport) {
     PdfPTable summaryTable = new PdfPTable(2);
     summaryTable.setWidthPercentage(50);
     summaryTable.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
     // Add header
     PdfPCell headerCell = new PdfPCell(new Phrase("Summary", HEADER_FONT));
-    headerCell.setBackgroundColor(new BaseColor(64, 133, 219));
+    headerCell.setBackgroundColor(HEADER_BACKGROUND);
     headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
     headerCell.setColspan(2);
     headerCell.setPadding(5);
     summaryTable.addCell(headerCell);
 
-    // Calculate totals
-    double totalRevenue = 0;
-    int totalTickets = 0;
-
-    for (Map<String, Object> rowData : data) {
-      // Get revenue
-      Object revenueObj = rowData.get("total_revenue");
-      if (revenueObj != null) {
-        if (revenueObj instanceof Number) {
-          totalRevenue += ((Number) revenueObj).doubleValue();
-        } else {
-          String revenueStr = revenueObj.toString().replace("$", "");
-          try {
-            totalRevenue += Double.parseDouble(revenueStr);
-          } catch (NumberFormatException e) {
-            // Skip invalid values
-          }
-        }
-      }
-
-      // Get tickets sold
-      Object ticketsObj = rowData.get("total_ticket_sold");
-      if (ticketsObj != null) {
-        if (ticketsObj instanceof Number) {
-          totalTickets += ((Number) ticketsObj).intValue();
-        } else {
-          try {
-            totalTickets += Integer.parseInt(ticketsObj.toString());
-          } catch (NumberFormatException e) {
-            // Skip invalid values
-          }
-        }
-      }
-    }
-
     // Add total records
-    addSummaryRow(summaryTable, "Total Records", Integer.toString(data.size()));
+    addSummaryRow(summaryTable, "Total Records", Integer.toString(summary.getRecordCount()));
 
     // Add total revenue
-    addSummaryRow(summaryTable, "Total Revenue", String.format("$%.2f", totalRevenue));
+    addSummaryRow(summaryTable, "Total Revenue", String.format("$%.2f", summary.getTotalRevenue()));
 
     // Add total tickets
-    addSummaryRow(summaryTable, "Total Tickets Sold", Integer.toString(totalTickets));
+    addSummaryRow(summaryTable, "Total Tickets Sold", Long.toString(summary.getTotalTickets()));
 
     // Add average revenue per ticket
-    if (totalTickets > 0) {
-      double avgRevenue = totalRevenue / totalTickets;
-      addSummaryRow(summaryTable, "Avg. Revenue Per Ticket", String.format("$%.2f", avgRevenue));
+    if (summary.getTotalTickets() > 0) {
+      addSummaryRow(summaryTable, "Avg. Revenue Per Ticket",
+          String.format("$%.2f", summary.getAverageRevenuePerTicket()));
+    }
+
+    // Add revenue range across records
+    if (summary.getTotalRevenue() > 0) {
+      addSummaryRow(summaryTable, "Lowest / Highest Revenue",
+          String.format("$%.2f / $%.2f", summary.getMinRevenue(), summary.getMaxRevenue()));
+    }
+
+    // Add per-category breakdown; only sales rows carry tickets and revenue
+    if (salesReport) {
+      for (String category : summary.getCategories()) {
+        addSummaryRow(summaryTable, category,
+            String.format("%d tickets, $%.2f", summary.getCategoryTickets(category),
+                summary.getCategoryRevenue(category)));
+      }
     }
 
     return summaryTable;
   }
 
+  private boolean isSalesReport(String title) {
+    return title.contains("Sales") || title.toLowerCase().contains("sales report");
+  }
+
   /**
    * Adds a row to the summary table
    */
   private void addSummaryRow(PdfPTable table, String label, String value) {
     PdfPCell labelCell = new PdfPCell(new Phrase(label, NORMAL_FONT));
     labelCell.setPadding(5);
-    labelCell.setBackgroundColor(new BaseColor(240, 240, 240));
+    labelCell.setBackgroundColor(SUMMARY_BACKGROUND);
     table.addCell(labelCell);
 
     PdfPCell valueCell = new PdfPCell(new Phrase(value != null ? value : "-", NORMAL_FONT));
     valueCell.setPadding(5);
-    valueCell.setBackgroundColor(new BaseColor(240, 240, 240));
+    valueCell.setBackgroundColor(SUMMARY_BACKGROUND);
     valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
     table.addCell(valueCell);
   }
 
-  private String formatValue(Object value, String columnName) {
+  private String formatValue(Object value, String columnName, SimpleDateFormat dateFormat) {
     if (value == null) {
       return "-";
     }
@@ -244,11 +275,11 @@ public class PDFExportServer {
     // Handle date fields
     if (columnName.toLowerCase().contains("date") || columnName.toLowerCase().endsWith("_at")) {
       if (value instanceof Date) {
-        return new SimpleDateFormat("yyyy-MM-dd").format((Date) value);
+        return dateFormat.format((Date) value);
       } else if (value instanceof String) {
         try {
-          Date date = new SimpleDateFormat("yyyy-MM-dd").parse((String) value);
-          return new SimpleDateFormat("yyyy-MM-dd").format(date);
+          Date date = dateFormat.parse((String) value);
+          return dateFormat.format(date);
         } catch (Exception e) {
           return value.toString();
         }
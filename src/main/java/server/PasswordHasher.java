@@ -0,0 +1,229 @@
+package server;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import database.Database;
+
+/**
+ * Hashes and verifies passwords with BCrypt. The work factor is picked once
+ * per process by timing BCrypt on this host, so a login costs about
+ * auth.bcrypt.targetMillis (config.properties) whatever the hardware, but
+ * never less than cost 12. Calibration happens on the first hash or login
+ * rather than during start-up, where other work would skew the timing.
+ * Stored hashes with an outdated cost are reported by needsRehash so they
+ * can be upgraded after a successful login.
+ */
+public class PasswordHasher {
+    private static final int DEFAULT_COST = 12;
+    private static final long DEFAULT_TARGET_MILLIS = 250;
+    // Never go below the fixed cost used before calibration, however slow the host
+    private static final int MIN_COST = 12;
+    private static final int MAX_COST = 16;
+    private static final int BENCHMARK_COST = 8;
+    private static final int BENCHMARK_RUNS = 3;
+
+    private static volatile int workFactor;
+
+    private static final LatencyHistogram verifyLatency = new LatencyHistogram();
+    private static final LatencyHistogram hashLatency = new LatencyHistogram();
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * @return The BCrypt cost used for new hashes, calibrating on first use
+     */
+    public static int getWorkFactor() {
+        int cost = workFactor;
+        return cost != 0 ? cost : calibrate();
+    }
+
+    /**
+     * Times BCrypt on this host and picks the highest cost whose estimated
+     * hashing time stays within the target. Each extra cost step doubles the
+     * time, so one cheap measurement is enough to extrapolate.
+     *
+     * @return The chosen work factor
+     */
+    public static synchronized int calibrate() {
+        if (workFactor != 0) {
+            return workFactor;
+        }
+
+        long targetMillis = DEFAULT_TARGET_MILLIS;
+        int cost = DEFAULT_COST;
+        try {
+            targetMillis = Long.parseLong(Database.getConfigProperty("auth.bcrypt.targetMillis",
+                    String.valueOf(DEFAULT_TARGET_MILLIS)));
+
+            // Best of a few runs, so JIT warm-up does not skew the estimate
+            String salt = BCrypt.gensalt(BENCHMARK_COST);
+            long bestNanos = Long.MAX_VALUE;
+            for (int i = 0; i < BENCHMARK_RUNS; i++) {
+                long start = System.nanoTime();
+                BCrypt.hashpw("calibration", salt);
+                bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            }
+
+            cost = BENCHMARK_COST;
+            double estimateMillis = bestNanos / 1e6;
+            while (cost < MAX_COST && estimateMillis * 2 <= targetMillis) {
+                cost++;
+                estimateMillis *= 2;
+            }
+            cost = Math.max(MIN_COST, cost);
+            System.out.printf("BCrypt cost %d chosen for a %d ms target (cost %d took %.1f ms)%n", cost,
+                    targetMillis, BENCHMARK_COST, bestNanos / 1e6);
+        } catch (Exception e) {
+            System.err.println("BCrypt calibration failed, using cost " + DEFAULT_COST + ": " + e.getMessage());
+            cost = DEFAULT_COST;
+        }
+
+        workFactor = cost;
+        return cost;
+    }
+
+    /**
+     * Hashes a password at the calibrated cost
+     */
+    public static String hash(String password) {
+        String salt = BCrypt.gensalt(getWorkFactor());
+        long start = System.nanoTime();
+        String hashed = BCrypt.hashpw(password, salt);
+        hashLatency.record(System.nanoTime() - start);
+        return hashed;
+    }
+
+    /**
+     * Checks a password against a stored hash. Accepts the $2a$, $2b$ and
+     * $2y$ variants; they differ only in bugs of other implementations that
+     * do not affect passwords shorter than 255 bytes.
+     *
+     * @return true if the password matches; false if not or if the stored
+     *         value is not a BCrypt hash
+     */
+    public static boolean verify(String password, String storedHash) {
+        String normalized = normalize(storedHash);
+        if (normalized == null) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            return BCrypt.checkpw(password, normalized);
+        } catch (IllegalArgumentException e) {
+            return false; // Malformed hash
+        } finally {
+            verifyLatency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * A hash is only ever upgraded: one with a higher cost than the
+     * calibrated one is kept, so a slow or busy calibration run cannot
+     * weaken stored hashes.
+     *
+     * @return true if a stored hash should be replaced by a fresh one
+     */
+    public static boolean needsRehash(String storedHash) {
+        if (normalize(storedHash) == null) {
+            return false;
+        }
+        int cost = costOf(storedHash);
+        int target = getWorkFactor();
+        return cost < target;
+    }
+
+    /**
+     * @return true if the value looks like a BCrypt hash this class can verify
+     */
+    public static boolean isSupportedHash(String storedHash) {
+        return normalize(storedHash) != null;
+    }
+
+    public static LatencyHistogram getVerifyLatency() {
+        return verifyLatency;
+    }
+
+    public static LatencyHistogram getHashLatency() {
+        return hashLatency;
+    }
+
+    // jBCrypt only parses $2a$; the other variants share its algorithm
+    private static String normalize(String storedHash) {
+        if (storedHash == null || storedHash.length() != 60) {
+            return null;
+        }
+        if (storedHash.startsWith("$2a$")) {
+            return storedHash;
+        }
+        if (storedHash.startsWith("$2b$") || storedHash.startsWith("$2y$")) {
+            return "$2a$" + storedHash.substring(4);
+        }
+        return null;
+    }
+
+    private static int costOf(String storedHash) {
+        try {
+            return Integer.parseInt(storedHash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Latency histogram with power-of-two millisecond buckets: under 1 ms,
+     * 1-2 ms, 2-4 ms and so on up to 4 s and over
+     */
+    public static class LatencyHistogram {
+        private static final int BUCKETS = 14;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        public synchronized void record(long nanos) {
+            long millis = nanos / 1_000_000;
+            int bucket = millis == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+            counts[bucket]++;
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        public synchronized long getCount() {
+            return count;
+        }
+
+        public synchronized double getAverageMillis() {
+            return count > 0 ? totalNanos / 1e6 / count : 0;
+        }
+
+        public synchronized double getMaxMillis() {
+            return maxNanos / 1e6;
+        }
+
+        /**
+         * @param fraction Rank between 0 and 1, e.g. 0.95
+         * @return Upper bound in ms of the bucket holding that rank
+         */
+        public synchronized long getPercentileMillis(double fraction) {
+            long rank = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) {
+                    return 1L << i;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return String.format("n=%d avg=%.1fms p50<=%dms p95<=%dms max=%.1fms", count, getAverageMillis(),
+                    getPercentileMillis(0.5), getPercentileMillis(0.95), getMaxMillis());
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package server;
+
+import database.QueryBuilder;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Pre-aggregated sales totals per day, week and month, broken down by
+ * category. Rows are upserted as tickets are sold, so date range reports read
+ * a handful of rollup rows instead of scanning Sales or Ticket.
+ *
+ * Weeks start on Monday and months on the 1st; buckets are keyed by their
+ * first day as yyyy-MM-dd text.
+ */
+public class SalesRollup {
+
+    /**
+     * Rollup granularity, finest first
+     */
+    public enum Grain {
+        DAY, WEEK, MONTH;
+
+        /**
+         * @return The first day of the bucket containing the date
+         */
+        public LocalDate bucketStart(LocalDate date) {
+            switch (this) {
+                case WEEK:
+                    return date.with(DayOfWeek.MONDAY);
+                case MONTH:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+
+        /**
+         * @return The last day of the bucket starting on the given day
+         */
+        public LocalDate bucketEnd(LocalDate bucketStart) {
+            switch (this) {
+                case WEEK:
+                    return bucketStart.plusDays(6);
+                case MONTH:
+                    return bucketStart.plusMonths(1).minusDays(1);
+                default:
+                    return bucketStart;
+            }
+        }
+    }
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS SalesRollup ("
+            + "grain TEXT CHECK (grain IN ('DAY', 'WEEK', 'MONTH')) NOT NULL, "
+            + "bucket_start TEXT NOT NULL, "
+            + "category TEXT NOT NULL, "
+            + "tickets_sold INTEGER NOT NULL DEFAULT 0, "
+            + "revenue REAL NOT NULL DEFAULT 0, "
+            + "PRIMARY KEY (grain, bucket_start, category))";
+
+    private static final String UPSERT_SQL = "INSERT INTO SalesRollup "
+            + "(grain, bucket_start, category, tickets_sold, revenue) VALUES (?, ?, ?, ?, ?) "
+            + "ON CONFLICT (grain, bucket_start, category) DO UPDATE SET "
+            + "tickets_sold = tickets_sold + excluded.tickets_sold, "
+            + "revenue = revenue + excluded.revenue";
+
+    // sale_date holds yyyy-MM-dd text or epoch millis depending on how the
+    // row was written; normalise it in SQL before the driver parses it
+    private static final String SALE_DAY_SQL = "CASE WHEN typeof(sale_date) = 'integer' "
+            + "THEN date(sale_date / 1000, 'unixepoch', 'localtime') ELSE substr(sale_date, 1, 10) END";
+
+    // Sales rows the rollup covers, totalled per day and category
+    private static final String SALES_BY_DAY_SQL = "SELECT " + SALE_DAY_SQL + " AS sale_day, category, "
+            + "SUM(tickets_sold) AS tickets_sold, SUM(revenue) AS revenue FROM Sales "
+            + "WHERE date(" + SALE_DAY_SQL + ") IS NOT NULL AND category IS NOT NULL "
+            + "GROUP BY sale_day, category";
+
+    // The table is created and checked against Sales once per run
+    private static boolean tableReady;
+
+    private final QueryBuilder queryBuilder;
+
+    /**
+     * @param queryBuilder Connection to write through; recordSale() joins any
+     *                     transaction already open on it
+     */
+    public SalesRollup(QueryBuilder queryBuilder) {
+        this.queryBuilder = queryBuilder;
+        ensureTable();
+    }
+
+    /**
+     * Creates the rollup table and, if its daily totals do not match the
+     * Sales rows (it is new, or a write once reached only one of them),
+     * rebuilds it from Sales
+     */
+    private void ensureTable() {
+        synchronized (SalesRollup.class) {
+            if (tableReady) {
+                return;
+            }
+            try {
+                queryBuilder.execute(CREATE_TABLE_SQL);
+                if (!matchesSales()) {
+                    queryBuilder.inTransaction(() -> {
+                        queryBuilder.execute("DELETE FROM SalesRollup");
+                        backfillFromSales();
+                        return null;
+                    });
+                }
+                tableReady = true;
+            } catch (Exception e) {
+                System.err.println("Error preparing sales rollup: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return True if every daily bucket holds exactly the totals of the
+     *         Sales rows of its day and category
+     */
+    private boolean matchesSales() {
+        Map<String, Object> check = queryBuilder.fetch("SELECT COUNT(*) AS sales_days, "
+                + "SUM(CASE WHEN r.tickets_sold IS NOT s.tickets_sold OR ABS(r.revenue - s.revenue) > 0.005 "
+                + "THEN 1 ELSE 0 END) AS mismatched, "
+                + "(SELECT COUNT(*) FROM SalesRollup WHERE grain = 'DAY') AS rollup_days "
+                + "FROM (" + SALES_BY_DAY_SQL + ") s LEFT JOIN SalesRollup r "
+                + "ON r.grain = 'DAY' AND r.bucket_start = s.sale_day AND r.category = s.category").get(0);
+        long mismatched = check.get("mismatched") != null ? ((Number) check.get("mismatched")).longValue() : 0;
+        return mismatched == 0
+                && ((Number) check.get("sales_days")).longValue() == ((Number) check.get("rollup_days")).longValue();
+    }
+
+    private void backfillFromSales() {
+        // Totals per day and category are enough: each adds to its buckets
+        List<Map<String, Object>> sales = queryBuilder.fetch(SALES_BY_DAY_SQL);
+        int recorded = 0;
+        for (Map<String, Object> sale : sales) {
+            LocalDate date = toLocalDate(sale.get("sale_day"));
+            if (date == null || sale.get("category") == null) {
+                continue;
+            }
+            recordSale(date, sale.get("category").toString(),
+                    ((Number) sale.get("tickets_sold")).intValue(),
+                    ((Number) sale.get("revenue")).doubleValue());
+            recorded++;
+        }
+        System.out.println("Back-filled sales rollup from " + recorded + " daily sales totals");
+    }
+
+    /**
+     * Adds a sale to the day, week and month buckets of its date. Call inside
+     * QueryBuilder.inTransaction() together with the write to Sales so both
+     * commit or roll back together.
+     *
+     * @param date     The sale date
+     * @param category The sales category
+     * @param tickets  Tickets sold
+     * @param revenue  Revenue of the sale
+     */
+    public void recordSale(LocalDate date, String category, int tickets, double revenue) {
+        for (Grain grain : Grain.values()) {
+            queryBuilder.execute(UPSERT_SQL, grain.name(), grain.bucketStart(date).toString(), category,
+                    tickets, revenue);
+        }
+    }
+
+    /**
+     * Totals per category over a date range. The range is covered with the
+     * coarsest buckets that fit inside it (whole months, then whole weeks, then
+     * days at the edges) and answered with a single query.
+     *
+     * @param from First day, inclusive
+     * @param to   Last day, inclusive
+     * @return Rows with category, tickets_sold and revenue
+     */
+    public List<Map<String, Object>> getTotalsByCategory(LocalDate from, LocalDate to) {
+        List<Segment> plan = plan(from, to);
+        if (plan.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT category, SUM(tickets_sold) AS tickets_sold, SUM(revenue) AS revenue FROM SalesRollup WHERE ");
+        List<Object> bindings = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            Segment segment = plan.get(i);
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("(grain = ? AND bucket_start >= ? AND bucket_start <= ?)");
+            bindings.add(segment.grain.name());
+            bindings.add(segment.firstBucket.toString());
+            bindings.add(segment.lastBucket.toString());
+        }
+        sql.append(" GROUP BY category ORDER BY category");
+
+        return queryBuilder.fetch(sql.toString(), bindings.toArray());
+    }
+
+    /**
+     * Per-bucket totals by category for charts and tables
+     *
+     * @param grain Bucket size
+     * @param from  First day, inclusive; widened to the start of its bucket
+     * @param to    Last day, inclusive
+     * @return Rows with bucket_start (yyyy-MM-dd), category, tickets_sold and
+     *         revenue, in bucket order
+     */
+    public List<Map<String, Object>> getSeries(Grain grain, LocalDate from, LocalDate to) {
+        return queryBuilder.fetch(
+                "SELECT bucket_start, category, tickets_sold, revenue FROM SalesRollup "
+                        + "WHERE grain = ? AND bucket_start >= ? AND bucket_start <= ? "
+                        + "ORDER BY bucket_start, category",
+                grain.name(), grain.bucketStart(from).toString(), to.toString());
+    }
+
+    /**
+     * A run of consecutive buckets of one grain
+     */
+    static class Segment {
+        final Grain grain;
+        final LocalDate firstBucket;
+        LocalDate lastBucket;
+
+        Segment(Grain grain, LocalDate firstBucket) {
+            this.grain = grain;
+            this.firstBucket = firstBucket;
+            this.lastBucket = firstBucket;
+        }
+    }
+
+    /**
+     * Covers [from, to] exactly with the coarsest buckets that fit, merging
+     * adjacent buckets of the same grain into one segment
+     */
+    static List<Segment> plan(LocalDate from, LocalDate to) {
+        List<Segment> segments = new ArrayList<>();
+        LocalDate cursor = from;
+        while (!cursor.isAfter(to)) {
+            // A week may not straddle the start of a month that fits in the
+            // range, or that month could no longer be read as one bucket
+            LocalDate weekEnd = Grain.WEEK.bucketEnd(cursor);
+            LocalDate nextMonth = Grain.MONTH.bucketStart(cursor).plusMonths(1);
+            boolean nextMonthFits = !Grain.MONTH.bucketEnd(nextMonth).isAfter(to);
+
+            Grain grain = Grain.DAY;
+            if (cursor.getDayOfMonth() == 1 && !Grain.MONTH.bucketEnd(cursor).isAfter(to)) {
+                grain = Grain.MONTH;
+            } else if (cursor.getDayOfWeek() == DayOfWeek.MONDAY && !weekEnd.isAfter(to)
+                    && (weekEnd.isBefore(nextMonth) || !nextMonthFits)) {
+                grain = Grain.WEEK;
+            }
+
+            Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (last != null && last.grain == grain) {
+                last.lastBucket = cursor;
+            } else {
+                segments.add(new Segment(grain, cursor));
+            }
+            cursor = grain.bucketEnd(cursor).plusDays(1);
+        }
+        return segments;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.toString());
+        } catch (Exception e) {
+            System.err.println("Skipping sale with unreadable date: " + value);
+            return null;
+        }
+    }
+}
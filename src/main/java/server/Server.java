@@ -1,12 +1,12 @@
 package server;
 
 import ui.MainFrame;
-import javax.swing.SwingUtilities;;
+import javax.swing.SwingUtilities;
+import utils.StartupProfiler;
 
 public class Server {
     public static void main(String[] args) {
-        // SalesAnalysis salesAnalysis = new SalesAnalysis();
-    
+        StartupProfiler.mark("main entered");
         SwingUtilities.invokeLater(() -> {
             MainFrame mainFrame = new MainFrame();
             mainFrame.setVisible(true);
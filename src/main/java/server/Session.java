@@ -0,0 +1,51 @@
+package server;
+
+import server.AuthenticationServer.UserRole;
+
+/**
+ * An authenticated operator. A session is identified by a random token and
+ * stays valid while it is used at least once per idle timeout.
+ */
+public class Session {
+    private final String token;
+    private final String username;
+    private final UserRole role;
+    private final long createdAt;
+    private volatile long lastAccessedAt;
+
+    Session(String token, String username, UserRole role, long now) {
+        this.token = token;
+        this.username = username;
+        this.role = role;
+        this.createdAt = now;
+        this.lastAccessedAt = now;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    void touch(long now) {
+        lastAccessedAt = now;
+    }
+
+    boolean isIdleSince(long cutoff) {
+        return lastAccessedAt < cutoff;
+    }
+}
@@ -0,0 +1,57 @@
+package server;
+
+import java.util.function.Supplier;
+
+/**
+ * Binds a session to the current thread for the length of a call, so code
+ * deeper down, such as AuthenticationServer.getCurrentUsername(), sees the
+ * operator the call is made for. ServiceExecutor carries the binding over to
+ * the virtual threads it starts.
+ */
+public final class SessionContext {
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private SessionContext() {
+    }
+
+    /**
+     * @return The session bound to this thread, or null if none is
+     */
+    public static Session current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs work with a session bound to this thread; the previous binding is
+     * restored afterwards, so calls can nest
+     *
+     * @param session The session, or null to run without one
+     * @param work    The work to run
+     * @return The work's result
+     */
+    public static <T> T callAs(Session session, Supplier<T> work) {
+        Session previous = CURRENT.get();
+        CURRENT.set(session);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs work with a session bound to this thread
+     *
+     * @see #callAs(Session, Supplier)
+     */
+    public static void runAs(Session session, Runnable work) {
+        callAs(session, () -> {
+            work.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package server;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import server.AuthenticationServer.UserRole;
+
+/**
+ * Thread-safe store of open sessions. A session that has not been used for
+ * the idle timeout is treated as gone on lookup and removed by a background
+ * sweep, so abandoned sessions do not accumulate.
+ */
+public class SessionStore {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+
+    /**
+     * @param idleTimeoutMillis How long an unused session stays valid
+     * @param sweepMillis       How often expired sessions are removed
+     */
+    public SessionStore(long idleTimeoutMillis, long sweepMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::evictExpired, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a session with a new random token
+     */
+    public Session create(String username, UserRole role) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Session session = new Session(token, username, role, System.currentTimeMillis());
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Looks up a session and restarts its idle timeout
+     *
+     * @return The session, or null if the token is unknown or has expired
+     */
+    public Session get(String token) {
+        Session session = token != null ? sessions.get(token) : null;
+        if (session == null) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (session.isIdleSince(now - idleTimeoutMillis)) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * Ends a session
+     *
+     * @return The removed session, or null if there was none
+     */
+    public Session remove(String token) {
+        return token != null ? sessions.remove(token) : null;
+    }
+
+    /**
+     * Removes every session idle for longer than the timeout
+     *
+     * @return Number of sessions removed
+     */
+    public int evictExpired() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        int removed = 0;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            if (entry.getValue().isIdleSince(cutoff) && sessions.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return Snapshot of the sessions that have not expired
+     */
+    public List<Session> getActiveSessions() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        List<Session> active = new ArrayList<>();
+        for (Session session : sessions.values()) {
+            if (!session.isIdleSince(cutoff)) {
+                active.add(session);
+            }
+        }
+        return active;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,458 @@
+package server;
+
+import database.QueryBuilder;
+import database.RowCursor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ticket history analytics: per-event sell-through and time-to-sellout, and
+ * revenue by ticket category.
+ *
+ * Rows are read from a cursor into fixed-size columnar chunks. Each full chunk
+ * is handed to a fork-join pool, split into ranges that fill their own
+ * primitive accumulators, and the partial results are merged up the task tree.
+ * The reader keeps filling the next chunk while the pool works on the
+ * previous ones.
+ */
+public class TicketAnalytics {
+    static final int CHUNK_ROWS = 1 << 18;
+    // Chunks queued ahead of the reader; bounds memory to a few chunks
+    private static final int MAX_CHUNKS_IN_FLIGHT = 4;
+
+    private final ForkJoinPool pool;
+
+    public TicketAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool The pool to partition work on; its parallelism sets the
+     *             number of cores used
+     */
+    public TicketAnalytics(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Analyses the whole Ticket table
+     */
+    public Result analyzeTickets() {
+        QueryBuilder queryBuilder = new QueryBuilder();
+        try (RowCursor cursor = queryBuilder.selectLazyWithFilters("Ticket", new HashMap<>(), new String[] {
+                "event_id", "ticket_type", "ticket_date", "ticket_status", "price"
+        })) {
+            return analyze(cursor);
+        } finally {
+            queryBuilder.closeConnection();
+        }
+    }
+
+    /**
+     * Analyses ticket rows shaped like Ticket table rows (event_id,
+     * ticket_type, ticket_date, ticket_status, price)
+     */
+    public Result analyze(Iterator<Map<String, Object>> rows) {
+        ChunkReader reader = new ChunkReader(rows);
+        return analyzeChunks(reader, reader.dictionary);
+    }
+
+    /**
+     * Runs the fork-join aggregation over a stream of chunks. Chunks must not
+     * be modified once returned by the iterator.
+     */
+    Result analyzeChunks(Iterator<TicketChunk> chunks, Dictionary dictionary) {
+        long start = System.nanoTime();
+        Deque<ForkJoinTask<Partial>> inFlight = new ArrayDeque<>();
+        Partial total = new Partial(0, 0);
+        long rows = 0;
+
+        while (chunks.hasNext()) {
+            TicketChunk chunk = chunks.next();
+            rows += chunk.size;
+            int threshold = Math.max(4096, chunk.size / (pool.getParallelism() * 4));
+            inFlight.addLast(pool.submit(new RangeTask(chunk, 0, chunk.size, threshold)));
+            if (inFlight.size() >= MAX_CHUNKS_IN_FLIGHT) {
+                total = total.merge(inFlight.removeFirst().join());
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            total = total.merge(inFlight.removeFirst().join());
+        }
+
+        return new Result(total, dictionary, rows, System.nanoTime() - start);
+    }
+
+    /**
+     * Event and category dictionaries shared by all chunks of one run. Event
+     * ids are mapped to dense indexes so accumulators can be plain arrays.
+     */
+    static class Dictionary {
+        private final Map<Integer, Integer> eventIndex = new HashMap<>();
+        private final List<Integer> eventIds = new ArrayList<>();
+        private final Map<String, Short> categoryIndex = new HashMap<>();
+        private final List<String> categories = new ArrayList<>();
+
+        int eventIndex(int eventId) {
+            Integer index = eventIndex.get(eventId);
+            if (index == null) {
+                index = eventIds.size();
+                eventIds.add(eventId);
+                eventIndex.put(eventId, index);
+            }
+            return index;
+        }
+
+        short categoryIndex(String category) {
+            Short index = categoryIndex.get(category);
+            if (index == null) {
+                if (categories.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("More than " + (Short.MAX_VALUE + 1) + " ticket categories");
+                }
+                index = (short) categories.size();
+                categories.add(category);
+                categoryIndex.put(category, index);
+            }
+            return index;
+        }
+
+        int eventCount() {
+            return eventIds.size();
+        }
+
+        int categoryCount() {
+            return categories.size();
+        }
+    }
+
+    /**
+     * A block of ticket rows in columnar form
+     */
+    static class TicketChunk {
+        final int[] event = new int[CHUNK_ROWS];
+        final short[] category = new short[CHUNK_ROWS];
+        final byte[] status = new byte[CHUNK_ROWS];
+        final double[] price = new double[CHUNK_ROWS];
+        final long[] soldAt = new long[CHUNK_ROWS];
+        int size;
+        // Dictionary sizes when the chunk was filled
+        int eventCount;
+        int categoryCount;
+
+        static final byte AVAILABLE = 0;
+        static final byte SOLD = 1;
+        static final byte CANCELED = 2;
+
+        boolean isFull() {
+            return size == CHUNK_ROWS;
+        }
+
+        void add(int eventIndex, short categoryIndex, byte ticketStatus, double ticketPrice, long dateMillis) {
+            event[size] = eventIndex;
+            category[size] = categoryIndex;
+            status[size] = ticketStatus;
+            price[size] = ticketPrice;
+            soldAt[size] = dateMillis;
+            size++;
+        }
+    }
+
+    /**
+     * Converts row maps into chunks on the calling thread
+     */
+    private static class ChunkReader implements Iterator<TicketChunk> {
+        private final Iterator<Map<String, Object>> rows;
+        final Dictionary dictionary = new Dictionary();
+
+        ChunkReader(Iterator<Map<String, Object>> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return rows.hasNext();
+        }
+
+        @Override
+        public TicketChunk next() {
+            TicketChunk chunk = new TicketChunk();
+            while (!chunk.isFull() && rows.hasNext()) {
+                Map<String, Object> row = rows.next();
+                Object eventId = row.get("event_id");
+                if (!(eventId instanceof Number)) {
+                    continue;
+                }
+                Object ticketType = row.get("ticket_type");
+                Object price = row.get("price");
+                Object date = row.get("ticket_date");
+
+                chunk.add(dictionary.eventIndex(((Number) eventId).intValue()),
+                        dictionary.categoryIndex(ticketType != null ? ticketType.toString() : "Unknown"),
+                        toStatus(row.get("ticket_status")),
+                        price instanceof Number ? ((Number) price).doubleValue() : 0,
+                        toMillis(date));
+            }
+            chunk.eventCount = dictionary.eventCount();
+            chunk.categoryCount = dictionary.categoryCount();
+            return chunk;
+        }
+
+        /**
+         * Reads ticket_date, which is stored as text such as
+         * "2025-05-07 09:19:56.492"
+         *
+         * @return Epoch milliseconds in the local zone, or Long.MIN_VALUE if
+         *         the date is missing or unreadable
+         */
+        static long toMillis(Object value) {
+            if (value instanceof java.util.Date) {
+                return ((java.util.Date) value).getTime();
+            }
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+            if (value == null) {
+                return Long.MIN_VALUE;
+            }
+            String text = value.toString().trim();
+            try {
+                LocalDateTime dateTime = text.length() > 10
+                        ? LocalDateTime.parse(text.replace(' ', 'T'))
+                        : LocalDate.parse(text).atStartOfDay();
+                return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        private static byte toStatus(Object value) {
+            if ("Sold".equals(value)) {
+                return TicketChunk.SOLD;
+            }
+            return "Canceled".equals(value) ? TicketChunk.CANCELED : TicketChunk.AVAILABLE;
+        }
+    }
+
+    /**
+     * Primitive accumulators for a range of rows. Arrays are indexed by the
+     * dense event and category indexes.
+     */
+    static class Partial {
+        long[] ticketsListed;
+        long[] ticketsSold;
+        double[] eventRevenue;
+        long[] firstListedAt;
+        long[] lastSoldAt;
+        long[] categorySold;
+        double[] categoryRevenue;
+
+        Partial(int events, int categories) {
+            ticketsListed = new long[events];
+            ticketsSold = new long[events];
+            eventRevenue = new double[events];
+            firstListedAt = new long[events];
+            lastSoldAt = new long[events];
+            Arrays.fill(firstListedAt, Long.MAX_VALUE);
+            Arrays.fill(lastSoldAt, Long.MIN_VALUE);
+            categorySold = new long[categories];
+            categoryRevenue = new double[categories];
+        }
+
+        void accumulate(TicketChunk chunk, int from, int to) {
+            for (int i = from; i < to; i++) {
+                byte ticketStatus = chunk.status[i];
+                if (ticketStatus == TicketChunk.CANCELED) {
+                    continue;
+                }
+                int e = chunk.event[i];
+                long at = chunk.soldAt[i];
+                ticketsListed[e]++;
+                if (at != Long.MIN_VALUE && at < firstListedAt[e]) {
+                    firstListedAt[e] = at;
+                }
+                if (ticketStatus == TicketChunk.SOLD) {
+                    double p = chunk.price[i];
+                    int c = chunk.category[i];
+                    ticketsSold[e]++;
+                    eventRevenue[e] += p;
+                    categorySold[c]++;
+                    categoryRevenue[c] += p;
+                    if (at > lastSoldAt[e]) {
+                        lastSoldAt[e] = at;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Combines two partials, growing to the larger dictionary size
+         *
+         * @return The merged partial (one of the two, reused)
+         */
+        Partial merge(Partial other) {
+            Partial target = ticketsListed.length >= other.ticketsListed.length ? this : other;
+            Partial source = target == this ? other : this;
+            if (target.categorySold.length < source.categorySold.length) {
+                target.categorySold = Arrays.copyOf(target.categorySold, source.categorySold.length);
+                target.categoryRevenue = Arrays.copyOf(target.categoryRevenue, source.categoryRevenue.length);
+            }
+
+            for (int e = 0; e < source.ticketsListed.length; e++) {
+                target.ticketsListed[e] += source.ticketsListed[e];
+                target.ticketsSold[e] += source.ticketsSold[e];
+                target.eventRevenue[e] += source.eventRevenue[e];
+                target.firstListedAt[e] = Math.min(target.firstListedAt[e], source.firstListedAt[e]);
+                target.lastSoldAt[e] = Math.max(target.lastSoldAt[e], source.lastSoldAt[e]);
+            }
+            for (int c = 0; c < source.categorySold.length; c++) {
+                target.categorySold[c] += source.categorySold[c];
+                target.categoryRevenue[c] += source.categoryRevenue[c];
+            }
+            return target;
+        }
+    }
+
+    /**
+     * Splits a chunk range in halves until it is small enough to scan
+     */
+    private static class RangeTask extends RecursiveTask<Partial> {
+        private final TicketChunk chunk;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RangeTask(TicketChunk chunk, int from, int to, int threshold) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= threshold) {
+                Partial partial = new Partial(chunk.eventCount, chunk.categoryCount);
+                partial.accumulate(chunk, from, to);
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(chunk, from, middle, threshold);
+            left.fork();
+            Partial right = new RangeTask(chunk, middle, to, threshold).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Per-event ticket statistics
+     */
+    public static class EventStats {
+        private final int eventId;
+        private final long ticketsListed;
+        private final long ticketsSold;
+        private final double revenue;
+        private final long timeToSelloutMillis;
+
+        EventStats(int eventId, long ticketsListed, long ticketsSold, double revenue, long timeToSelloutMillis) {
+            this.eventId = eventId;
+            this.ticketsListed = ticketsListed;
+            this.ticketsSold = ticketsSold;
+            this.revenue = revenue;
+            this.timeToSelloutMillis = timeToSelloutMillis;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        /**
+         * @return Tickets that were not canceled
+         */
+        public long getTicketsListed() {
+            return ticketsListed;
+        }
+
+        public long getTicketsSold() {
+            return ticketsSold;
+        }
+
+        public double getRevenue() {
+            return revenue;
+        }
+
+        /**
+         * @return Sold tickets as a fraction of listed tickets
+         */
+        public double getSellThrough() {
+            return ticketsListed > 0 ? (double) ticketsSold / ticketsListed : 0;
+        }
+
+        /**
+         * @return Time from the first listed ticket to the last sale, or -1 if
+         *         the event has not sold out
+         */
+        public long getTimeToSelloutMillis() {
+            return timeToSelloutMillis;
+        }
+    }
+
+    /**
+     * Outcome of an analytics run
+     */
+    public static class Result {
+        private final List<EventStats> events;
+        private final Map<String, Double> revenueByCategory = new LinkedHashMap<>();
+        private final Map<String, Long> ticketsSoldByCategory = new LinkedHashMap<>();
+        private final long rowsScanned;
+        private final long elapsedNanos;
+
+        Result(Partial total, Dictionary dictionary, long rowsScanned, long elapsedNanos) {
+            this.rowsScanned = rowsScanned;
+            this.elapsedNanos = elapsedNanos;
+
+            int eventCount = total.ticketsListed.length;
+            events = new ArrayList<>(eventCount);
+            for (int e = 0; e < eventCount; e++) {
+                boolean soldOut = total.ticketsSold[e] > 0 && total.ticketsSold[e] == total.ticketsListed[e]
+                        && total.firstListedAt[e] != Long.MAX_VALUE && total.lastSoldAt[e] != Long.MIN_VALUE;
+                events.add(new EventStats(dictionary.eventIds.get(e), total.ticketsListed[e], total.ticketsSold[e],
+                        total.eventRevenue[e], soldOut ? total.lastSoldAt[e] - total.firstListedAt[e] : -1));
+            }
+            for (int c = 0; c < total.categorySold.length; c++) {
+                revenueByCategory.put(dictionary.categories.get(c), total.categoryRevenue[c]);
+                ticketsSoldByCategory.put(dictionary.categories.get(c), total.categorySold[c]);
+            }
+        }
+
+        /**
+         * @return Statistics for every event with at least one ticket, in the
+         *         order events were first seen
+         */
+        public List<EventStats> getEvents() {
+            return events;
+        }
+
+        public Map<String, Double> getRevenueByCategory() {
+            return revenueByCategory;
+        }
+
+        public Map<String, Long> getTicketsSoldByCategory() {
+            return ticketsSoldByCategory;
+        }
+
+        public long getRowsScanned() {
+            return rowsScanned;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package server.notification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe in-memory implementation of the NotificationRepository
+ * interface. Each user's notifications are kept in time order, with secondary
+ * indexes by type and by unread state and an unread counter maintained on
+ * every write, so badges are O(1) and filtered lists only visit matching
+ * notifications. Deletes are O(log n), and a page costs O(log n) plus its
+ * size however many notifications the user has.
+ *
+ * Lists are returned oldest first, like InMemoryNotificationRepository.
+ */
+public class ConcurrentNotificationRepository implements NotificationRepository {
+
+  private final Map<String, Entry> notifications = new ConcurrentHashMap<>();
+  private final Map<String, UserIndex> users = new ConcurrentHashMap<>();
+
+  // Tie-breaker for notifications with the same timestamp
+  private final AtomicLong sequence = new AtomicLong();
+
+  @Override
+  public String save(Notification notification) {
+    Entry entry = new Entry(notification, new OrderKey(timeOf(notification), sequence.incrementAndGet()));
+    Entry previous = notifications.put(notification.getId(), entry);
+    if (previous != null) {
+      unindex(previous);
+    }
+    index(entry);
+    return notification.getId();
+  }
+
+  @Override
+  public Notification findById(String id) {
+    Entry entry = notifications.get(id);
+    return entry != null ? entry.notification : null;
+  }
+
+  @Override
+  public List<Notification> findByUserId(String userId) {
+    UserIndex user = users.get(userKey(userId));
+    return user != null ? toList(user.timeline.values()) : new ArrayList<>();
+  }
+
+  @Override
+  public List<Notification> findByUserIdAndFilters(String userId, NotificationType type, boolean onlyUnread) {
+    UserIndex user = users.get(userKey(userId));
+    if (user == null) {
+      return new ArrayList<>();
+    }
+
+    if (type == null) {
+      return toList((onlyUnread ? user.unread : user.timeline).values());
+    }
+
+    if (!onlyUnread) {
+      Map<OrderKey, Entry> byType = user.byType.get(type);
+      return byType != null ? toList(byType.values()) : new ArrayList<>();
+    }
+
+    // Unread notifications are the few, so filter those by type
+    List<Notification> result = new ArrayList<>();
+    for (Entry entry : user.unread.values()) {
+      if (entry.type == type) {
+        result.add(entry.notification);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<Notification> findPage(String userId, NotificationType type, boolean onlyUnread,
+      Notification after, int limit) {
+    List<Notification> page = new ArrayList<>();
+    UserIndex user = users.get(userKey(userId));
+    if (user == null) {
+      return page;
+    }
+
+    // Unread notifications are the few, so filter those by type
+    NavigableMap<OrderKey, Entry> index = onlyUnread ? user.unread
+        : type != null ? user.byType.get(type) : user.timeline;
+    if (index == null) {
+      return page;
+    }
+    if (after != null) {
+      // Start below the cursor; a deleted cursor only has its timestamp left
+      Entry cursor = notifications.get(after.getId());
+      index = index.headMap(cursor != null ? cursor.key : new OrderKey(timeOf(after), Long.MIN_VALUE), false);
+    }
+
+    for (Entry entry : index.descendingMap().values()) {
+      if (page.size() >= limit) {
+        break;
+      }
+      if (!onlyUnread || type == null || entry.type == type) {
+        page.add(entry.notification);
+      }
+    }
+    return page;
+  }
+
+  @Override
+  public boolean update(Notification notification) {
+    Entry entry = notifications.get(notification.getId());
+    if (entry == null) {
+      return false;
+    }
+
+    // A new instance, or a changed user or type, needs re-indexing
+    if (entry.notification != notification || !Objects.equals(entry.userId, notification.getUserId())
+        || entry.type != notification.getType()) {
+      Entry replacement = new Entry(notification, entry.key);
+      if (!notifications.replace(notification.getId(), entry, replacement)) {
+        return false; // Deleted or replaced concurrently
+      }
+      unindex(entry);
+      index(replacement);
+      return true;
+    }
+
+    syncReadState(entry, users.get(userKey(entry.userId)));
+    return true;
+  }
+
+  @Override
+  public boolean delete(String id) {
+    Entry entry = notifications.remove(id);
+    if (entry == null) {
+      return false;
+    }
+    unindex(entry);
+    return true;
+  }
+
+  @Override
+  public int getUnreadCount(String userId) {
+    UserIndex user = users.get(userKey(userId));
+    return user != null ? user.unreadCount.get() : 0;
+  }
+
+  @Override
+  public int markAllAsRead(String userId) {
+    UserIndex user = users.get(userKey(userId));
+    if (user == null) {
+      return 0;
+    }
+
+    int count = 0;
+    for (Entry entry : user.unread.values()) {
+      entry.notification.setRead(true);
+      if (syncReadState(entry, user)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public int deleteExpired(Date olderThan, int maxPerUser) {
+    int count = 0;
+    for (UserIndex user : users.values()) {
+      if (olderThan != null) {
+        for (Entry entry : user.timeline.headMap(new OrderKey(olderThan.getTime(), Long.MIN_VALUE)).values()) {
+          if (remove(entry)) {
+            count++;
+          }
+        }
+      }
+      if (maxPerUser > 0) {
+        int kept = 0;
+        for (Entry entry : user.timeline.descendingMap().values()) {
+          if (++kept > maxPerUser && remove(entry)) {
+            count++;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  // Deletes an entry unless it was replaced or deleted meanwhile
+  private boolean remove(Entry entry) {
+    if (!notifications.remove(entry.notification.getId(), entry)) {
+      return false;
+    }
+    unindex(entry);
+    return true;
+  }
+
+  private void index(Entry entry) {
+    UserIndex user = users.computeIfAbsent(userKey(entry.userId), key -> new UserIndex());
+    user.timeline.put(entry.key, entry);
+    if (entry.type != null) {
+      user.byType.computeIfAbsent(entry.type, key -> new ConcurrentSkipListMap<>()).put(entry.key, entry);
+    }
+    syncReadState(entry, user);
+
+    // Deleted while being indexed; removing again is harmless
+    if (entry.isRemoved()) {
+      unindex(entry);
+    }
+  }
+
+  private void unindex(Entry entry) {
+    UserIndex user = users.get(userKey(entry.userId));
+    if (user == null) {
+      return;
+    }
+    user.timeline.remove(entry.key, entry);
+    Map<OrderKey, Entry> byType = entry.type != null ? user.byType.get(entry.type) : null;
+    if (byType != null) {
+      byType.remove(entry.key, entry);
+    }
+    synchronized (entry) {
+      entry.removed = true;
+      if (entry.unread) {
+        entry.unread = false;
+        user.unread.remove(entry.key, entry);
+        user.unreadCount.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Brings the unread index and counter in line with the notification's read
+   * flag. Notifications are mutated in place before update() is called, so
+   * the entry remembers the state it was last indexed with.
+   *
+   * @return true if the notification went from unread to read
+   */
+  private static boolean syncReadState(Entry entry, UserIndex user) {
+    if (user == null) {
+      return false;
+    }
+    synchronized (entry) {
+      boolean unread = !entry.notification.isRead();
+      if (entry.removed || unread == entry.unread) {
+        return false;
+      }
+      entry.unread = unread;
+      if (unread) {
+        user.unread.put(entry.key, entry);
+        user.unreadCount.incrementAndGet();
+      } else {
+        user.unread.remove(entry.key, entry);
+        user.unreadCount.decrementAndGet();
+      }
+      return !unread;
+    }
+  }
+
+  private static List<Notification> toList(Collection<Entry> entries) {
+    List<Notification> result = new ArrayList<>();
+    for (Entry entry : entries) {
+      result.add(entry.notification);
+    }
+    return result;
+  }
+
+  // ConcurrentHashMap has no null keys
+  private static String userKey(String userId) {
+    return userId != null ? userId : "";
+  }
+
+  private static long timeOf(Notification notification) {
+    return notification.getTimestamp() != null ? notification.getTimestamp().getTime() : System.currentTimeMillis();
+  }
+
+  /**
+   * One user's notifications, each map ordered oldest first
+   */
+  private static class UserIndex {
+    final ConcurrentSkipListMap<OrderKey, Entry> timeline = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<OrderKey, Entry> unread = new ConcurrentSkipListMap<>();
+    final Map<NotificationType, ConcurrentSkipListMap<OrderKey, Entry>> byType = new ConcurrentHashMap<>();
+    final AtomicInteger unreadCount = new AtomicInteger();
+  }
+
+  private static class Entry {
+    final Notification notification;
+    final OrderKey key;
+    // User and type the entry is indexed under
+    final String userId;
+    final NotificationType type;
+    // Guarded by this
+    boolean unread;
+    boolean removed;
+
+    Entry(Notification notification, OrderKey key) {
+      this.notification = notification;
+      this.key = key;
+      this.userId = notification.getUserId();
+      this.type = notification.getType();
+    }
+
+    synchronized boolean isRemoved() {
+      return removed;
+    }
+  }
+
+  private static class OrderKey implements Comparable<OrderKey> {
+    final long time;
+    final long sequence;
+
+    OrderKey(long time, long sequence) {
+      this.time = time;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(OrderKey other) {
+      int byTime = Long.compare(time, other.time);
+      return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+  }
+}
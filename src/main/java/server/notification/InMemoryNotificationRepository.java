@@ -1,6 +1,7 @@
 package server.notification;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -99,4 +100,24 @@ public class InMemoryNotificationRepository implements NotificationRepository {
 
     return count;
   }
-}
\ No newline at end of file
+
+  @Override
+  public int deleteExpired(Date olderThan, int maxPerUser) {
+    List<String> expired = new ArrayList<>();
+    for (List<String> ids : userNotificationIds.values()) {
+      // Ids are in the order saved, oldest first
+      int excess = maxPerUser > 0 ? Math.max(0, ids.size() - maxPerUser) : 0;
+      for (int i = 0; i < ids.size(); i++) {
+        Date timestamp = notifications.get(ids.get(i)).getTimestamp();
+        if (i < excess || (olderThan != null && timestamp != null && timestamp.before(olderThan))) {
+          expired.add(ids.get(i));
+        }
+      }
+    }
+
+    for (String id : expired) {
+      delete(id);
+    }
+    return expired.size();
+  }
+}
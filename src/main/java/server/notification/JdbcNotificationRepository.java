@@ -0,0 +1,487 @@
+package server.notification;
+
+import database.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * SQLite implementation of the NotificationRepository interface, so
+ * notifications survive a restart.
+ *
+ * New notifications are written behind: save() only queues the row, and a
+ * writer thread inserts everything queued so far in one transaction (group
+ * commit), so a burst of sendNotification calls costs one commit instead of
+ * one each. When the queue is full, save() blocks until the writer catches
+ * up. Every other operation first waits for the queued rows to be committed,
+ * so callers always read their own writes.
+ *
+ * A broadcast is stored once in NotificationBroadcast (message and related
+ * entity); each recipient gets a small Notification row pointing to it with
+ * its own read state. A trigger removes the payload with its last recipient.
+ *
+ * Expired notifications are deleted in chunks of one transaction each, so
+ * readers are held up for one chunk at most.
+ */
+public class JdbcNotificationRepository implements NotificationRepository {
+
+  private static final int QUEUE_CAPACITY = 10_000;
+  private static final int MAX_BATCH = 1_000;
+
+  private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS Notification ("
+      + "seq INTEGER PRIMARY KEY AUTOINCREMENT, "
+      + "id TEXT NOT NULL UNIQUE, "
+      + "user_id TEXT NOT NULL, "
+      + "message TEXT, "
+      + "type TEXT, "
+      + "timestamp INTEGER NOT NULL, "
+      + "read INTEGER NOT NULL DEFAULT 0, "
+      + "related_entity_id TEXT, "
+      + "broadcast_id TEXT)";
+
+  private static final String CREATE_BROADCAST_TABLE_SQL = "CREATE TABLE IF NOT EXISTS NotificationBroadcast ("
+      + "id TEXT PRIMARY KEY, "
+      + "message TEXT, "
+      + "related_entity_id TEXT)";
+
+  private static final String[] CREATE_INDEX_SQL = {
+      "CREATE INDEX IF NOT EXISTS idx_notification_user_read_time ON Notification(user_id, read, timestamp)",
+      // Serves newest-first pages without a read filter, however long the history
+      "CREATE INDEX IF NOT EXISTS idx_notification_user_time ON Notification(user_id, timestamp)",
+      "CREATE INDEX IF NOT EXISTS idx_notification_broadcast ON Notification(broadcast_id)",
+      "CREATE TRIGGER IF NOT EXISTS delete_unused_notification_broadcast AFTER DELETE ON Notification "
+          + "WHEN OLD.broadcast_id IS NOT NULL "
+          + "AND NOT EXISTS (SELECT 1 FROM Notification WHERE broadcast_id = OLD.broadcast_id) "
+          + "BEGIN DELETE FROM NotificationBroadcast WHERE id = OLD.broadcast_id; END"
+  };
+
+  // Broadcast recipients take message and related entity from the payload
+  private static final String SELECT_SQL = "SELECT n.id, n.user_id, "
+      + "COALESCE(n.message, b.message) AS message, n.type, n.timestamp, n.read, "
+      + "COALESCE(n.related_entity_id, b.related_entity_id) AS related_entity_id, n.broadcast_id "
+      + "FROM Notification n LEFT JOIN NotificationBroadcast b ON b.id = n.broadcast_id";
+
+  private static final String INSERT_SQL = "INSERT OR REPLACE INTO Notification "
+      + "(id, user_id, message, type, timestamp, read, related_entity_id, broadcast_id) "
+      + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_BROADCAST_SQL = "INSERT OR IGNORE INTO NotificationBroadcast "
+      + "(id, message, related_entity_id) VALUES (?, ?, ?)";
+
+  // The writer and readers share this connection; lock it for each use
+  private final Connection connection;
+  private final BlockingQueue<Notification> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+  private final Thread writer;
+
+  // Guarded by this: rows queued and rows committed (or given up on) so far
+  private long queued;
+  private long written;
+
+  public JdbcNotificationRepository() {
+    try {
+      connection = Database.getConnection();
+      try (Statement statement = connection.createStatement()) {
+        // Wait for other connections to this file instead of failing at once
+        statement.execute("PRAGMA busy_timeout = 5000");
+        statement.execute(CREATE_TABLE_SQL);
+        statement.execute(CREATE_BROADCAST_TABLE_SQL);
+        addBroadcastColumnIfMissing(statement);
+        for (String sql : CREATE_INDEX_SQL) {
+          statement.execute(sql);
+        }
+      }
+    } catch (SQLException e) {
+      throw new IllegalStateException("Cannot open the notification store", e);
+    }
+
+    writer = new Thread(this::writeLoop, "notification-writer");
+    writer.setDaemon(true);
+    writer.start();
+
+    // Commit what is still queued when the application exits
+    Runtime.getRuntime().addShutdownHook(new Thread(this::awaitPendingWrites, "notification-flush"));
+  }
+
+  @Override
+  public String save(Notification notification) {
+    // A copy, so later changes to the caller's object do not race the writer
+    Notification row = copyOf(notification);
+    synchronized (this) {
+      queued++;
+    }
+    try {
+      pending.put(row);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      markWritten(1);
+      throw new IllegalStateException("Interrupted while queueing a notification", e);
+    }
+    return notification.getId();
+  }
+
+  @Override
+  public Notification findById(String id) {
+    List<Notification> rows = query(SELECT_SQL + " WHERE n.id = ?", id);
+    return rows.isEmpty() ? null : rows.get(0);
+  }
+
+  @Override
+  public List<Notification> findByUserId(String userId) {
+    return findByUserIdAndFilters(userId, null, false);
+  }
+
+  @Override
+  public List<Notification> findByUserIdAndFilters(String userId, NotificationType type, boolean onlyUnread) {
+    StringBuilder sql = new StringBuilder(SELECT_SQL + " WHERE n.user_id = ?");
+    List<Object> bindings = new ArrayList<>();
+    bindings.add(userId);
+    appendFilters(sql, bindings, type, onlyUnread);
+    sql.append(" ORDER BY n.timestamp, n.seq");
+    return query(sql.toString(), bindings.toArray());
+  }
+
+  @Override
+  public List<Notification> findPage(String userId, NotificationType type, boolean onlyUnread,
+      Notification after, int limit) {
+    StringBuilder sql = new StringBuilder(SELECT_SQL + " WHERE n.user_id = ?");
+    List<Object> bindings = new ArrayList<>();
+    bindings.add(userId);
+    appendFilters(sql, bindings, type, onlyUnread);
+    if (after != null) {
+      // Keyset paging: strictly older, with seq breaking timestamp ties. A
+      // deleted cursor has no seq, so only older timestamps match.
+      sql.append(" AND (n.timestamp < ? OR (n.timestamp = ? AND n.seq < "
+          + "COALESCE((SELECT seq FROM Notification WHERE id = ?), -1)))");
+      long time = after.getTimestamp().getTime();
+      bindings.add(time);
+      bindings.add(time);
+      bindings.add(after.getId());
+    }
+    sql.append(" ORDER BY n.timestamp DESC, n.seq DESC LIMIT ?");
+    bindings.add(limit);
+    return query(sql.toString(), bindings.toArray());
+  }
+
+  @Override
+  public boolean update(Notification notification) {
+    // A broadcast recipient keeps sharing the payload
+    return execute("UPDATE Notification SET user_id = ?, type = ?, timestamp = ?, read = ?, "
+        + "message = CASE WHEN broadcast_id IS NULL THEN ? ELSE message END, "
+        + "related_entity_id = CASE WHEN broadcast_id IS NULL THEN ? ELSE related_entity_id END "
+        + "WHERE id = ?",
+        notification.getUserId(), typeName(notification.getType()), timeOf(notification),
+        notification.isRead() ? 1 : 0, notification.getMessage(), notification.getRelatedEntityId(),
+        notification.getId()) > 0;
+  }
+
+  @Override
+  public boolean delete(String id) {
+    return execute("DELETE FROM Notification WHERE id = ?", id) > 0;
+  }
+
+  @Override
+  public int getUnreadCount(String userId) {
+    awaitPendingWrites();
+    synchronized (connection) {
+      try (PreparedStatement statement = connection.prepareStatement(
+          "SELECT COUNT(*) FROM Notification WHERE user_id = ? AND read = 0")) {
+        statement.setString(1, userId);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+      } catch (SQLException e) {
+        System.err.println("Error counting notifications: " + e.getMessage());
+        return 0;
+      }
+    }
+  }
+
+  @Override
+  public int markAllAsRead(String userId) {
+    return execute("UPDATE Notification SET read = 1 WHERE user_id = ? AND read = 0", userId);
+  }
+
+  @Override
+  public int deleteExpired(Date olderThan, int maxPerUser) {
+    long cutoff = olderThan != null ? olderThan.getTime() : Long.MIN_VALUE;
+    List<Long> expired = new ArrayList<>();
+    if (olderThan != null) {
+      expired.addAll(querySeqs("SELECT seq FROM Notification WHERE timestamp < ?", cutoff));
+    }
+    if (maxPerUser > 0) {
+      // Ranked newest first per user; rows already too old are listed above
+      expired.addAll(querySeqs("SELECT seq FROM (SELECT seq, timestamp, ROW_NUMBER() OVER "
+          + "(PARTITION BY user_id ORDER BY timestamp DESC, seq DESC) AS position FROM Notification) "
+          + "WHERE position > ? AND timestamp >= ?", maxPerUser, cutoff));
+    }
+
+    int deleted = 0;
+    for (int from = 0; from < expired.size(); from += MAX_BATCH) {
+      deleted += deleteChunk(expired.subList(from, Math.min(expired.size(), from + MAX_BATCH)));
+    }
+    return deleted;
+  }
+
+  /**
+   * Blocks until every notification saved so far has been committed
+   */
+  public void awaitPendingWrites() {
+    if (Thread.currentThread() == writer) {
+      return;
+    }
+    synchronized (this) {
+      long target = queued;
+      boolean interrupted = false;
+      while (written < target) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void writeLoop() {
+    List<Notification> batch = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(pending.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      // Everything that queued up while the previous batch was committing
+      pending.drainTo(batch, MAX_BATCH - 1);
+      try {
+        writeBatch(batch);
+      } finally {
+        markWritten(batch.size());
+        batch.clear();
+      }
+    }
+  }
+
+  private void writeBatch(List<Notification> batch) {
+    synchronized (connection) {
+      try {
+        connection.setAutoCommit(false);
+        try (PreparedStatement payloads = connection.prepareStatement(INSERT_BROADCAST_SQL);
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+          Set<String> broadcastIds = new HashSet<>();
+          for (Notification notification : batch) {
+            if (notification.getBroadcastId() != null && broadcastIds.add(notification.getBroadcastId())) {
+              bindPayload(payloads, notification);
+              payloads.addBatch();
+            }
+            bindInsert(statement, notification);
+            statement.addBatch();
+          }
+          payloads.executeBatch();
+          statement.executeBatch();
+          connection.commit();
+          return;
+        } catch (SQLException e) {
+          connection.rollback();
+          System.err.println("Notification batch of " + batch.size() + " failed, retrying one by one: "
+              + e.getMessage());
+        } finally {
+          connection.setAutoCommit(true);
+        }
+
+        // One bad row should not lose the rest of the batch
+        try (PreparedStatement payloads = connection.prepareStatement(INSERT_BROADCAST_SQL);
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+          for (Notification notification : batch) {
+            try {
+              if (notification.getBroadcastId() != null) {
+                bindPayload(payloads, notification);
+                payloads.executeUpdate();
+              }
+              bindInsert(statement, notification);
+              statement.executeUpdate();
+            } catch (SQLException e) {
+              System.err.println("Dropping notification " + notification.getId() + ": " + e.getMessage());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        System.err.println("Error writing notifications: " + e.getMessage());
+      }
+    }
+  }
+
+  private synchronized void markWritten(int count) {
+    written += count;
+    notifyAll();
+  }
+
+  private List<Notification> query(String sql, Object... bindings) {
+    awaitPendingWrites();
+    List<Notification> rows = new ArrayList<>();
+    synchronized (connection) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        bind(statement, bindings);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            rows.add(toNotification(resultSet));
+          }
+        }
+      } catch (SQLException e) {
+        System.err.println("Error loading notifications: " + e.getMessage());
+      }
+    }
+    return rows;
+  }
+
+  private List<Long> querySeqs(String sql, Object... bindings) {
+    awaitPendingWrites();
+    List<Long> seqs = new ArrayList<>();
+    synchronized (connection) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        bind(statement, bindings);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          while (resultSet.next()) {
+            seqs.add(resultSet.getLong(1));
+          }
+        }
+      } catch (SQLException e) {
+        System.err.println("Error finding expired notifications: " + e.getMessage());
+      }
+    }
+    return seqs;
+  }
+
+  private int deleteChunk(List<Long> seqs) {
+    synchronized (connection) {
+      try {
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM Notification WHERE seq = ?")) {
+          for (long seq : seqs) {
+            statement.setLong(1, seq);
+            statement.addBatch();
+          }
+          int deleted = 0;
+          for (int count : statement.executeBatch()) {
+            deleted += Math.max(0, count);
+          }
+          connection.commit();
+          return deleted;
+        } catch (SQLException e) {
+          connection.rollback();
+          System.err.println("Error deleting expired notifications: " + e.getMessage());
+          return 0;
+        } finally {
+          connection.setAutoCommit(true);
+        }
+      } catch (SQLException e) {
+        System.err.println("Error deleting expired notifications: " + e.getMessage());
+        return 0;
+      }
+    }
+  }
+
+  private int execute(String sql, Object... bindings) {
+    awaitPendingWrites();
+    synchronized (connection) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        bind(statement, bindings);
+        return statement.executeUpdate();
+      } catch (SQLException e) {
+        System.err.println("Error updating notifications: " + e.getMessage());
+        return 0;
+      }
+    }
+  }
+
+  private static void appendFilters(StringBuilder sql, List<Object> bindings, NotificationType type,
+      boolean onlyUnread) {
+    if (onlyUnread) {
+      sql.append(" AND n.read = 0");
+    }
+    if (type != null) {
+      sql.append(" AND n.type = ?");
+      bindings.add(type.name());
+    }
+  }
+
+  private static void bind(PreparedStatement statement, Object... bindings) throws SQLException {
+    for (int i = 0; i < bindings.length; i++) {
+      statement.setObject(i + 1, bindings[i]);
+    }
+  }
+
+  private static void bindInsert(PreparedStatement statement, Notification notification) throws SQLException {
+    boolean shared = notification.getBroadcastId() != null;
+    statement.setString(1, notification.getId());
+    statement.setString(2, notification.getUserId());
+    statement.setString(3, shared ? null : notification.getMessage());
+    statement.setString(4, typeName(notification.getType()));
+    statement.setLong(5, timeOf(notification));
+    statement.setInt(6, notification.isRead() ? 1 : 0);
+    statement.setString(7, shared ? null : notification.getRelatedEntityId());
+    statement.setString(8, notification.getBroadcastId());
+  }
+
+  private static void bindPayload(PreparedStatement statement, Notification notification) throws SQLException {
+    statement.setString(1, notification.getBroadcastId());
+    statement.setString(2, notification.getMessage());
+    statement.setString(3, notification.getRelatedEntityId());
+  }
+
+  // Tables created before broadcasts were stored lack the column
+  private static void addBroadcastColumnIfMissing(Statement statement) throws SQLException {
+    try (ResultSet columns = statement.executeQuery("PRAGMA table_info(Notification)")) {
+      while (columns.next()) {
+        if ("broadcast_id".equals(columns.getString("name"))) {
+          return;
+        }
+      }
+    }
+    statement.execute("ALTER TABLE Notification ADD COLUMN broadcast_id TEXT");
+  }
+
+  private static Notification toNotification(ResultSet resultSet) throws SQLException {
+    Notification notification = new Notification();
+    notification.setId(resultSet.getString("id"));
+    notification.setUserId(resultSet.getString("user_id"));
+    notification.setMessage(resultSet.getString("message"));
+    String type = resultSet.getString("type");
+    notification.setType(type != null ? NotificationType.valueOf(type) : null);
+    notification.setTimestamp(new Date(resultSet.getLong("timestamp")));
+    notification.setRead(resultSet.getInt("read") != 0);
+    notification.setRelatedEntityId(resultSet.getString("related_entity_id"));
+    notification.setBroadcastId(resultSet.getString("broadcast_id"));
+    return notification;
+  }
+
+  private static Notification copyOf(Notification notification) {
+    Notification copy = new Notification(notification.getUserId(), notification.getMessage(),
+        notification.getType(), notification.getRelatedEntityId());
+    copy.setId(notification.getId());
+    copy.setTimestamp(new Date(timeOf(notification)));
+    copy.setRead(notification.isRead());
+    copy.setBroadcastId(notification.getBroadcastId());
+    return copy;
+  }
+
+  private static String typeName(NotificationType type) {
+    return type != null ? type.name() : null;
+  }
+
+  private static long timeOf(Notification notification) {
+    return notification.getTimestamp() != null ? notification.getTimestamp().getTime() : System.currentTimeMillis();
+  }
+}
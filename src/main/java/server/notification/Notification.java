@@ -1,6 +1,8 @@
 package server.notification;
 
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -12,8 +14,10 @@ public class Notification {
   private String message;
   private NotificationType type;
   private Date timestamp;
-  private boolean read;
+  private volatile boolean read;
   private String relatedEntityId; // ID of related entity (event, booking, etc.)
+  private String broadcastId; // Shared by all recipients of one broadcast, else null
+  private List<String> recipients; // All recipients of the broadcast, else null
 
   /**
    * Default constructor
@@ -109,6 +113,25 @@ public class Notification {
     this.relatedEntityId = relatedEntityId;
   }
 
+  public String getBroadcastId() {
+    return broadcastId;
+  }
+
+  public void setBroadcastId(String broadcastId) {
+    this.broadcastId = broadcastId;
+  }
+
+  /**
+   * @return Every user a broadcast went to, or just this notification's user
+   */
+  public List<String> getRecipients() {
+    return recipients != null ? recipients : Collections.singletonList(userId);
+  }
+
+  public void setRecipients(List<String> recipients) {
+    this.recipients = recipients;
+  }
+
   @Override
   public String toString() {
     return "Notification{" +
@@ -119,6 +142,7 @@ public class Notification {
         ", timestamp=" + timestamp +
         ", read=" + read +
         ", relatedEntityId='" + relatedEntityId + '\'' +
+        ", broadcastId='" + broadcastId + '\'' +
         '}';
   }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package server.notification;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers notifications to observers on a dispatcher thread, so the thread
+ * that sends a notification (e.g. a booking) never waits for observers such
+ * as UI refreshes.
+ *
+ * Many threads publish into one bounded queue that a single dispatcher
+ * drains. After the first notification of a burst the dispatcher waits a
+ * short coalescing window, then delivers each user's notifications as one
+ * batch, with identical messages merged. If the queue is full, the overflow
+ * policy decides which notification is dropped. Only the live delivery is
+ * lost: notifications are saved in the repository before they are
+ * published, and a view refreshed by any later delivery reads them from
+ * there.
+ */
+public class NotificationBus {
+
+  /**
+   * What publish() does when the queue is full
+   */
+  public enum OverflowPolicy {
+    /** Drop the oldest queued notification to make room */
+    DROP_OLDEST,
+    /** Drop the notification being published */
+    DROP_NEWEST,
+    /** Wait for room; the sender is slowed to the observers' pace */
+    BLOCK
+  }
+
+  private static final int MAX_BATCH = 1_000;
+
+  private final BlockingQueue<Notification> queue;
+  private final long coalesceMillis;
+  private final OverflowPolicy overflowPolicy;
+  private final List<NotificationObserver> observers = new CopyOnWriteArrayList<>();
+  private final Thread dispatcher;
+
+  // Metrics
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong delivered = new AtomicLong();
+  private final AtomicLong merged = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong batches = new AtomicLong();
+
+  /**
+   * @param capacity       Maximum number of queued notifications
+   * @param coalesceMillis How long to collect a burst before delivering it
+   * @param overflowPolicy What to do when the queue is full
+   */
+  public NotificationBus(int capacity, long coalesceMillis, OverflowPolicy overflowPolicy) {
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.coalesceMillis = coalesceMillis;
+    this.overflowPolicy = overflowPolicy;
+
+    dispatcher = new Thread(this::dispatchLoop, "notification-dispatcher");
+    dispatcher.setDaemon(true);
+    dispatcher.start();
+  }
+
+  public void register(NotificationObserver observer) {
+    if (!observers.contains(observer)) {
+      observers.add(observer);
+    }
+  }
+
+  public void unregister(NotificationObserver observer) {
+    observers.remove(observer);
+  }
+
+  /**
+   * Queues a notification for delivery without waiting for observers
+   *
+   * @return false if the notification was dropped because the queue is full
+   */
+  public boolean publish(Notification notification) {
+    published.incrementAndGet();
+    if (queue.offer(notification)) {
+      return true;
+    }
+
+    switch (overflowPolicy) {
+      case BLOCK:
+        try {
+          queue.put(notification);
+          return true;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      case DROP_OLDEST:
+        // Another publisher may refill the slot; then this one is dropped
+        if (queue.poll() != null) {
+          dropped.incrementAndGet();
+        }
+        if (queue.offer(notification)) {
+          return true;
+        }
+        break;
+      default:
+        break;
+    }
+    dropped.incrementAndGet();
+    return false;
+  }
+
+  /**
+   * @return A snapshot of the bus's counters
+   */
+  public Metrics getMetrics() {
+    return new Metrics(queue.size(), published.get(), delivered.get(), merged.get(), dropped.get(), batches.get());
+  }
+
+  private void dispatchLoop() {
+    List<Notification> burst = new ArrayList<>();
+    while (true) {
+      try {
+        burst.add(queue.take());
+        if (coalesceMillis > 0) {
+          TimeUnit.MILLISECONDS.sleep(coalesceMillis);
+        }
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.drainTo(burst, MAX_BATCH - burst.size());
+
+      for (List<Notification> batch : coalesce(burst).values()) {
+        deliver(batch);
+      }
+      burst.clear();
+    }
+  }
+
+  /**
+   * Groups a burst by user, keeping order, and merges notifications with the
+   * same type and message into the first one
+   */
+  private Map<String, List<Notification>> coalesce(List<Notification> burst) {
+    Map<String, List<Notification>> byUser = new LinkedHashMap<>();
+    Set<List<Object>> seen = new HashSet<>();
+    for (Notification notification : burst) {
+      if (seen.add(Arrays.asList(notification.getUserId(), notification.getType(), notification.getMessage()))) {
+        byUser.computeIfAbsent(notification.getUserId(), key -> new ArrayList<>()).add(notification);
+      } else {
+        merged.incrementAndGet();
+      }
+    }
+    return byUser;
+  }
+
+  private void deliver(List<Notification> batch) {
+    batches.incrementAndGet();
+    for (NotificationObserver observer : observers) {
+      try {
+        observer.onNotificationsReceived(batch);
+      } catch (RuntimeException e) {
+        // One failing observer must not stop delivery to the others
+        System.err.println("Notification observer failed: " + e.getMessage());
+        e.printStackTrace();
+      }
+    }
+    delivered.addAndGet(batch.size());
+  }
+
+  /**
+   * Point-in-time counters of the bus. Delivered counts notifications after
+   * merging, once per batch regardless of the number of observers.
+   */
+  public static class Metrics {
+    private final int queueDepth;
+    private final long published;
+    private final long delivered;
+    private final long merged;
+    private final long dropped;
+    private final long batches;
+
+    Metrics(int queueDepth, long published, long delivered, long merged, long dropped, long batches) {
+      this.queueDepth = queueDepth;
+      this.published = published;
+      this.delivered = delivered;
+      this.merged = merged;
+      this.dropped = dropped;
+      this.batches = batches;
+    }
+
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    public long getPublished() {
+      return published;
+    }
+
+    public long getDelivered() {
+      return delivered;
+    }
+
+    public long getMerged() {
+      return merged;
+    }
+
+    public long getDropped() {
+      return dropped;
+    }
+
+    public long getBatches() {
+      return batches;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("queued=%d published=%d delivered=%d merged=%d dropped=%d batches=%d",
+          queueDepth, published, delivered, merged, dropped, batches);
+    }
+  }
+}
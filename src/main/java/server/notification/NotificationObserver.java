@@ -1,5 +1,7 @@
 package server.notification;
 
+import java.util.List;
+
 /**
  * Interface for observers of the notification system.
  * Classes that implement this interface will receive updates when new
@@ -13,4 +15,17 @@ public interface NotificationObserver {
    * @param notification The notification that was sent
    */
   void onNotificationReceived(Notification notification);
+
+  /**
+   * Method called with a burst of notifications for one user, delivered
+   * together so observers can react once. By default each notification is
+   * passed to onNotificationReceived.
+   * 
+   * @param notifications The notifications, oldest first
+   */
+  default void onNotificationsReceived(List<Notification> notifications) {
+    for (Notification notification : notifications) {
+      onNotificationReceived(notification);
+    }
+  }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package server.notification;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -41,6 +43,49 @@ public interface NotificationRepository {
    */
   List<Notification> findByUserIdAndFilters(String userId, NotificationType type, boolean onlyUnread);
 
+  /**
+   * Finds one page of a user's notifications, newest first. Pass the last
+   * notification of a page to get the next one; if it has been deleted
+   * meanwhile, the page continues with older timestamps.
+   * 
+   * The default implementation filters the full list; implementations
+   * should override it with an indexed query.
+   * 
+   * @param userId     The ID of the user
+   * @param type       The type of notification to filter by (can be null)
+   * @param onlyUnread If true, only returns unread notifications
+   * @param after      Last notification of the previous page, or null for the
+   *                   first page
+   * @param limit      Maximum number of notifications to return
+   * @return Up to limit notifications older than after
+   */
+  default List<Notification> findPage(String userId, NotificationType type, boolean onlyUnread,
+      Notification after, int limit) {
+    List<Notification> all = findByUserIdAndFilters(userId, type, onlyUnread);
+
+    // Oldest first, so walk backwards from the entry before the cursor
+    int start = all.size() - 1;
+    if (after != null) {
+      start = -1;
+      for (int i = all.size() - 1; i >= 0; i--) {
+        if (all.get(i).getId().equals(after.getId())) {
+          start = i - 1;
+          break;
+        }
+        if (all.get(i).getTimestamp().before(after.getTimestamp())) {
+          start = i; // The cursor itself is gone
+          break;
+        }
+      }
+    }
+
+    List<Notification> page = new ArrayList<>();
+    for (int i = start; i >= 0 && page.size() < limit; i--) {
+      page.add(all.get(i));
+    }
+    return page;
+  }
+
   /**
    * Updates a notification in the database
    * 
@@ -72,4 +117,16 @@ public interface NotificationRepository {
    * @return Number of notifications marked as read
    */
   int markAllAsRead(String userId);
+
+  /**
+   * Applies the retention policy: deletes notifications older than a
+   * cutoff, and each user's oldest notifications beyond a maximum count,
+   * whether read or not
+   * 
+   * @param olderThan  Notifications from before this time are deleted (null
+   *                   for no age limit)
+   * @param maxPerUser Most notifications a user keeps (0 for no limit)
+   * @return Number of notifications deleted
+   */
+  int deleteExpired(Date olderThan, int maxPerUser);
 }
\ No newline at end of file
@@ -43,6 +43,20 @@ public interface NotificationService {
    */
   List<Notification> getNotificationsForUser(String userId, NotificationType filterType, boolean onlyUnread);
 
+  /**
+   * Gets one page of a user's notifications, newest first
+   * 
+   * @param userId     The ID of the user
+   * @param filterType Optional filter by notification type
+   * @param onlyUnread If true, only returns unread notifications
+   * @param after      Last notification of the previous page, or null for the
+   *                   first page
+   * @param limit      Maximum number of notifications to return
+   * @return Up to limit notifications older than after
+   */
+  List<Notification> getNotificationsPage(String userId, NotificationType filterType, boolean onlyUnread,
+      Notification after, int limit);
+
   /**
    * Marks a notification as read
    * 
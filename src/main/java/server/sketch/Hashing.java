@@ -0,0 +1,20 @@
+package server.sketch;
+
+/**
+ * Hash helpers shared by the sketches
+ */
+final class Hashing {
+
+  private Hashing() {
+  }
+
+  /**
+   * SplitMix64 finalizer: spreads every input bit over the whole 64-bit result
+   */
+  static long mix64(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
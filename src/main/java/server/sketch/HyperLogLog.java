@@ -0,0 +1,87 @@
+package server.sketch;
+
+/**
+ * HyperLogLog distinct-count sketch. With precision p the sketch uses 2^p
+ * one-byte registers and has a relative standard error of about
+ * 1.04 / sqrt(2^p) (1.6% at the default p = 12). Sketches with the same
+ * precision can be merged to count the union of their inputs.
+ */
+public class HyperLogLog {
+  public static final int DEFAULT_PRECISION = 12;
+
+  private final int precision;
+  private final byte[] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  /**
+   * @param precision Number of index bits, between 4 and 16
+   */
+  public HyperLogLog(int precision) {
+    if (precision < 4 || precision > 16) {
+      throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+    }
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Adds a value; adding the same value again has no effect
+   */
+  public void add(long value) {
+    long hash = Hashing.mix64(value);
+    int index = (int) (hash >>> (64 - precision));
+    // Keep a sentinel bit so the rank is bounded when the remaining bits are 0
+    long remaining = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if (rank > registers[index]) {
+      registers[index] = rank;
+    }
+  }
+
+  /**
+   * @return The estimated number of distinct values added
+   */
+  public long estimate() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+
+    double alpha = m >= 128 ? 0.7213 / (1 + 1.079 / m) : m >= 64 ? 0.709 : m >= 32 ? 0.697 : 0.673;
+    double estimate = alpha * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // Linear counting is more accurate for small cardinalities
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  /**
+   * Folds another sketch into this one
+   */
+  public void merge(HyperLogLog other) {
+    if (other.precision != precision) {
+      throw new IllegalArgumentException("Cannot merge sketches of precision " + precision + " and "
+          + other.precision);
+    }
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  public HyperLogLog copy() {
+    HyperLogLog copy = new HyperLogLog(precision);
+    System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+    return copy;
+  }
+}
@@ -0,0 +1,201 @@
+package server.sketch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KLL quantile sketch over doubles. Values are kept in a stack of compactors;
+ * when a level overflows it is sorted and every other value is promoted to the
+ * next level with twice the weight. With the default k = 200 the rank error is
+ * around 1.5%, independent of the number of values. Sketches merge by
+ * concatenating levels and compacting again.
+ */
+public class KllSketch {
+  public static final int DEFAULT_K = 200;
+  private static final int MIN_LEVEL_CAPACITY = 8;
+
+  private final int k;
+  private final List<double[]> levels = new ArrayList<>();
+  private final List<Integer> sizes = new ArrayList<>();
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  public KllSketch() {
+    this(DEFAULT_K);
+  }
+
+  public KllSketch(int k) {
+    this.k = k;
+    addLevel();
+  }
+
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    count++;
+    min = Double.isNaN(min) ? value : Math.min(min, value);
+    max = Double.isNaN(max) ? value : Math.max(max, value);
+
+    append(0, value);
+    compressIfFull();
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @param fraction Rank between 0 and 1 (0.5 for the median)
+   * @return The approximate value at that rank, or NaN if the sketch is empty
+   */
+  public double quantile(double fraction) {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    if (fraction <= 0) {
+      return min;
+    }
+    if (fraction >= 1) {
+      return max;
+    }
+
+    // Weighted values: items at level h stand for 2^h inputs
+    int retained = retainedItems();
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    int next = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      double[] items = levels.get(level);
+      for (int i = 0; i < sizes.get(level); i++) {
+        values[next] = items[i];
+        weights[next] = 1L << level;
+        next++;
+      }
+    }
+    Integer[] order = new Integer[retained];
+    for (int i = 0; i < retained; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    long totalWeight = 0;
+    for (long weight : weights) {
+      totalWeight += weight;
+    }
+    double target = fraction * totalWeight;
+    long cumulative = 0;
+    for (int index : order) {
+      cumulative += weights[index];
+      if (cumulative >= target) {
+        return values[index];
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Folds another sketch into this one
+   */
+  public void merge(KllSketch other) {
+    if (other.count == 0) {
+      return;
+    }
+    while (levels.size() < other.levels.size()) {
+      addLevel();
+    }
+    for (int level = 0; level < other.levels.size(); level++) {
+      double[] items = other.levels.get(level);
+      for (int i = 0; i < other.sizes.get(level); i++) {
+        append(level, items[i]);
+      }
+    }
+    count += other.count;
+    min = Double.isNaN(min) ? other.min : Math.min(min, other.min);
+    max = Double.isNaN(max) ? other.max : Math.max(max, other.max);
+    compressIfFull();
+  }
+
+  public KllSketch copy() {
+    KllSketch copy = new KllSketch(k);
+    copy.merge(this);
+    return copy;
+  }
+
+  private void addLevel() {
+    levels.add(new double[MIN_LEVEL_CAPACITY]);
+    sizes.add(0);
+  }
+
+  private void append(int level, double value) {
+    double[] items = levels.get(level);
+    int size = sizes.get(level);
+    if (size == items.length) {
+      items = Arrays.copyOf(items, size * 2);
+      levels.set(level, items);
+    }
+    items[size] = value;
+    sizes.set(level, size + 1);
+  }
+
+  // Capacity shrinks geometrically towards the lower levels
+  private int capacity(int level) {
+    int depth = levels.size() - 1 - level;
+    return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(2.0 / 3.0, depth)));
+  }
+
+  private int retainedItems() {
+    int total = 0;
+    for (int size : sizes) {
+      total += size;
+    }
+    return total;
+  }
+
+  private int totalCapacity() {
+    int total = 0;
+    for (int level = 0; level < levels.size(); level++) {
+      total += capacity(level);
+    }
+    return total;
+  }
+
+  private void compressIfFull() {
+    while (retainedItems() > totalCapacity()) {
+      for (int level = 0; level < levels.size(); level++) {
+        if (sizes.get(level) >= capacity(level)) {
+          compact(level);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sorts a level and promotes one of each pair of values to the level above
+   */
+  private void compact(int level) {
+    if (level + 1 == levels.size()) {
+      addLevel();
+    }
+    double[] items = levels.get(level);
+    int size = sizes.get(level);
+    // An odd value out stays behind
+    int pairs = size / 2 * 2;
+    Arrays.sort(items, 0, pairs);
+
+    int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+    for (int i = offset; i < pairs; i += 2) {
+      append(level + 1, items[i]);
+    }
+    if (pairs < size) {
+      items[0] = items[pairs];
+      sizes.set(level, 1);
+    } else {
+      sizes.set(level, 0);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package server.sketch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate summary of sold tickets: distinct customers overall and per
+ * event, ticket price quantiles and the best-selling events. One sketch is kept
+ * per day; a date range is answered by merging the day sketches.
+ */
+public class TicketSketch {
+  // Smaller per-event counters; an event rarely has more than a few thousand buyers
+  private static final int EVENT_PRECISION = 10;
+  private static final int TOP_EVENTS = 20;
+
+  private final HyperLogLog customers = new HyperLogLog();
+  private final Map<Integer, HyperLogLog> customersByEvent = new HashMap<>();
+  private final KllSketch prices = new KllSketch();
+  private final TopKSketch eventTickets = new TopKSketch(TOP_EVENTS);
+  private long tickets;
+  private double revenue;
+
+  /**
+   * Records one sold ticket
+   *
+   * @param eventId    The event the ticket is for
+   * @param customerId The buyer, or null if unknown
+   * @param price      The ticket price
+   */
+  public void add(int eventId, Integer customerId, double price) {
+    tickets++;
+    revenue += price;
+    prices.add(price);
+    eventTickets.add(eventId, 1);
+    if (customerId != null) {
+      customers.add(customerId);
+      customersByEvent.computeIfAbsent(eventId, id -> new HyperLogLog(EVENT_PRECISION)).add(customerId);
+    }
+  }
+
+  /**
+   * Folds another sketch into this one
+   */
+  public void merge(TicketSketch other) {
+    tickets += other.tickets;
+    revenue += other.revenue;
+    customers.merge(other.customers);
+    prices.merge(other.prices);
+    eventTickets.merge(other.eventTickets);
+    for (Map.Entry<Integer, HyperLogLog> entry : other.customersByEvent.entrySet()) {
+      HyperLogLog mine = customersByEvent.get(entry.getKey());
+      if (mine == null) {
+        customersByEvent.put(entry.getKey(), entry.getValue().copy());
+      } else {
+        mine.merge(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * @return Exact number of tickets recorded
+   */
+  public long getTickets() {
+    return tickets;
+  }
+
+  /**
+   * @return Exact revenue recorded
+   */
+  public double getRevenue() {
+    return revenue;
+  }
+
+  public long getDistinctCustomers() {
+    return customers.estimate();
+  }
+
+  public long getDistinctCustomers(int eventId) {
+    HyperLogLog eventCustomers = customersByEvent.get(eventId);
+    return eventCustomers != null ? eventCustomers.estimate() : 0;
+  }
+
+  /**
+   * @param fraction Rank between 0 and 1
+   * @return Approximate ticket price at that rank, or NaN if empty
+   */
+  public double getPriceQuantile(double fraction) {
+    return prices.quantile(fraction);
+  }
+
+  /**
+   * @param n Number of events, at most 20
+   * @return Event ids with their approximate tickets sold, best-selling first
+   */
+  public List<Map.Entry<Long, Long>> getTopEvents(int n) {
+    return eventTickets.top(n);
+  }
+}
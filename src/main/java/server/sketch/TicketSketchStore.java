@@ -0,0 +1,212 @@
+package server.sketch;
+
+import database.QueryBuilder;
+import database.RowCursor;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-day ticket sketches for approximate range queries, one entry per sold
+ * Ticket row. The store is built from the Ticket table by the startup
+ * warm-up or the first range query, and then kept current by BookingServer;
+ * a range query merges one sketch per day, so its cost grows with the number
+ * of days rather than the number of tickets.
+ *
+ * The table is scanned without holding the store's lock, so recording a
+ * ticket never waits for it. Tickets recorded during the scan are queued
+ * and added afterwards unless the scan already read them; tickets recorded
+ * before any scan are left to it. A failed scan leaves the store empty and
+ * is retried by the next query.
+ */
+public class TicketSketchStore {
+  private static TicketSketchStore instance;
+
+  private TreeMap<LocalDate, TicketSketch> days = new TreeMap<>();
+  private boolean loaded;
+  private boolean loading;
+  // Highest ticket_id the scan read; rows up to it are already counted
+  private long lastTicketId;
+  private final List<PendingTicket> pending = new ArrayList<>();
+
+  private static final class PendingTicket {
+    final long ticketId;
+    final LocalDate date;
+    final int eventId;
+    final Integer customerId;
+    final double price;
+
+    PendingTicket(long ticketId, LocalDate date, int eventId, Integer customerId, double price) {
+      this.ticketId = ticketId;
+      this.date = date;
+      this.eventId = eventId;
+      this.customerId = customerId;
+      this.price = price;
+    }
+  }
+
+  // Package-private so tests can build a store of their own
+  TicketSketchStore() {
+  }
+
+  public static synchronized TicketSketchStore getInstance() {
+    if (instance == null) {
+      instance = new TicketSketchStore();
+    }
+    return instance;
+  }
+
+  /**
+   * Records a sold ticket in the sketch of its day. Call it after the Ticket
+   * row is committed; it does not read the database.
+   *
+   * @param ticketId ticket_id of the row
+   */
+  public synchronized void record(long ticketId, LocalDate date, int eventId, Integer customerId, double price) {
+    if (loaded) {
+      add(ticketId, date, eventId, customerId, price);
+    } else if (loading) {
+      pending.add(new PendingTicket(ticketId, date, eventId, customerId, price));
+    }
+    // Otherwise the scan that builds the store will read the row
+  }
+
+  /**
+   * Merges the day sketches of a date range, building the store first if
+   * that has not happened yet
+   *
+   * @param from First day, inclusive
+   * @param to   Last day, inclusive
+   * @return A new sketch covering the range
+   */
+  public TicketSketch summarize(LocalDate from, LocalDate to) {
+    load();
+    synchronized (this) {
+      TicketSketch summary = new TicketSketch();
+      for (TicketSketch day : days.subMap(from, true, to, true).values()) {
+        summary.merge(day);
+      }
+      return summary;
+    }
+  }
+
+  /**
+   * Builds the sketches from the Ticket table if that has not happened yet.
+   * A caller arriving during the scan waits for it.
+   */
+  public void load() {
+    synchronized (this) {
+      while (loading) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+      if (loaded) {
+        return;
+      }
+      loading = true;
+    }
+
+    TreeMap<LocalDate, TicketSketch> built = new TreeMap<>();
+    long lastId = 0;
+    int count = 0;
+    boolean complete = false;
+    Map<String, Object> filters = new HashMap<>();
+    filters.put("ticket_status", "Sold");
+    QueryBuilder queryBuilder = null;
+    try {
+      queryBuilder = new QueryBuilder();
+      try (RowCursor cursor = queryBuilder.selectLazyWithFilters("Ticket", filters, new String[] {
+          "ticket_id", "event_id", "customer_id", "ticket_date", "price"
+      })) {
+        while (cursor.hasNext()) {
+          Map<String, Object> ticket = cursor.next();
+          Object ticketId = ticket.get("ticket_id");
+          Object eventId = ticket.get("event_id");
+          Object customerId = ticket.get("customer_id");
+          Object price = ticket.get("price");
+          if (ticketId instanceof Number) {
+            lastId = Math.max(lastId, ((Number) ticketId).longValue());
+          }
+          LocalDate day = toLocalDate(ticket.get("ticket_date"));
+          if (day == null || !(eventId instanceof Number) || !(price instanceof Number)) {
+            continue;
+          }
+
+          built.computeIfAbsent(day, key -> new TicketSketch()).add(((Number) eventId).intValue(),
+              customerId instanceof Number ? ((Number) customerId).intValue() : null,
+              ((Number) price).doubleValue());
+          count++;
+        }
+      }
+      complete = true;
+      System.out.println("Built ticket sketches for " + built.size() + " days from " + count + " tickets");
+    } catch (Exception e) {
+      System.err.println("Error building ticket sketches: " + e.getMessage());
+      e.printStackTrace();
+    } finally {
+      if (queryBuilder != null) {
+        queryBuilder.closeConnection();
+      }
+      finishLoad(complete ? built : null, lastId);
+    }
+  }
+
+  /**
+   * Publishes a completed scan and adds the tickets recorded during it, or
+   * on failure drops them so the next load starts over
+   */
+  private synchronized void finishLoad(TreeMap<LocalDate, TicketSketch> built, long lastId) {
+    if (built != null) {
+      days = built;
+      lastTicketId = lastId;
+      loaded = true;
+      for (PendingTicket ticket : pending) {
+        add(ticket.ticketId, ticket.date, ticket.eventId, ticket.customerId, ticket.price);
+      }
+    }
+    pending.clear();
+    loading = false;
+    notifyAll();
+  }
+
+  private void add(long ticketId, LocalDate date, int eventId, Integer customerId, double price) {
+    if (ticketId <= lastTicketId) {
+      return; // Read by the scan
+    }
+    days.computeIfAbsent(date, day -> new TicketSketch()).add(eventId, customerId, price);
+  }
+
+  /**
+   * Reads ticket_date, which is stored as text such as
+   * "2025-05-07 09:19:56.492"
+   *
+   * @return The day, or null if the value is missing or unreadable
+   */
+  static LocalDate toLocalDate(Object value) {
+    if (value instanceof java.sql.Date) {
+      return ((java.sql.Date) value).toLocalDate();
+    }
+    if (value instanceof java.util.Date) {
+      return ((java.util.Date) value).toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+    if (value == null) {
+      return null;
+    }
+    String text = value.toString().trim();
+    try {
+      return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
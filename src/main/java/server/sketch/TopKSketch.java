@@ -0,0 +1,126 @@
+package server.sketch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Heavy-hitters sketch: a Count-Min table estimates the count of any key, and
+ * a bounded set of candidate keys remembers which keys were heaviest. Counts
+ * are never under-estimated; the overestimate is at most about
+ * 2 * total / width with high probability. Sketches of the same shape merge by
+ * adding their tables.
+ */
+public class TopKSketch {
+  private static final int DEPTH = 4;
+  private static final int WIDTH = 1024;
+  // Fixed seeds so independently built sketches can be merged
+  private static final long[] ROW_SEEDS = {
+      0x5851F42D4C957F2DL, 0x14057B7EF767814FL, 0x2545F4914F6CDD1DL, 0x61C8864680B583EBL
+  };
+
+  private final int k;
+  private final long[][] counts = new long[DEPTH][WIDTH];
+  // Candidate keys with their current estimates, trimmed back to 2k when they reach 4k
+  private final Map<Long, Long> candidates = new HashMap<>();
+
+  /**
+   * @param k Number of top keys to track accurately
+   */
+  public TopKSketch(int k) {
+    this.k = k;
+  }
+
+  /**
+   * Adds to the count of a key
+   */
+  public void add(long key, long amount) {
+    for (int row = 0; row < DEPTH; row++) {
+      counts[row][bucket(row, key)] += amount;
+    }
+    candidates.put(key, estimate(key));
+    if (candidates.size() >= 4 * k) {
+      trim(2 * k);
+    }
+  }
+
+  /**
+   * @return The estimated count of a key (never below the true count)
+   */
+  public long estimate(long key) {
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, counts[row][bucket(row, key)]);
+    }
+    return estimate;
+  }
+
+  /**
+   * @param n Number of keys to return, at most k
+   * @return The heaviest keys with estimated counts, heaviest first
+   */
+  public List<Map.Entry<Long, Long>> top(int n) {
+    PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(
+        (a, b) -> Long.compare(b.getValue(), a.getValue()));
+    heap.addAll(candidates.entrySet());
+
+    List<Map.Entry<Long, Long>> top = new ArrayList<>();
+    while (!heap.isEmpty() && top.size() < Math.min(n, k)) {
+      top.add(Map.entry(heap.peek().getKey(), heap.poll().getValue()));
+    }
+    return top;
+  }
+
+  /**
+   * Folds another sketch into this one
+   */
+  public void merge(TopKSketch other) {
+    for (int row = 0; row < DEPTH; row++) {
+      for (int column = 0; column < WIDTH; column++) {
+        counts[row][column] += other.counts[row][column];
+      }
+    }
+    for (Long key : other.candidates.keySet()) {
+      candidates.put(key, 0L);
+    }
+    // Estimates change after a merge, so re-read every candidate
+    for (Map.Entry<Long, Long> candidate : candidates.entrySet()) {
+      candidate.setValue(estimate(candidate.getKey()));
+    }
+    if (candidates.size() >= 4 * k) {
+      trim(2 * k);
+    }
+  }
+
+  public TopKSketch copy() {
+    TopKSketch copy = new TopKSketch(k);
+    copy.merge(this);
+    return copy;
+  }
+
+  /**
+   * Keeps only the heaviest candidates, using a min-heap of the given size
+   */
+  private void trim(int keep) {
+    PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(
+        (a, b) -> Long.compare(a.getValue(), b.getValue()));
+    for (Map.Entry<Long, Long> candidate : candidates.entrySet()) {
+      heap.add(candidate);
+      if (heap.size() > keep) {
+        heap.poll();
+      }
+    }
+    Map<Long, Long> kept = new HashMap<>();
+    for (Map.Entry<Long, Long> candidate : heap) {
+      kept.put(candidate.getKey(), candidate.getValue());
+    }
+    candidates.clear();
+    candidates.putAll(kept);
+  }
+
+  private int bucket(int row, long key) {
+    return (int) ((Hashing.mix64(key ^ ROW_SEEDS[row]) >>> 1) % WIDTH);
+  }
+}
@@ -6,6 +6,7 @@ import server.BookingServer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer class that mediates between UI and server-side code
@@ -195,4 +196,48 @@ public class BookingServiceSer {
       return false;
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Async variant of {@link #getAllEvents()}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getAllEventsAsync() {
+    return eventServiceSer.getAllEventsAsync();
+  }
+
+  /**
+   * Async variant of {@link #createBooking(String, String, String, int, int, String)}
+   */
+  public CompletableFuture<Boolean> createBookingAsync(String customerName, String selectedEvent,
+      String selectedPriceCategory, int customerId, int eventId, String ticketType) {
+    return ServiceExecutor.supply(this, () -> createBooking(customerName, selectedEvent, selectedPriceCategory,
+        customerId, eventId, ticketType));
+  }
+
+  /**
+   * Async variant of {@link #getCustomerById(int)}
+   */
+  public CompletableFuture<Map<String, Object>> getCustomerByIdAsync(int customerId) {
+    return ServiceExecutor.supply(this, () -> getCustomerById(customerId));
+  }
+
+  /**
+   * Async variant of {@link #getEventById(int)}
+   */
+  public CompletableFuture<Map<String, Object>> getEventByIdAsync(int eventId) {
+    return ServiceExecutor.supply(this, () -> getEventById(eventId));
+  }
+
+  /**
+   * Async variant of {@link #getEventDetails(int)}
+   */
+  public CompletableFuture<Map<String, Object>> getEventDetailsAsync(int eventId) {
+    return ServiceExecutor.supply(this, () -> getEventDetails(eventId));
+  }
+
+  /**
+   * Async variant of {@link #canCreateTicketForEvent(int)}
+   */
+  public CompletableFuture<Boolean> canCreateTicketForEventAsync(int eventId) {
+    return ServiceExecutor.supply(this, () -> canCreateTicketForEvent(eventId));
+  }
+}
@@ -13,30 +13,47 @@ import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 import org.apache.poi.ss.usermodel.*;
 
 import database.BackupManager;
 import database.Database;
+import server.CsvDataService;
 import server.ExcelExportService;
+import server.ExportJob;
+import server.JsonLinesDataService;
 import server.PDFExportServer;
 import database.QueryBuilder;
+import database.RowCursor;
 
 /**
  * Service for managing data persistence operations: import, export, and backup.
  */
 public class DataPersistenceService {
   private static final String BACKUP_DIRECTORY = "backups/";
+  private static final int IMPORT_CHUNK_SIZE = 500;
+  private static final String EVENT_INSERT_SQL = "INSERT INTO Event (event_name, event_date, event_description, "
+      + "category, event_type, team_a, team_b) VALUES (?, ?, ?, ?, ?, ?, ?)";
+  private static final String TICKET_INSERT_SQL = "INSERT INTO Ticket (event_id, ticket_type, ticket_date, "
+      + "ticket_status, price) VALUES (?, ?, ?, ?, ?)";
   private final ExcelExportService excelExportService;
   private final PDFExportServer pdfExportService;
+  private final CsvDataService csvDataService;
+  private final JsonLinesDataService jsonLinesDataService;
   private final QueryBuilder queryBuilder;
 
   public DataPersistenceService() {
     this.excelExportService = new ExcelExportService();
     this.pdfExportService = new PDFExportServer();
+    this.csvDataService = new CsvDataService();
+    this.jsonLinesDataService = new JsonLinesDataService();
     this.queryBuilder = new QueryBuilder();
     initializeBackupDirectory();
   }
@@ -49,17 +66,109 @@ public class DataPersistenceService {
   }
 
   /**
-   * Import data from Excel file for the specified entity type
+   * Import data from Excel file for the specified entity type. The whole file is
+   * rejected if any row is invalid.
    * 
-   * @param filePath   the path to the Excel file
+   * @param filePath   the path to the Excel, CSV or JSON lines file
    * @param entityType the type of entity to import (e.g., "event", "ticket")
    * @return Import status with success flag and message
    */
   public ImportResult importFromExcel(String filePath, String entityType) {
+    return importFromExcel(filePath, entityType, ImportMode.ALL_OR_NOTHING);
+  }
+
+  /**
+   * Import data from a file for the specified entity type. The format is
+   * chosen by extension: .csv, .jsonl/.ndjson, otherwise Excel.
+   * 
+   * @param filePath   the path to the Excel, CSV or JSON lines file
+   * @param entityType the type of entity to import (e.g., "event", "ticket")
+   * @param mode       ALL_OR_NOTHING aborts on the first invalid row,
+   *                   PARTIAL_COMMIT imports the valid rows in chunks and
+   *                   writes the rejected ones to an error report
+   * @return Import status with success flag, message, rejected rows and timings
+   */
+  public ImportResult importFromExcel(String filePath, String entityType, ImportMode mode) {
     if (!new File(filePath).exists()) {
       return new ImportResult(false, "File not found: " + filePath);
     }
+    if (!entityType.equalsIgnoreCase("event") && !entityType.equalsIgnoreCase("ticket")) {
+      return new ImportResult(false, "Unsupported entity type: " + entityType);
+    }
+
+    ImportStats stats = new ImportStats();
+    long phaseStart = System.nanoTime();
+    List<String> columns = new ArrayList<>();
+    RowImport rowImport = new RowImport(entityType.equalsIgnoreCase("event"), mode, stats);
+
+    try {
+      String lowerPath = filePath.toLowerCase();
+      if (lowerPath.endsWith(".csv")) {
+        columns.addAll(csvDataService.readCsv(filePath, rowImport));
+      } else if (lowerPath.endsWith(".jsonl") || lowerPath.endsWith(".ndjson")) {
+        columns.addAll(jsonLinesDataService.readJsonLines(filePath, rowImport));
+      } else if (!readExcelRows(filePath, columns, rowImport)) {
+        return new ImportResult(false, "Empty file or missing header row");
+      }
+      if (columns.isEmpty()) {
+        return new ImportResult(false, "Empty file or missing header row");
+      }
+      rowImport.flush();
+    } catch (InvalidRowException e) {
+      String required = rowImport.isEvent
+          ? "Required fields: event_name, event_date, team_a, team_b, category, event_type"
+          : "Required fields: event_id, ticket_type, ticket_date, price";
+      return new ImportResult(false, "Invalid " + entityType.toLowerCase() + " data at row " + e.rowNumber + " ("
+          + e.reason + "). " + required);
+    } catch (IOException e) {
+      // Chunks written before the error stay committed in PARTIAL_COMMIT mode
+      String written = rowImport.imported > 0 ? " (" + rowImport.imported + " rows were already imported)" : "";
+      return new ImportResult(false, "Error reading file: " + e.getMessage() + written);
+    } finally {
+      rowImport.close();
+    }
+    // Validating and writing ran while the file was read; the rest was reading
+    phaseStart = stats.endInterleavedPhase("read", phaseStart);
+
+    String entityLabel = rowImport.isEvent ? "events" : "tickets";
+    List<RowError> rejected = rowImport.rejected;
+    if (mode == ImportMode.ALL_OR_NOTHING) {
+      List<Map<String, Object>> validated = rowImport.validated;
+      boolean success = rowImport.isEvent ? saveEventsToDatabase(validated) : saveTicketsToDatabase(validated);
+      stats.endPhase("write", phaseStart);
+      String message = success
+          ? validated.size() + " " + entityLabel + " imported successfully"
+          : "Failed to import " + entityLabel + " to database";
+      return new ImportResult(success, message, rowImport.rowsRead, success ? validated.size() : 0, rejected, null,
+          stats.phaseNanos, stats.totalNanos());
+    }
 
+    // Error report phase
+    String errorReportPath = null;
+    if (!rejected.isEmpty()) {
+      rejected.sort((a, b) -> Integer.compare(a.getRowNumber(), b.getRowNumber()));
+      errorReportPath = writeErrorReport(filePath, columns, rejected);
+      stats.endPhase("report", phaseStart);
+    }
+
+    int imported = rowImport.imported;
+    String message = imported + " of " + rowImport.rowsRead + " " + entityLabel + " imported";
+    if (!rejected.isEmpty()) {
+      message += ", " + rejected.size() + " rejected"
+          + (errorReportPath != null ? " (see " + errorReportPath + ")" : "");
+    }
+    return new ImportResult(imported > 0 || rowImport.rowsRead == 0, message, rowImport.rowsRead, imported, rejected,
+        errorReportPath, stats.phaseNanos, stats.totalNanos());
+  }
+
+  /**
+   * Reads the first sheet of an Excel workbook, passing each row keyed by
+   * header name to the row handler
+   * 
+   * @return false if the sheet has no header row
+   */
+  private boolean readExcelRows(String filePath, List<String> columns,
+      ObjIntConsumer<Map<String, Object>> rowHandler) throws IOException {
     try (FileInputStream fis = new FileInputStream(filePath);
         Workbook workbook = WorkbookFactory.create(fis)) {
 
@@ -68,7 +177,7 @@ public class DataPersistenceService {
       // Get headers
       Row headerRow = sheet.getRow(0);
       if (headerRow == null) {
-        return new ImportResult(false, "Empty file or missing header row");
+        return false;
       }
 
       // Read header columns
@@ -77,65 +186,235 @@ public class DataPersistenceService {
         Cell cell = headerRow.getCell(i);
         if (cell != null) {
           columnMap.put(i, cell.getStringCellValue());
+          columns.add(cell.getStringCellValue());
         }
       }
 
-      // Determine which import processor to use based on entity type
-      switch (entityType.toLowerCase()) {
-        case "event":
-          return importEvents(sheet, columnMap);
-        case "ticket":
-          return importTickets(sheet, columnMap);
-        default:
-          return new ImportResult(false, "Unsupported entity type: " + entityType);
+      for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+        Row row = sheet.getRow(i);
+        if (row == null)
+          continue;
+
+        Map<String, Object> values = new HashMap<>();
+        for (int j = 0; j < columnMap.size(); j++) {
+          Cell cell = row.getCell(j);
+          if (cell != null) {
+            values.put(columnMap.get(j), getCellValue(cell));
+          }
+        }
+        rowHandler.accept(values, i + 1);
       }
-    } catch (IOException e) {
-      return new ImportResult(false, "Error reading file: " + e.getMessage());
+      return true;
     }
   }
 
-  private ImportResult importEvents(Sheet sheet, Map<Integer, String> columnMap) {
-    List<Map<String, Object>> events = new ArrayList<>();
+  /**
+   * Validates rows as the reader produces them. ALL_OR_NOTHING keeps the
+   * validated rows for one transaction after reading and stops at the first
+   * invalid row. PARTIAL_COMMIT writes the valid rows every IMPORT_CHUNK_SIZE
+   * rows, one transaction per chunk, so only one chunk and the rejected rows
+   * are held in memory whatever the size of the file.
+   */
+  private class RowImport implements ObjIntConsumer<Map<String, Object>> {
+    private final boolean isEvent;
+    private final ImportMode mode;
+    private final ImportStats stats;
+    private final List<Map<String, Object>> validated = new ArrayList<>();
+    private final List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+    private final List<RowError> rejected = new ArrayList<>();
+    private int rowsRead;
+    private int imported;
+    private Connection conn;
+    private PreparedStatement pstmt;
+    private String connectionError;
+
+    RowImport(boolean isEvent, ImportMode mode, ImportStats stats) {
+      this.isEvent = isEvent;
+      this.mode = mode;
+      this.stats = stats;
+    }
 
-    for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-      Row row = sheet.getRow(i);
-      if (row == null)
-        continue;
+    @Override
+    public void accept(Map<String, Object> values, int rowNumber) {
+      rowsRead++;
+      long start = System.nanoTime();
+      String reason = isEvent ? validateEventData(values) : validateTicketData(values);
+      stats.addPhase("validate", System.nanoTime() - start);
 
-      Map<String, Object> event = new HashMap<>();
-      for (int j = 0; j < columnMap.size(); j++) {
-        Cell cell = row.getCell(j);
-        if (cell != null) {
-          String columnName = columnMap.get(j);
-          event.put(columnName, getCellValue(cell));
+      if (reason != null) {
+        if (mode == ImportMode.ALL_OR_NOTHING) {
+          throw new InvalidRowException(rowNumber, reason);
+        }
+        rejected.add(new RowError(rowNumber, reason, values));
+      } else if (mode == ImportMode.ALL_OR_NOTHING) {
+        validated.add(values);
+      } else {
+        chunk.add(new ImportRow(rowNumber, values));
+        if (chunk.size() >= IMPORT_CHUNK_SIZE) {
+          flush();
         }
       }
+    }
 
-      // Validate event data
-      if (!isValidEventData(event)) {
-        return new ImportResult(false, "Invalid event data at row " + (i + 1)
-            + ". Required fields: event_name, event_date, team_a, team_b, category, event_type");
+    /**
+     * Writes the buffered chunk in one transaction. When it fails, it is
+     * rolled back and replayed row by row so that only the offending rows are
+     * rejected. Once the connection itself fails, every row not yet committed
+     * is rejected, so no row goes unreported.
+     */
+    void flush() {
+      if (chunk.isEmpty()) {
+        return;
       }
+      long start = System.nanoTime();
+      int resolved = 0; // Rows of the chunk committed or rejected so far, always the first ones
+      try {
+        if (connectionError != null) {
+          throw new SQLException(connectionError);
+        }
+        if (conn == null) {
+          conn = Database.getConnection();
+          conn.setAutoCommit(false);
+          pstmt = conn.prepareStatement(isEvent ? EVENT_INSERT_SQL : TICKET_INSERT_SQL);
+        }
 
-      events.add(event);
+        try {
+          for (ImportRow row : chunk) {
+            bindRow(pstmt, isEvent, row.values);
+            pstmt.addBatch();
+          }
+          pstmt.executeBatch();
+          conn.commit();
+          imported += chunk.size();
+          resolved = chunk.size();
+        } catch (SQLException | RuntimeException e) {
+          pstmt.clearBatch();
+          conn.rollback();
+
+          // Replay row by row
+          for (ImportRow row : chunk) {
+            try {
+              bindRow(pstmt, isEvent, row.values);
+              pstmt.executeUpdate();
+              conn.commit();
+              imported++;
+            } catch (SQLException | RuntimeException rowError) {
+              conn.rollback();
+              rejected.add(new RowError(row.rowNumber, "Database rejected row: " + rowError.getMessage(), row.values));
+            }
+            resolved++;
+          }
+        }
+      } catch (SQLException e) {
+        if (connectionError == null) {
+          e.printStackTrace();
+          connectionError = e.getMessage();
+          close();
+        }
+        for (ImportRow row : chunk.subList(resolved, chunk.size())) {
+          rejected.add(new RowError(row.rowNumber, "Not imported, database connection failed: " + connectionError,
+              row.values));
+        }
+      }
+      chunk.clear();
+      stats.addPhase("write", System.nanoTime() - start);
     }
 
-    // Import events to database
-    boolean success = saveEventsToDatabase(events);
-    return success
-        ? new ImportResult(true, events.size() + " events imported successfully")
-        : new ImportResult(false, "Failed to import events to database");
+    void close() {
+      try {
+        if (pstmt != null) {
+          pstmt.close();
+        }
+        if (conn != null) {
+          conn.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+      pstmt = null;
+      conn = null;
+    }
   }
 
-  private boolean isValidEventData(Map<String, Object> event) {
-    // Required fields must be present and have valid values according to database
-    // schema
-    return event.containsKey("event_name") && event.get("event_name") != null
-        && event.containsKey("event_date") && event.get("event_date") != null
-        && event.containsKey("team_a") && event.get("team_a") != null
-        && event.containsKey("team_b") && event.get("team_b") != null
-        && event.containsKey("category") && isValidCategory((String) event.get("category"))
-        && event.containsKey("event_type") && isValidEventType((String) event.get("event_type"));
+  /**
+   * Stops an ALL_OR_NOTHING import at its first invalid row
+   */
+  private static class InvalidRowException extends RuntimeException {
+    private final int rowNumber;
+    private final String reason;
+
+    InvalidRowException(int rowNumber, String reason) {
+      super(reason, null, false, false);
+      this.rowNumber = rowNumber;
+      this.reason = reason;
+    }
+  }
+
+  /**
+   * Writes rejected rows with their reasons next to the source file as CSV
+   * 
+   * @return The path of the error report, or null if it could not be written
+   */
+  private String writeErrorReport(String sourcePath, List<String> columns, List<RowError> rejected) {
+    String basePath = sourcePath.contains(".") ? sourcePath.substring(0, sourcePath.lastIndexOf('.')) : sourcePath;
+    String reportPath = basePath + "_rejected.csv";
+
+    try (java.io.BufferedWriter writer = java.nio.file.Files.newBufferedWriter(java.nio.file.Paths.get(reportPath),
+        java.nio.charset.StandardCharsets.UTF_8)) {
+      writer.write("row,reason");
+      for (String column : columns) {
+        writer.write(',');
+        writer.write(csvEscape(column));
+      }
+      writer.newLine();
+
+      for (RowError error : rejected) {
+        writer.write(Integer.toString(error.getRowNumber()));
+        writer.write(',');
+        writer.write(csvEscape(error.getReason()));
+        for (String column : columns) {
+          Object value = error.getValues().get(column);
+          writer.write(',');
+          writer.write(value == null ? "" : csvEscape(toDbString(value)));
+        }
+        writer.newLine();
+      }
+      return reportPath;
+    } catch (IOException e) {
+      System.err.println("Failed to write import error report: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private String csvEscape(String value) {
+    if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+        || value.indexOf('\r') >= 0) {
+      return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    return value;
+  }
+
+  /**
+   * Validates an event row against the database schema
+   * 
+   * @return null if the row is valid, otherwise the reason it was rejected
+   */
+  private String validateEventData(Map<String, Object> event) {
+    for (String field : new String[] { "event_name", "event_date", "team_a", "team_b" }) {
+      if (event.get(field) == null) {
+        return "missing " + field;
+      }
+    }
+    if (!isValidCategory(asString(event.get("category")))) {
+      return "invalid category '" + event.get("category") + "', expected Regular or VIP";
+    }
+    if (!isValidEventType(asString(event.get("event_type")))) {
+      return "invalid event_type '" + event.get("event_type") + "', expected Event or Match";
+    }
+    if (toDbString(event.get("team_a")).equals(toDbString(event.get("team_b")))) {
+      return "team_a and team_b must be different";
+    }
+    return null;
   }
 
   private boolean isValidCategory(String category) {
@@ -151,91 +430,79 @@ public class DataPersistenceService {
   }
 
   private boolean saveEventsToDatabase(List<Map<String, Object>> events) {
-    // SQL matched to the actual database schema
-    String sql = "INSERT INTO Event (event_name, event_date, event_description, category, event_type, team_a, team_b) "
-        +
-        "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
     try (Connection conn = Database.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        PreparedStatement pstmt = conn.prepareStatement(EVENT_INSERT_SQL)) {
 
       conn.setAutoCommit(false);
 
       for (Map<String, Object> event : events) {
-        pstmt.setString(1, (String) event.get("event_name"));
-        pstmt.setString(2, (String) event.get("event_date"));
-
-        // Event description
-        if (event.get("event_description") != null) {
-          pstmt.setString(3, (String) event.get("event_description"));
-        } else {
-          pstmt.setNull(3, Types.VARCHAR);
-        }
-
-        pstmt.setString(4, (String) event.get("category")); // Category (Regular or VIP)
-        pstmt.setString(5, (String) event.get("event_type")); // Event type (Event or Match)
-        pstmt.setString(6, (String) event.get("team_a"));
-        pstmt.setString(7, (String) event.get("team_b"));
-
+        bindEvent(pstmt, event);
         pstmt.addBatch();
       }
 
       pstmt.executeBatch();
       conn.commit();
       return true;
-    } catch (SQLException e) {
+    } catch (SQLException | RuntimeException e) {
       e.printStackTrace();
       return false;
     }
   }
 
-  private ImportResult importTickets(Sheet sheet, Map<Integer, String> columnMap) {
-    List<Map<String, Object>> tickets = new ArrayList<>();
-
-    for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-      Row row = sheet.getRow(i);
-      if (row == null)
-        continue;
-
-      Map<String, Object> ticket = new HashMap<>();
-      for (int j = 0; j < columnMap.size(); j++) {
-        Cell cell = row.getCell(j);
-        if (cell != null) {
-          String columnName = columnMap.get(j);
-          ticket.put(columnName, getCellValue(cell));
-        }
-      }
+  private void bindRow(PreparedStatement pstmt, boolean isEvent, Map<String, Object> values) throws SQLException {
+    if (isEvent) {
+      bindEvent(pstmt, values);
+    } else {
+      bindTicket(pstmt, values);
+    }
+  }
 
-      // Validate ticket data
-      if (!isValidTicketData(ticket)) {
-        return new ImportResult(false,
-            "Invalid ticket data at row " + (i + 1) + ". Required fields: event_id, ticket_type, ticket_date, price");
-      }
+  private void bindEvent(PreparedStatement pstmt, Map<String, Object> event) throws SQLException {
+    pstmt.setString(1, toDbString(event.get("event_name")));
+    pstmt.setString(2, toDbString(event.get("event_date")));
 
-      tickets.add(ticket);
+    // Event description
+    if (event.get("event_description") != null) {
+      pstmt.setString(3, toDbString(event.get("event_description")));
+    } else {
+      pstmt.setNull(3, Types.VARCHAR);
     }
 
-    // Import tickets to database
-    boolean success = saveTicketsToDatabase(tickets);
-    return success
-        ? new ImportResult(true, tickets.size() + " tickets imported successfully")
-        : new ImportResult(false, "Failed to import tickets to database");
+    pstmt.setString(4, (String) event.get("category")); // Category (Regular or VIP)
+    pstmt.setString(5, (String) event.get("event_type")); // Event type (Event or Match)
+    pstmt.setString(6, toDbString(event.get("team_a")));
+    pstmt.setString(7, toDbString(event.get("team_b")));
   }
 
-  private boolean isValidTicketData(Map<String, Object> ticket) {
-    // Required fields must be present and have valid values according to database
-    // schema
-    boolean basic = ticket.containsKey("event_id") && ticket.get("event_id") != null
-        && ticket.containsKey("ticket_type") && isValidTicketType((String) ticket.get("ticket_type"))
-        && ticket.containsKey("ticket_date") && ticket.get("ticket_date") != null
-        && ticket.containsKey("price") && isPositiveNumber(ticket.get("price"));
+  /**
+   * Validates a ticket row against the database schema
+   * 
+   * @return null if the row is valid, otherwise the reason it was rejected
+   */
+  private String validateTicketData(Map<String, Object> ticket) {
+    Object eventId = ticket.get("event_id");
+    if (eventId == null) {
+      return "missing event_id";
+    }
+    if (!(eventId instanceof Number) && !eventId.toString().trim().matches("\\d+")) {
+      return "event_id '" + eventId + "' is not a number";
+    }
+    if (!isValidTicketType(asString(ticket.get("ticket_type")))) {
+      return "invalid ticket_type '" + ticket.get("ticket_type") + "', expected Regular or VIP";
+    }
+    if (ticket.get("ticket_date") == null) {
+      return "missing ticket_date";
+    }
+    if (!isPositiveNumber(ticket.get("price"))) {
+      return "price '" + ticket.get("price") + "' must be a positive number";
+    }
 
     // Ticket status if provided must be valid
-    if (ticket.containsKey("ticket_status") && ticket.get("ticket_status") != null) {
-      return basic && isValidTicketStatus((String) ticket.get("ticket_status"));
+    if (ticket.get("ticket_status") != null && !isValidTicketStatus(asString(ticket.get("ticket_status")))) {
+      return "invalid ticket_status '" + ticket.get("ticket_status") + "', expected Available, Sold or Canceled";
     }
 
-    return basic;
+    return null;
   }
 
   private boolean isValidTicketType(String ticketType) {
@@ -265,54 +532,74 @@ public class DataPersistenceService {
   }
 
   private boolean saveTicketsToDatabase(List<Map<String, Object>> tickets) {
-    // SQL matched to the actual database schema
-    String sql = "INSERT INTO Ticket (event_id, ticket_type, ticket_date, ticket_status, price) " +
-        "VALUES (?, ?, ?, ?, ?)";
-
     try (Connection conn = Database.getConnection();
-        PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        PreparedStatement pstmt = conn.prepareStatement(TICKET_INSERT_SQL)) {
 
       conn.setAutoCommit(false);
 
       for (Map<String, Object> ticket : tickets) {
-        // Event ID
-        Object eventIdObj = ticket.get("event_id");
-        if (eventIdObj instanceof Number) {
-          pstmt.setInt(1, ((Number) eventIdObj).intValue());
-        } else {
-          pstmt.setInt(1, Integer.parseInt(eventIdObj.toString()));
-        }
-
-        pstmt.setString(2, (String) ticket.get("ticket_type"));
-        pstmt.setString(3, (String) ticket.get("ticket_date"));
-
-        // Ticket status (default to 'Available' if not provided)
-        if (ticket.containsKey("ticket_status") && ticket.get("ticket_status") != null) {
-          pstmt.setString(4, (String) ticket.get("ticket_status"));
-        } else {
-          pstmt.setString(4, "Available");
-        }
-
-        // Price
-        Object priceObj = ticket.get("price");
-        if (priceObj instanceof Number) {
-          pstmt.setDouble(5, ((Number) priceObj).doubleValue());
-        } else {
-          pstmt.setDouble(5, Double.parseDouble(priceObj.toString()));
-        }
-
+        bindTicket(pstmt, ticket);
         pstmt.addBatch();
       }
 
       pstmt.executeBatch();
       conn.commit();
       return true;
-    } catch (SQLException e) {
+    } catch (SQLException | RuntimeException e) {
       e.printStackTrace();
       return false;
     }
   }
 
+  private void bindTicket(PreparedStatement pstmt, Map<String, Object> ticket) throws SQLException {
+    // Event ID
+    Object eventIdObj = ticket.get("event_id");
+    if (eventIdObj instanceof Number) {
+      pstmt.setInt(1, ((Number) eventIdObj).intValue());
+    } else {
+      pstmt.setInt(1, Integer.parseInt(eventIdObj.toString().trim()));
+    }
+
+    pstmt.setString(2, (String) ticket.get("ticket_type"));
+    pstmt.setString(3, toDbString(ticket.get("ticket_date")));
+
+    // Ticket status (default to 'Available' if not provided)
+    if (ticket.get("ticket_status") != null) {
+      pstmt.setString(4, (String) ticket.get("ticket_status"));
+    } else {
+      pstmt.setString(4, "Available");
+    }
+
+    // Price
+    Object priceObj = ticket.get("price");
+    if (priceObj instanceof Number) {
+      pstmt.setDouble(5, ((Number) priceObj).doubleValue());
+    } else {
+      pstmt.setDouble(5, Double.parseDouble(priceObj.toString()));
+    }
+  }
+
+  private String asString(Object value) {
+    return value instanceof String ? (String) value : null;
+  }
+
+  /**
+   * Converts a cell value to the text stored in the database. Date cells are
+   * written as yyyy-MM-dd, whole numbers without a trailing ".0".
+   */
+  private String toDbString(Object value) {
+    if (value == null) {
+      return null;
+    }
+    if (value instanceof Date) {
+      return new SimpleDateFormat("yyyy-MM-dd").format((Date) value);
+    }
+    if (value instanceof Double && ((Double) value) == Math.rint((Double) value)) {
+      return Long.toString(((Double) value).longValue());
+    }
+    return value.toString();
+  }
+
   private Object getCellValue(Cell cell) {
     switch (cell.getCellType()) {
       case STRING:
@@ -330,7 +617,8 @@ public class DataPersistenceService {
   }
 
   /**
-   * Export data to Excel file
+   * Export data to Excel file. Paths ending in .csv or .jsonl/.ndjson are
+   * written as CSV or JSON lines instead.
    * 
    * @param data        Data to export (list of maps with row data)
    * @param filePath    Output file path
@@ -340,6 +628,13 @@ public class DataPersistenceService {
    */
   public boolean exportToExcel(List<Map<String, Object>> data, String filePath,
       String sheetName, String[] columnNames) {
+    String lowerPath = filePath == null ? "" : filePath.toLowerCase();
+    if (lowerPath.endsWith(".csv")) {
+      return csvDataService.exportToCsv(data, filePath, columnNames);
+    }
+    if (lowerPath.endsWith(".jsonl") || lowerPath.endsWith(".ndjson")) {
+      return jsonLinesDataService.exportToJsonLines(data, filePath, columnNames);
+    }
     return excelExportService.exportToExcel(data, filePath, sheetName, columnNames);
   }
 
@@ -414,75 +709,20 @@ public class DataPersistenceService {
 
   private List<Map<String, Object>> fetchDataForExport(String dataType, Date fromDate, Date toDate) {
     try {
-      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-      String fromDateStr = sdf.format(fromDate);
-      String toDateStr = sdf.format(toDate);
-
-      Map<String, Object> filters = new HashMap<>();
-      String[] columns;
-      String tableName;
-
-      switch (dataType) {
-        case "Events":
-          tableName = "Event";
-          filters.put("event_date >= ", fromDateStr);
-          filters.put("event_date <= ", toDateStr);
-          columns = new String[] {
-              "event_id",
-              "event_name",
-              "event_date",
-              "event_description",
-              "team_a",
-              "team_b",
-              "category",
-              "event_type"
-          };
-          break;
-
-        case "Tickets":
-          tableName = "Ticket";
-          filters.put("ticket_date >= ", fromDateStr);
-          filters.put("ticket_date <= ", toDateStr);
-          columns = new String[] {
-              "ticket_id",
-              "event_id",
-              "ticket_type",
-              "ticket_date",
-              "price",
-              "ticket_status"
-          };
-          break;
-
-        case "Sales Report":
-          tableName = "Sales";
-          filters.put("sale_date >= ", fromDateStr);
-          filters.put("sale_date <= ", toDateStr);
-          columns = new String[] {
-              "sale_id",
-              "sale_date",
-              "tickets_sold",
-              "revenue",
-              "category"
-          };
-          break;
-
-        default:
-          System.err.println("Unknown data type: " + dataType);
-          return new ArrayList<>();
-      }
-
-      List<Map<String, Object>> results = queryBuilder.selectWithFilters(tableName, filters, columns);
-      System.out.println("Fetched " + results.size() + " records from " + tableName);
+      ExportQuery query = exportQueryFor(dataType, fromDate, toDate);
+      if (query == null) {
+        System.err.println("Unknown data type: " + dataType);
+        return new ArrayList<>();
+      }
+
+      List<Map<String, Object>> results = queryBuilder.selectWithFilters(query.tableName, query.filters,
+          query.columns);
+      System.out.println("Fetched " + results.size() + " records from " + query.tableName);
 
       // Map the database column names to display names
       List<Map<String, Object>> mappedResults = new ArrayList<>();
       for (Map<String, Object> result : results) {
-        Map<String, Object> mappedResult = new HashMap<>();
-        for (Map.Entry<String, Object> entry : result.entrySet()) {
-          String displayName = getDisplayColumnName(entry.getKey());
-          mappedResult.put(displayName.toLowerCase().replace(" ", "_"), entry.getValue());
-        }
-        mappedResults.add(mappedResult);
+        mappedResults.add(mapToDisplayKeys(result));
       }
 
       return mappedResults;
@@ -493,6 +733,148 @@ public class DataPersistenceService {
       return new ArrayList<>();
     }
   }
+
+  /**
+   * Builds the table, date range filters and columns used to export a data type
+   * 
+   * @return The query, or null if the data type is unknown
+   */
+  private ExportQuery exportQueryFor(String dataType, Date fromDate, Date toDate) {
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    String fromDateStr = sdf.format(fromDate);
+    String toDateStr = sdf.format(toDate);
+
+    Map<String, Object> filters = new HashMap<>();
+    switch (dataType) {
+      case "Events":
+        filters.put("event_date >= ", fromDateStr);
+        filters.put("event_date <= ", toDateStr);
+        return new ExportQuery("Event", filters, new String[] {
+            "event_id",
+            "event_name",
+            "event_date",
+            "event_description",
+            "team_a",
+            "team_b",
+            "category",
+            "event_type"
+        });
+
+      case "Tickets":
+        filters.put("ticket_date >= ", fromDateStr);
+        filters.put("ticket_date <= ", toDateStr);
+        return new ExportQuery("Ticket", filters, new String[] {
+            "ticket_id",
+            "event_id",
+            "ticket_type",
+            "ticket_date",
+            "price",
+            "ticket_status"
+        });
+
+      case "Sales Report":
+        filters.put("sale_date >= ", fromDateStr);
+        filters.put("sale_date <= ", toDateStr);
+        return new ExportQuery("Sales", filters, new String[] {
+            "sale_id",
+            "sale_date",
+            "tickets_sold",
+            "revenue",
+            "category"
+        });
+
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Re-keys a database row by the snake_case form of each column's display name
+   */
+  private Map<String, Object> mapToDisplayKeys(Map<String, Object> row) {
+    Map<String, Object> mappedResult = new HashMap<>();
+    for (Map.Entry<String, Object> entry : row.entrySet()) {
+      String displayName = getDisplayColumnName(entry.getKey());
+      mappedResult.put(displayName.toLowerCase().replace(" ", "_"), entry.getValue());
+    }
+    return mappedResult;
+  }
+
+  /**
+   * Export a data type straight from the database to an Excel file. Events and
+   * tickets are read through a cursor and written with a streaming workbook,
+   * so heap use does not grow with the number of rows.
+   * 
+   * @param dataType    The data type to export ("Events", "Tickets" or "Sales
+   *                    Report")
+   * @param fromDate    Start of the date range
+   * @param toDate      End of the date range
+   * @param filePath    Output file path
+   * @param columnNames Column headers
+   * @return True if export was successful
+   */
+  public boolean exportToExcelStreaming(String dataType, Date fromDate, Date toDate, String filePath,
+      String[] columnNames) {
+    return streamExportRows(dataType, fromDate, toDate,
+        rows -> excelExportService.exportToExcelStreaming(rows, filePath, dataType, columnNames));
+  }
+
+  /**
+   * Export a data type straight from the database to a PDF file, flushing the
+   * table page by page as rows are read from the cursor.
+   * 
+   * @param dataType    The data type to export ("Events", "Tickets" or "Sales
+   *                    Report")
+   * @param fromDate    Start of the date range
+   * @param toDate      End of the date range
+   * @param filePath    Output file path
+   * @param title       Title of the PDF document
+   * @param columnNames Column headers for the PDF table
+   * @return True if export was successful
+   */
+  public boolean exportToPDFStreaming(String dataType, Date fromDate, Date toDate, String filePath, String title,
+      String[] columnNames) {
+    return streamExportRows(dataType, fromDate, toDate,
+        rows -> pdfExportService.exportToPDFStreaming(rows, filePath, title, columnNames));
+  }
+
+  /**
+   * Opens a cursor over the export rows of a data type, re-keyed by display
+   * name, and hands it to the writer. The cursor is closed afterwards.
+   */
+  private boolean streamExportRows(String dataType, Date fromDate, Date toDate,
+      Function<Iterator<Map<String, Object>>, Boolean> writer) {
+    if (dataType.equals("Sales Report")) {
+      // Sales rows are enriched with event details, which needs the full list
+      return writer.apply(getExportData(dataType, fromDate, toDate).iterator());
+    }
+
+    ExportQuery query = exportQueryFor(dataType, fromDate, toDate);
+    if (query == null) {
+      System.err.println("Unknown data type: " + dataType);
+      return false;
+    }
+
+    try (RowCursor cursor = queryBuilder.selectLazyWithFilters(query.tableName, query.filters, query.columns)) {
+      Iterator<Map<String, Object>> rows = new Iterator<Map<String, Object>>() {
+        @Override
+        public boolean hasNext() {
+          return cursor.hasNext();
+        }
+
+        @Override
+        public Map<String, Object> next() {
+          return mapToDisplayKeys(cursor.next());
+        }
+      };
+      return writer.apply(rows);
+    } catch (Exception e) {
+      System.err.println("Error exporting " + dataType + ": " + e.getMessage());
+      e.printStackTrace();
+      return false;
+    }
+  }
+
   private String getDisplayColumnName(String dbColumnName) {
     switch (dbColumnName) {
       case "event_id":
@@ -542,41 +924,108 @@ public class DataPersistenceService {
 
     // For Sales Report, we need to join with Event table to get team information
     if (dataType.equals("Sales Report") && !data.isEmpty()) {
-      // Fetch event details for each sale
-      for (Map<String, Object> sale : data) {
-        Map<String, Object> filters = new HashMap<>();
-        filters.put("event_date", sale.get("date")); // Using mapped column name
-
-        List<Map<String, Object>> eventDetails = queryBuilder.selectWithFilters(
-            "Event",
-            filters,
-            new String[] { "event_name", "team_a", "team_b" });
-
-        if (!eventDetails.isEmpty()) {
-          // Map the column names before adding to sale
-          Map<String, Object> mappedDetails = new HashMap<>();
-          for (Map.Entry<String, Object> entry : eventDetails.get(0).entrySet()) {
-            String displayName = getDisplayColumnName(entry.getKey());
-            mappedDetails.put(displayName.toLowerCase().replace(" ", "_"), entry.getValue());
-          }
-          sale.putAll(mappedDetails);
-        }
-      }
+      enrichSalesWithEvents(data, fromDate, toDate);
     }
 
     return data;
   }
 
+  /**
+   * Adds event name and teams to each sale row from the event held on the same
+   * date. Events are fetched with one query over the export range and joined
+   * in memory by date, so the number of queries does not grow with the number
+   * of sales.
+   */
+  private void enrichSalesWithEvents(List<Map<String, Object>> sales, Date fromDate, Date toDate) {
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    Map<String, Object> filters = new HashMap<>();
+    filters.put("event_date >= ", sdf.format(fromDate));
+    filters.put("event_date <= ", sdf.format(toDate));
+
+    List<Map<String, Object>> events = queryBuilder.selectWithFilters(
+        "Event",
+        filters,
+        new String[] { "event_date", "event_name", "team_a", "team_b" });
+
+    // Build side: first event of each date, keyed the same way as the sales
+    Map<String, Map<String, Object>> eventsByDate = new HashMap<>();
+    for (Map<String, Object> event : events) {
+      Object eventDate = event.remove("event_date");
+      if (eventDate != null) {
+        eventsByDate.putIfAbsent(dateKey(eventDate, sdf), mapToDisplayKeys(event));
+      }
+    }
+
+    // Probe side: sale dates were re-keyed to "date" by the export mapping
+    for (Map<String, Object> sale : sales) {
+      Object saleDate = sale.get("date");
+      Map<String, Object> eventDetails = saleDate != null ? eventsByDate.get(dateKey(saleDate, sdf)) : null;
+      if (eventDetails != null) {
+        sale.putAll(eventDetails);
+      }
+    }
+  }
+
+  private static String dateKey(Object value, SimpleDateFormat sdf) {
+    return value instanceof Date ? sdf.format((Date) value) : value.toString();
+  }
+
+  /**
+   * How an import handles invalid rows
+   */
+  public enum ImportMode {
+    /** Abort the whole import at the first invalid row */
+    ALL_OR_NOTHING,
+    /** Import valid rows in chunked transactions and report rejected rows */
+    PARTIAL_COMMIT
+  }
+
+  /**
+   * Prepare a job that exports one data type to several formats at once. The
+   * data is read once, inside a single read transaction, and shared by all
+   * writers.
+   * 
+   * @param dataType    The data type to export ("Events", "Tickets" or "Sales
+   *                    Report")
+   * @param fromDate    Start of the date range
+   * @param toDate      End of the date range
+   * @param title       Title of the PDF document
+   * @param columnNames Column headers
+   * @return A job to add outputs to and run off the UI thread
+   */
+  public ExportJob createExportJob(String dataType, Date fromDate, Date toDate, String title,
+      String[] columnNames) {
+    List<Map<String, Object>> snapshot = queryBuilder.inTransaction(() -> getExportData(dataType, fromDate, toDate));
+    return new ExportJob(snapshot, columnNames, dataType, title);
+  }
+
   /**
    * Class representing import operation result
    */
   public static class ImportResult {
     private final boolean success;
     private final String message;
+    private final int rowsRead;
+    private final int rowsImported;
+    private final List<RowError> rejectedRows;
+    private final String errorReportPath;
+    private final Map<String, Long> phaseNanos;
+    private final long totalNanos;
 
     public ImportResult(boolean success, String message) {
+      this(success, message, 0, 0, new ArrayList<>(), null, new LinkedHashMap<>(), 0);
+    }
+
+    public ImportResult(boolean success, String message, int rowsRead, int rowsImported,
+        List<RowError> rejectedRows, String errorReportPath, Map<String, Long> phaseNanos, long totalNanos) {
       this.success = success;
       this.message = message;
+      this.rowsRead = rowsRead;
+      this.rowsImported = rowsImported;
+      this.rejectedRows = rejectedRows;
+      this.errorReportPath = errorReportPath;
+      this.phaseNanos = phaseNanos;
+      this.totalNanos = totalNanos;
     }
 
     public boolean isSuccess() {
@@ -586,6 +1035,148 @@ public class DataPersistenceService {
     public String getMessage() {
       return message;
     }
+
+    public int getRowsRead() {
+      return rowsRead;
+    }
+
+    public int getRowsImported() {
+      return rowsImported;
+    }
+
+    public List<RowError> getRejectedRows() {
+      return rejectedRows;
+    }
+
+    /**
+     * @return Path of the CSV listing rejected rows, or null if none was written
+     */
+    public String getErrorReportPath() {
+      return errorReportPath;
+    }
+
+    /**
+     * @return Elapsed nanoseconds per phase (read, validate, write, report) in
+     *         execution order
+     */
+    public Map<String, Long> getPhaseNanos() {
+      return phaseNanos;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    /**
+     * @return Rows read per second over the whole import
+     */
+    public double getRowsPerSecond() {
+      return totalNanos > 0 ? rowsRead / (totalNanos / 1_000_000_000.0) : 0;
+    }
+  }
+
+  /**
+   * Class representing a row rejected during import
+   */
+  public static class RowError {
+    private final int rowNumber;
+    private final String reason;
+    private final Map<String, Object> values;
+
+    public RowError(int rowNumber, String reason, Map<String, Object> values) {
+      this.rowNumber = rowNumber;
+      this.reason = reason;
+      this.values = values;
+    }
+
+    /**
+     * @return The 1-based row number in the source sheet
+     */
+    public int getRowNumber() {
+      return rowNumber;
+    }
+
+    public String getReason() {
+      return reason;
+    }
+
+    public Map<String, Object> getValues() {
+      return values;
+    }
+  }
+
+  /**
+   * Table, filters and columns for one export data type
+   */
+  private static class ExportQuery {
+    private final String tableName;
+    private final Map<String, Object> filters;
+    private final String[] columns;
+
+    ExportQuery(String tableName, Map<String, Object> filters, String[] columns) {
+      this.tableName = tableName;
+      this.filters = filters;
+      this.columns = columns;
+    }
+  }
+
+  /**
+   * A source row paired with its 1-based sheet row number
+   */
+  private static class ImportRow {
+    private final int rowNumber;
+    private final Map<String, Object> values;
+
+    ImportRow(int rowNumber, Map<String, Object> values) {
+      this.rowNumber = rowNumber;
+      this.values = values;
+    }
+  }
+
+  /**
+   * Collects per-phase timings for an import
+   */
+  private static class ImportStats {
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+    /**
+     * Records a phase that started at phaseStart and returns the start of the next
+     */
+    long endPhase(String phase, long phaseStart) {
+      long now = System.nanoTime();
+      phaseNanos.put(phase, now - phaseStart);
+      return now;
+    }
+
+    /**
+     * Adds time to a phase that runs interleaved with reading, such as
+     * validating each row as it is read
+     */
+    void addPhase(String phase, long nanos) {
+      phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * Records the phase that the interleaved phases ran within, as its time
+     * less theirs, listed first, and returns the start of the next phase
+     */
+    long endInterleavedPhase(String phase, long phaseStart) {
+      long now = System.nanoTime();
+      long interleaved = 0;
+      for (long nanos : phaseNanos.values()) {
+        interleaved += nanos;
+      }
+      Map<String, Long> others = new LinkedHashMap<>(phaseNanos);
+      phaseNanos.clear();
+      phaseNanos.put(phase, now - phaseStart - interleaved);
+      phaseNanos.putAll(others);
+      return now;
+    }
+
+    long totalNanos() {
+      return System.nanoTime() - startNanos;
+    }
   }
 
   /**
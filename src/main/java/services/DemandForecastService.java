@@ -0,0 +1,321 @@
+package services;
+
+import database.QueryBuilder;
+import database.RowCursor;
+import server.SalesRollup;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forecasts daily ticket demand per sales category with Holt-Winters models
+ * fitted to the daily sales rollup, and derives per-event forecasts for the
+ * event dates. All work runs on the ServiceExecutor and results are
+ * returned as futures, so callers on the Swing thread never wait on it.
+ *
+ * Models are fitted once and then advanced day by day as new complete days
+ * of sales arrive; they are refitted from scratch every few weeks. Event
+ * forecasts are cached until the models next advance.
+ */
+public class DemandForecastService {
+    private static final int SEASON_DAYS = 7;
+    private static final int HISTORY_DAYS = 365;
+    private static final int REFIT_AFTER_DAYS = 28;
+
+    private final QueryBuilder queryBuilder;
+    private final SalesRollup salesRollup;
+
+    // Guarded by this
+    private final Map<String, CategoryModel> models = new HashMap<>();
+    private LocalDate lastDay;
+    private long modelVersion;
+
+    private final Map<Integer, EventForecast> eventCache = new ConcurrentHashMap<>();
+
+    public DemandForecastService() {
+        this.queryBuilder = new QueryBuilder();
+        this.salesRollup = new SalesRollup(queryBuilder);
+    }
+
+    /**
+     * Forecasts tickets sold per day for every category
+     *
+     * @param horizonDays Number of days after yesterday to forecast
+     * @return Future of the forecast per category
+     */
+    public CompletableFuture<Map<String, CategoryForecast>> forecastCategories(int horizonDays) {
+        return ServiceExecutor.supply(this, () -> {
+            synchronized (this) {
+                refreshModels();
+                Map<String, CategoryForecast> forecasts = new TreeMap<>();
+                for (Map.Entry<String, CategoryModel> entry : models.entrySet()) {
+                    HoltWinters model = entry.getValue().model;
+                    double[] daily = new double[horizonDays];
+                    for (int h = 1; h <= horizonDays; h++) {
+                        daily[h - 1] = model.forecast(h);
+                    }
+                    forecasts.put(entry.getKey(), new CategoryForecast(entry.getKey(), lastDay.plusDays(1), daily,
+                            model.getRmse()));
+                }
+                return forecasts;
+            }
+        });
+    }
+
+    /**
+     * Forecasts demand on the day of every upcoming event
+     *
+     * @return Future of forecasts by event id, soonest event first
+     */
+    public CompletableFuture<Map<Integer, EventForecast>> forecastUpcomingEvents() {
+        return ServiceExecutor.supply(this, () -> {
+            long version;
+            synchronized (this) {
+                refreshModels();
+                version = modelVersion;
+            }
+
+            Map<Integer, EventForecast> forecasts = new LinkedHashMap<>();
+            for (Map<String, Object> event : loadUpcomingEvents()) {
+                int eventId = ((Number) event.get("event_id")).intValue();
+                LocalDate eventDate = (LocalDate) event.get("event_date");
+
+                EventForecast cached = eventCache.get(eventId);
+                if (cached == null || cached.version != version || !cached.eventDate.equals(eventDate)) {
+                    cached = forecastEvent(eventId, eventDate, version);
+                    eventCache.put(eventId, cached);
+                }
+                forecasts.put(eventId, cached);
+            }
+            return forecasts;
+        });
+    }
+
+    private synchronized EventForecast forecastEvent(int eventId, LocalDate eventDate, long version) {
+        int horizon = (int) Math.max(1, ChronoUnit.DAYS.between(lastDay, eventDate));
+        Map<String, Double> byCategory = new TreeMap<>();
+        for (Map.Entry<String, CategoryModel> entry : models.entrySet()) {
+            byCategory.put(entry.getKey(), entry.getValue().model.forecast(horizon));
+        }
+        return new EventForecast(eventId, eventDate, byCategory, version);
+    }
+
+    /**
+     * Brings every category model up to yesterday. Today is left out because
+     * its sales are still coming in.
+     */
+    private void refreshModels() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        if (lastDay != null && !lastDay.isBefore(yesterday)) {
+            return;
+        }
+
+        boolean refit = lastDay == null;
+        for (CategoryModel categoryModel : models.values()) {
+            refit |= categoryModel.daysSinceFit + ChronoUnit.DAYS.between(lastDay, yesterday) > REFIT_AFTER_DAYS;
+        }
+
+        LocalDate from = refit ? yesterday.minusDays(HISTORY_DAYS - 1) : lastDay.plusDays(1);
+        Map<String, double[]> series = loadDailyTickets(from, yesterday);
+
+        if (refit) {
+            models.clear();
+            for (Map.Entry<String, double[]> entry : series.entrySet()) {
+                double[] history = trimLeadingZeros(entry.getValue());
+                models.put(entry.getKey(), new CategoryModel(HoltWinters.fit(history, SEASON_DAYS)));
+            }
+        } else {
+            for (Map.Entry<String, double[]> entry : series.entrySet()) {
+                CategoryModel categoryModel = models.get(entry.getKey());
+                if (categoryModel == null) {
+                    // First sales of a new category
+                    models.put(entry.getKey(), new CategoryModel(
+                            HoltWinters.fit(trimLeadingZeros(entry.getValue()), SEASON_DAYS)));
+                    continue;
+                }
+                for (double tickets : entry.getValue()) {
+                    categoryModel.model.update(tickets);
+                }
+                categoryModel.daysSinceFit += entry.getValue().length;
+            }
+            // Categories without sales in the new days still move forward
+            int days = (int) ChronoUnit.DAYS.between(lastDay, yesterday);
+            for (Map.Entry<String, CategoryModel> entry : models.entrySet()) {
+                if (!series.containsKey(entry.getKey())) {
+                    for (int i = 0; i < days; i++) {
+                        entry.getValue().model.update(0);
+                    }
+                    entry.getValue().daysSinceFit += days;
+                }
+            }
+        }
+
+        lastDay = yesterday;
+        modelVersion++;
+        System.out.println("Demand forecast models " + (refit ? "fitted" : "advanced") + " up to " + yesterday
+                + " for " + models.size() + " categories");
+    }
+
+    /**
+     * @return Tickets sold per day and category, one slot per day from
+     *         {@code from} to {@code to}; days without sales are 0
+     */
+    private Map<String, double[]> loadDailyTickets(LocalDate from, LocalDate to) {
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        Map<String, double[]> series = new HashMap<>();
+        if (days <= 0) {
+            return series;
+        }
+        for (Map<String, Object> bucket : salesRollup.getSeries(SalesRollup.Grain.DAY, from, to)) {
+            LocalDate day = LocalDate.parse(bucket.get("bucket_start").toString());
+            double[] values = series.computeIfAbsent(bucket.get("category").toString(), key -> new double[days]);
+            values[(int) ChronoUnit.DAYS.between(from, day)] = ((Number) bucket.get("tickets_sold")).doubleValue();
+        }
+        return series;
+    }
+
+    // A category's history starts at its first sale, not at the window start
+    private static double[] trimLeadingZeros(double[] values) {
+        int start = 0;
+        while (start < values.length - 1 && values[start] == 0) {
+            start++;
+        }
+        return Arrays.copyOfRange(values, start, values.length);
+    }
+
+    private List<Map<String, Object>> loadUpcomingEvents() {
+        List<Map<String, Object>> events = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("event_date >=", today.toString());
+
+        synchronized (this) {
+            try (RowCursor cursor = queryBuilder.selectLazyWithFilters("Event", filters,
+                    new String[] { "event_id", "event_date" })) {
+                while (cursor.hasNext()) {
+                    Map<String, Object> row = cursor.next();
+                    LocalDate eventDate = toLocalDate(row.get("event_date"));
+                    if (eventDate != null && !eventDate.isBefore(today) && row.get("event_id") instanceof Number) {
+                        row.put("event_date", eventDate);
+                        events.add(row);
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("Error loading upcoming events: " + e.getMessage());
+            }
+        }
+
+        events.sort(Comparator.comparing(row -> (LocalDate) row.get("event_date")));
+        return events;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value != null && value.toString().length() >= 10) {
+            try {
+                return LocalDate.parse(value.toString().substring(0, 10));
+            } catch (Exception e) {
+                // Not a usable date
+            }
+        }
+        return null;
+    }
+
+    private static class CategoryModel {
+        final HoltWinters model;
+        int daysSinceFit;
+
+        CategoryModel(HoltWinters model) {
+            this.model = model;
+        }
+    }
+
+    /**
+     * Daily ticket forecast for one sales category
+     */
+    public static class CategoryForecast {
+        private final String category;
+        private final LocalDate firstDay;
+        private final double[] dailyTickets;
+        private final double rmse;
+
+        CategoryForecast(String category, LocalDate firstDay, double[] dailyTickets, double rmse) {
+            this.category = category;
+            this.firstDay = firstDay;
+            this.dailyTickets = dailyTickets;
+            this.rmse = rmse;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return The day of the first forecast value
+         */
+        public LocalDate getFirstDay() {
+            return firstDay;
+        }
+
+        public double[] getDailyTickets() {
+            return dailyTickets;
+        }
+
+        public double getTotalTickets() {
+            double total = 0;
+            for (double tickets : dailyTickets) {
+                total += tickets;
+            }
+            return total;
+        }
+
+        /**
+         * @return Root mean squared one-day-ahead error on the history
+         */
+        public double getRmse() {
+            return rmse;
+        }
+    }
+
+    /**
+     * Forecast ticket demand per category on the day of an event
+     */
+    public static class EventForecast {
+        private final int eventId;
+        private final LocalDate eventDate;
+        private final Map<String, Double> ticketsByCategory;
+        private final long version;
+
+        EventForecast(int eventId, LocalDate eventDate, Map<String, Double> ticketsByCategory, long version) {
+            this.eventId = eventId;
+            this.eventDate = eventDate;
+            this.ticketsByCategory = ticketsByCategory;
+            this.version = version;
+        }
+
+        public int getEventId() {
+            return eventId;
+        }
+
+        public LocalDate getEventDate() {
+            return eventDate;
+        }
+
+        public Map<String, Double> getTicketsByCategory() {
+            return ticketsByCategory;
+        }
+
+        public double getTotalTickets() {
+            double total = 0;
+            for (double tickets : ticketsByCategory.values()) {
+                total += tickets;
+            }
+            return total;
+        }
+    }
+}
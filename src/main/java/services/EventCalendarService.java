@@ -1,10 +1,9 @@
 package services;
 
 import server.CalendarEventServer;
-import server.NotificationManager;
-import server.notification.NotificationType;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service to handle calendar-specific event data retrieval for the UI.
@@ -82,18 +81,8 @@ public class EventCalendarService {
       boolean success = calendarEventService.addEvent(eventName, eventDate, category,
           eventType, teamA, teamB, description);
           
-      if (success) {
-        // Send notification for the new calendar event
-        NotificationManager notificationManager = NotificationManager.getInstance();
-        String message = "New " + category + " " + eventType + " added to calendar: " + eventName + " on " + eventDate;
-        
-        // Send to admin and manager users
-        notificationManager.sendNotification("admin", message, NotificationType.EVENT_UPCOMING, null);
-        notificationManager.sendNotification("manager", message, NotificationType.EVENT_UPCOMING, null);
-        
-        // Also send a system notification that will be visible to any logged-in user
-        notificationManager.sendSystemNotification(message, NotificationType.EVENT_UPCOMING);
-      } else {
+      // CalendarEventServer already notifies staff of the new event
+      if (!success) {
         lastErrorMessage = calendarEventService.getLastErrorMessage();
       }
       
@@ -105,6 +94,36 @@ public class EventCalendarService {
     }
   }
 
+  /**
+   * Async variant of {@link #getEventsForMonth(int, int)}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getEventsForMonthAsync(int year, int month) {
+    return ServiceExecutor.supply(this, () -> getEventsForMonth(year, month));
+  }
+
+  /**
+   * Async variant of {@link #getVipEventsForMonth(int, int)}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getVipEventsForMonthAsync(int year, int month) {
+    return ServiceExecutor.supply(this, () -> getVipEventsForMonth(year, month));
+  }
+
+  /**
+   * Async variant of {@link #getEventsForDate(LocalDate)}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getEventsForDateAsync(LocalDate date) {
+    return ServiceExecutor.supply(this, () -> getEventsForDate(date));
+  }
+
+  /**
+   * Async variant of {@link #addEvent(String, String, String, String, String, String, String)}
+   */
+  public CompletableFuture<Boolean> addEventAsync(String eventName, String eventDate, String category,
+      String eventType, String teamA, String teamB, String description) {
+    return ServiceExecutor.supply(this,
+        () -> addEvent(eventName, eventDate, category, eventType, teamA, teamB, description));
+  }
+
   /**
    * Get the last error message
    */
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service layer class that mediates between UI and server-side code
@@ -95,16 +96,10 @@ public class EventServiceSer {
       // Call the server-side service to add the event
       eventService.addEvent(eventName, eventDate, teamA, teamB, eventDescription, eventCategory, eventType);
       
-      // Send notification for the new event
-      NotificationManager notificationManager = NotificationManager.getInstance();
+      // Send notification for the new event to admin, manager and the system
+      // feed visible to any logged-in user
       String message = "New event created: " + eventName + " (" + eventCategory + ")";
-      
-      // Send to admin and manager users
-      notificationManager.sendNotification("admin", message, NotificationType.EVENT_UPCOMING, null);
-      notificationManager.sendNotification("manager", message, NotificationType.EVENT_UPCOMING, null);
-      
-      // Also send a system notification that will be visible to any logged-in user
-      notificationManager.sendSystemNotification(message, NotificationType.EVENT_UPCOMING);
+      NotificationManager.getInstance().broadcastToStaff(message, NotificationType.EVENT_UPCOMING, null);
       
       return true;
     } catch (Exception e) {
@@ -176,16 +171,10 @@ public class EventServiceSer {
       
       // If successful, send a notification
       if (result) {
-        // Send notification about the event update
-        NotificationManager notificationManager = NotificationManager.getInstance();
+        // Send notification about the event update to admin, manager and all users
         String message = "Event updated: " + eventName + " on " + eventDate;
-        
-        // Send to admin and manager
-        notificationManager.sendNotification("admin", message, NotificationType.EVENT_UPDATED, String.valueOf(eventId));
-        notificationManager.sendNotification("manager", message, NotificationType.EVENT_UPDATED, String.valueOf(eventId));
-        
-        // Send system notification for all users
-        notificationManager.sendSystemNotification(message, NotificationType.EVENT_UPDATED);
+        NotificationManager.getInstance().broadcastToStaff(message, NotificationType.EVENT_UPDATED,
+            String.valueOf(eventId));
       }
       
       return result;
@@ -211,16 +200,9 @@ public class EventServiceSer {
       boolean result = upcomingEventService.deleteEvent(eventId);
       
       if (result) {
-        // Send notification about the event deletion
-        NotificationManager notificationManager = NotificationManager.getInstance();
+        // Send notification about the event deletion to admin, manager and all users
         String message = "Event deleted: " + eventName;
-        
-        // Send to admin and manager
-        notificationManager.sendNotification("admin", message, NotificationType.EVENT_CANCELLED, null);
-        notificationManager.sendNotification("manager", message, NotificationType.EVENT_CANCELLED, null);
-        
-        // Send system notification for all users
-        notificationManager.sendSystemNotification(message, NotificationType.EVENT_CANCELLED);
+        NotificationManager.getInstance().broadcastToStaff(message, NotificationType.EVENT_CANCELLED, null);
       } else {
         lastErrorMessage = "Failed to delete event. Please try again.";
       }
@@ -233,6 +215,60 @@ public class EventServiceSer {
     }
   }
 
+  /**
+   * Async variant of {@link #getEventCategories()}
+   */
+  public CompletableFuture<List<String>> getEventCategoriesAsync() {
+    return ServiceExecutor.supply(this, this::getEventCategories);
+  }
+
+  /**
+   * Async variant of {@link #getAllEvents()}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getAllEventsAsync() {
+    return ServiceExecutor.supply(this, this::getAllEvents);
+  }
+
+  /**
+   * Async variant of {@link #getEventsByCategory(String)}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getEventsByCategoryAsync(String category) {
+    return ServiceExecutor.supply(this, () -> getEventsByCategory(category));
+  }
+
+  /**
+   * Async variant of {@link #addEvent(String, String, String, String, String, String, String)}
+   */
+  public CompletableFuture<Boolean> addEventAsync(String eventName, String eventDate, String teamA, String teamB,
+      String eventDescription, String eventCategory, String eventType) {
+    return ServiceExecutor.supply(this,
+        () -> addEvent(eventName, eventDate, teamA, teamB, eventDescription, eventCategory, eventType));
+  }
+
+  /**
+   * Async variant of {@link #getEventDetails(int)}
+   */
+  public CompletableFuture<Map<String, Object>> getEventDetailsAsync(int eventId) {
+    return ServiceExecutor.supply(this, () -> getEventDetails(eventId));
+  }
+
+  /**
+   * Async variant of {@link #editEvent(int, String, String, String, String, String, String, String, String)}
+   */
+  public CompletableFuture<Boolean> editEventAsync(int eventId, String eventName, String eventDate,
+      String teamA, String teamB, String eventDescription,
+      String eventCategory, String eventType, String location) {
+    return ServiceExecutor.supply(this, () -> editEvent(eventId, eventName, eventDate, teamA, teamB,
+        eventDescription, eventCategory, eventType, location));
+  }
+
+  /**
+   * Async variant of {@link #deleteEvent(int)}
+   */
+  public CompletableFuture<Boolean> deleteEventAsync(int eventId) {
+    return ServiceExecutor.supply(this, () -> deleteEvent(eventId));
+  }
+
   /**
    * Get the error message from the last operation if it failed
    */
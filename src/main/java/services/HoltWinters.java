@@ -0,0 +1,148 @@
+package services;
+
+/**
+ * Additive Holt-Winters exponential smoothing for a daily demand series.
+ * Falls back to Holt's linear trend method when the history is shorter than
+ * two seasons, and to simple exponential smoothing for a single point. The
+ * model can be fed new observations one at a time after fitting.
+ */
+public class HoltWinters {
+    private static final double[] ALPHAS = { 0.1, 0.3, 0.5, 0.7, 0.9 };
+    private static final double[] BETAS = { 0.0, 0.05, 0.2 };
+    private static final double[] GAMMAS = { 0.05, 0.2, 0.5 };
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double[] seasonal; // Empty when the model has no season
+    private double level;
+    private double trend;
+    private long observations;
+    private double squaredErrors;
+    private long errorCount;
+
+    private HoltWinters(double alpha, double beta, double gamma, int seasonLength) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.seasonal = new double[seasonLength];
+    }
+
+    /**
+     * Fits a model to a history, choosing the smoothing parameters with the
+     * lowest one-step-ahead squared error from a small grid
+     *
+     * @param history      Observations, oldest first
+     * @param seasonLength Period of the seasonality (7 for weekly)
+     * @return The fitted model, positioned after the last observation
+     */
+    public static HoltWinters fit(double[] history, int seasonLength) {
+        int season = history.length >= 2 * seasonLength ? seasonLength : 0;
+        boolean hasTrend = history.length >= 2;
+
+        HoltWinters best = null;
+        for (double alpha : ALPHAS) {
+            for (double beta : hasTrend ? BETAS : new double[] { 0.0 }) {
+                for (double gamma : season > 0 ? GAMMAS : new double[] { 0.0 }) {
+                    HoltWinters model = new HoltWinters(alpha, beta, gamma, season);
+                    model.initialize(history);
+                    if (best == null || model.squaredErrors < best.squaredErrors) {
+                        best = model;
+                    }
+                }
+            }
+        }
+        return best != null ? best : new HoltWinters(0.3, 0.0, 0.0, 0);
+    }
+
+    private void initialize(double[] history) {
+        if (history.length == 0) {
+            return;
+        }
+
+        int start;
+        int season = seasonal.length;
+        if (season > 0) {
+            // Level from the first season, trend from the first two, seasonal
+            // offsets from the first season's deviations
+            double firstMean = mean(history, 0, season);
+            double secondMean = mean(history, season, 2 * season);
+            level = firstMean;
+            trend = beta > 0 ? (secondMean - firstMean) / season : 0;
+            for (int i = 0; i < season; i++) {
+                seasonal[i] = history[i] - firstMean;
+            }
+            observations = season;
+            start = season;
+        } else {
+            level = history[0];
+            trend = history.length >= 2 && beta > 0 ? history[1] - history[0] : 0;
+            observations = 1;
+            start = 1;
+        }
+
+        for (int i = start; i < history.length; i++) {
+            update(history[i]);
+        }
+    }
+
+    /**
+     * Folds in the next observation
+     */
+    public void update(double value) {
+        if (observations == 0) {
+            level = value;
+            observations = 1;
+            return;
+        }
+
+        double error = value - forecast(1);
+        squaredErrors += error * error;
+        errorCount++;
+
+        double seasonalValue = seasonal.length > 0 ? seasonal[seasonIndex(0)] : 0;
+        double previousLevel = level;
+        level = alpha * (value - seasonalValue) + (1 - alpha) * (level + trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * trend;
+        if (seasonal.length > 0) {
+            seasonal[seasonIndex(0)] = gamma * (value - level) + (1 - gamma) * seasonalValue;
+        }
+        observations++;
+    }
+
+    /**
+     * @param horizon Steps after the last observation (1 for the next day)
+     * @return The forecast, never negative
+     */
+    public double forecast(int horizon) {
+        double value = level + horizon * trend;
+        if (seasonal.length > 0) {
+            value += seasonal[seasonIndex(horizon - 1)];
+        }
+        return Math.max(0, value);
+    }
+
+    /**
+     * @return Root mean squared one-step error over the fitted history, or 0
+     *         if there were too few observations
+     */
+    public double getRmse() {
+        return errorCount > 0 ? Math.sqrt(squaredErrors / errorCount) : 0;
+    }
+
+    public boolean isSeasonal() {
+        return seasonal.length > 0;
+    }
+
+    private int seasonIndex(int offset) {
+        return (int) ((observations + offset) % seasonal.length);
+    }
+
+    private static double mean(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
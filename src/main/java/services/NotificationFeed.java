@@ -0,0 +1,229 @@
+package services;
+
+import server.NotificationManager;
+import server.notification.Notification;
+import server.notification.NotificationType;
+import services.NotificationService.UINotification;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The notifications a view shows, newest first: the current user's merged
+ * with the system feed. A broadcast has a copy for each recipient, so the
+ * user's copy and the system copy share a broadcast id and only the first
+ * one merged is shown. Only the pages the view asks for are loaded, so
+ * opening it costs one page however many notifications the user has, and
+ * newly arrived notifications are added on top without reloading the rest.
+ *
+ * Not thread-safe, and its loads read the database: NotificationView runs
+ * every call through ServiceExecutor with the feed as owner, so calls never
+ * overlap and none runs on the event dispatch thread.
+ */
+public class NotificationFeed {
+
+  private final NotificationService service;
+  private final NotificationManager manager;
+  private final NotificationType filterType;
+  private final boolean onlyUnread;
+  private final List<Source> sources = new ArrayList<>();
+
+  private final List<UINotification> items = new ArrayList<>();
+  private final Set<String> loadedIds = new HashSet<>();
+  private final Set<String> loadedBroadcasts = new HashSet<>();
+
+  NotificationFeed(NotificationService service, NotificationManager manager, List<String> userIds,
+      NotificationType filterType, boolean onlyUnread) {
+    this.service = service;
+    this.manager = manager;
+    this.filterType = filterType;
+    this.onlyUnread = onlyUnread;
+    for (String userId : userIds) {
+      sources.add(new Source(userId));
+    }
+  }
+
+  /**
+   * @return The notifications loaded so far, newest first
+   */
+  public List<UINotification> getItems() {
+    return Collections.unmodifiableList(items);
+  }
+
+  /**
+   * @return true if older notifications are left to load
+   */
+  public boolean hasMore() {
+    for (Source source : sources) {
+      if (!source.buffer.isEmpty() || !source.exhausted) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Loads the next older notifications and adds them at the end
+   *
+   * @param limit Maximum number of notifications to load
+   * @return The notifications added
+   */
+  public List<UINotification> loadMore(int limit) {
+    List<UINotification> added = new ArrayList<>();
+    while (added.size() < limit) {
+      // Take the newest of the sources' next notifications
+      Source next = null;
+      for (Source source : sources) {
+        source.fill(limit);
+        if (!source.buffer.isEmpty() && (next == null || isNewer(source.buffer.peek(), next.buffer.peek()))) {
+          next = source;
+        }
+      }
+      if (next == null) {
+        break;
+      }
+
+      Notification notification = next.buffer.poll();
+      if (markLoaded(notification)) {
+        added.add(service.toUINotification(notification));
+      }
+    }
+    items.addAll(added);
+    return added;
+  }
+
+  /**
+   * Loads the notifications that arrived since the newest one loaded and
+   * adds them at the start
+   *
+   * @param limit Most notifications expected to have arrived
+   * @return The notifications added, or null if more than limit arrived and
+   *         the feed should be reopened instead
+   */
+  public List<UINotification> loadNewer(int limit) {
+    List<Notification> arrived = new ArrayList<>();
+    for (Source source : sources) {
+      List<Notification> page = manager.getNotificationsPage(source.userId, filterType, onlyUnread, null, limit);
+      int count = 0;
+      while (count < page.size() && !source.isSeen(page.get(count))) {
+        count++;
+      }
+      if (count == limit) {
+        return null; // The newest one loaded is not even on the first page
+      }
+
+      if (count > 0) {
+        arrived.addAll(page.subList(0, count));
+        if (source.newest == null) {
+          // Nothing was loaded from this source yet; continue paging below
+          source.cursor = page.get(count - 1);
+          source.exhausted = page.size() < limit;
+        }
+        source.newest = page.get(0);
+      }
+    }
+
+    arrived.sort((a, b) -> isNewer(a, b) ? -1 : isNewer(b, a) ? 1 : 0);
+    List<UINotification> added = new ArrayList<>();
+    for (Notification notification : arrived) {
+      if (markLoaded(notification)) {
+        added.add(service.toUINotification(notification));
+      }
+    }
+    items.addAll(0, added);
+    return added;
+  }
+
+  /**
+   * @return Position of the notification in getItems(), or -1
+   */
+  public int indexOf(String notificationId) {
+    for (int i = 0; i < items.size(); i++) {
+      if (items.get(i).getId().equals(notificationId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Replaces a loaded notification, e.g. after it was marked as read
+   */
+  public void replace(UINotification notification) {
+    int index = indexOf(notification.getId());
+    if (index >= 0) {
+      items.set(index, notification);
+    }
+  }
+
+  /**
+   * Removes a loaded notification, e.g. after it was dismissed
+   *
+   * @return Its former position, or -1 if it was not loaded
+   */
+  public int remove(String notificationId) {
+    int index = indexOf(notificationId);
+    if (index >= 0) {
+      items.remove(index);
+      loadedIds.remove(notificationId);
+    }
+    return index;
+  }
+
+  // false if the notification, or another copy of its broadcast, is loaded
+  private boolean markLoaded(Notification notification) {
+    if (!loadedIds.add(notification.getId())) {
+      return false;
+    }
+    String broadcastId = notification.getBroadcastId();
+    return broadcastId == null || loadedBroadcasts.add(broadcastId);
+  }
+
+  private static boolean isNewer(Notification a, Notification b) {
+    return a.getTimestamp().after(b.getTimestamp());
+  }
+
+  /**
+   * One user's notifications, read a page at a time
+   */
+  private class Source {
+    final String userId;
+    // Fetched but not yet merged into the items
+    final Deque<Notification> buffer = new ArrayDeque<>();
+    // Last notification fetched, where the next page starts
+    Notification cursor;
+    // Newest notification fetched, where notifications arriving later end
+    Notification newest;
+    boolean exhausted;
+
+    Source(String userId) {
+      this.userId = userId;
+    }
+
+    void fill(int limit) {
+      if (!buffer.isEmpty() || exhausted) {
+        return;
+      }
+      List<Notification> page = manager.getNotificationsPage(userId, filterType, onlyUnread, cursor, limit);
+      buffer.addAll(page);
+      exhausted = page.size() < limit;
+      if (!page.isEmpty()) {
+        cursor = page.get(page.size() - 1);
+        if (newest == null) {
+          newest = page.get(0);
+        }
+      }
+    }
+
+    // Fetched before, or older than what was fetched (it was deleted since)
+    boolean isSeen(Notification notification) {
+      return newest != null && (notification.getId().equals(newest.getId())
+          || notification.getTimestamp().before(newest.getTimestamp()));
+    }
+  }
+}
@@ -7,8 +7,10 @@ import ui.pages.NotificationView;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.awt.Color;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 
 /**
  * Service class to connect the UI with the notification system.
@@ -20,7 +22,12 @@ public class NotificationService implements NotificationObserver {
   private static NotificationService instance;
   private NotificationManager notificationManager;
   private List<NotificationView> registeredViews;
-  private String currentUserId;
+  private volatile String currentUserId;
+
+  // Notifications not yet announced in a dialog; EDT only
+  private int unannouncedCount;
+  private String lastMessage;
+  private boolean dialogShowing;
 
   /**
    * Private constructor for singleton pattern
@@ -28,7 +35,7 @@ public class NotificationService implements NotificationObserver {
   private NotificationService() {
     notificationManager = NotificationManager.getInstance();
     notificationManager.registerObserver(this);
-    registeredViews = new ArrayList<>();
+    registeredViews = new CopyOnWriteArrayList<>();
 
     // Default to system user until login happens
     currentUserId = "system";
@@ -96,6 +103,24 @@ public class NotificationService implements NotificationObserver {
     
     return convertToUINotifications(allNotifications);
   }
+
+  /**
+   * Opens a paged, newest-first feed of the current user's notifications and
+   * the system notifications, for views that should not load everything
+   * 
+   * @param filterType Optional filter by notification type (can be null)
+   * @param onlyUnread If true, only includes unread notifications
+   * @return A feed with nothing loaded yet
+   */
+  public NotificationFeed openFeed(NotificationType filterType, boolean onlyUnread) {
+    List<String> userIds = new ArrayList<>();
+    if (currentUserId != null && !"system".equals(currentUserId)) {
+      userIds.add(currentUserId);
+    }
+    userIds.add("system");
+    return new NotificationFeed(this, notificationManager, userIds, filterType, onlyUnread);
+  }
+
   /**
    * Get the count of unread notifications for the current user
    * 
@@ -158,23 +183,58 @@ public class NotificationService implements NotificationObserver {
   }
   @Override
   public void onNotificationReceived(Notification notification) {
-    // Check if this notification is for the current user or is a system notification
-    boolean isForCurrentUser = notification.getUserId().equals(currentUserId);
-    boolean isSystemNotification = notification.getUserId().equals("system");
-    
+    onNotificationsReceived(List.of(notification));
+  }
+
+  /**
+   * Called on the notification dispatcher thread with one user's burst of
+   * notifications. Views are refreshed once per burst on the event dispatch
+   * thread, and a burst is announced in a single dialog.
+   */
+  @Override
+  public void onNotificationsReceived(List<Notification> notifications) {
+    // A broadcast is delivered once, listing all of its recipients
+    List<String> recipients = notifications.get(0).getRecipients();
+
+    // Check if these notifications are for the current user or are system notifications
+    boolean isForCurrentUser = currentUserId != null && recipients.contains(currentUserId);
+    boolean isSystemNotification = recipients.contains("system");
+
     if (isForCurrentUser || isSystemNotification) {
-      // Update all registered views
-      for (NotificationView view : registeredViews) {
-        view.refreshNotifications();
+      SwingUtilities.invokeLater(() -> {
+        // Update all registered views
+        for (NotificationView view : registeredViews) {
+          view.refreshNotifications();
+        }
+        announce(notifications);
+      });
+    }
+  }
+
+  /**
+   * Shows that notifications have arrived. While a dialog is open, newer
+   * notifications are added up and shown in one dialog after it closes.
+   */
+  private void announce(List<Notification> notifications) {
+    unannouncedCount += notifications.size();
+    lastMessage = notifications.get(notifications.size() - 1).getMessage();
+    if (dialogShowing) {
+      return;
+    }
+
+    dialogShowing = true;
+    try {
+      while (unannouncedCount > 0) {
+        String message = unannouncedCount == 1 ? lastMessage : unannouncedCount + " new notifications";
+        unannouncedCount = 0;
+        JOptionPane.showMessageDialog(
+            null,
+            message,
+            "New Notification",
+            JOptionPane.INFORMATION_MESSAGE);
       }
-      
-      // Optionally show a system tray notification or other UI indicator
-      // that a new notification has arrived
-      JOptionPane.showMessageDialog(
-          null, 
-          notification.getMessage(), 
-          "New Notification", 
-          JOptionPane.INFORMATION_MESSAGE);
+    } finally {
+      dialogShowing = false;
     }
   }
 
@@ -188,18 +248,27 @@ public class NotificationService implements NotificationObserver {
     List<UINotification> uiNotifications = new ArrayList<>();
 
     for (Notification notification : serverNotifications) {
-      UINotification uiNotification = new UINotification(
-          notification.getId(),
-          notification.getMessage(),
-          convertToUIType(notification.getType()),
-          notification.getTimestamp(),
-          notification.isRead());
-      uiNotifications.add(uiNotification);
+      uiNotifications.add(toUINotification(notification));
     }
 
     return uiNotifications;
   }
 
+  /**
+   * Convert a server notification to a UI notification
+   * 
+   * @param notification Server notification
+   * @return UI notification
+   */
+  UINotification toUINotification(Notification notification) {
+    return new UINotification(
+        notification.getId(),
+        notification.getMessage(),
+        convertToUIType(notification.getType()),
+        notification.getTimestamp(),
+        notification.isRead());
+  }
+
   /**
    * Convert server notification type to UI notification type
    * 
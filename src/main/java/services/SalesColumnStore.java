@@ -0,0 +1,469 @@
+package services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * In-memory column store for the Sales table. Each sale is kept as one slot in
+ * parallel primitive arrays (epoch day, category code, tickets, revenue), so
+ * filters, group-bys and top-N queries are tight loops over contiguous memory
+ * that the JIT can unroll and vectorize, instead of walks over lists of maps.
+ *
+ * Rows are never removed: a sale read again (e.g. after today's totals were
+ * incremented in the database) overwrites its row in place, and new sales are
+ * appended. Writes and queries are synchronized, so the store can be topped
+ * up on a service thread while the Swing EDT queries it; row indexes returned
+ * by a selection stay valid after later writes.
+ */
+public class SalesColumnStore {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int[] epochDay = new int[INITIAL_CAPACITY];
+    private byte[] category = new byte[INITIAL_CAPACITY];
+    private int[] tickets = new int[INITIAL_CAPACITY];
+    private double[] revenue = new double[INITIAL_CAPACITY];
+    private int size;
+
+    // Category dictionary; codes are indexes into categoryNames
+    private final List<String> categoryNames = new ArrayList<>();
+    private final Map<String, Byte> categoryCodes = new HashMap<>();
+
+    // Row of each sale_id, so a sale read again replaces its row
+    private final Map<Long, Integer> rowBySaleId = new HashMap<>();
+
+    // Highest sale_id read so far, and the database time of the last load,
+    // for incremental loads
+    private long lastSaleId = -1;
+    private String loadedAt;
+
+    /**
+     * Result of a group-by: one slot per group key
+     */
+    public static class GroupTotals {
+        private final int[] keys;
+        private final long[] tickets;
+        private final double[] revenue;
+        private final int[] count;
+
+        GroupTotals(int[] keys, long[] tickets, double[] revenue, int[] count) {
+            this.keys = keys;
+            this.tickets = tickets;
+            this.revenue = revenue;
+            this.count = count;
+        }
+
+        public int size() {
+            return keys.length;
+        }
+
+        /**
+         * @return The group key: an epoch day or a category code
+         */
+        public int getKey(int group) {
+            return keys[group];
+        }
+
+        public long getTickets(int group) {
+            return tickets[group];
+        }
+
+        public double getRevenue(int group) {
+            return revenue[group];
+        }
+
+        public int getCount(int group) {
+            return count[group];
+        }
+    }
+
+    /**
+     * Adds one sale row as returned by QueryBuilder (sale_id, sale_date,
+     * tickets_sold, revenue, category). A sale_id already in the store
+     * replaces its row. Rows without a readable date are skipped.
+     *
+     * @return True if the row was added or replaced
+     */
+    public synchronized boolean append(Map<String, Object> row) {
+        // Recorded even for skipped rows, so they are not read again
+        Object saleIdValue = row.get("sale_id");
+        Long saleId = saleIdValue instanceof Number ? ((Number) saleIdValue).longValue() : null;
+        if (saleId != null) {
+            lastSaleId = Math.max(lastSaleId, saleId);
+        }
+
+        LocalDate date = toLocalDate(row.get("sale_date"));
+        if (date == null) {
+            return false;
+        }
+
+        Object categoryValue = row.get("category");
+        int day = (int) date.toEpochDay();
+        String categoryName = categoryValue != null ? categoryValue.toString() : "";
+        int ticketsSold = toNumber(row.get("tickets_sold")).intValue();
+        double saleRevenue = toNumber(row.get("revenue")).doubleValue();
+
+        Integer existing = saleId != null ? rowBySaleId.get(saleId) : null;
+        if (existing != null) {
+            set(existing, day, categoryName, ticketsSold, saleRevenue);
+        } else {
+            append(day, categoryName, ticketsSold, saleRevenue);
+            if (saleId != null) {
+                rowBySaleId.put(saleId, size - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends one sale from primitive values
+     */
+    public synchronized void append(int day, String categoryName, int ticketsSold, double saleRevenue) {
+        if (size == epochDay.length) {
+            int capacity = size * 2;
+            epochDay = Arrays.copyOf(epochDay, capacity);
+            category = Arrays.copyOf(category, capacity);
+            tickets = Arrays.copyOf(tickets, capacity);
+            revenue = Arrays.copyOf(revenue, capacity);
+        }
+        set(size++, day, categoryName, ticketsSold, saleRevenue);
+    }
+
+    private void set(int row, int day, String categoryName, int ticketsSold, double saleRevenue) {
+        epochDay[row] = day;
+        category[row] = codeFor(categoryName);
+        tickets[row] = ticketsSold;
+        revenue[row] = saleRevenue;
+    }
+
+    private byte codeFor(String categoryName) {
+        Byte code = categoryCodes.get(categoryName);
+        if (code != null) {
+            return code;
+        }
+        if (categoryNames.size() > Byte.MAX_VALUE) {
+            throw new IllegalStateException("Too many sales categories: " + categoryNames.size());
+        }
+        byte newCode = (byte) categoryNames.size();
+        categoryNames.add(categoryName);
+        categoryCodes.put(categoryName, newCode);
+        return newCode;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return The highest sale_id read, or -1 if no row carried one
+     */
+    public synchronized long getLastSaleId() {
+        return lastSaleId;
+    }
+
+    /**
+     * @return The database time (CURRENT_TIMESTAMP) at which the last load
+     *         started, or null if the store was never loaded
+     */
+    public synchronized String getLoadedAt() {
+        return loadedAt;
+    }
+
+    public synchronized void setLoadedAt(String loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * @return Category names in code order
+     */
+    public synchronized List<String> getCategories() {
+        return Collections.unmodifiableList(new ArrayList<>(categoryNames));
+    }
+
+    /**
+     * @return The category code, or -1 if the category is unknown
+     */
+    public synchronized int categoryCode(String categoryName) {
+        Byte code = categoryCodes.get(categoryName);
+        return code != null ? code : -1;
+    }
+
+    public synchronized String categoryName(int code) {
+        return categoryNames.get(code);
+    }
+
+    // Selections are arrays of row indexes in ascending order
+
+    /**
+     * @return Every row
+     */
+    public synchronized int[] selectAll() {
+        int[] selection = new int[size];
+        for (int i = 0; i < size; i++) {
+            selection[i] = i;
+        }
+        return selection;
+    }
+
+    /**
+     * @return Rows whose day lies in [fromDay, toDay]
+     */
+    public synchronized int[] selectDayRange(int fromDay, int toDay) {
+        int[] selection = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int day = epochDay[i];
+            selection[count] = i;
+            count += (day >= fromDay && day <= toDay) ? 1 : 0;
+        }
+        return Arrays.copyOf(selection, count);
+    }
+
+    /**
+     * @return Rows of the given category, or none if it is unknown
+     */
+    public synchronized int[] selectCategory(String categoryName) {
+        int code = categoryCode(categoryName);
+        if (code < 0) {
+            return new int[0];
+        }
+        int[] selection = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            selection[count] = i;
+            count += category[i] == code ? 1 : 0;
+        }
+        return Arrays.copyOf(selection, count);
+    }
+
+    /**
+     * Sums tickets and revenue per day over the selected rows
+     *
+     * @return Groups in ascending day order
+     */
+    public synchronized GroupTotals groupByDay(int[] selection) {
+        if (selection.length == 0) {
+            return new GroupTotals(new int[0], new long[0], new double[0], new int[0]);
+        }
+
+        // Dense accumulation over the day span of the selection
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int row : selection) {
+            minDay = Math.min(minDay, epochDay[row]);
+            maxDay = Math.max(maxDay, epochDay[row]);
+        }
+        int span = maxDay - minDay + 1;
+        long[] dayTickets = new long[span];
+        double[] dayRevenue = new double[span];
+        int[] dayCount = new int[span];
+        for (int row : selection) {
+            int slot = epochDay[row] - minDay;
+            dayTickets[slot] += tickets[row];
+            dayRevenue[slot] += revenue[row];
+            dayCount[slot]++;
+        }
+        return compact(minDay, dayTickets, dayRevenue, dayCount);
+    }
+
+    /**
+     * Sums tickets and revenue per category over the selected rows
+     *
+     * @return Groups keyed by category code, in code order
+     */
+    public synchronized GroupTotals groupByCategory(int[] selection) {
+        int categories = categoryNames.size();
+        long[] categoryTickets = new long[categories];
+        double[] categoryRevenue = new double[categories];
+        int[] categoryCount = new int[categories];
+        for (int row : selection) {
+            int code = category[row];
+            categoryTickets[code] += tickets[row];
+            categoryRevenue[code] += revenue[row];
+            categoryCount[code]++;
+        }
+        return compact(0, categoryTickets, categoryRevenue, categoryCount);
+    }
+
+    // Drops empty slots from dense group arrays
+    private GroupTotals compact(int keyOffset, long[] groupTickets, double[] groupRevenue, int[] groupCount) {
+        int groups = 0;
+        for (int count : groupCount) {
+            groups += count > 0 ? 1 : 0;
+        }
+        int[] keys = new int[groups];
+        long[] outTickets = new long[groups];
+        double[] outRevenue = new double[groups];
+        int[] outCount = new int[groups];
+        int next = 0;
+        for (int slot = 0; slot < groupCount.length; slot++) {
+            if (groupCount[slot] > 0) {
+                keys[next] = slot + keyOffset;
+                outTickets[next] = groupTickets[slot];
+                outRevenue[next] = groupRevenue[slot];
+                outCount[next] = groupCount[slot];
+                next++;
+            }
+        }
+        return new GroupTotals(keys, outTickets, outRevenue, outCount);
+    }
+
+    /**
+     * Picks the n selected rows with the highest revenue using a bounded
+     * min-heap, so the cost is O(rows * log n) rather than a full sort.
+     *
+     * @return Row indexes, highest revenue first
+     */
+    public synchronized int[] topByRevenue(int[] selection, int n) {
+        int limit = Math.min(n, selection.length);
+        if (limit <= 0) {
+            return new int[0];
+        }
+
+        // heap[0] holds the smallest revenue kept so far
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int row : selection) {
+            if (heapSize < limit) {
+                heap[heapSize] = row;
+                siftUp(heap, heapSize++);
+            } else if (revenue[row] > revenue[heap[0]]) {
+                heap[0] = row;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        int[] result = new int[limit];
+        for (int i = limit - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+        return result;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (revenue[heap[index]] >= revenue[heap[parent]]) {
+                return;
+            }
+            int swap = heap[index];
+            heap[index] = heap[parent];
+            heap[parent] = swap;
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && revenue[heap[left]] < revenue[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < heapSize && revenue[heap[right]] < revenue[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            int swap = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = swap;
+            index = smallest;
+        }
+    }
+
+    /**
+     * @return Distinct days present in the store, ascending
+     */
+    public synchronized int[] distinctDays() {
+        int[] days = Arrays.copyOf(epochDay, size);
+        Arrays.sort(days);
+        int count = 0;
+        for (int i = 0; i < days.length; i++) {
+            if (count == 0 || days[i] != days[count - 1]) {
+                days[count++] = days[i];
+            }
+        }
+        return Arrays.copyOf(days, count);
+    }
+
+    public synchronized int getEpochDay(int row) {
+        return epochDay[row];
+    }
+
+    public synchronized String getCategory(int row) {
+        return categoryNames.get(category[row]);
+    }
+
+    public synchronized int getTickets(int row) {
+        return tickets[row];
+    }
+
+    public synchronized double getRevenue(int row) {
+        return revenue[row];
+    }
+
+    /**
+     * Materializes the selected rows in the map shape used by the sales table
+     * and exports (sale_date, category, tickets_sold, revenue)
+     */
+    public synchronized List<Map<String, Object>> toRows(int[] selection) {
+        List<Map<String, Object>> rows = new ArrayList<>(selection.length);
+        for (int row : selection) {
+            Map<String, Object> sale = new HashMap<>();
+            sale.put("sale_date", java.sql.Date.valueOf(LocalDate.ofEpochDay(epochDay[row])));
+            sale.put("category", categoryNames.get(category[row]));
+            sale.put("tickets_sold", tickets[row]);
+            sale.put("revenue", revenue[row]);
+            rows.add(sale);
+        }
+        return rows;
+    }
+
+    /**
+     * Converts a sale_date value (SQL date, timestamp, epoch millis or
+     * yyyy-MM-dd text) to a local date
+     *
+     * @return The date, or null if the value cannot be read as one
+     */
+    static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        if (value instanceof Date) {
+            return Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        if (value instanceof Number) {
+            return Instant.ofEpochMilli(((Number) value).longValue()).atZone(ZoneId.systemDefault()).toLocalDate();
+        }
+        if (value != null) {
+            String text = value.toString();
+            try {
+                return LocalDate.parse(text.length() > 10 ? text.substring(0, 10) : text);
+            } catch (Exception e) {
+                System.err.println("Skipping sale with unreadable date: " + text);
+            }
+        }
+        return null;
+    }
+
+    private static Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        if (value != null) {
+            try {
+                return Double.parseDouble(value.toString());
+            } catch (NumberFormatException e) {
+                // Treated as zero below
+            }
+        }
+        return 0;
+    }
+}
@@ -1,9 +1,15 @@
 package services;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import database.QueryBuilder;
+import database.RowCursor;
+import server.CsvDataService;
 import server.ExcelExportService;
+import server.JsonLinesDataService;
 import server.PDFExportServer;
+import server.SalesRollup;
 
 /**
  * Service layer class that handles all operations related to sales data.
@@ -13,12 +19,20 @@ public class SalesDataService {
     private String lastErrorMessage;
     private ExcelExportService excelExportService;
     private PDFExportServer pdfExportService;
+    private CsvDataService csvDataService;
+    private JsonLinesDataService jsonLinesDataService;
+    private SalesRollup salesRollup;
+    private volatile SalesColumnStore salesStore;
+    private boolean salesStoreIsSample;
 
     public SalesDataService() {
         this.queryBuilder = new QueryBuilder();
         this.lastErrorMessage = "";
         this.excelExportService = new ExcelExportService();
         this.pdfExportService = new PDFExportServer();
+        this.csvDataService = new CsvDataService();
+        this.jsonLinesDataService = new JsonLinesDataService();
+        this.salesRollup = new SalesRollup(queryBuilder);
         initializeSalesData();
     }
 
@@ -67,11 +81,21 @@ public class SalesDataService {
             }
         }
 
-        // Try to insert the sample data into the database
+        // Try to insert the sample data into the database; execute() throws on
+        // failure, so the rollups are rolled back with the Sales rows
         try {
-            for (Map<String, Object> sale : sampleData) {
-                queryBuilder.insert("Sales", sale);
-            }
+            queryBuilder.inTransaction(() -> {
+                for (Map<String, Object> sale : sampleData) {
+                    queryBuilder.execute(
+                            "INSERT INTO Sales (sale_date, tickets_sold, revenue, category) VALUES (?, ?, ?, ?)",
+                            sale.get("sale_date").toString(), sale.get("tickets_sold"), sale.get("revenue"),
+                            sale.get("category"));
+                    salesRollup.recordSale(((java.sql.Date) sale.get("sale_date")).toLocalDate(),
+                            (String) sale.get("category"), (Integer) sale.get("tickets_sold"),
+                            (Double) sale.get("revenue"));
+                }
+                return null;
+            });
             System.out.println("✅ Generated and inserted sample sales data");
         } catch (Exception e) {
             System.err.println("Failed to insert sample data: " + e.getMessage());
@@ -95,6 +119,68 @@ public class SalesDataService {
         }
     }
 
+    /**
+     * Get the in-memory column store of all sales. It is loaded from the
+     * database on first use and then only topped up by refreshSalesStore().
+     */
+    public SalesColumnStore getSalesStore() {
+        SalesColumnStore store = salesStore;
+        return store != null ? store : refreshSalesStore();
+    }
+
+    /**
+     * Bring the store up to date with sales added or changed in the database
+     * since it was last loaded. Only rows with a higher sale_id than the store
+     * has seen, or updated since the last load, are read. A store holding
+     * sample data is replaced by a fresh load.
+     */
+    public synchronized SalesColumnStore refreshSalesStore() {
+        if (salesStore != null && !salesStoreIsSample) {
+            loadSalesChanges(salesStore);
+            return salesStore;
+        }
+
+        // Built aside and published once complete, so readers never see a half-loaded store
+        SalesColumnStore store = new SalesColumnStore();
+        boolean sample = false;
+        loadSalesChanges(store);
+        if (store.size() == 0) {
+            // Same fallback as getAllSalesData
+            for (Map<String, Object> sale : generateSampleData()) {
+                store.append(sale);
+            }
+            sample = true;
+        }
+        salesStoreIsSample = sample;
+        salesStore = store;
+        return store;
+    }
+
+    private void loadSalesChanges(SalesColumnStore store) {
+        try {
+            // Taken before reading, on the clock that stamps updated_at, so
+            // an update committed while reading is read again next time
+            Object now = queryBuilder.fetch("SELECT CAST(CURRENT_TIMESTAMP AS TEXT) AS db_now").get(0).get("db_now");
+
+            // sale_date read as text; mixed date formats trip the driver's timestamp parsing
+            String columns = "SELECT sale_id, CAST(sale_date AS TEXT) AS sale_date, tickets_sold, revenue, category"
+                    + " FROM Sales";
+            try (RowCursor cursor = store.getLoadedAt() == null
+                    ? queryBuilder.fetchLazy(columns)
+                    : queryBuilder.fetchLazy(columns + " WHERE sale_id > ? OR updated_at >= ?",
+                            store.getLastSaleId(), store.getLoadedAt())) {
+                while (cursor.hasNext()) {
+                    store.append(cursor.next());
+                }
+            }
+            store.setLoadedAt(now.toString());
+        } catch (Exception e) {
+            lastErrorMessage = "Error loading sales data: " + e.getMessage();
+            System.err.println(lastErrorMessage);
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Generate sample sales data for display
      */
@@ -133,7 +219,16 @@ public class SalesDataService {
             Map<String, Object> filters = new HashMap<>();
             if (filterCriteria != null && !filterCriteria.isEmpty()) {
                 if (filterCriteria.matches("\\d{4}-\\d{2}-\\d{2}")) {
-                    filters.put("sale_date", filterCriteria);
+                    // One day is answered from the daily rollup
+                    LocalDate day = LocalDate.parse(filterCriteria);
+                    List<Map<String, Object>> rows = new ArrayList<>();
+                    for (Map<String, Object> bucket : salesRollup.getSeries(SalesRollup.Grain.DAY, day, day)) {
+                        Map<String, Object> sale = new HashMap<>(bucket);
+                        sale.put("sale_date", java.sql.Date.valueOf(day));
+                        sale.remove("bucket_start");
+                        rows.add(sale);
+                    }
+                    return rows;
                 } else {
                     filters.put("category", filterCriteria);
                 }
@@ -149,7 +244,22 @@ public class SalesDataService {
     }
 
     /**
-     * Export sales data to a file with analysis (Excel or PDF).
+     * Get tickets sold and revenue per category over a date range from the
+     * sales rollups, without reading individual sales.
+     */
+    public List<Map<String, Object>> getSalesTotals(LocalDate from, LocalDate to) {
+        try {
+            return salesRollup.getTotalsByCategory(from, to);
+        } catch (Exception e) {
+            lastErrorMessage = "Error reading sales totals: " + e.getMessage();
+            System.err.println(lastErrorMessage);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Export sales data to a file with analysis (Excel or PDF), or as CSV or JSON lines
+     * (.jsonl or .ndjson).
      */
     public boolean exportSalesData(List<Map<String, Object>> salesData, String filePath) {
         try {
@@ -157,10 +267,15 @@ public class SalesDataService {
             String[] columnNames = {"Date", "Category", "Tickets Sold", "Revenue ($)"};
             
             // Apply the appropriate export service based on file extension
-            if (filePath.toLowerCase().endsWith(".xlsx")) {
+            String lowerPath = filePath.toLowerCase();
+            if (lowerPath.endsWith(".xlsx")) {
                 return excelExportService.exportToExcel(salesData, filePath, "Sales Report", columnNames);
-            } else if (filePath.toLowerCase().endsWith(".pdf")) {
+            } else if (lowerPath.endsWith(".pdf")) {
                 return pdfExportService.exportToPDF(salesData, filePath, "Sales Report Analysis", columnNames);
+            } else if (lowerPath.endsWith(".csv")) {
+                return csvDataService.exportToCsv(salesData, filePath, columnNames);
+            } else if (lowerPath.endsWith(".jsonl") || lowerPath.endsWith(".ndjson")) {
+                return jsonLinesDataService.exportToJsonLines(salesData, filePath, columnNames);
             } else {
                 // Default to Excel if extension is not recognized
                 return excelExportService.exportToExcel(salesData, filePath + ".xlsx", "Sales Report", columnNames);
@@ -172,6 +287,41 @@ public class SalesDataService {
         }
     }
 
+    /**
+     * Async variant of {@link #getAllSalesData()}
+     */
+    public CompletableFuture<List<Map<String, Object>>> getAllSalesDataAsync() {
+        return ServiceExecutor.supply(this, this::getAllSalesData);
+    }
+
+    /**
+     * Async variant of {@link #refreshSalesStore()}
+     */
+    public CompletableFuture<SalesColumnStore> refreshSalesStoreAsync() {
+        return ServiceExecutor.supply(this, this::refreshSalesStore);
+    }
+
+    /**
+     * Async variant of {@link #filterSalesData(String)}
+     */
+    public CompletableFuture<List<Map<String, Object>>> filterSalesDataAsync(String filterCriteria) {
+        return ServiceExecutor.supply(this, () -> filterSalesData(filterCriteria));
+    }
+
+    /**
+     * Async variant of {@link #getSalesTotals(LocalDate, LocalDate)}
+     */
+    public CompletableFuture<List<Map<String, Object>>> getSalesTotalsAsync(LocalDate from, LocalDate to) {
+        return ServiceExecutor.supply(this, () -> getSalesTotals(from, to));
+    }
+
+    /**
+     * Async variant of {@link #exportSalesData(List, String)}
+     */
+    public CompletableFuture<Boolean> exportSalesDataAsync(List<Map<String, Object>> salesData, String filePath) {
+        return ServiceExecutor.supply(this, () -> exportSalesData(salesData, filePath));
+    }
+
     /**
      * Get the last error message.
      */
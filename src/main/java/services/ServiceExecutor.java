@@ -0,0 +1,315 @@
+package services;
+
+import database.Database;
+import server.Session;
+import server.SessionContext;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+
+/**
+ * Runs blocking database and file work off the Swing event dispatch thread.
+ * Each task gets its own virtual thread, and a semaphore caps how many run at
+ * once (io.maxConcurrent in config.properties). Tasks with the same owner
+ * never overlap, so a service's asynchronous calls run one at a time and in
+ * order. Each statement on a service's connection is serialized by its
+ * QueryBuilder, which also covers the synchronous calls views still make.
+ *
+ * Cancelling a returned future interrupts its thread: a task still waiting
+ * for its turn is dropped, and a running task sees the interrupt flag.
+ *
+ * A session bound to the submitting thread with SessionContext is bound to
+ * the task's thread too, so services see the operator the work is for.
+ */
+public final class ServiceExecutor {
+
+  private static final int DEFAULT_MAX_CONCURRENT = 4;
+
+  private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("service-", 0).factory());
+
+  private static final int MAX_CONCURRENT = loadMaxConcurrent();
+  private static final Semaphore PERMITS = new Semaphore(MAX_CONCURRENT, true);
+
+  /**
+   * Runs callbacks on the Swing event dispatch thread, e.g.
+   * {@code future.thenAcceptAsync(rows -> table.update(rows), ServiceExecutor.EDT)}
+   */
+  public static final Executor EDT = SwingUtilities::invokeLater;
+
+  // One lock per owner; weak keys so services can be collected
+  private static final Map<Object, ReentrantLock> LOCKS = Collections.synchronizedMap(new WeakHashMap<>());
+
+  // Metrics
+  private static final AtomicInteger queued = new AtomicInteger();
+  private static final AtomicInteger running = new AtomicInteger();
+  private static final AtomicLong completed = new AtomicLong();
+  private static final AtomicLong failed = new AtomicLong();
+  private static final AtomicLong cancelled = new AtomicLong();
+  private static final AtomicLong totalWaitNanos = new AtomicLong();
+  private static final AtomicLong maxWaitNanos = new AtomicLong();
+  private static final AtomicLong totalRunNanos = new AtomicLong();
+  private static final AtomicLong maxRunNanos = new AtomicLong();
+
+  private ServiceExecutor() {
+  }
+
+  /**
+   * Runs a service call on a virtual thread
+   *
+   * @param owner The service the call uses; calls with the same owner never
+   *              overlap
+   * @param work  The blocking call
+   * @return A future completed with the call's result or exception
+   */
+  public static <T> CompletableFuture<T> supply(Object owner, Supplier<T> work) {
+    return submit(LOCKS.computeIfAbsent(owner, key -> new ReentrantLock()), work);
+  }
+
+  /**
+   * Runs blocking work that shares no connection, such as file I/O, on a
+   * virtual thread
+   *
+   * @param work The blocking work
+   * @return A future completed with the work's result or exception
+   */
+  public static <T> CompletableFuture<T> supply(Supplier<T> work) {
+    return submit(null, work);
+  }
+
+  /**
+   * Delivers a future's outcome on the event dispatch thread. Nothing is
+   * delivered if the future was cancelled.
+   *
+   * @param future    The pending result
+   * @param onSuccess Receives the result
+   * @param onError   Receives the failure, unwrapped from CompletionException
+   */
+  public static <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+    future.whenCompleteAsync((result, error) -> {
+      if (future.isCancelled()) {
+        return;
+      }
+      if (error == null) {
+        onSuccess.accept(result);
+      } else {
+        onError.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+      }
+    }, EDT);
+  }
+
+  /**
+   * @return A snapshot of the executor's queue depth and latencies
+   */
+  public static Metrics getMetrics() {
+    return new Metrics(queued.get(), running.get(), completed.get(), failed.get(), cancelled.get(),
+        totalWaitNanos.get(), maxWaitNanos.get(), totalRunNanos.get(), maxRunNanos.get());
+  }
+
+  private static <T> CompletableFuture<T> submit(ReentrantLock ownerLock, Supplier<T> work) {
+    TaskFuture<T> future = new TaskFuture<>();
+    long submittedAt = System.nanoTime();
+    Session session = SessionContext.current();
+    queued.incrementAndGet();
+    future.setTask(EXECUTOR.submit(() -> SessionContext.runAs(session,
+        () -> run(future, ownerLock, work, submittedAt))));
+    return future;
+  }
+
+  private static <T> void run(TaskFuture<T> future, ReentrantLock ownerLock, Supplier<T> work, long submittedAt) {
+    boolean locked = false;
+    boolean permitted = false;
+    boolean waiting = true;
+    try {
+      // Owner lock first, so a task stuck behind its owner holds no permit
+      if (ownerLock != null) {
+        ownerLock.lockInterruptibly();
+        locked = true;
+      }
+      PERMITS.acquire();
+      permitted = true;
+
+      queued.decrementAndGet();
+      waiting = false;
+      if (future.isDone()) {
+        return; // Cancelled while waiting
+      }
+
+      long startedAt = System.nanoTime();
+      record(totalWaitNanos, maxWaitNanos, startedAt - submittedAt);
+      running.incrementAndGet();
+      T result = null;
+      Throwable failure = null;
+      try {
+        result = work.get();
+      } catch (Throwable e) {
+        failure = e;
+      }
+
+      // Counters first, so they are current by the time callers see the result
+      running.decrementAndGet();
+      record(totalRunNanos, maxRunNanos, System.nanoTime() - startedAt);
+      if (!future.isCancelled()) {
+        (failure == null ? completed : failed).incrementAndGet();
+      }
+      if (failure == null) {
+        future.complete(result);
+      } else {
+        future.completeExceptionally(failure);
+      }
+    } catch (InterruptedException e) {
+      // Only cancel() interrupts a waiting task, so the future is already cancelled
+    } finally {
+      if (waiting) {
+        queued.decrementAndGet();
+      }
+      if (permitted) {
+        PERMITS.release();
+      }
+      if (locked) {
+        ownerLock.unlock();
+      }
+    }
+  }
+
+  private static void record(AtomicLong total, AtomicLong max, long nanos) {
+    total.addAndGet(nanos);
+    max.accumulateAndGet(nanos, Math::max);
+  }
+
+  private static int loadMaxConcurrent() {
+    String value = Database.getConfigProperty("io.maxConcurrent", null);
+    try {
+      if (value != null && Integer.parseInt(value) > 0) {
+        return Integer.parseInt(value);
+      }
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid io.maxConcurrent, using " + DEFAULT_MAX_CONCURRENT + ": " + value);
+    }
+    return DEFAULT_MAX_CONCURRENT;
+  }
+
+  /**
+   * A future that interrupts its task's thread when cancelled
+   */
+  private static class TaskFuture<T> extends CompletableFuture<T> {
+    private volatile Future<?> task;
+
+    void setTask(Future<?> task) {
+      this.task = task;
+      if (isCancelled()) {
+        task.cancel(true);
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean wasDone = isDone();
+      boolean result = super.cancel(mayInterruptIfRunning);
+      if (result && !wasDone) {
+        cancelled.incrementAndGet();
+        Future<?> current = task;
+        if (current != null) {
+          current.cancel(true);
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Point-in-time counters of the executor. Wait time is from submission
+   * until the task starts running.
+   */
+  public static class Metrics {
+    private final int queueDepth;
+    private final int running;
+    private final long completed;
+    private final long failed;
+    private final long cancelled;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long totalRunNanos;
+    private final long maxRunNanos;
+
+    Metrics(int queueDepth, int running, long completed, long failed, long cancelled,
+        long totalWaitNanos, long maxWaitNanos, long totalRunNanos, long maxRunNanos) {
+      this.queueDepth = queueDepth;
+      this.running = running;
+      this.completed = completed;
+      this.failed = failed;
+      this.cancelled = cancelled;
+      this.totalWaitNanos = totalWaitNanos;
+      this.maxWaitNanos = maxWaitNanos;
+      this.totalRunNanos = totalRunNanos;
+      this.maxRunNanos = maxRunNanos;
+    }
+
+    /**
+     * @return Tasks submitted but not yet running
+     */
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    public int getRunning() {
+      return running;
+    }
+
+    public int getMaxConcurrent() {
+      return MAX_CONCURRENT;
+    }
+
+    public long getCompleted() {
+      return completed;
+    }
+
+    public long getFailed() {
+      return failed;
+    }
+
+    public long getCancelled() {
+      return cancelled;
+    }
+
+    public double getAverageWaitMillis() {
+      long started = completed + failed + running;
+      return started > 0 ? totalWaitNanos / 1e6 / started : 0;
+    }
+
+    public double getMaxWaitMillis() {
+      return maxWaitNanos / 1e6;
+    }
+
+    public double getAverageRunMillis() {
+      long finished = completed + failed;
+      return finished > 0 ? totalRunNanos / 1e6 / finished : 0;
+    }
+
+    public double getMaxRunMillis() {
+      return maxRunNanos / 1e6;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("queued=%d running=%d/%d completed=%d failed=%d cancelled=%d "
+          + "wait avg=%.1fms max=%.1fms run avg=%.1fms max=%.1fms",
+          queueDepth, running, MAX_CONCURRENT, completed, failed, cancelled,
+          getAverageWaitMillis(), getMaxWaitMillis(), getAverageRunMillis(), getMaxRunMillis());
+    }
+  }
+}
@@ -2,7 +2,7 @@ package services;
 
 import server.AuthenticationServer;
 import server.AuthenticationServer.UserRole;
-import org.mindrot.jbcrypt.BCrypt;
+import server.PasswordHasher;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import database.Database;
 import database.QueryBuilder;
@@ -93,7 +94,7 @@ public class UserService {
       }
 
       // Hash the password
-      String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt(12));
+      String hashedPassword = PasswordHasher.hash(password);
 
       // Set up values for insertion
       Map<String, Object> values = new HashMap<>();
@@ -146,7 +147,7 @@ public class UserService {
 
       if (newPassword != null && !newPassword.isEmpty()) {
         // Hash the new password
-        String hashedPassword = BCrypt.hashpw(newPassword, BCrypt.gensalt(12));
+        String hashedPassword = PasswordHasher.hash(newPassword);
         updateValues.put("password", hashedPassword);
       }
 
@@ -261,4 +262,40 @@ public class UserService {
       queryBuilder.closeConnection();
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Async variant of {@link #getAllUsers(UserRole)}
+   */
+  public CompletableFuture<List<Map<String, Object>>> getAllUsersAsync(UserRole role) {
+    return ServiceExecutor.supply(this, () -> getAllUsers(role));
+  }
+
+  /**
+   * Async variant of {@link #addUser(String, String, String, UserRole)}
+   */
+  public CompletableFuture<Boolean> addUserAsync(String username, String password, String email, UserRole role) {
+    return ServiceExecutor.supply(this, () -> addUser(username, password, email, role));
+  }
+
+  /**
+   * Async variant of {@link #updateUser(String, String, String, UserRole)}
+   */
+  public CompletableFuture<Boolean> updateUserAsync(String username, String newEmail, String newPassword,
+      UserRole role) {
+    return ServiceExecutor.supply(this, () -> updateUser(username, newEmail, newPassword, role));
+  }
+
+  /**
+   * Async variant of {@link #deleteUser(String, UserRole)}
+   */
+  public CompletableFuture<Boolean> deleteUserAsync(String username, UserRole role) {
+    return ServiceExecutor.supply(this, () -> deleteUser(username, role));
+  }
+
+  /**
+   * Async variant of {@link #usernameExists(String)}
+   */
+  public CompletableFuture<Boolean> usernameExistsAsync(String username) {
+    return ServiceExecutor.supply(this, () -> usernameExists(username));
+  }
+}
@@ -2,6 +2,13 @@ package ui;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import utils.StartupProfiler;
+import utils.StartupWarmup;
 
 // Import custom views (each is a JPanel for a specific screen)
 import ui.pages.LoginView;
@@ -25,7 +32,12 @@ public class MainFrame extends JFrame {
   // Scroll pane to enable scrolling if content overflows
   private JScrollPane scrollPane;
 
+  // Page factories by name, and the pages built from them so far
+  private final Map<String, Supplier<JPanel>> pageFactories = new HashMap<>();
+  private final Map<String, JPanel> pages = new HashMap<>();
+
   public MainFrame() {
+    StartupProfiler.mark("MainFrame construction started");
     // Set window properties
     setTitle("EventEase");
     setSize(1200, 800);
@@ -37,46 +49,19 @@ public class MainFrame extends JFrame {
     cardLayout = new CardLayout();
     cardPanel = new JPanel(cardLayout);
 
-    // Create and add views to card panel with unique identifiers
-    JPanel loginView = new LoginView();
-    loginView.setName("LoginView");
-    cardPanel.add(loginView, "LoginView");
-    
-    JPanel dashboard = new Dashboard();
-    dashboard.setName("Dashboard");
-    cardPanel.add(dashboard, "Dashboard");
-    
-    JPanel eventView = new EventView();
-    eventView.setName("EventView");
-    cardPanel.add(eventView, "EventView");
-    
-    JPanel reportsView = new ReportsView();
-    reportsView.setName("ReportsView");
-    cardPanel.add(reportsView, "ReportsView");
-    
-    JPanel bookingView = new BookingView();
-    bookingView.setName("BookingView");
-    cardPanel.add(bookingView, "BookingView");
-    
-    JPanel calendarView = new CalendarView();
-    calendarView.setName("CalendarView");
-    cardPanel.add(calendarView, "CalendarView");
-    
-    JPanel dataPersistenceView = new DataPersistenceView();
-    dataPersistenceView.setName("DataPersistenceView");
-    cardPanel.add(dataPersistenceView, "DataPersistenceView");
-    
-    JPanel notificationView = new NotificationView();
-    notificationView.setName("NotificationView");
-    cardPanel.add(notificationView, "NotificationView");
-    
-    JPanel upcomingEvent = new UpcomingEvent();
-    upcomingEvent.setName("UpcomingEvent");
-    cardPanel.add(upcomingEvent, "UpcomingEvent");
-    
-    JPanel userManagementView = new UserManagementView();
-    userManagementView.setName("UserManagementView");
-    cardPanel.add(userManagementView, "UserManagementView");
+    // Register a factory per view; each view is built the first time it is
+    // shown, so startup only pays for the login screen
+    registerPage("LoginView", LoginView::new);
+    registerPage("Dashboard", Dashboard::new);
+    registerPage("EventView", EventView::new);
+    registerPage("ReportsView", ReportsView::new);
+    registerPage("BookingView", BookingView::new);
+    registerPage("CalendarView", CalendarView::new);
+    registerPage("DataPersistenceView", DataPersistenceView::new);
+    registerPage("NotificationView", NotificationView::new);
+    registerPage("UpcomingEvent", UpcomingEvent::new);
+    registerPage("UserManagementView", UserManagementView::new);
+    getPage("LoginView");
 
     // Wrap the card panel in a scroll pane
     scrollPane = new JScrollPane(cardPanel);
@@ -90,10 +75,51 @@ public class MainFrame extends JFrame {
 
     // Register this frame with the Router for navigation control
     Router.setMainFrame(this);
+    StartupProfiler.mark("MainFrame constructed");
+
+    // Report the startup timeline once the login screen is up, then warm
+    // up the libraries used after login while the user types
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowOpened(WindowEvent e) {
+        StartupProfiler.mark("Login screen shown");
+        StartupProfiler.report();
+        StartupWarmup.startInBackground();
+      }
+    });
+  }
+
+  // Method to register a view under a page name; the view is created on first use
+  public void registerPage(String pageName, Supplier<JPanel> factory) {
+    pageFactories.put(pageName, factory);
+  }
+
+  // Method to check whether a view has been built yet
+  public boolean hasPage(String pageName) {
+    return pages.containsKey(pageName);
+  }
+
+  // Method to get a view, building and adding it to the card panel on first use
+  public JPanel getPage(String pageName) {
+    JPanel page = pages.get(pageName);
+    if (page == null) {
+      Supplier<JPanel> factory = pageFactories.get(pageName);
+      if (factory == null) {
+        return null;
+      }
+
+      page = factory.get();
+      page.setName(pageName);
+      cardPanel.add(page, pageName);
+      pages.put(pageName, page);
+      StartupProfiler.mark("Built page " + pageName);
+    }
+    return page;
   }
 
   // Method to switch to a different page by name
   public void showPage(String pageName) {
+    getPage(pageName); // build the view on its first visit
     cardLayout.show(cardPanel, pageName); // switch to desired view
 
     cardPanel.revalidate(); // update layout if needed
@@ -112,6 +138,7 @@ public class MainFrame extends JFrame {
 
   // Main entry point of the application
   public static void main(String[] args) {
+    StartupProfiler.mark("main entered");
     SwingUtilities.invokeLater(() -> {
       MainFrame mainFrame = new MainFrame();
       mainFrame.setVisible(true); // display the main window
@@ -21,6 +21,11 @@ public class Router {
       return;
     }
 
+    // Going back to the login screen (the sidebar's Logout) ends the session
+    if (pageName.equals("LoginView")) {
+      AuthenticationServer.logout();
+    }
+
     // Restrict access to UserManagementView
     if (pageName.equals("UserManagementView")) {
       UserRole currentRole = AuthenticationServer.getCurrentUserRole();
@@ -53,25 +58,15 @@ public class Router {
   // Method to refresh a page if it implements Refreshable
   private static void refreshPageIfNeeded(String pageName) {
     if (mainFrame != null) {
-      JPanel cardPanel = mainFrame.getCardPanel();
-
-      // Find the component with the given name
-      for (Component component : cardPanel.getComponents()) {
-        if (component instanceof JPanel) {
-          // Check if this is the target panel
-          String componentName = ((JPanel) component).getName();
-          if (componentName == null) {
-            // If no name is set, use the class name
-            componentName = component.getClass().getSimpleName();
-          }
+      // Builds the page on its first visit; a page loads its data when it is
+      // built, so only pages built on an earlier visit need a refresh
+      boolean built = mainFrame.hasPage(pageName);
+      JPanel page = mainFrame.getPage(pageName);
 
-          // If this is our target panel and it implements Refreshable, refresh it
-          if (componentName.equals(pageName) && component instanceof Refreshable) {
-            System.out.println("Refreshing page: " + pageName);
-            ((Refreshable) component).refresh();
-            break;
-          }
-        }
+      // If this is our target panel and it implements Refreshable, refresh it
+      if (built && page instanceof Refreshable) {
+        System.out.println("Refreshing page: " + pageName);
+        ((Refreshable) page).refresh();
       }
     }
   }
@@ -0,0 +1,625 @@
+package ui.components;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Table model for large lists whose rows are identified by a numeric key
+ * (e.g. an event ID). Values live in one array per column, primitive for
+ * Integer, Long and Double columns, so 100k rows are a handful of arrays
+ * rather than 100k row objects.
+ *
+ * Reloads are applied as diffs: rows are inserted, updated or deleted by key
+ * and only the affected rows are announced to the table, so a reload that
+ * changes nothing repaints nothing and the selection survives. Sorting and
+ * the search filter are kept in a precomputed index of visible rows; the
+ * index is patched for small changes and rebuilt for large ones.
+ *
+ * Like other Swing models it must only be used on the event dispatch thread.
+ */
+public class VirtualTableModel extends AbstractTableModel {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private static final int INT = 0;
+  private static final int LONG = 1;
+  private static final int DOUBLE = 2;
+  private static final int OBJECT = 3;
+
+  private final String[] columnNames;
+  private final Class<?>[] columnClasses;
+  private final int[] kinds;
+  // One array per column: int[], long[], double[] or Object[]
+  private final Object[] columns;
+
+  // Row storage; rows are "slots", reused after deletion
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private long[] order = new long[INITIAL_CAPACITY];
+  private String[] searchText = new String[INITIAL_CAPACITY];
+  private int[] viewIndex = new int[INITIAL_CAPACITY];
+  private int[] stamp = new int[INITIAL_CAPACITY];
+  private int capacity = INITIAL_CAPACITY;
+  private int slotCount;
+  private int[] freeSlots = new int[16];
+  private int freeCount;
+  private final Map<Long, Integer> slotByKey = new HashMap<>();
+
+  // Visible slots in display order
+  private int[] view = new int[0];
+
+  private long nextOrder;
+  private int stampGeneration;
+  private int sortColumn = -1;
+  private boolean ascending = true;
+  private String filter;
+
+  /**
+   * @param columnNames   Header of each column
+   * @param columnClasses Type of each column; Integer, Long and Double
+   *                      columns are stored unboxed
+   */
+  public VirtualTableModel(String[] columnNames, Class<?>[] columnClasses) {
+    this.columnNames = columnNames.clone();
+    this.columnClasses = columnClasses.clone();
+    kinds = new int[columnNames.length];
+    columns = new Object[columnNames.length];
+    for (int c = 0; c < columnNames.length; c++) {
+      kinds[c] = columnClasses[c] == Integer.class ? INT
+          : columnClasses[c] == Long.class ? LONG
+          : columnClasses[c] == Double.class ? DOUBLE : OBJECT;
+      columns[c] = newColumn(kinds[c], INITIAL_CAPACITY);
+    }
+  }
+
+  @Override
+  public int getRowCount() {
+    return view.length;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return columnNames.length;
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return columnNames[column];
+  }
+
+  @Override
+  public Class<?> getColumnClass(int column) {
+    return columnClasses[column];
+  }
+
+  @Override
+  public Object getValueAt(int row, int column) {
+    return valueAt(view[row], column);
+  }
+
+  /**
+   * @return The key of the row shown at this position
+   */
+  public long getKeyAt(int row) {
+    return keys[view[row]];
+  }
+
+  /**
+   * @return The position of the row with this key, or -1 if it is absent or
+   *         filtered out
+   */
+  public int indexOfKey(long key) {
+    Integer slot = slotByKey.get(key);
+    return slot != null ? viewIndex[slot] : -1;
+  }
+
+  /**
+   * Inserts a row, or updates the row with the same key
+   */
+  public void put(long key, Object... values) {
+    Integer existing = slotByKey.get(key);
+    int slot = existing != null ? existing : allocate(key);
+    if (write(slot, values) || existing == null) {
+      applyChanges(new int[] { slot }, 1, new int[0], 0);
+    }
+  }
+
+  /**
+   * Deletes the row with this key
+   *
+   * @return true if there was such a row
+   */
+  public boolean remove(long key) {
+    Integer slot = slotByKey.remove(key);
+    if (slot == null) {
+      return false;
+    }
+    applyChanges(new int[0], 0, new int[] { slot }, 1);
+    release(slot);
+    return true;
+  }
+
+  /**
+   * Makes the model hold exactly these rows, in this natural order. Only
+   * rows that were added, changed or dropped are announced to the table.
+   * If a key occurs twice, the first row wins.
+   *
+   * @param newKeys Key of each row
+   * @param rows    Values of each row, one per column
+   */
+  public void setRows(long[] newKeys, Object[][] rows) {
+    int generation = ++stampGeneration;
+    int[] changed = new int[newKeys.length];
+    int changedCount = 0;
+    int listed = 0;
+
+    // Natural order follows the list; rows whose order alone changes are
+    // caught below
+    long baseOrder = nextOrder;
+    nextOrder += newKeys.length;
+    for (int i = 0; i < newKeys.length; i++) {
+      Integer existing = slotByKey.get(newKeys[i]);
+      int slot = existing != null ? existing : allocate(newKeys[i]);
+      if (stamp[slot] == generation) {
+        continue;
+      }
+      stamp[slot] = generation;
+      listed++;
+      if (write(slot, rows[i]) || existing == null) {
+        changed[changedCount++] = slot;
+      }
+      order[slot] = baseOrder + i;
+    }
+
+    // Every row not in the list is dropped
+    int[] removed = new int[slotByKey.size() - listed];
+    int removedCount = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      // Free slots still hold the key they had
+      Integer current = slotByKey.get(keys[slot]);
+      if (stamp[slot] != generation && current != null && current == slot) {
+        removed[removedCount++] = slot;
+      }
+    }
+    for (int i = 0; i < removedCount; i++) {
+      slotByKey.remove(keys[removed[i]]);
+    }
+
+    // Unchanged rows keep their place only if the list kept their order
+    if (!keptRowsInOrder(changed, changedCount, removed, removedCount)) {
+      rebuildView();
+      fireTableDataChanged();
+    } else {
+      applyChanges(changed, changedCount, removed, removedCount);
+    }
+    for (int i = 0; i < removedCount; i++) {
+      release(removed[i]);
+    }
+  }
+
+  /**
+   * Sorts the rows by a column; -1 restores the natural order
+   */
+  public void sortBy(int column, boolean ascendingOrder) {
+    sortColumn = column;
+    ascending = ascendingOrder;
+    rebuildView();
+    fireTableDataChanged();
+  }
+
+  public int getSortColumn() {
+    return sortColumn;
+  }
+
+  public boolean isAscending() {
+    return ascending;
+  }
+
+  /**
+   * Shows only rows with a value containing the text, ignoring case
+   *
+   * @param text The text to look for, or null or empty to show all rows
+   */
+  public void setFilter(String text) {
+    filter = text == null || text.isEmpty() ? null : text.toLowerCase(Locale.ROOT);
+    rebuildView();
+    fireTableDataChanged();
+  }
+
+  /**
+   * Sorts the table by a column when its header is clicked; clicking the
+   * same header again reverses the order
+   */
+  public void sortOnHeaderClick(JTable table) {
+    table.getTableHeader().addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        int column = table.convertColumnIndexToModel(table.columnAtPoint(e.getPoint()));
+        if (column >= 0) {
+          sortBy(column, column != sortColumn || !ascending);
+        }
+      }
+    });
+  }
+
+  /**
+   * Brings the view index up to date with changed and removed slots. Rows
+   * that keep their place are updated in place; the others are taken out and
+   * merged back in at their sorted position, with one event per run of rows.
+   */
+  private void applyChanges(int[] changed, int changedCount, int[] removed, int removedCount) {
+    if (changedCount == 0 && removedCount == 0) {
+      return;
+    }
+    // Many changes: one sort beats many merges
+    if ((changedCount + removedCount) * 8L > view.length + 64) {
+      rebuildView();
+      fireTableDataChanged();
+      return;
+    }
+
+    // Mark every touched slot first, so neighbour checks can skip them
+    int generation = ++stampGeneration;
+    for (int i = 0; i < changedCount; i++) {
+      stamp[changed[i]] = generation;
+      searchText[changed[i]] = null;
+    }
+    for (int i = 0; i < removedCount; i++) {
+      stamp[removed[i]] = generation;
+    }
+
+    boolean[] leaving = new boolean[slotCount];
+    int leavingCount = 0;
+    int[] entering = new int[changedCount];
+    int enteringCount = 0;
+    int[] inPlace = new int[changedCount];
+    int inPlaceCount = 0;
+    for (int i = 0; i < removedCount; i++) {
+      if (viewIndex[removed[i]] >= 0) {
+        leaving[removed[i]] = true;
+        leavingCount++;
+      }
+    }
+    for (int i = 0; i < changedCount; i++) {
+      int slot = changed[i];
+      boolean visible = matchesFilter(slot);
+      int index = viewIndex[slot];
+      if (index >= 0 && visible && staysInPlace(index, generation)) {
+        inPlace[inPlaceCount++] = slot;
+        continue;
+      }
+      if (index >= 0) {
+        leaving[slot] = true;
+        leavingCount++;
+      }
+      if (visible) {
+        entering[enteringCount++] = slot;
+      }
+    }
+
+    // Take leaving rows out, remembering where they were
+    int[] deletedRows = new int[leavingCount];
+    int[] kept = new int[view.length - leavingCount];
+    int deletedCount = 0;
+    int keptCount = 0;
+    for (int row = 0; row < view.length; row++) {
+      if (leaving[view[row]]) {
+        deletedRows[deletedCount++] = row;
+        viewIndex[view[row]] = -1;
+      } else {
+        kept[keptCount++] = view[row];
+      }
+    }
+
+    // Merge entering rows in at their sorted positions
+    sortSlots(entering, enteringCount);
+    int[] merged = new int[keptCount + enteringCount];
+    int[] insertedRows = new int[enteringCount];
+    int k = 0;
+    int e = 0;
+    for (int row = 0; row < merged.length; row++) {
+      if (e < enteringCount && (k == keptCount || compareSlots(entering[e], kept[k]) < 0)) {
+        insertedRows[e] = row;
+        merged[row] = entering[e++];
+      } else {
+        merged[row] = kept[k++];
+      }
+    }
+    view = merged;
+    for (int row = 0; row < view.length; row++) {
+      viewIndex[view[row]] = row;
+    }
+    for (int i = 0; i < removedCount; i++) {
+      viewIndex[removed[i]] = -1;
+    }
+
+    // Deletions from the bottom up, so earlier positions stay valid
+    for (int end = deletedCount - 1; end >= 0;) {
+      int start = end;
+      while (start > 0 && deletedRows[start - 1] == deletedRows[start] - 1) {
+        start--;
+      }
+      fireTableRowsDeleted(deletedRows[start], deletedRows[end]);
+      end = start - 1;
+    }
+    fireRuns(insertedRows, enteringCount, true);
+
+    int[] updatedRows = new int[inPlaceCount];
+    for (int i = 0; i < inPlaceCount; i++) {
+      updatedRows[i] = viewIndex[inPlace[i]];
+    }
+    Arrays.sort(updatedRows);
+    fireRuns(updatedRows, inPlaceCount, false);
+  }
+
+  // Rows must be ascending
+  private void fireRuns(int[] rows, int count, boolean inserted) {
+    for (int start = 0; start < count;) {
+      int end = start;
+      while (end + 1 < count && rows[end + 1] == rows[end] + 1) {
+        end++;
+      }
+      if (inserted) {
+        fireTableRowsInserted(rows[start], rows[end]);
+      } else {
+        fireTableRowsUpdated(rows[start], rows[end]);
+      }
+      start = end + 1;
+    }
+  }
+
+  /**
+   * A changed row keeps its position if it still sorts between its
+   * neighbours and they are not moving themselves
+   */
+  private boolean staysInPlace(int index, int generation) {
+    int slot = view[index];
+    if (index > 0) {
+      int previous = view[index - 1];
+      if (stamp[previous] == generation || compareSlots(previous, slot) > 0) {
+        return false;
+      }
+    }
+    if (index < view.length - 1) {
+      int next = view[index + 1];
+      if (stamp[next] == generation || compareSlots(slot, next) > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the rows that stay untouched are still in sorted order
+   */
+  private boolean keptRowsInOrder(int[] changed, int changedCount, int[] removed, int removedCount) {
+    int generation = ++stampGeneration;
+    for (int i = 0; i < changedCount; i++) {
+      stamp[changed[i]] = generation;
+    }
+    for (int i = 0; i < removedCount; i++) {
+      stamp[removed[i]] = generation;
+    }
+    int previous = -1;
+    for (int slot : view) {
+      if (stamp[slot] != generation) {
+        if (previous >= 0 && compareSlots(previous, slot) > 0) {
+          return false;
+        }
+        previous = slot;
+      }
+    }
+    return true;
+  }
+
+  private void rebuildView() {
+    int[] slots = new int[slotByKey.size()];
+    int count = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      viewIndex[slot] = -1;
+    }
+    for (int slot : slotByKey.values()) {
+      if (matchesFilter(slot)) {
+        slots[count++] = slot;
+      }
+    }
+    sortSlots(slots, count);
+    view = Arrays.copyOf(slots, count);
+    for (int row = 0; row < view.length; row++) {
+      viewIndex[view[row]] = row;
+    }
+  }
+
+  private boolean matchesFilter(int slot) {
+    if (filter == null) {
+      return true;
+    }
+    if (searchText[slot] == null) {
+      StringBuilder text = new StringBuilder();
+      for (int c = 0; c < columns.length; c++) {
+        text.append(valueAt(slot, c)).append('\u0000');
+      }
+      searchText[slot] = text.toString().toLowerCase(Locale.ROOT);
+    }
+    return searchText[slot].contains(filter);
+  }
+
+  private int compareSlots(int a, int b) {
+    int result = 0;
+    if (sortColumn >= 0) {
+      result = compareValues(sortColumn, a, b);
+      if (!ascending) {
+        result = -result;
+      }
+    }
+    return result != 0 ? result : Long.compare(order[a], order[b]);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private int compareValues(int column, int a, int b) {
+    switch (kinds[column]) {
+      case INT:
+        return Integer.compare(((int[]) columns[column])[a], ((int[]) columns[column])[b]);
+      case LONG:
+        return Long.compare(((long[]) columns[column])[a], ((long[]) columns[column])[b]);
+      case DOUBLE:
+        return Double.compare(((double[]) columns[column])[a], ((double[]) columns[column])[b]);
+      default:
+        Object x = ((Object[]) columns[column])[a];
+        Object y = ((Object[]) columns[column])[b];
+        if (x == null || y == null) {
+          return x == null ? (y == null ? 0 : 1) : -1; // Empty cells last
+        }
+        if (x instanceof Comparable && x.getClass() == y.getClass()) {
+          return ((Comparable) x).compareTo(y);
+        }
+        return x.toString().compareTo(y.toString());
+    }
+  }
+
+  // Stable merge sort of slots, without boxing them
+  private void sortSlots(int[] slots, int count) {
+    if (count < 2) {
+      return;
+    }
+    int[] buffer = new int[count];
+    for (int width = 1; width < count; width *= 2) {
+      for (int start = 0; start < count; start += 2 * width) {
+        int middle = Math.min(start + width, count);
+        int end = Math.min(start + 2 * width, count);
+        int left = start;
+        int right = middle;
+        for (int i = start; i < end; i++) {
+          if (left < middle && (right == end || compareSlots(slots[left], slots[right]) <= 0)) {
+            buffer[i] = slots[left++];
+          } else {
+            buffer[i] = slots[right++];
+          }
+        }
+      }
+      System.arraycopy(buffer, 0, slots, 0, count);
+    }
+  }
+
+  private Object valueAt(int slot, int column) {
+    switch (kinds[column]) {
+      case INT:
+        return ((int[]) columns[column])[slot];
+      case LONG:
+        return ((long[]) columns[column])[slot];
+      case DOUBLE:
+        return ((double[]) columns[column])[slot];
+      default:
+        return ((Object[]) columns[column])[slot];
+    }
+  }
+
+  /**
+   * Stores a row's values
+   *
+   * @return true if any value differs from the stored one
+   */
+  private boolean write(int slot, Object[] values) {
+    boolean changed = false;
+    for (int c = 0; c < columns.length; c++) {
+      Object value = values[c];
+      switch (kinds[c]) {
+        case INT: {
+          int[] data = (int[]) columns[c];
+          int number = value instanceof Number ? ((Number) value).intValue() : 0;
+          changed |= data[slot] != number;
+          data[slot] = number;
+          break;
+        }
+        case LONG: {
+          long[] data = (long[]) columns[c];
+          long number = value instanceof Number ? ((Number) value).longValue() : 0;
+          changed |= data[slot] != number;
+          data[slot] = number;
+          break;
+        }
+        case DOUBLE: {
+          double[] data = (double[]) columns[c];
+          double number = value instanceof Number ? ((Number) value).doubleValue() : 0;
+          changed |= Double.compare(data[slot], number) != 0;
+          data[slot] = number;
+          break;
+        }
+        default: {
+          Object[] data = (Object[]) columns[c];
+          changed |= !Objects.equals(data[slot], value);
+          data[slot] = value;
+          break;
+        }
+      }
+    }
+    if (changed) {
+      searchText[slot] = null;
+    }
+    return changed;
+  }
+
+  private int allocate(long key) {
+    int slot;
+    if (freeCount > 0) {
+      slot = freeSlots[--freeCount];
+    } else {
+      if (slotCount == capacity) {
+        grow();
+      }
+      slot = slotCount++;
+    }
+    keys[slot] = key;
+    order[slot] = nextOrder++;
+    viewIndex[slot] = -1;
+    stamp[slot] = 0;
+    slotByKey.put(key, slot);
+    return slot;
+  }
+
+  private void release(int slot) {
+    for (int c = 0; c < columns.length; c++) {
+      if (kinds[c] == OBJECT) {
+        ((Object[]) columns[c])[slot] = null; // Let the value be collected
+      }
+    }
+    searchText[slot] = null;
+    viewIndex[slot] = -1;
+    if (freeCount == freeSlots.length) {
+      freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+    }
+    freeSlots[freeCount++] = slot;
+  }
+
+  private void grow() {
+    capacity *= 2;
+    keys = Arrays.copyOf(keys, capacity);
+    order = Arrays.copyOf(order, capacity);
+    searchText = Arrays.copyOf(searchText, capacity);
+    viewIndex = Arrays.copyOf(viewIndex, capacity);
+    stamp = Arrays.copyOf(stamp, capacity);
+    for (int c = 0; c < columns.length; c++) {
+      Object grown = newColumn(kinds[c], capacity);
+      System.arraycopy(columns[c], 0, grown, 0, slotCount);
+      columns[c] = grown;
+    }
+  }
+
+  private static Object newColumn(int kind, int size) {
+    switch (kind) {
+      case INT:
+        return new int[size];
+      case LONG:
+        return new long[size];
+      case DOUBLE:
+        return new double[size];
+      default:
+        return new Object[size];
+    }
+  }
+}
@@ -8,6 +8,7 @@ import javax.swing.*;
 
 import server.EventServer;
 import services.BookingServiceSer;
+import services.ServiceExecutor;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 import java.util.List;
@@ -33,6 +34,7 @@ public class BookingView extends JPanel implements Refreshable {
 
     // Maps to store event ID references with event names
     private java.util.Map<String, Integer> eventIdMap = new java.util.HashMap<>();
+    private int eventLoadGeneration; // Bumped by every event load, EDT only
     private int selectedEventId = -1;
 
     // Customer information
@@ -72,9 +74,7 @@ public class BookingView extends JPanel implements Refreshable {
      */
     @Override
     public void refresh() {
-        // Reload events from database
-        eventIdMap.clear();
-        eventCombo.removeAllItems();
+        // Reload events from database; the current list stays until they arrive
         loadEventsFromDatabase();
 
         // Update price options based on selected event
@@ -507,18 +507,32 @@ public class BookingView extends JPanel implements Refreshable {
     /**
      * Loads available events from the database into the event combo box.
      * Creates a formatted display string for each event with key information.
-     * Falls back to dummy data if database load fails.
+     * Falls back to dummy data if database load fails. The events are fetched
+     * off the EDT and replace the combo box's items in one step when they
+     * arrive, keeping the selected event if it is still listed.
      */
     private void loadEventsFromDatabase() {
-        try {
-            // Clear any previous entries except the first one
-            eventIdMap.clear();
-            eventCombo.removeAllItems();
-            eventCombo.addItem("Select Event");
-
-            // Fetch all events from the database using the service
-            List<Map<String, Object>> events = bookingServiceSer.getAllEvents();
+        int generation = ++eventLoadGeneration;
+        ServiceExecutor.onEdt(bookingServiceSer.getAllEventsAsync(), events -> {
+            // Skip results overtaken by a newer load
+            if (generation == eventLoadGeneration) {
+                addEventsToCombo(events);
+            }
+        }, error -> {
+            if (generation == eventLoadGeneration) {
+                System.out.println("Error loading events: " + error.getMessage());
+                addDummyEvents();
+            }
+        });
+    }
 
+    private void addEventsToCombo(List<Map<String, Object>> events) {
+        // Built aside and swapped in whole, so the combo box is notified once
+        // rather than once per event
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        java.util.Map<String, Integer> ids = new java.util.HashMap<>();
+        model.addElement("Select Event");
+        try {
             SimpleDateFormat displayDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
 
             for (Map<String, Object> event : events) {
@@ -548,17 +562,49 @@ public class BookingView extends JPanel implements Refreshable {
                         eventName, teamA, teamB, category, eventType, eventDate);
 
                 // Add to combo box and map for later reference
-                eventCombo.addItem(displayText);
-                eventIdMap.put(displayText, eventId);
+                model.addElement(displayText);
+                ids.put(displayText, eventId);
             }
         } catch (Exception e) {
             System.out.println("Error loading events: " + e.getMessage());
+            addDummyEvents();
+            return;
+        }
+        showEvents(model, ids);
+    }
 
-            // Add some dummy data if database load fails
-            // This provides a fallback UI for testing when database connection fails
-            eventCombo.addItem("Football Match - Team A vs Team B");
-            eventCombo.addItem("Concert - Artist X");
-            eventCombo.addItem("Basketball Game - Team C vs Team D");
+    private void addDummyEvents() {
+        // Add some dummy data if database load fails
+        // This provides a fallback UI for testing when database connection fails
+        DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
+        model.addElement("Select Event");
+        model.addElement("Football Match - Team A vs Team B");
+        model.addElement("Concert - Artist X");
+        model.addElement("Basketball Game - Team C vs Team D");
+        showEvents(model, new java.util.HashMap<>());
+    }
+
+    /**
+     * Replaces the listed events, keeping the selected event selected if it
+     * is still among them
+     */
+    private void showEvents(DefaultComboBoxModel<String> model, java.util.Map<String, Integer> ids) {
+        if (selectedEventId != -1) {
+            for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+                if (entry.getValue() == selectedEventId) {
+                    model.setSelectedItem(entry.getKey());
+                    break;
+                }
+            }
+        }
+
+        eventIdMap = ids;
+        eventCombo.setModel(model);
+
+        // The selected event is gone; reset what depended on it
+        if (selectedEventId != -1 && model.getIndexOf(model.getSelectedItem()) <= 0) {
+            selectedEventId = -1;
+            updatePriceOptions();
         }
     }
 
@@ -11,9 +11,11 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 
 import services.EventCalendarService;
+import services.ServiceExecutor;
 
 /**
  * Calendar view that displays events and allows interaction with dates.
@@ -51,6 +53,7 @@ public class CalendarView extends JPanel implements Refreshable {
     // Initialize data structures
     eventsByDate = new HashMap<>();
     currentYearMonth = YearMonth.now();
+    eventService = new EventCalendarService();
 
     // Create and add UI components
     createMainPanel();
@@ -271,38 +274,53 @@ public class CalendarView extends JPanel implements Refreshable {
   }
 
   /**
-   * Loads event data for the current month using the service
+   * Loads event data for the current month using the service. The query runs
+   * off the EDT; the calendar is redrawn with the events once they arrive,
+   * unless the user has moved to another month in the meantime.
    */
   private void loadEventsForCurrentMonth() {
-    try {
-      // Clear existing events
-      eventsByDate.clear();
-
-      // Get all events for current month via service
-      List<Map<String, Object>> monthEvents = eventService.getEventsForMonth(
-          currentYearMonth.getYear(),
-          currentYearMonth.getMonthValue());
-
-      // Organize events by date for easier access in the UI
-      for (Map<String, Object> event : monthEvents) {
-        String eventDateStr = (String) event.get("event_date");
-        LocalDate eventDate = LocalDate.parse(eventDateStr.substring(0, 10)); // Extract YYYY-MM-DD part
-
-        if (!eventsByDate.containsKey(eventDate)) {
-          eventsByDate.put(eventDate, new ArrayList<>());
-        }
+    YearMonth requestedMonth = currentYearMonth;
+
+    // Clear existing events
+    eventsByDate.clear();
+    statusLabel.setText("Loading events for "
+        + requestedMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy")) + "...");
 
-        eventsByDate.get(eventDate).add(event);
+    CompletableFuture<List<Map<String, Object>>> monthEventsFuture = eventService.getEventsForMonthAsync(
+        requestedMonth.getYear(), requestedMonth.getMonthValue());
+    ServiceExecutor.onEdt(monthEventsFuture, monthEvents -> {
+      if (!requestedMonth.equals(currentYearMonth)) {
+        return;
       }
+      try {
+        eventsByDate.clear();
 
-      int totalEvents = monthEvents.size();
-      statusLabel.setText(String.format("Loaded %d events for %s", totalEvents,
-          currentYearMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy"))));
+        // Organize events by date for easier access in the UI
+        for (Map<String, Object> event : monthEvents) {
+          String eventDateStr = (String) event.get("event_date");
+          LocalDate eventDate = LocalDate.parse(eventDateStr.substring(0, 10)); // Extract YYYY-MM-DD part
 
-    } catch (Exception e) {
-      statusLabel.setText("Error loading events: " + e.getMessage());
-      e.printStackTrace();
-    }
+          if (!eventsByDate.containsKey(eventDate)) {
+            eventsByDate.put(eventDate, new ArrayList<>());
+          }
+
+          eventsByDate.get(eventDate).add(event);
+        }
+
+        int totalEvents = monthEvents.size();
+        statusLabel.setText(String.format("Loaded %d events for %s", totalEvents,
+            requestedMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy"))));
+      } catch (Exception e) {
+        statusLabel.setText("Error loading events: " + e.getMessage());
+        e.printStackTrace();
+      }
+      updateCalendar();
+    }, error -> {
+      if (requestedMonth.equals(currentYearMonth)) {
+        statusLabel.setText("Error loading events: " + error.getMessage());
+        error.printStackTrace();
+      }
+    });
   }
 
   /**
@@ -3,13 +3,15 @@ package ui.pages;
 import ui.components.Sidebar;
 import ui.components.RoundedButton;
 import ui.Refreshable;
+import server.ExportJob;
 import services.DataPersistenceService;
+import services.ServiceExecutor;
 import services.DataPersistenceService.BackupInfo;
+import services.DataPersistenceService.ImportMode;
 import services.DataPersistenceService.ImportResult;
 
 import javax.swing.*;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.SpinnerDateModel;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
@@ -18,9 +20,11 @@ import java.util.Date;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.text.SimpleDateFormat;
 
 public class DataPersistenceView extends JPanel implements Refreshable {
+  private static final String ALL_FORMATS_OPTION = "All formats (.xlsx, .pdf, .csv)";
   private JPanel mainPanel;
   private JSpinner fromDateSpinner;
   private JSpinner toDateSpinner;
@@ -323,45 +327,36 @@ public class DataPersistenceView extends JPanel implements Refreshable {
         loadingDialog.setLocationRelativeTo(DataPersistenceView.this);
         
         // Run the restore operation in a background thread to not freeze the UI
-        SwingWorker<DataPersistenceService.BackupResult, Void> worker = new SwingWorker<>() {
-            @Override
-            protected DataPersistenceService.BackupResult doInBackground() {
-                return dataPersistenceService.restoreDatabase(backup.getPath());
+        CompletableFuture<DataPersistenceService.BackupResult> restore = ServiceExecutor.supply(
+            dataPersistenceService, () -> dataPersistenceService.restoreDatabase(backup.getPath()));
+        ServiceExecutor.onEdt(restore, result -> {
+            loadingDialog.dispose();
+            if (result.isSuccess()) {
+                JOptionPane.showMessageDialog(
+                    DataPersistenceView.this,
+                    result.getMessage(),
+                    "Restore Successful",
+                    JOptionPane.INFORMATION_MESSAGE);
+                
+                // Refresh the UI after successful restore
+                refresh();
+            } else {
+                JOptionPane.showMessageDialog(
+                    DataPersistenceView.this,
+                    "Restore failed: " + result.getMessage(),
+                    "Restore Error",
+                    JOptionPane.ERROR_MESSAGE);
             }
-            
-            @Override
-            protected void done() {
-                loadingDialog.dispose();
-                try {
-                    DataPersistenceService.BackupResult result = get();
-                    if (result.isSuccess()) {
-                        JOptionPane.showMessageDialog(
-                            DataPersistenceView.this,
-                            result.getMessage(),
-                            "Restore Successful",
-                            JOptionPane.INFORMATION_MESSAGE);
-                        
-                        // Refresh the UI after successful restore
-                        refresh();
-                    } else {
-                        JOptionPane.showMessageDialog(
-                            DataPersistenceView.this,
-                            "Restore failed: " + result.getMessage(),
-                            "Restore Error",
-                            JOptionPane.ERROR_MESSAGE);
-                    }
-                } catch (Exception e) {
-                    JOptionPane.showMessageDialog(
-                        DataPersistenceView.this,
-                        "An unexpected error occurred: " + e.getMessage(),
-                        "Restore Error",
-                        JOptionPane.ERROR_MESSAGE);
-                }
-            }
-        };
+        }, error -> {
+            loadingDialog.dispose();
+            JOptionPane.showMessageDialog(
+                DataPersistenceView.this,
+                "An unexpected error occurred: " + error.getMessage(),
+                "Restore Error",
+                JOptionPane.ERROR_MESSAGE);
+        });
         
-        // Start the worker and show the loading dialog
-        worker.execute();
+        // Show the loading dialog until the restore finishes
         loadingDialog.setVisible(true);
       }
     });
@@ -479,7 +474,7 @@ public class DataPersistenceView extends JPanel implements Refreshable {
 
     // Step 2: Show file format information
     StringBuilder formatInfo = new StringBuilder();
-    formatInfo.append("Please ensure your Excel file has the following format:\n\n");
+    formatInfo.append("Please ensure your Excel, CSV or JSON lines file has the following format:\n\n");
 
     if (selectedEntityType.equals("Event")) {
       formatInfo.append("Required columns:\n");
@@ -512,9 +507,9 @@ public class DataPersistenceView extends JPanel implements Refreshable {
 
     // Step 3: Show file chooser dialog
     JFileChooser fileChooser = new JFileChooser();
-    fileChooser.setDialogTitle("Select Excel File to Import");
+    fileChooser.setDialogTitle("Select File to Import");
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
-        "Excel Files", "xlsx", "xls");
+        "Excel, CSV or JSON Lines Files", "xlsx", "xls", "csv", "jsonl", "ndjson");
     fileChooser.setFileFilter(filter);
 
     int result = fileChooser.showOpenDialog(this);
@@ -522,19 +517,40 @@ public class DataPersistenceView extends JPanel implements Refreshable {
       return; // User canceled
     }
 
-    // Step 4: Process the import
+    // Step 4: Choose how invalid rows are handled
+    int modeOption = JOptionPane.showConfirmDialog(
+        this,
+        "Import the valid rows and skip invalid ones?\n"
+            + "Choose 'No' to cancel the whole import if any row is invalid.",
+        "Import Mode",
+        JOptionPane.YES_NO_CANCEL_OPTION,
+        JOptionPane.QUESTION_MESSAGE);
+    if (modeOption == JOptionPane.CANCEL_OPTION || modeOption == JOptionPane.CLOSED_OPTION) {
+      return; // User canceled
+    }
+    ImportMode importMode = modeOption == JOptionPane.YES_OPTION
+        ? ImportMode.PARTIAL_COMMIT
+        : ImportMode.ALL_OR_NOTHING;
+
+    // Step 5: Process the import
     File selectedFile = fileChooser.getSelectedFile();
     ImportResult importResult = dataPersistenceService.importFromExcel(
         selectedFile.getAbsolutePath(),
-        selectedEntityType);
+        selectedEntityType,
+        importMode);
 
-    // Step 5: Show result message
+    // Step 6: Show result message
     if (importResult.isSuccess()) {
+      String message = importResult.getMessage();
+      if (importResult.getTotalNanos() > 0) {
+        message += String.format("%nProcessed in %.2f s (%.0f rows/s)",
+            importResult.getTotalNanos() / 1_000_000_000.0, importResult.getRowsPerSecond());
+      }
       JOptionPane.showMessageDialog(
           this,
-          importResult.getMessage(),
-          "Import Successful",
-          JOptionPane.INFORMATION_MESSAGE);
+          message,
+          importResult.getRejectedRows().isEmpty() ? "Import Successful" : "Import Completed With Errors",
+          importResult.getRejectedRows().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
     } else {
       JOptionPane.showMessageDialog(
           this,
@@ -570,7 +586,8 @@ public class DataPersistenceView extends JPanel implements Refreshable {
     }
 
     // Step 2: Select export format
-    String[] exportFormats = { "Excel (.xlsx)", "PDF (.pdf)" };
+    String[] exportFormats = { "Excel (.xlsx)", "PDF (.pdf)", "CSV (.csv)", "JSON Lines (.jsonl)",
+        ALL_FORMATS_OPTION };
     String selectedFormat = (String) JOptionPane.showInputDialog(
         this,
         "Select export format:",
@@ -583,13 +600,17 @@ public class DataPersistenceView extends JPanel implements Refreshable {
     if (selectedFormat == null) {
       return; // User canceled
     }
+    if (selectedFormat.equals(ALL_FORMATS_OPTION)) {
+      handleMultiFormatExport(selectedType, fromDate, toDate);
+      return;
+    }
 
     // Step 3: Choose destination
     JFileChooser fileChooser = new JFileChooser();
     fileChooser.setDialogTitle("Save Export File");
 
     // Set extension filter based on selected format
-    String extension = selectedFormat.contains("Excel") ? "xlsx" : "pdf";
+    String extension = selectedFormat.substring(selectedFormat.indexOf("(.") + 2, selectedFormat.length() - 1);
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
         selectedFormat, extension);
     fileChooser.setFileFilter(filter);
@@ -626,58 +647,197 @@ public class DataPersistenceView extends JPanel implements Refreshable {
     progressDialog.setSize(300, 100);
     progressDialog.setLocationRelativeTo(this);
 
-    // Create a worker thread for the export
-    SwingWorker<Boolean, String> worker = new SwingWorker<Boolean, String>() {
-      @Override
-      protected Boolean doInBackground() throws Exception {
-        String title = selectedType + " Report (" + sdf.format(fromDate) + " to " + sdf.format(toDate) + ")";
-        
-        // Get the column names for the selected type
-        String[] columnNames = getColumnNames(selectedType);
-        
-        // Get the data to export
-        List<Map<String, Object>> data = dataPersistenceService.getExportData(selectedType, fromDate, toDate);
-        
-        boolean success = false;
-        if (selectedFormat.contains("Excel")) {
-          success = dataPersistenceService.exportToExcel(data, selectedFile.getAbsolutePath(), selectedType, columnNames);
+    // Run the export on the service executor
+    CompletableFuture<Boolean> export = ServiceExecutor.supply(dataPersistenceService, () -> {
+      String title = selectedType + " Report (" + sdf.format(fromDate) + " to " + sdf.format(toDate) + ")";
+      
+      // Get the column names for the selected type
+      String[] columnNames = getColumnNames(selectedType);
+
+      // Excel and PDF are streamed from the database without loading every row
+      if (extension.equals("xlsx")) {
+        return dataPersistenceService.exportToExcelStreaming(selectedType, fromDate, toDate,
+            selectedFile.getAbsolutePath(), columnNames);
+      }
+      if (extension.equals("pdf")) {
+        return dataPersistenceService.exportToPDFStreaming(selectedType, fromDate, toDate,
+            selectedFile.getAbsolutePath(), title, columnNames);
+      }
+      
+      // Get the data to export
+      List<Map<String, Object>> data = dataPersistenceService.getExportData(selectedType, fromDate, toDate);
+      
+      // CSV and JSON lines are chosen by the file extension
+      return dataPersistenceService.exportToExcel(data, selectedFile.getAbsolutePath(), selectedType,
+          columnNames);
+    });
+    ServiceExecutor.onEdt(export, success -> {
+      progressDialog.dispose();
+      if (success) {
+        JOptionPane.showMessageDialog(
+            DataPersistenceView.this,
+            "Export completed successfully.\nFile saved to: " + selectedFile.getAbsolutePath(),
+            "Export Successful",
+            JOptionPane.INFORMATION_MESSAGE);
+      } else {
+        JOptionPane.showMessageDialog(
+            DataPersistenceView.this,
+            "Export failed. Please check logs for details.",
+            "Export Error",
+            JOptionPane.ERROR_MESSAGE);
+      }
+    }, error -> {
+      progressDialog.dispose();
+      JOptionPane.showMessageDialog(
+          DataPersistenceView.this,
+          "Error during export: " + error.getMessage(),
+          "Export Error",
+          JOptionPane.ERROR_MESSAGE);
+    });
+    
+    // Show the progress dialog until the export finishes
+    progressDialog.setVisible(true);
+  }
+
+  /**
+   * Exports one data snapshot to Excel, PDF and CSV at the same time, with a
+   * progress bar and a cancel button.
+   */
+  private void handleMultiFormatExport(String selectedType, Date fromDate, Date toDate) {
+    ExportJob.Format[] formats = { ExportJob.Format.XLSX, ExportJob.Format.PDF, ExportJob.Format.CSV };
+
+    // Choose the destination; each format gets its own extension
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    JFileChooser fileChooser = new JFileChooser();
+    fileChooser.setDialogTitle("Save Export Files");
+    fileChooser.setSelectedFile(new File(selectedType + "_" + sdf.format(fromDate) + "_to_" + sdf.format(toDate)));
+    if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return; // User canceled
+    }
+    String basePath = fileChooser.getSelectedFile().getAbsolutePath().replaceFirst("\\.(xlsx|pdf|csv)$", "");
+
+    // Show progress dialog with a cancel button
+    JDialog progressDialog = new JDialog(
+        (Frame) SwingUtilities.getWindowAncestor(this),
+        "Exporting Data",
+        true);
+    progressDialog.setLayout(new BorderLayout());
+    JLabel statusLabel = new JLabel("Reading data...", SwingConstants.CENTER);
+    JProgressBar progressBar = new JProgressBar(0, 100);
+    progressBar.setIndeterminate(true);
+    JButton cancelButton = new JButton("Cancel");
+    JPanel cancelPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+    cancelPanel.add(cancelButton);
+    progressDialog.add(statusLabel, BorderLayout.NORTH);
+    progressDialog.add(progressBar, BorderLayout.CENTER);
+    progressDialog.add(cancelPanel, BorderLayout.SOUTH);
+    progressDialog.setSize(350, 130);
+    progressDialog.setLocationRelativeTo(this);
+
+    String title = selectedType + " Report (" + sdf.format(fromDate) + " to " + sdf.format(toDate) + ")";
+    ExportJob[] jobHolder = new ExportJob[1];
+    boolean[] cancelRequested = new boolean[1];
+    CompletableFuture<ExportJob.Result> export = ServiceExecutor.supply(dataPersistenceService, () -> {
+      ExportJob job = dataPersistenceService.createExportJob(selectedType, fromDate, toDate, title,
+          getColumnNames(selectedType));
+      for (ExportJob.Format format : formats) {
+        job.addOutput(format, basePath + "." + format.getExtension());
+      }
+
+      SwingUtilities.invokeLater(() -> {
+        jobHolder[0] = job;
+        if (cancelRequested[0]) {
+          job.cancel();
         } else {
-          success = dataPersistenceService.exportToPDF(data, selectedFile.getAbsolutePath(), title, columnNames);
+          statusLabel.setText("Writing " + job.getRowCount() + " rows to " + formats.length + " formats...");
+          progressBar.setIndeterminate(false);
         }
-        
-        return success;
+      });
+
+      // Overall progress is the slowest writer's share of the rows
+      int[] writerRows = new int[ExportJob.Format.values().length];
+      return job.run(new ExportJob.ProgressListener() {
+        @Override
+        public void onProgress(ExportJob.Format format, int rowsWritten, int totalRows) {
+          SwingUtilities.invokeLater(() -> {
+            writerRows[format.ordinal()] = rowsWritten;
+            int slowest = Integer.MAX_VALUE;
+            for (ExportJob.Format f : formats) {
+              slowest = Math.min(slowest, writerRows[f.ordinal()]);
+            }
+            progressBar.setValue(totalRows > 0 ? (int) (100L * slowest / totalRows) : 100);
+          });
+        }
+
+        @Override
+        public void onFinished(ExportJob.Format format, boolean success, long elapsedNanos) {
+          SwingUtilities.invokeLater(() -> statusLabel.setText(
+              format + (success ? " finished" : " failed") + String.format(" in %.2f s", elapsedNanos / 1e9)));
+        }
+      });
+    });
+
+    cancelButton.addActionListener(e -> {
+      cancelRequested[0] = true;
+      statusLabel.setText("Cancelling...");
+      if (jobHolder[0] != null) {
+        jobHolder[0].cancel();
+      } else if (export.cancel(true)) {
+        // Still reading data; the job never started
+        progressDialog.dispose();
+        JOptionPane.showMessageDialog(
+            DataPersistenceView.this,
+            "Export cancelled.",
+            "Export Cancelled",
+            JOptionPane.INFORMATION_MESSAGE);
       }
+    });
 
+    // Closing the dialog cancels the export like the Cancel button; the
+    // dialog stays up until the writers have stopped
+    progressDialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+    progressDialog.addWindowListener(new java.awt.event.WindowAdapter() {
       @Override
-      protected void done() {
-        progressDialog.dispose();
-        try {
-          boolean success = get();
-          if (success) {
-            JOptionPane.showMessageDialog(
-                DataPersistenceView.this,
-                "Export completed successfully.\nFile saved to: " + selectedFile.getAbsolutePath(),
-                "Export Successful",
-                JOptionPane.INFORMATION_MESSAGE);
-          } else {
-            JOptionPane.showMessageDialog(
-                DataPersistenceView.this,
-                "Export failed. Please check logs for details.",
-                "Export Error",
-                JOptionPane.ERROR_MESSAGE);
-          }
-        } catch (Exception e) {
-          JOptionPane.showMessageDialog(
-              DataPersistenceView.this,
-              "Error during export: " + e.getMessage(),
-              "Export Error",
-              JOptionPane.ERROR_MESSAGE);
-        }
+      public void windowClosing(java.awt.event.WindowEvent e) {
+        cancelButton.doClick();
       }
-    };
-    
-    // Start the worker and show the progress dialog
-    worker.execute();
+    });
+
+    ServiceExecutor.onEdt(export, result -> {
+      progressDialog.dispose();
+      if (result.isCancelled()) {
+        JOptionPane.showMessageDialog(
+            DataPersistenceView.this,
+            "Export cancelled.",
+            "Export Cancelled",
+            JOptionPane.INFORMATION_MESSAGE);
+        return;
+      }
+
+      StringBuilder message = new StringBuilder();
+      for (ExportJob.Format format : formats) {
+        Long nanos = result.getWriterNanos().get(format);
+        message.append(basePath).append('.').append(format.getExtension())
+            .append(result.isSuccess(format) ? " - saved" : " - FAILED")
+            .append(String.format(" (%.2f s)%n", nanos != null ? nanos / 1e9 : 0.0));
+      }
+      message.append(String.format("%nTotal time: %.2f s", result.getTotalNanos() / 1e9));
+
+      JOptionPane.showMessageDialog(
+          DataPersistenceView.this,
+          message.toString(),
+          result.isSuccess() ? "Export Successful" : "Export Error",
+          result.isSuccess() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
+    }, error -> {
+      progressDialog.dispose();
+      JOptionPane.showMessageDialog(
+          DataPersistenceView.this,
+          "Error during export: " + error.getMessage(),
+          "Export Error",
+          JOptionPane.ERROR_MESSAGE);
+    });
+
+    // Show the progress dialog until the export finishes
     progressDialog.setVisible(true);
   }
 
@@ -39,10 +39,17 @@ public class EventView extends JPanel implements Refreshable {
 
         // Add main panel to this panel
         add(mainPanel, BorderLayout.CENTER);
+
+        // Use a date passed from CalendarView on the first visit too
+        applySelectedDate();
     }
 
     @Override
     public void refresh() {
+        applySelectedDate();
+    }
+
+    private void applySelectedDate() {
         // Check if a date was passed from CalendarView
         Object selectedDateObj = Router.getData("selectedDate");
         if (selectedDateObj != null && selectedDateObj instanceof java.time.LocalDate) {
@@ -5,6 +5,7 @@ import java.awt.*;
 import server.AuthenticationServer;
 import server.AuthenticationServer.UserRole;
 import services.NotificationService;
+import services.ServiceExecutor;
 import ui.components.RoundedButton;
 import ui.components.RoundedTextField;
 import ui.components.RoundedPasswordField;
@@ -82,16 +83,7 @@ public class LoginView extends JPanel {
       String password = new String(passField.getPassword());
       String username = userField.getText();
 
-      
-
-      // Perform authentication
-      boolean isAuthenticated = AuthenticationServer.authenticate(username, password);
-
-      // Reset UI state
-      
-       
       //  Check for empty fields
-
       if (username.isEmpty() || password.isEmpty()) {
         JOptionPane.showMessageDialog(this,
           "Please enter both username and password.",
@@ -100,25 +92,30 @@ public class LoginView extends JPanel {
         );
         return;
       }
-     
-      
 
-      if (!isAuthenticated) {
-        JOptionPane.showMessageDialog(this, "Invalid username or password", "Error", JOptionPane.ERROR_MESSAGE);
-        return;
-      }
+      // Password checks run off the EDT; keep the window responsive meanwhile
+      loginButton.setEnabled(false);
+      setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+      ServiceExecutor.onEdt(AuthenticationServer.authenticateAsync(username, password), userRole -> {
+        loginButton.setEnabled(true);
+        setCursor(Cursor.getDefaultCursor());
 
-      // Get the user role from the authentication service
-      UserRole userRole = AuthenticationServer.getCurrentUserRole();
+        if (userRole == UserRole.UNKNOWN) {
+          JOptionPane.showMessageDialog(this, "Invalid username or password", "Error", JOptionPane.ERROR_MESSAGE);
+          return;
+        }
 
-      // Check if the user has a valid role
-      if (userRole == UserRole.ADMIN || userRole == UserRole.MANAGER) {
         // Update notification service with the current user ID
         notificationService.setCurrentUserId(username);
 
         // Direct all authenticated users to the Dashboard
         Router.showPage("Dashboard");
-      } 
+      }, error -> {
+        loginButton.setEnabled(true);
+        setCursor(Cursor.getDefaultCursor());
+        JOptionPane.showMessageDialog(this, "Login failed: " + error.getMessage(), "Error",
+            JOptionPane.ERROR_MESSAGE);
+      });
     });
 
     JPanel wrapperPanel = new JPanel(new GridBagLayout());
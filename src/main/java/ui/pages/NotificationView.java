@@ -3,24 +3,50 @@ package ui.pages;
 import ui.components.Sidebar;
 import ui.components.RoundedButton;
 import ui.Refreshable;
+import services.NotificationFeed;
 import services.NotificationService;
+import services.ServiceExecutor;
 import services.NotificationService.UINotification;
+import server.notification.NotificationType;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Notifications of the current user and the system feed, newest first. Pages
+ * are read off the event dispatch thread: the feed is only used inside
+ * ServiceExecutor tasks owned by it, so its calls never overlap, and the
+ * rows are added in the callbacks.
+ */
 public class NotificationView extends JPanel implements Refreshable {
+  // Notifications loaded at a time; more load as the list is scrolled down
+  private static final int PAGE_SIZE = 50;
+
   private JPanel mainPanel;
   private JPanel notificationsPanel;
   private JLabel notificationCountLabel;
   private RoundedButton markAllReadButton;
   private JComboBox<String> filterComboBox;
+  private JScrollPane scrollPane;
+  private JLabel emptyLabel;
   private NotificationService notificationService;
-  private List<UINotification> notifications;
+  private NotificationFeed feed;
+  // What the list shows, in the feed's order; used on the EDT only
+  private final List<UINotification> items = new ArrayList<>();
+  private boolean hasMore;
+  // A page of the current feed is being read
+  private boolean loading;
+  // Filter the feed was opened with
+  private NotificationType filterType;
+  private boolean onlyUnread;
 
   public NotificationView() {
     setName("NotificationView"); // Set the name for the Router to identify this panel
@@ -31,17 +57,17 @@ public class NotificationView extends JPanel implements Refreshable {
     notificationService = NotificationService.getInstance();
     notificationService.registerView(this);
 
-    // Load notifications from service
-    loadNotifications();
-
     createMainPanel();
     add(mainPanel, BorderLayout.CENTER);
+
+    // Load notifications from service
+    loadNotifications();
   }
   
   @Override
   public void refresh() {
-    // Reload all notifications and update the UI
-    refreshNotifications();
+    // Reload the first page of notifications and update the UI
+    loadNotifications();
     
     // Also refresh the sidebar
     Component sidebarComponent = null;
@@ -66,18 +92,72 @@ public class NotificationView extends JPanel implements Refreshable {
   }
 
   private void loadNotifications() {
-    // Get notifications from service (null means no type filter, false means
-    // include read notifications)
-    notifications = notificationService.getNotifications(null, false);
+    // Only the first page; older ones load as the list is scrolled
+    NotificationFeed opened = notificationService.openFeed(filterType, onlyUnread);
+    feed = opened;
+    items.clear();
+    hasMore = false;
+    loading = true;
+    renderNotifications();
+
+    whenCurrent(opened, () -> new Page(opened.loadMore(PAGE_SIZE), opened.hasMore()), page -> {
+      loading = false;
+      hasMore = page.hasMore;
+      items.addAll(page.notifications);
+      renderNotifications();
+    });
   }
 
   /**
-   * Refresh notifications from the service
+   * Add the notifications that arrived since the list was loaded
    * Called by the NotificationService when new notifications arrive
    */
   public void refreshNotifications() {
-    loadNotifications();
-    renderNotifications();
+    NotificationFeed current = feed;
+    whenCurrent(current, () -> current.loadNewer(PAGE_SIZE), arrived -> {
+      if (arrived == null) {
+        // Too many to add one by one
+        loadNotifications();
+        return;
+      }
+
+      items.addAll(0, arrived);
+      for (int i = 0; i < arrived.size(); i++) {
+        insertRow(i, arrived.get(i));
+      }
+      finishUpdate();
+    });
+  }
+
+  /**
+   * Reads from the feed on a worker and hands the result to the EDT, unless
+   * the feed was reopened in the meantime
+   */
+  private <T> void whenCurrent(NotificationFeed opened, Supplier<T> read, Consumer<T> show) {
+    CompletableFuture<T> result = ServiceExecutor.supply(opened, read);
+    ServiceExecutor.onEdt(result, value -> {
+      if (feed == opened) {
+        show.accept(value);
+      }
+    }, error -> {
+      System.err.println("Error loading notifications: " + error.getMessage());
+      if (feed == opened) {
+        loading = false;
+        finishUpdate();
+      }
+    });
+  }
+
+  /**
+   * Applies a change to the feed's own list on a worker, after any read
+   * still running on it
+   */
+  private void updateFeed(Consumer<NotificationFeed> change) {
+    NotificationFeed current = feed;
+    ServiceExecutor.supply(current, () -> {
+      change.accept(current);
+      return null;
+    });
   }
 
   private void createMainPanel() {
@@ -165,10 +245,11 @@ public class NotificationView extends JPanel implements Refreshable {
     renderNotifications();
 
     // Add to scroll pane for scrolling if many notifications
-    JScrollPane scrollPane = new JScrollPane(notificationsPanel);
+    scrollPane = new JScrollPane(notificationsPanel);
     scrollPane.setBorder(BorderFactory.createEmptyBorder());
     scrollPane.setAlignmentX(LEFT_ALIGNMENT);
     scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+    scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> loadMoreIfNeeded());
 
     todayPanel.add(scrollPane);
     contentPanel.add(todayPanel);
@@ -181,15 +262,56 @@ public class NotificationView extends JPanel implements Refreshable {
   private void renderNotifications() {
     notificationsPanel.removeAll();
 
-    // Add notifications
-    for (UINotification notification : notifications) {
-      JPanel notificationPanel = createNotificationPanel(notification);
-      notificationsPanel.add(notificationPanel);
-      notificationsPanel.add(Box.createVerticalStrut(10));
+    // Add the loaded notifications
+    for (int i = 0; i < items.size(); i++) {
+      insertRow(i, items.get(i));
+    }
+    finishUpdate();
+  }
+
+  /**
+   * Load the next page once the list is scrolled to within a screen of its
+   * end, so only the pages being looked at have panels
+   */
+  private void loadMoreIfNeeded() {
+    JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+    if (loading || !hasMore
+        || scrollBar.getValue() + 2 * scrollBar.getVisibleAmount() < scrollBar.getMaximum()) {
+      return;
     }
 
-    if (notifications.isEmpty()) {
-      JLabel emptyLabel = new JLabel("No notifications");
+    loading = true;
+    NotificationFeed current = feed;
+    whenCurrent(current, () -> new Page(current.loadMore(PAGE_SIZE), current.hasMore()), page -> {
+      loading = false;
+      hasMore = page.hasMore;
+      int start = items.size();
+      items.addAll(page.notifications);
+      for (int i = 0; i < page.notifications.size(); i++) {
+        insertRow(start + i, page.notifications.get(i));
+      }
+      finishUpdate();
+    });
+  }
+
+  // Each notification is a panel followed by a spacer
+  private void insertRow(int index, UINotification notification) {
+    notificationsPanel.add(createNotificationPanel(notification), 2 * index);
+    notificationsPanel.add(Box.createVerticalStrut(10), 2 * index + 1);
+  }
+
+  private void removeRow(int index) {
+    notificationsPanel.remove(2 * index + 1);
+    notificationsPanel.remove(2 * index);
+  }
+
+  private void finishUpdate() {
+    if (emptyLabel != null) {
+      notificationsPanel.remove(emptyLabel);
+      emptyLabel = null;
+    }
+    if (items.isEmpty()) {
+      emptyLabel = new JLabel(loading ? "Loading notifications..." : "No notifications");
       emptyLabel.setFont(new Font("Arial", Font.ITALIC, 14));
       emptyLabel.setForeground(Color.GRAY);
       emptyLabel.setAlignmentX(CENTER_ALIGNMENT);
@@ -201,6 +323,31 @@ public class NotificationView extends JPanel implements Refreshable {
     updateNotificationCount();
   }
 
+  /**
+   * Show a notification's new read state without reloading the list
+   */
+  private void showReadState(UINotification notification, boolean read) {
+    int index = indexOf(notification.getId());
+    if (index < 0) {
+      return;
+    }
+
+    if (read && onlyUnread) {
+      // No longer matches the filter
+      items.remove(index);
+      updateFeed(opened -> opened.remove(notification.getId()));
+      removeRow(index);
+    } else {
+      UINotification updated = new UINotification(notification.getId(), notification.getMessage(),
+          notification.getType(), notification.getTimestamp(), read);
+      items.set(index, updated);
+      updateFeed(opened -> opened.replace(updated));
+      notificationsPanel.remove(2 * index);
+      notificationsPanel.add(createNotificationPanel(updated), 2 * index);
+    }
+    finishUpdate();
+  }
+
   private JPanel createNotificationPanel(UINotification notification) {
     JPanel panel = new JPanel(new BorderLayout());
     panel.setBackground(notification.isRead() ? notification.getType().getBackgroundColorRead()
@@ -240,12 +387,12 @@ public class NotificationView extends JPanel implements Refreshable {
     readButton.setPreferredSize(new Dimension(130, 30));
     readButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
     readButton.addActionListener(e -> {
-      if (notification.isRead()) {
-        notificationService.markAsUnread(notification.getId());
-      } else {
-        notificationService.markAsRead(notification.getId());
-      }
-      refreshNotifications();
+      boolean read = !notification.isRead();
+      ServiceExecutor.onEdt(ServiceExecutor.supply(() -> read
+          ? notificationService.markAsRead(notification.getId())
+          : notificationService.markAsUnread(notification.getId())),
+          changed -> showReadState(notification, read),
+          error -> System.err.println("Error updating notification: " + error.getMessage()));
     });
 
     // Dismiss button
@@ -256,8 +403,16 @@ public class NotificationView extends JPanel implements Refreshable {
     dismissButton.setPreferredSize(new Dimension(120, 30));
     dismissButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
     dismissButton.addActionListener(e -> {
-      notificationService.deleteNotification(notification.getId());
-      refreshNotifications();
+      ServiceExecutor.onEdt(ServiceExecutor.supply(() -> notificationService.deleteNotification(notification.getId())),
+          deleted -> {
+            int index = indexOf(notification.getId());
+            if (index >= 0) {
+              items.remove(index);
+              removeRow(index);
+            }
+            updateFeed(opened -> opened.remove(notification.getId()));
+            finishUpdate();
+          }, error -> System.err.println("Error deleting notification: " + error.getMessage()));
     });
 
     actionsPanel.add(readButton);
@@ -287,11 +442,11 @@ public class NotificationView extends JPanel implements Refreshable {
 
   private void applyFilter(String filter) {
     server.notification.NotificationType serverType = null;
-    boolean onlyUnread = false;
+    boolean unread = false;
 
     switch (filter) {
       case "Unread":
-        onlyUnread = true;
+        unread = true;
         break;
       case "Bookings":
         serverType = server.notification.NotificationType.BOOKING_CONFIRMED;
@@ -301,18 +456,44 @@ public class NotificationView extends JPanel implements Refreshable {
         break;
     }
 
-    notifications = notificationService.getNotifications(serverType, onlyUnread);
-    renderNotifications();
+    filterType = serverType;
+    onlyUnread = unread;
+    loadNotifications();
+    scrollPane.getVerticalScrollBar().setValue(0);
   }
 
   private void markAllAsRead() {
-    notificationService.markAllAsRead();
-    refreshNotifications();
+    ServiceExecutor.onEdt(ServiceExecutor.supply(notificationService::markAllAsRead),
+        marked -> loadNotifications(),
+        error -> System.err.println("Error marking notifications as read: " + error.getMessage()));
   }
 
   private void updateNotificationCount() {
-    int unreadCount = notificationService.getUnreadCount();
-    notificationCountLabel.setText(String.valueOf(unreadCount));
-    notificationCountLabel.setVisible(unreadCount > 0);
+    ServiceExecutor.onEdt(ServiceExecutor.supply(notificationService::getUnreadCount), unreadCount -> {
+      notificationCountLabel.setText(String.valueOf(unreadCount));
+      notificationCountLabel.setVisible(unreadCount > 0);
+    }, error -> System.err.println("Error counting notifications: " + error.getMessage()));
+  }
+
+  private int indexOf(String notificationId) {
+    for (int i = 0; i < items.size(); i++) {
+      if (items.get(i).getId().equals(notificationId)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * A page read from the feed, with whether older ones are left
+   */
+  private static class Page {
+    final List<UINotification> notifications;
+    final boolean hasMore;
+
+    Page(List<UINotification> notifications, boolean hasMore) {
+      this.notifications = notifications;
+      this.hasMore = hasMore;
+    }
   }
 }
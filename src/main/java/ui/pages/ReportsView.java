@@ -2,25 +2,32 @@ package ui.pages;
 
 import ui.components.Sidebar;
 import ui.components.RoundedButton;
+import ui.components.VirtualTableModel;
 import ui.Refreshable;
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import ui.Router;
 
+import server.TicketAnalytics;
+import server.sketch.TicketSketch;
+import server.sketch.TicketSketchStore;
+import services.DemandForecastService;
+import services.SalesColumnStore;
 import services.SalesDataService;
+import services.ServiceExecutor;
 
 
 
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
-import javax.swing.table.TableRowSorter;
 
 import java.awt.event.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -31,10 +38,12 @@ public class ReportsView extends JPanel implements Refreshable {
     private JPanel mainPanel, contentPanel;
     private JTable salesTable;
     private SalesDataService salesDataService;
+    private DemandForecastService forecastService;
     private List<Map<String, Object>> currentSalesData;
+    private int[] currentSelection; // Store rows of currentSalesData, ascending
     private JComboBox<String> filterCombo;
     private JTextField searchField;
-    private TableRowSorter<DefaultTableModel> tableSorter;
+    private VirtualTableModel salesModel;
     private JLabel statusLabel;
     private Color primaryColor = new Color(64,133,219,255); // Changed from blue (64, 133, 219) to green
     private Color lightGrayColor = new Color(245, 245, 245);
@@ -44,6 +53,7 @@ public class ReportsView extends JPanel implements Refreshable {
         setLayout(new BorderLayout());
         mainPanel = new JPanel(new BorderLayout());
         currentSalesData = new ArrayList<>();
+        currentSelection = new int[0];
 
         // Initialize the service
         salesDataService = new SalesDataService();
@@ -104,6 +114,10 @@ public class ReportsView extends JPanel implements Refreshable {
         // Now populate the content with data
         populateContent();
 
+        // The table and filter options start empty and are filled once the
+        // sales are read in the background
+        loadAllEvents();
+
         add(mainPanel, BorderLayout.CENTER);
     }
 
@@ -173,14 +187,19 @@ public class ReportsView extends JPanel implements Refreshable {
     }
 
     private void loadAllEvents() {
-        try {
-            updateSalesData(salesDataService.getAllSalesData());
+        // New sales are read off the EDT; the table is rebuilt once they are in
+        statusLabel.setText("Loading sales data...");
+        CompletableFuture<SalesColumnStore> stores = salesDataService.refreshSalesStoreAsync();
+        CompletableFuture<int[]> selections = stores.thenApply(SalesColumnStore::selectAll);
+        CompletableFuture<List<Map<String, Object>>> rows = selections.thenCombine(stores,
+                (selection, store) -> store.toRows(selection));
+        ServiceExecutor.onEdt(rows, salesRows -> {
+            updateSalesData(selections.join(), salesRows);
             refreshTable();
+            updateFilterOptions(stores.join());
             statusLabel.setText("All events loaded successfully.");
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(this, "Error loading events: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, error -> JOptionPane.showMessageDialog(this, "Error loading events: " + error.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE));
     }
 
     private void populateContent() {
@@ -227,51 +246,25 @@ public class ReportsView extends JPanel implements Refreshable {
     }
 
     private void createSalesTable(JPanel parent) {
-        // Fetch sales data from the service
-        try {
-            updateSalesData(salesDataService.getAllSalesData());
-        } catch (Exception e) {
-            System.err.println("Error loading sales data: " + e.getMessage());
-            e.printStackTrace();
-            updateSalesData(new ArrayList<>());
-        }
+        // Empty until loadAllEvents has read the sales off the EDT
+        updateSalesData(new int[0], new ArrayList<>());
 
         // Define columns that match the database structure
         String[] columnNames = {
                 "Date", "Category", "Tickets Sold", "Revenue ($)"
         };
 
-        // Convert the data into a table-friendly format
-        Object[][] data = formatTableData(currentSalesData, columnNames);
-
-        DefaultTableModel model = new DefaultTableModel(data, columnNames) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
+        // Rows are kept by store row, so reloads only touch the rows that changed
+        salesModel = new VirtualTableModel(columnNames,
+                new Class<?>[] { Object.class, Object.class, Integer.class, Double.class });
 
-            @Override
-            public Class<?> getColumnClass(int column) {
-                if (column == 2)
-                    return Integer.class;
-                if (column == 3)
-                    return Double.class;
-                return Object.class;
-            }
-        };
-
-        salesTable = new JTable(model);
+        salesTable = new JTable(salesModel);
         setupTableProperties();
+        refreshTable();
 
-        // Add sorting capability
-        tableSorter = new TableRowSorter<>(model);
-        salesTable.setRowSorter(tableSorter);
-
-        // Set initial sort order - newest dates first (descending order for column 0 - Date)
-        List<RowSorter.SortKey> sortKeys = new ArrayList<>();
-        sortKeys.add(new RowSorter.SortKey(0, SortOrder.DESCENDING));
-        tableSorter.setSortKeys(sortKeys);
-        tableSorter.sort();
+        // Add sorting capability, newest dates first (descending order for column 0 - Date)
+        salesModel.sortOnHeaderClick(salesTable);
+        salesModel.sortBy(0, false);
 
         // Create table header with tooltips
         JPanel tableHeaderPanel = createTableHeader();
@@ -307,9 +300,12 @@ public class ReportsView extends JPanel implements Refreshable {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (e.getClickCount() == 2) {
-                    int row = salesTable.convertRowIndexToModel(salesTable.getSelectedRow());
-                    if (row >= 0 && row < currentSalesData.size()) {
-                        showDetailDialog(currentSalesData.get(row));
+                    int row = salesTable.getSelectedRow();
+                    if (row >= 0) {
+                        int index = Arrays.binarySearch(currentSelection, (int) salesModel.getKeyAt(row));
+                        if (index >= 0) {
+                            showDetailDialog(currentSalesData.get(index));
+                        }
                     }
                 }
             }
@@ -428,11 +424,40 @@ public class ReportsView extends JPanel implements Refreshable {
 
       
 
+        RoundedButton insightsButton = new RoundedButton("Ticket Insights", 25);
+        insightsButton.setBackground(new Color(150, 150, 150));
+        insightsButton.setForeground(Color.white);
+        insightsButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        insightsButton.setPreferredSize(new Dimension(140, 30));
+
         // Action Listener for the Export button
         exportButton.addActionListener(e -> {
             exportSalesData();
         });
 
+        insightsButton.addActionListener(e -> showTicketInsights());
+
+        RoundedButton forecastButton = new RoundedButton("Demand Forecast", 25);
+        forecastButton.setBackground(new Color(150, 150, 150));
+        forecastButton.setForeground(Color.white);
+        forecastButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        forecastButton.setPreferredSize(new Dimension(150, 30));
+        forecastButton.addActionListener(e -> showDemandForecast());
+
+        RoundedButton totalsButton = new RoundedButton("Sales Totals", 25);
+        totalsButton.setBackground(new Color(150, 150, 150));
+        totalsButton.setForeground(Color.white);
+        totalsButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        totalsButton.setPreferredSize(new Dimension(130, 30));
+        totalsButton.addActionListener(e -> showSalesTotals());
+
+        RoundedButton sellThroughButton = new RoundedButton("Sell-Through", 25);
+        sellThroughButton.setBackground(new Color(150, 150, 150));
+        sellThroughButton.setForeground(Color.white);
+        sellThroughButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        sellThroughButton.setPreferredSize(new Dimension(130, 30));
+        sellThroughButton.addActionListener(e -> showSellThrough());
+
         controlsPanel.add(filterLabel);
         controlsPanel.add(Box.createHorizontalStrut(10));
         controlsPanel.add(filterCombo);
@@ -442,6 +467,14 @@ public class ReportsView extends JPanel implements Refreshable {
        
         controlsPanel.add(Box.createHorizontalStrut(20));
         controlsPanel.add(exportButton);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(insightsButton);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(forecastButton);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(totalsButton);
+        controlsPanel.add(Box.createHorizontalStrut(10));
+        controlsPanel.add(sellThroughButton);
 
         panel.add(sectionTitle);
         panel.add(Box.createVerticalStrut(15));
@@ -451,41 +484,28 @@ public class ReportsView extends JPanel implements Refreshable {
     }
 
     private void populateFilterCombo() {
+        // Only the default option until the sales are loaded
+        filterCombo = new JComboBox<>(new String[] { "[Select Date/Event]" });
+        filterCombo.setPreferredSize(new Dimension(180, 28));
+    }
+
+    private void updateFilterOptions(SalesColumnStore store) {
         Set<String> filterOptions = new TreeSet<>(); // Use TreeSet for automatic sorting
 
         // Add default option
         filterOptions.add("[Select Date/Event]");
 
-        try {
-            List<Map<String, Object>> allData = salesDataService.getAllSalesData();
-
-            // Extract unique dates and event names
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-
-            for (Map<String, Object> row : allData) {
-                // Add date
-                if (row.containsKey("sale_date") && row.get("sale_date") != null) {
-                    Object dateObj = row.get("sale_date");
-                    if (dateObj instanceof java.sql.Date) {
-                        filterOptions.add(dateFormat.format(dateObj));
-                    } else if (dateObj != null) {
-                        filterOptions.add(dateObj.toString());
-                    }
-                }
-
-                // Add event name (category)
-                if (row.containsKey("category")) {
-                    filterOptions.add(row.get("category").toString());
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error populating filter options: " + e.getMessage());
-            e.printStackTrace();
+        // Extract unique dates and categories straight from the columns
+        for (int day : store.distinctDays()) {
+            filterOptions.add(LocalDate.ofEpochDay(day).toString());
         }
+        filterOptions.addAll(store.getCategories());
 
-        // Create and populate combo box
-        filterCombo = new JComboBox<>(filterOptions.toArray(new String[0]));
-        filterCombo.setPreferredSize(new Dimension(180, 28));
+        Object selected = filterCombo.getSelectedItem();
+        filterCombo.setModel(new DefaultComboBoxModel<>(filterOptions.toArray(new String[0])));
+        if (selected != null && filterOptions.contains(selected)) {
+            filterCombo.setSelectedItem(selected);
+        }
     }
 
     private JButton createStyledButton(String text, Color backgroundColor) {
@@ -498,8 +518,9 @@ public class ReportsView extends JPanel implements Refreshable {
         return button;
     }
 
-    private void updateSalesData(List<Map<String, Object>> newData) {
+    private void updateSalesData(int[] selection, List<Map<String, Object>> newData) {
         if (newData != null) {
+            currentSelection = selection;
             currentSalesData = newData;
             if (statusLabel != null) {
                 statusLabel.setText("Displaying " + currentSalesData.size() + " records");
@@ -508,20 +529,20 @@ public class ReportsView extends JPanel implements Refreshable {
     }
 
     private void refreshTable() {
-        if (salesTable == null)
+        if (salesModel == null)
             return;
 
-        DefaultTableModel model = (DefaultTableModel) salesTable.getModel();
-        String[] columnNames = new String[model.getColumnCount()];
-        for (int i = 0; i < model.getColumnCount(); i++) {
-            columnNames[i] = model.getColumnName(i);
+        String[] columnNames = new String[salesModel.getColumnCount()];
+        for (int i = 0; i < salesModel.getColumnCount(); i++) {
+            columnNames[i] = salesModel.getColumnName(i);
         }
 
+        long[] keys = new long[currentSelection.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = currentSelection[i];
+        }
         Object[][] data = formatTableData(currentSalesData, columnNames);
-        model.setDataVector(data, columnNames);
-
-        // Restore custom renderers after model change
-        setupTableProperties();
+        salesModel.setRows(keys, data);
     }
 
     private void applyFilter(String filterCriteria) {
@@ -531,8 +552,16 @@ public class ReportsView extends JPanel implements Refreshable {
         }
 
         try {
-            // Fetch filtered data from the service
-            List<Map<String, Object>> filteredData = salesDataService.filterSalesData(filterCriteria);
+            // Filter the in-memory sales columns by date or category
+            SalesColumnStore store = salesDataService.getSalesStore();
+            int[] selection;
+            if (filterCriteria.matches("\\d{4}-\\d{2}-\\d{2}")) {
+                int day = (int) LocalDate.parse(filterCriteria).toEpochDay();
+                selection = store.selectDayRange(day, day);
+            } else {
+                selection = store.selectCategory(filterCriteria);
+            }
+            List<Map<String, Object>> filteredData = store.toRows(selection);
 
             if (filteredData.isEmpty()) {
                 JOptionPane.showMessageDialog(this, "No data found for the selected filter.", "Info",
@@ -541,7 +570,7 @@ public class ReportsView extends JPanel implements Refreshable {
             }
 
             // Update the table with filtered data
-            updateSalesData(filteredData);
+            updateSalesData(selection, filteredData);
             refreshTable();
             statusLabel.setText("Filtered: " + filteredData.size() + " records found");
         } catch (Exception e) {
@@ -553,15 +582,14 @@ public class ReportsView extends JPanel implements Refreshable {
     private void performSearch(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             // If search term is empty, clear any filter and show all records
-            tableSorter.setRowFilter(null);
+            salesModel.setFilter(null);
             statusLabel.setText("Displaying " + currentSalesData.size() + " records");
             return;
         }
 
         try {
-            // Use row filter for quick searching
-            RowFilter<DefaultTableModel, Object> rowFilter = RowFilter.regexFilter("(?i)" + searchTerm);
-            tableSorter.setRowFilter(rowFilter);
+            // Match the text in any column, ignoring case
+            salesModel.setFilter(searchTerm);
 
             int displayedRowCount = salesTable.getRowCount();
             statusLabel.setText("Search results: " + displayedRowCount + " records found");
@@ -577,6 +605,204 @@ public class ReportsView extends JPanel implements Refreshable {
         }
     }
 
+    /**
+     * Shows approximate ticket statistics for a recent period, answered from
+     * the per-day ticket sketches in the background
+     */
+    private void showTicketInsights() {
+        String[] periods = { "Last 7 days", "Last 30 days", "Last 365 days" };
+        int[] periodDays = { 7, 30, 365 };
+        int choice = JOptionPane.showOptionDialog(this, "Select a period:", "Ticket Insights",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, periods, periods[1]);
+        if (choice < 0) {
+            return;
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(periodDays[choice] - 1);
+        statusLabel.setText("Reading ticket insights...");
+        CompletableFuture<TicketSketch> summaries =
+                ServiceExecutor.supply(() -> TicketSketchStore.getInstance().summarize(from, to));
+        ServiceExecutor.onEdt(summaries, summary -> {
+            statusLabel.setText("Displaying " + currentSalesData.size() + " records");
+            if (summary.getTickets() == 0) {
+                JOptionPane.showMessageDialog(this, "No tickets sold in this period.", "Ticket Insights",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+
+            StringBuilder message = new StringBuilder();
+            message.append(periods[choice]).append(" (approximate)\n\n");
+            message.append("Tickets sold: ").append(summary.getTickets()).append('\n');
+            message.append(String.format("Revenue: $%.2f%n", summary.getRevenue()));
+            message.append("Distinct customers: ~").append(summary.getDistinctCustomers()).append('\n');
+            message.append(String.format("Ticket price median: $%.2f, 90th percentile: $%.2f%n%n",
+                    summary.getPriceQuantile(0.5), summary.getPriceQuantile(0.9)));
+            message.append("Top events by tickets sold:\n");
+            for (Map.Entry<Long, Long> event : summary.getTopEvents(5)) {
+                message.append("  Event #").append(event.getKey()).append(": ~").append(event.getValue())
+                        .append(" tickets, ~").append(summary.getDistinctCustomers(event.getKey().intValue()))
+                        .append(" customers\n");
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Ticket Insights",
+                    JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            statusLabel.setText("Reading ticket insights failed");
+            JOptionPane.showMessageDialog(this, "Error reading ticket insights: " + error.getMessage(),
+                    "Ticket Insights", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Shows tickets and revenue per category for a recent period, read from
+     * the day/week/month sales rollups in the background
+     */
+    private void showSalesTotals() {
+        String[] periods = { "Last 7 days", "Last 30 days", "This month", "Last 365 days" };
+        int choice = JOptionPane.showOptionDialog(this, "Select a period:", "Sales Totals",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, periods, periods[1]);
+        if (choice < 0) {
+            return;
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from;
+        switch (choice) {
+            case 0:
+                from = to.minusDays(6);
+                break;
+            case 2:
+                from = to.withDayOfMonth(1);
+                break;
+            case 3:
+                from = to.minusDays(364);
+                break;
+            default:
+                from = to.minusDays(29);
+                break;
+        }
+
+        statusLabel.setText("Reading sales totals...");
+        ServiceExecutor.onEdt(salesDataService.getSalesTotalsAsync(from, to), totals -> {
+            statusLabel.setText("Displaying " + currentSalesData.size() + " records");
+            if (totals.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "No sales in this period.", "Sales Totals",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+
+            StringBuilder message = new StringBuilder();
+            message.append(periods[choice]).append(" (").append(from).append(" to ").append(to).append(")\n\n");
+            long totalTickets = 0;
+            double totalRevenue = 0;
+            for (Map<String, Object> row : totals) {
+                long tickets = ((Number) row.get("tickets_sold")).longValue();
+                double revenue = ((Number) row.get("revenue")).doubleValue();
+                message.append(String.format("  %s: %d tickets, $%.2f%n", row.get("category"), tickets, revenue));
+                totalTickets += tickets;
+                totalRevenue += revenue;
+            }
+            message.append(String.format("%nTotal: %d tickets, $%.2f", totalTickets, totalRevenue));
+            JOptionPane.showMessageDialog(this, message.toString(), "Sales Totals", JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            statusLabel.setText("Reading sales totals failed");
+            JOptionPane.showMessageDialog(this, "Error reading sales totals: " + error.getMessage(),
+                    "Sales Totals", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Scans the ticket history in the background and shows sell-through,
+     * time to sellout and revenue by ticket category
+     */
+    private void showSellThrough() {
+        statusLabel.setText("Analysing ticket history...");
+        ServiceExecutor.onEdt(ServiceExecutor.supply(() -> new TicketAnalytics().analyzeTickets()), result -> {
+            statusLabel.setText("Displaying " + currentSalesData.size() + " records");
+            if (result.getRowsScanned() == 0) {
+                JOptionPane.showMessageDialog(this, "No tickets recorded yet.", "Sell-Through",
+                        JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+
+            List<TicketAnalytics.EventStats> events = new ArrayList<>(result.getEvents());
+            events.sort(Comparator.comparingDouble(TicketAnalytics.EventStats::getSellThrough).reversed());
+
+            StringBuilder message = new StringBuilder();
+            message.append(result.getRowsScanned()).append(" tickets across ").append(events.size())
+                    .append(" events\n\nRevenue by ticket category:\n");
+            for (Map.Entry<String, Double> category : result.getRevenueByCategory().entrySet()) {
+                message.append(String.format("  %s: %d sold, $%.2f%n", category.getKey(),
+                        result.getTicketsSoldByCategory().get(category.getKey()), category.getValue()));
+            }
+            message.append("\nBest-selling events:\n");
+            for (TicketAnalytics.EventStats event : events.subList(0, Math.min(10, events.size()))) {
+                message.append(String.format("  Event #%d: %d of %d sold (%.0f%%), $%.2f", event.getEventId(),
+                        event.getTicketsSold(), event.getTicketsListed(), event.getSellThrough() * 100,
+                        event.getRevenue()));
+                if (event.getTimeToSelloutMillis() >= 0) {
+                    message.append(String.format(", sold out in %.1f days",
+                            event.getTimeToSelloutMillis() / 86_400_000.0));
+                }
+                message.append('\n');
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Sell-Through", JOptionPane.INFORMATION_MESSAGE);
+        }, error -> {
+            statusLabel.setText("Ticket analysis failed");
+            JOptionPane.showMessageDialog(this, "Error analysing tickets: " + error.getMessage(),
+                    "Sell-Through", JOptionPane.ERROR_MESSAGE);
+        });
+    }
+
+    /**
+     * Computes the demand forecast in the background and shows it when ready;
+     * the view stays responsive meanwhile
+     */
+    private void showDemandForecast() {
+        if (forecastService == null) {
+            forecastService = new DemandForecastService();
+        }
+        final int horizonDays = 14;
+        statusLabel.setText("Computing demand forecast...");
+
+        forecastService.forecastCategories(horizonDays)
+                .thenCombine(forecastService.forecastUpcomingEvents(), (categories, events) -> {
+                    StringBuilder message = new StringBuilder();
+                    message.append("Expected tickets over the next ").append(horizonDays).append(" days:\n");
+                    for (DemandForecastService.CategoryForecast forecast : categories.values()) {
+                        message.append(String.format("  %s: %.0f (about %.1f per day, error \u00B1%.1f)%n",
+                                forecast.getCategory(), forecast.getTotalTickets(),
+                                forecast.getTotalTickets() / horizonDays, forecast.getRmse()));
+                    }
+
+                    message.append("\nExpected daily demand on upcoming event days:\n");
+                    int shown = 0;
+                    for (DemandForecastService.EventForecast forecast : events.values()) {
+                        if (shown++ == 10) {
+                            message.append("  ... and ").append(events.size() - 10).append(" more events\n");
+                            break;
+                        }
+                        message.append(String.format("  Event #%d on %s: %.0f tickets%n",
+                                forecast.getEventId(), forecast.getEventDate(), forecast.getTotalTickets()));
+                    }
+                    if (events.isEmpty()) {
+                        message.append("  No upcoming events\n");
+                    }
+                    return message.toString();
+                })
+                .whenComplete((message, error) -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        statusLabel.setText("Demand forecast failed");
+                        JOptionPane.showMessageDialog(this, "Error computing forecast: " + error.getMessage(),
+                                "Demand Forecast", JOptionPane.ERROR_MESSAGE);
+                        return;
+                    }
+                    statusLabel.setText("Displaying " + currentSalesData.size() + " records");
+                    JOptionPane.showMessageDialog(this, message, "Demand Forecast",
+                            JOptionPane.INFORMATION_MESSAGE);
+                }));
+    }
+
     private void showDetailDialog(Map<String, Object> rowData) {
         JDialog detailDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), "Event Details", true);
         detailDialog.setLayout(new BorderLayout());
@@ -653,40 +879,27 @@ public class ReportsView extends JPanel implements Refreshable {
             setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
             statusLabel.setText("Exporting data to Excel...");
 
-            // Export on a background thread to avoid UI freezing
-            SwingWorker<Boolean, Void> exportWorker = new SwingWorker<Boolean, Void>() {
-                @Override
-                protected Boolean doInBackground() throws Exception {
-                    return salesDataService.exportSalesData(currentSalesData, filePath);
-                }
-
-                @Override
-                protected void done() {
-                    try {
-                        boolean success = get();
-                        if (success) {
-                            JOptionPane.showMessageDialog(ReportsView.this,
-                                    "Sales data exported successfully to " + filePath,
-                                    "Export Successful", JOptionPane.INFORMATION_MESSAGE);
-                            statusLabel.setText("Export completed successfully");
-                        } else {
-                            JOptionPane.showMessageDialog(ReportsView.this,
-                                    "Failed to export sales data: " + salesDataService.getLastErrorMessage(),
-                                    "Export Failed", JOptionPane.ERROR_MESSAGE);
-                            statusLabel.setText("Export failed");
-                        }
-                    } catch (Exception e) {
-                        JOptionPane.showMessageDialog(ReportsView.this,
-                                "Error during export: " + e.getMessage(),
-                                "Export Error", JOptionPane.ERROR_MESSAGE);
-                        statusLabel.setText("Export error: " + e.getMessage());
-                    } finally {
-                        setCursor(Cursor.getDefaultCursor());
-                    }
+            // Export on the service executor to avoid UI freezing
+            ServiceExecutor.onEdt(salesDataService.exportSalesDataAsync(currentSalesData, filePath), success -> {
+                setCursor(Cursor.getDefaultCursor());
+                if (success) {
+                    JOptionPane.showMessageDialog(ReportsView.this,
+                            "Sales data exported successfully to " + filePath,
+                            "Export Successful", JOptionPane.INFORMATION_MESSAGE);
+                    statusLabel.setText("Export completed successfully");
+                } else {
+                    JOptionPane.showMessageDialog(ReportsView.this,
+                            "Failed to export sales data: " + salesDataService.getLastErrorMessage(),
+                            "Export Failed", JOptionPane.ERROR_MESSAGE);
+                    statusLabel.setText("Export failed");
                 }
-            };
-
-            exportWorker.execute();
+            }, error -> {
+                setCursor(Cursor.getDefaultCursor());
+                JOptionPane.showMessageDialog(ReportsView.this,
+                        "Error during export: " + error.getMessage(),
+                        "Export Error", JOptionPane.ERROR_MESSAGE);
+                statusLabel.setText("Export error: " + error.getMessage());
+            });
         }
     }
 
@@ -3,15 +3,18 @@ import ui.components.Sidebar;
 import ui.dialogs.EventDetailsDialog;
 import ui.dialogs.EventEditDialog;
 import ui.components.RoundedButton;
+import ui.components.VirtualTableModel;
 import ui.Refreshable;
 import javax.swing.*;
 import javax.swing.table.*;
 import services.EventServiceSer;
+import services.ServiceExecutor;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -25,10 +28,12 @@ public class UpcomingEvent extends JPanel implements Refreshable {
   private JPanel mainPanel;
   private JPanel contentPanel;
   private JTable eventsTable;
+  private VirtualTableModel tableModel;
   private JComboBox<String> dateFilter;
   private JComboBox<String> locationFilter;
   private JComboBox<String> categoryFilter;
   private EventServiceSer eventServiceSer;
+  private int loadGeneration; // Bumped by every table load, EDT only
 
   public UpcomingEvent() {
     setName("UpcomingEvent"); // Set the name for the Router to identify this panel
@@ -253,7 +258,8 @@ public class UpcomingEvent extends JPanel implements Refreshable {
 
     // Create empty table model with column headers
     String[] columnNames = { "Event Name", "Date", "Category", "Teams", "Actions" };
-    DefaultTableModel tableModel = new DefaultTableModel(columnNames, 0);
+    tableModel = new VirtualTableModel(columnNames, new Class<?>[] {
+        Object.class, Object.class, Object.class, Object.class, Object.class });
 
     // Create table
     eventsTable = new JTable(tableModel);
@@ -293,6 +299,9 @@ public class UpcomingEvent extends JPanel implements Refreshable {
     eventsTable.getColumnModel().getColumn(3).setPreferredWidth(150); // Teams
     eventsTable.getColumnModel().getColumn(4).setPreferredWidth(250); // Actions
 
+    // Add custom renderer for the actions column
+    eventsTable.getColumnModel().getColumn(4).setCellRenderer(new ActionRenderer());
+
     // Load events from the database
     loadAllEvents();
 
@@ -314,170 +323,131 @@ public class UpcomingEvent extends JPanel implements Refreshable {
   }
 
   /**
-   * Load all events from the database and populate the table
+   * Load all events from the database off the EDT and populate the table
+   * when they arrive
    */
   private void loadAllEvents() {
+    int generation = ++loadGeneration;
+    ServiceExecutor.onEdt(eventServiceSer.getAllEventsAsync(), events -> {
+      // A newer load or category filter has been started since
+      if (generation == loadGeneration) {
+        showAllEvents(events);
+      }
+    }, error -> {
+      if (generation == loadGeneration) {
+        System.out.println("Error loading events: " + error.getMessage());
+        showPlaceholderEvents();
+      }
+    });
+  }
+
+  /**
+   * Populate the table with all events
+   */
+  private void showAllEvents(List<Map<String, Object>> events) {
     try {
-      // Clear the table
-      DefaultTableModel model = (DefaultTableModel) eventsTable.getModel();
-      model.setRowCount(0);
-
-      // Get all events from the service
-      List<Map<String, Object>> events = eventServiceSer.getAllEvents();
-
-      // Date formatter for consistent display
-      SimpleDateFormat displayDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-
-      // Add events to the table
-      for (Map<String, Object> event : events) {
-        String eventName = (String) event.get("event_name");
-
-        // Format date properly
-        String eventDate = "Unknown date";
-        if (event.get("event_date") != null) {
-          try {
-            eventDate = event.get("event_date").toString();
-            // If the event_date is a Date object, format it nicely
-            if (event.get("event_date") instanceof Date) {
-              eventDate = displayDateFormat.format((Date) event.get("event_date"));
-            }
-          } catch (Exception ex) {
-            System.out.println("Error formatting date: " + ex.getMessage());
+      showEvents(events, "No events found");
+    } catch (Exception e) {
+      System.out.println("Error loading events: " + e.getMessage());
+      showPlaceholderEvents();
+    }
+  }
+
+  /**
+   * Hand the events to the table model, which only announces the rows that
+   * were added, changed or removed since the last load
+   */
+  private void showEvents(List<Map<String, Object>> events, String emptyMessage) {
+    // Date formatter for consistent display
+    SimpleDateFormat displayDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+    long[] keys = new long[events.size()];
+    Object[][] rows = new Object[events.size()][];
+    int count = 0;
+    for (Map<String, Object> event : events) {
+      String eventName = (String) event.get("event_name");
+
+      // Format date properly
+      String eventDate = "Unknown date";
+      if (event.get("event_date") != null) {
+        try {
+          eventDate = event.get("event_date").toString();
+          // If the event_date is a Date object, format it nicely
+          if (event.get("event_date") instanceof Date) {
+            eventDate = displayDateFormat.format((Date) event.get("event_date"));
           }
+        } catch (Exception ex) {
+          System.out.println("Error formatting date: " + ex.getMessage());
         }
-
-        String category = (String) event.get("category");
-        String eventType = (String) event.get("event_type");
-        String teamA = (String) event.get("team_a");
-        String teamB = (String) event.get("team_b");
-        String teams = teamA + " vs " + teamB;
-
-        // Get the event ID
-        Integer eventId = (Integer) event.get("event_id");
-
-        // Store object data in a row
-        Object[] rowData = new Object[5];
-        rowData[0] = eventName + " (" + eventType + ")";
-        rowData[1] = eventDate;
-        rowData[2] = category;
-        rowData[3] = teams;
-
-        // Store event data in the Actions cell
-        ActionData actionData = new ActionData();
-        actionData.eventId = eventId;
-        actionData.eventName = eventName;
-        actionData.eventType = eventType;
-        rowData[4] = actionData;
-
-        model.addRow(rowData);
       }
 
-      // If no events were found, add a message
-      if (events.isEmpty()) {
-        model.addRow(new Object[] { "No events found", "", "", "", null });
-      }
-    } catch (Exception e) {
-      System.out.println("Error loading events: " + e.getMessage());
+      String category = (String) event.get("category");
+      String eventType = (String) event.get("event_type");
+      String teamA = (String) event.get("team_a");
+      String teamB = (String) event.get("team_b");
+      String teams = teamA + " vs " + teamB;
 
-      // Add some default data if database load fails
-      DefaultTableModel model = (DefaultTableModel) eventsTable.getModel();
-      model.setRowCount(0);
+      // Get the event ID
+      Integer eventId = (Integer) event.get("event_id");
 
-      // Create dummy action data
+      // Store event data in the Actions cell
       ActionData actionData = new ActionData();
-      actionData.eventId = 1;
-      actionData.eventName = "Event 1";
-      actionData.eventType = "Match";
-
-      model.addRow(new Object[] {
-          "Event 1", "May 21, 2025", "VIP", "Team A vs Team B",
-          actionData
-      });
-
-      actionData = new ActionData();
-      actionData.eventId = 2;
-      actionData.eventName = "Event 2";
-      actionData.eventType = "Event";
-
-      model.addRow(new Object[] {
-          "Event 2", "June 14, 2025", "Regular", "Team C vs Team D",
-          actionData
-      });
+      actionData.eventId = eventId;
+      actionData.eventName = eventName;
+      actionData.eventType = eventType;
+
+      keys[count] = eventId;
+      rows[count++] = new Object[] { eventName + " (" + eventType + ")", eventDate, category, teams, actionData };
     }
 
-    // Add custom renderer for the actions column
-    eventsTable.getColumnModel().getColumn(4).setCellRenderer(new ActionRenderer());
+    // If no events were found, show a message instead
+    if (events.isEmpty()) {
+      tableModel.setRows(new long[] { -1 }, new Object[][] { { emptyMessage, "", "", "", null } });
+    } else {
+      tableModel.setRows(keys, rows);
+    }
   }
 
   /**
-   * Update the event table based on selected category
+   * Show some default data if the database load fails
    */
-  private void updateEventTable(String category) {
-    try {
-      // Clear the table
-      DefaultTableModel model = (DefaultTableModel) eventsTable.getModel();
-      model.setRowCount(0);
-
-      // Get filtered events from the service
-      List<Map<String, Object>> events = eventServiceSer.getEventsByCategory(category);
-
-      // Date formatter for consistent display
-      SimpleDateFormat displayDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-
-      // Add events to the table
-      for (Map<String, Object> event : events) {
-        String eventName = (String) event.get("event_name");
-
-        // Format date properly
-        String eventDate = "Unknown date";
-        if (event.get("event_date") != null) {
-          try {
-            eventDate = event.get("event_date").toString();
-            // If the event_date is a Date object, format it nicely
-            if (event.get("event_date") instanceof Date) {
-              eventDate = displayDateFormat.format((Date) event.get("event_date"));
-            }
-          } catch (Exception ex) {
-            System.out.println("Error formatting date: " + ex.getMessage());
-          }
-        }
+  private void showPlaceholderEvents() {
+    // Create dummy action data
+    ActionData first = new ActionData();
+    first.eventId = 1;
+    first.eventName = "Event 1";
+    first.eventType = "Match";
+
+    ActionData second = new ActionData();
+    second.eventId = 2;
+    second.eventName = "Event 2";
+    second.eventType = "Event";
+
+    tableModel.setRows(new long[] { 1, 2 }, new Object[][] {
+        { "Event 1", "May 21, 2025", "VIP", "Team A vs Team B", first },
+        { "Event 2", "June 14, 2025", "Regular", "Team C vs Team D", second }
+    });
+  }
 
-        String eventCategory = (String) event.get("category");
-        String eventType = (String) event.get("event_type");
-        String teamA = (String) event.get("team_a");
-        String teamB = (String) event.get("team_b");
-        String teams = teamA + " vs " + teamB;
-
-        // Get the event ID
-        Integer eventId = (Integer) event.get("event_id");
-
-        // Store object data in a row
-        Object[] rowData = new Object[5];
-        rowData[0] = eventName + " (" + eventType + ")";
-        rowData[1] = eventDate;
-        rowData[2] = eventCategory;
-        rowData[3] = teams;
-
-        // Store event data in the Actions cell
-        ActionData actionData = new ActionData();
-        actionData.eventId = eventId;
-        actionData.eventName = eventName;
-        actionData.eventType = eventType;
-        rowData[4] = actionData;
-
-        model.addRow(rowData);
+  /**
+   * Update the event table based on selected category, loading the events
+   * off the EDT
+   */
+  private void updateEventTable(String category) {
+    int generation = ++loadGeneration;
+    ServiceExecutor.onEdt(eventServiceSer.getEventsByCategoryAsync(category), events -> {
+      if (generation == loadGeneration) {
+        showCategoryEvents(category, events);
       }
+    }, error -> System.out.println("Error loading events by category: " + error.getMessage()));
+  }
 
-      // If no events were found, add a message
-      if (events.isEmpty()) {
-        model.addRow(new Object[] { "No events found for " + category, "", "", "", null });
-      }
+  private void showCategoryEvents(String category, List<Map<String, Object>> events) {
+    try {
+      showEvents(events, "No events found for " + category);
     } catch (Exception e) {
       System.out.println("Error loading events by category: " + e.getMessage());
     }
-
-    // Add custom renderer for the actions column
-    eventsTable.getColumnModel().getColumn(4).setCellRenderer(new ActionRenderer());
   }
 
   // Class to store action data for events
@@ -485,6 +455,22 @@ public class UpcomingEvent extends JPanel implements Refreshable {
     public Integer eventId;
     public String eventName;
     public String eventType;
+
+    // Equal data means an unchanged row, which a reload does not repaint
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof ActionData)) {
+        return false;
+      }
+      ActionData other = (ActionData) o;
+      return Objects.equals(eventId, other.eventId) && Objects.equals(eventName, other.eventName)
+          && Objects.equals(eventType, other.eventType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(eventId, eventName, eventType);
+    }
   }
 
   // Custom renderer for the actions column
@@ -547,8 +533,7 @@ public class UpcomingEvent extends JPanel implements Refreshable {
    */
   private void handleActionButton(int row, int xOffset) {
     // Get action data from the table
-    DefaultTableModel model = (DefaultTableModel) eventsTable.getModel();
-    ActionData actionData = (ActionData) model.getValueAt(row, 4);
+    ActionData actionData = (ActionData) tableModel.getValueAt(row, 4);
 
     if (actionData == null)
       return;
@@ -0,0 +1,78 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Records a timeline of startup phases. Each mark is a System.nanoTime()
+ * timestamp, reported as an offset from JVM start, so the report shows both
+ * when a phase finished and how long it took since the previous mark.
+ */
+public final class StartupProfiler {
+
+    // nanoTime() value at JVM start, estimated from the uptime when this class loads
+    private static final long JVM_START_NANOS = System.nanoTime()
+            - ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+
+    private static final List<Mark> marks = new ArrayList<>();
+    private static final Set<String> markedOnce = new HashSet<>();
+    private static boolean reported;
+
+    private StartupProfiler() {
+    }
+
+    /**
+     * Records that a phase has just finished
+     *
+     * @param phase Short description of the phase
+     */
+    public static synchronized void mark(String phase) {
+        marks.add(new Mark(phase, Thread.currentThread().getName(), System.nanoTime()));
+    }
+
+    /**
+     * Records a phase only the first time it is reached, for code that runs
+     * many times, such as opening a connection
+     */
+    public static synchronized void markOnce(String phase) {
+        if (markedOnce.add(phase)) {
+            mark(phase);
+        }
+    }
+
+    /**
+     * Prints the timeline once; later calls only print marks made since
+     */
+    public static synchronized void report() {
+        if (!reported) {
+            System.out.println("Startup timeline (ms after JVM start, +ms since previous mark):");
+            reported = true;
+        }
+
+        long previous = JVM_START_NANOS;
+        for (Mark mark : marks) {
+            if (!mark.printed) {
+                System.out.printf("  %9.3f  +%8.3f  %s [%s]%n", (mark.nanos - JVM_START_NANOS) / 1e6,
+                        (mark.nanos - previous) / 1e6, mark.phase, mark.thread);
+                mark.printed = true;
+            }
+            previous = mark.nanos;
+        }
+    }
+
+    private static class Mark {
+        final String phase;
+        final String thread;
+        final long nanos;
+        boolean printed;
+
+        Mark(String phase, String thread, long nanos) {
+            this.phase = phase;
+            this.thread = thread;
+            this.nanos = nanos;
+        }
+    }
+}
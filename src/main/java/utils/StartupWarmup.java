@@ -0,0 +1,117 @@
+package utils;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import database.Database;
+import database.QueryBuilder;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import server.sketch.TicketSketchStore;
+
+import java.io.OutputStream;
+
+/**
+ * Loads and initializes the heavy libraries (jOOQ, the SQLite driver, POI,
+ * iText) and the view classes in the background while the login screen is
+ * shown, so the first login, page visit and export do not pay for class
+ * loading. It also builds the ticket sketches, which would otherwise be
+ * built by the first ticket insights query. BCrypt calibration is
+ * left to the first login, since timing it here would measure the start-up
+ * contention rather than the host. Enabled by startup.warmup in
+ * config.properties.
+ *
+ * Running this class's main method performs the same work and exits; the
+ * Maven cds profile uses it as the training run for the AppCDS archive.
+ */
+public final class StartupWarmup {
+
+    private static final String[] PAGE_CLASSES = {
+            "ui.pages.Dashboard", "ui.pages.EventView", "ui.pages.ReportsView", "ui.pages.BookingView",
+            "ui.pages.CalendarView", "ui.pages.DataPersistenceView", "ui.pages.NotificationView",
+            "ui.pages.UpcomingEvent", "ui.pages.UserManagementView"
+    };
+
+    private StartupWarmup() {
+    }
+
+    /**
+     * Starts the warm-up on a low-priority daemon thread, unless disabled
+     * in config.properties
+     */
+    public static void startInBackground() {
+        if (!Boolean.parseBoolean(Database.getConfigProperty("startup.warmup", "true"))) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            run();
+            StartupProfiler.report();
+        }, "startup-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Performs every warm-up step on the calling thread. A failing step is
+     * logged and skipped; warming up is only an optimization.
+     */
+    public static void run() {
+        step("Warm-up: database connection and jOOQ", () -> {
+            QueryBuilder queryBuilder = new QueryBuilder();
+            try {
+                queryBuilder.fetch("SELECT 1");
+            } finally {
+                queryBuilder.closeConnection();
+            }
+        });
+        step("Warm-up: ticket sketches", () -> TicketSketchStore.getInstance().load());
+        step("Warm-up: POI", () -> {
+            try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+                Sheet sheet = workbook.createSheet("Warmup");
+                sheet.createRow(0).createCell(0).setCellValue("warmup");
+                workbook.write(OutputStream.nullOutputStream());
+            }
+        });
+        step("Warm-up: iText", () -> {
+            Document document = new Document();
+            PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+            document.open();
+            document.add(new Paragraph("warmup", FontFactory.getFont(FontFactory.HELVETICA)));
+            PdfPTable table = new PdfPTable(1);
+            table.addCell("warmup");
+            document.add(table);
+            document.close();
+        });
+        step("Warm-up: view classes", () -> {
+            for (String pageClass : PAGE_CLASSES) {
+                Class.forName(pageClass, true, StartupWarmup.class.getClassLoader());
+            }
+        });
+    }
+
+    private static void step(String phase, WarmupStep warmupStep) {
+        try {
+            warmupStep.run();
+            StartupProfiler.mark(phase);
+        } catch (Throwable e) {
+            System.err.println(phase + " failed: " + e.getMessage());
+        }
+    }
+
+    private interface WarmupStep {
+        void run() throws Exception;
+    }
+
+    /**
+     * Training run for the AppCDS archive: warms up and exits
+     */
+    public static void main(String[] args) {
+        StartupProfiler.mark("Warm-up training run started");
+        run();
+        StartupProfiler.report();
+        System.exit(0);
+    }
+}
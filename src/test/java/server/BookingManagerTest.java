@@ -0,0 +1,81 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import database.Database;
+import server.sketch.TicketSketchStore;
+
+public class BookingManagerTest {
+
+    @Before
+    public void setUp() throws SQLException {
+        try (Connection connection = Database.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS Ticket ("
+                    + "ticket_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "event_id INTEGER NOT NULL, "
+                    + "customer_id INTEGER UNIQUE, "
+                    + "ticket_type TEXT CHECK (ticket_type IN ('Regular', 'VIP')) NOT NULL, "
+                    + "ticket_date TIMESTAMP NOT NULL, "
+                    + "ticket_status TEXT CHECK (ticket_status IN ('Available', 'Sold', 'Canceled')) DEFAULT 'Available', "
+                    + "price REAL NOT NULL CHECK (price > 0), "
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "CONSTRAINT ticket_unique UNIQUE (event_id, ticket_type))");
+            statement.execute("CREATE TABLE IF NOT EXISTS Sales ("
+                    + "sale_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "sale_date TIMESTAMP NOT NULL, "
+                    + "tickets_sold INTEGER NOT NULL CHECK (tickets_sold >= 0), "
+                    + "revenue REAL NOT NULL CHECK (revenue >= 0), "
+                    + "category TEXT CHECK (category IN ('Regular', 'VIP', 'Premium')) NOT NULL, "
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("DELETE FROM Ticket WHERE event_id = 900");
+        }
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection connection = Database.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(sql)) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    @Test
+    public void ticketSketchesCountTicketRowsOnly() throws SQLException {
+        BookingServer bookingServer = new BookingServer();
+        LocalDate today = LocalDate.now();
+        TicketSketchStore sketches = TicketSketchStore.getInstance();
+        long before = sketches.summarize(today, today).getTickets();
+
+        // The second booking only adds a sale to the existing ticket row
+        assertTrue(bookingServer.addBooking("Alice", "Concert", "VIP", 901, 900, "VIP"));
+        assertTrue(bookingServer.addBooking("Bob", "Concert", "VIP", 902, 900, "VIP"));
+
+        assertEquals(1, count("SELECT COUNT(*) FROM Ticket WHERE event_id = 900"));
+        // Only the ticket row is counted, as a store rebuilt after a restart would
+        assertEquals(before + 1, sketches.summarize(today, today).getTickets());
+    }
+
+    @Test
+    public void invalidBookingIsRejected() throws SQLException {
+        BookingServer bookingServer = new BookingServer();
+
+        assertFalse(bookingServer.addBooking("Alice", "Concert", "VIP", 901, 900, "Balcony"));
+        assertFalse(bookingServer.addBooking("Alice", "Concert", "Cheap", 901, 900, "VIP"));
+        assertFalse(bookingServer.addBooking("Alice", "Concert", "VIP", -1, 900, "VIP"));
+        assertEquals(0, count("SELECT COUNT(*) FROM Ticket WHERE event_id = 900"));
+    }
+}
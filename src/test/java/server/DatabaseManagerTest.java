@@ -0,0 +1,40 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import database.Database;
+import database.QueryBuilder;
+
+public class DatabaseManagerTest {
+
+    @Test
+    public void configComesFromTestResources() {
+        assertEquals("target/test-EventEase.db", Database.getDatabasePath());
+        assertEquals("memory", Database.getConfigProperty("notifications.store", "sqlite"));
+        assertEquals("fallback", Database.getConfigProperty("no.such.setting", "fallback"));
+    }
+
+    @Test
+    public void queryBuilderUsesConfiguredDatabase() throws SQLException {
+        try (Connection connection = Database.getConnection()) {
+            connection.createStatement().execute("CREATE TABLE IF NOT EXISTS DatabaseManagerTest (id INTEGER)");
+        }
+
+        QueryBuilder queryBuilder = new QueryBuilder();
+        try {
+            List<Map<String, Object>> rows = queryBuilder.fetch(
+                    "SELECT name FROM sqlite_master WHERE name = 'DatabaseManagerTest'");
+            assertFalse(rows.isEmpty());
+        } finally {
+            queryBuilder.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import server.notification.Notification;
+import server.notification.NotificationType;
+import services.NotificationService;
+import services.NotificationService.UINotification;
+
+public class NotificationManagerTest {
+
+  private static int countMessage(Iterable<Notification> notifications, String message) {
+    int count = 0;
+    for (Notification notification : notifications) {
+      if (message.equals(notification.getMessage())) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Test
+  public void staffBroadcastReachesEachRecipientOnce() {
+    NotificationManager manager = NotificationManager.getInstance();
+    // The manager is shared, so each test uses messages of its own
+    String message = "Broadcast " + UUID.randomUUID();
+
+    String broadcastId = manager.broadcastToStaff(message, NotificationType.INFO, "7");
+    // An identical broadcast right after is the same one
+    assertEquals(broadcastId, manager.broadcastToStaff(message, NotificationType.INFO, "7"));
+
+    for (String recipient : NotificationManager.STAFF_RECIPIENTS) {
+      assertEquals(1, countMessage(manager.getNotificationsForUser(recipient, null, false), message));
+    }
+  }
+
+  @Test
+  public void staffBroadcastShowsOnceInTheFeed() {
+    NotificationService service = NotificationService.getInstance();
+    service.setCurrentUserId("admin");
+    String message = "Broadcast " + UUID.randomUUID();
+
+    NotificationManager.getInstance().broadcastToStaff(message, NotificationType.INFO, null);
+
+    // The admin copy and the system copy merge into one item
+    int shown = 0;
+    for (UINotification notification : service.openFeed(null, false).loadMore(50)) {
+      if (message.equals(notification.getMessage())) {
+        shown++;
+      }
+    }
+    assertEquals(1, shown);
+  }
+}
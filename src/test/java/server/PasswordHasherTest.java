@@ -0,0 +1,61 @@
+package server;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.mindrot.jbcrypt.BCrypt;
+
+public class PasswordHasherTest {
+
+    // Cost 4 keeps the test fast; it is below any calibrated cost
+    private static final String CHEAP_HASH = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+
+    private static String withCost(String hash, int cost) {
+        return hash.substring(0, 4) + String.format("%02d", cost) + hash.substring(6);
+    }
+
+    @Test
+    public void workFactorNeverBelowTwelve() {
+        assertTrue(PasswordHasher.getWorkFactor() >= 12);
+    }
+
+    @Test
+    public void needsRehashUpgradesWeakerHashes() {
+        assertTrue(PasswordHasher.needsRehash(CHEAP_HASH));
+        assertTrue(PasswordHasher.needsRehash(withCost(CHEAP_HASH, PasswordHasher.getWorkFactor() - 1)));
+    }
+
+    @Test
+    public void needsRehashKeepsEqualOrStrongerHashes() {
+        int target = PasswordHasher.getWorkFactor();
+        assertFalse(PasswordHasher.needsRehash(withCost(CHEAP_HASH, target)));
+        assertFalse(PasswordHasher.needsRehash(withCost(CHEAP_HASH, target + 1)));
+        assertFalse(PasswordHasher.needsRehash(withCost(CHEAP_HASH, 31)));
+    }
+
+    @Test
+    public void needsRehashIgnoresUnsupportedValues() {
+        assertFalse(PasswordHasher.needsRehash(null));
+        assertFalse(PasswordHasher.needsRehash("plain-text"));
+    }
+
+    @Test
+    public void verifyAcceptsAllBcryptVariants() {
+        String body = CHEAP_HASH.substring(4);
+        for (String prefix : new String[] { "$2a$", "$2b$", "$2y$" }) {
+            String hash = prefix + body;
+            assertTrue(prefix, PasswordHasher.isSupportedHash(hash));
+            assertTrue(prefix, PasswordHasher.verify("secret", hash));
+            assertFalse(prefix, PasswordHasher.verify("wrong", hash));
+        }
+    }
+
+    @Test
+    public void verifyRejectsUnsupportedValues() {
+        assertFalse(PasswordHasher.isSupportedHash("$2x$" + CHEAP_HASH.substring(4)));
+        assertFalse(PasswordHasher.isSupportedHash(null));
+        assertFalse(PasswordHasher.verify("secret", "secret"));
+        assertFalse(PasswordHasher.verify("secret", null));
+    }
+}
@@ -0,0 +1,83 @@
+package server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import server.AuthenticationServer.UserRole;
+
+public class SessionStoreTest {
+
+    private static final long IDLE_MILLIS = 300;
+    // Long enough that the background sweep never runs during a test
+    private static final long SWEEP_MILLIS = 60_000;
+
+    @Test
+    public void getReturnsOpenSession() {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        Session session = store.create("alice", UserRole.MANAGER);
+
+        assertSame(session, store.get(session.getToken()));
+        assertEquals("alice", session.getUsername());
+        assertEquals(UserRole.MANAGER, session.getRole());
+        assertNull(store.get("unknown"));
+        assertNull(store.get(null));
+    }
+
+    @Test
+    public void tokensAreUnique() {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        assertNotEquals(store.create("alice", UserRole.ADMIN).getToken(),
+                store.create("alice", UserRole.ADMIN).getToken());
+    }
+
+    @Test
+    public void idleSessionExpires() throws InterruptedException {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        Session session = store.create("alice", UserRole.ADMIN);
+
+        Thread.sleep(IDLE_MILLIS * 2);
+
+        assertNull(store.get(session.getToken()));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void useRestartsIdleTimeout() throws InterruptedException {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        Session session = store.create("alice", UserRole.ADMIN);
+
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(IDLE_MILLIS / 3);
+            assertNotNull(store.get(session.getToken()));
+        }
+    }
+
+    @Test
+    public void evictExpiredRemovesOnlyIdleSessions() throws InterruptedException {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        Session idle = store.create("alice", UserRole.ADMIN);
+        Thread.sleep(IDLE_MILLIS * 2);
+        Session active = store.create("bob", UserRole.MANAGER);
+
+        assertEquals(1, store.evictExpired());
+        assertEquals(1, store.size());
+        assertNull(store.get(idle.getToken()));
+        assertSame(active, store.get(active.getToken()));
+        assertEquals(1, store.getActiveSessions().size());
+    }
+
+    @Test
+    public void removeEndsSession() {
+        SessionStore store = new SessionStore(IDLE_MILLIS, SWEEP_MILLIS);
+        Session session = store.create("alice", UserRole.ADMIN);
+
+        assertSame(session, store.remove(session.getToken()));
+        assertNull(store.get(session.getToken()));
+        assertNull(store.remove(session.getToken()));
+    }
+}
@@ -0,0 +1,87 @@
+package server;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how TicketAnalytics scales with the number of cores on a synthetic
+ * ticket history. The chunks are generated up front so the run times only the
+ * fork-join aggregation, not row parsing.
+ *
+ * Usage: TicketAnalyticsBenchmark [rows] [events]
+ */
+public class TicketAnalyticsBenchmark {
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        int events = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        TicketAnalytics.Dictionary dictionary = new TicketAnalytics.Dictionary();
+        List<TicketAnalytics.TicketChunk> chunks = generate(rows, events, dictionary);
+        System.out.println("Generated " + rows + " tickets for " + events + " events in " + chunks.size() + " chunks");
+
+        // 1, 2, 4, ... threads, finishing with every core
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> levels = new ArrayList<>();
+        for (int parallelism = 1; parallelism < cores; parallelism *= 2) {
+            levels.add(parallelism);
+        }
+        levels.add(cores);
+
+        double baseline = 0;
+        for (int parallelism : levels) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                TicketAnalytics analytics = new TicketAnalytics(pool);
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    analytics.analyzeChunks(chunks.iterator(), dictionary);
+                }
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    best = Math.min(best, analytics.analyzeChunks(chunks.iterator(), dictionary).getElapsedNanos());
+                }
+
+                double millis = best / 1e6;
+                if (parallelism == 1) {
+                    baseline = millis;
+                }
+                System.out.printf("%2d threads: %8.1f ms  %6.1f M rows/s  speedup %.2fx%n",
+                        parallelism, millis, rows / (best / 1e9) / 1e6, baseline / millis);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static List<TicketAnalytics.TicketChunk> generate(int rows, int events,
+            TicketAnalytics.Dictionary dictionary) {
+        Random random = new Random(42);
+        short regular = dictionary.categoryIndex("Regular");
+        short vip = dictionary.categoryIndex("VIP");
+        for (int e = 0; e < events; e++) {
+            dictionary.eventIndex(e + 1);
+        }
+
+        long start = System.currentTimeMillis() - 365L * 24 * 60 * 60 * 1000;
+        List<TicketAnalytics.TicketChunk> chunks = new ArrayList<>();
+        TicketAnalytics.TicketChunk chunk = null;
+        for (int i = 0; i < rows; i++) {
+            if (chunk == null || chunk.isFull()) {
+                chunk = new TicketAnalytics.TicketChunk();
+                chunk.eventCount = dictionary.eventCount();
+                chunk.categoryCount = dictionary.categoryCount();
+                chunks.add(chunk);
+            }
+            boolean isVip = random.nextInt(5) == 0;
+            int roll = random.nextInt(20);
+            byte status = roll == 0 ? TicketAnalytics.TicketChunk.CANCELED
+                    : roll < 16 ? TicketAnalytics.TicketChunk.SOLD : TicketAnalytics.TicketChunk.AVAILABLE;
+            chunk.add(random.nextInt(events), isVip ? vip : regular, status,
+                    isVip ? 25.0 : 10.0 + random.nextInt(6),
+                    start + (long) random.nextInt(365 * 24 * 60) * 60_000);
+        }
+        return chunks;
+    }
+}
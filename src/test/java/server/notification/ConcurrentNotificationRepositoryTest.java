@@ -0,0 +1,135 @@
+package server.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ConcurrentNotificationRepositoryTest {
+
+  private static Notification notification(String userId, NotificationType type, long time) {
+    Notification notification = new Notification(userId, "Message at " + time, type);
+    notification.setTimestamp(new Date(time));
+    return notification;
+  }
+
+  private static List<String> ids(List<Notification> notifications) {
+    List<String> ids = new ArrayList<>();
+    for (Notification notification : notifications) {
+      ids.add(notification.getId());
+    }
+    return ids;
+  }
+
+  @Test
+  public void unreadCountFollowsWrites() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    Notification first = notification("alice", NotificationType.INFO, 1000);
+    Notification second = notification("alice", NotificationType.INFO, 2000);
+    repository.save(first);
+    repository.save(second);
+    repository.save(notification("bob", NotificationType.INFO, 3000));
+    assertEquals(2, repository.getUnreadCount("alice"));
+
+    // Notifications are marked in place before update() is called
+    first.setRead(true);
+    repository.update(first);
+    assertEquals(1, repository.getUnreadCount("alice"));
+
+    // Updating again does not count twice
+    repository.update(first);
+    assertEquals(1, repository.getUnreadCount("alice"));
+
+    repository.delete(second.getId());
+    assertEquals(0, repository.getUnreadCount("alice"));
+    assertEquals(1, repository.getUnreadCount("bob"));
+  }
+
+  @Test
+  public void markAllAsReadClearsOneUser() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    for (int i = 0; i < 5; i++) {
+      repository.save(notification("alice", NotificationType.INFO, 1000 + i));
+    }
+    repository.save(notification("bob", NotificationType.INFO, 1000));
+
+    assertEquals(5, repository.markAllAsRead("alice"));
+    assertEquals(0, repository.getUnreadCount("alice"));
+    assertEquals(1, repository.getUnreadCount("bob"));
+    assertEquals(0, repository.markAllAsRead("alice"));
+  }
+
+  @Test
+  public void deleteExpiredKeepsUnreadCountInStep() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    for (int i = 0; i < 10; i++) {
+      repository.save(notification("alice", NotificationType.INFO, 1000 + i));
+    }
+
+    assertEquals(2, repository.deleteExpired(new Date(1002), 0));
+    assertEquals(3, repository.deleteExpired(null, 5));
+    assertEquals(5, repository.getUnreadCount("alice"));
+    assertEquals(5, repository.findByUserId("alice").size());
+  }
+
+  @Test
+  public void findPageWalksNewestFirst() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    List<Notification> saved = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      // Pairs share a timestamp, so the cursor has to break ties
+      Notification notification = notification("alice", NotificationType.INFO, 1000 + i / 2);
+      repository.save(notification);
+      saved.add(0, notification);
+    }
+
+    List<Notification> seen = new ArrayList<>();
+    Notification cursor = null;
+    List<Notification> page;
+    do {
+      page = repository.findPage("alice", null, false, cursor, 3);
+      seen.addAll(page);
+      cursor = page.isEmpty() ? cursor : page.get(page.size() - 1);
+    } while (page.size() == 3);
+
+    assertEquals(ids(saved), ids(seen));
+  }
+
+  @Test
+  public void findPageContinuesAfterDeletedCursor() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    Notification oldest = notification("alice", NotificationType.INFO, 1000);
+    Notification middle = notification("alice", NotificationType.INFO, 2000);
+    Notification newest = notification("alice", NotificationType.INFO, 3000);
+    repository.save(oldest);
+    repository.save(middle);
+    repository.save(newest);
+
+    repository.delete(middle.getId());
+
+    assertEquals(ids(List.of(oldest)), ids(repository.findPage("alice", null, false, middle, 10)));
+  }
+
+  @Test
+  public void findPageFilters() {
+    ConcurrentNotificationRepository repository = new ConcurrentNotificationRepository();
+    Notification info = notification("alice", NotificationType.INFO, 1000);
+    Notification readWarning = notification("alice", NotificationType.WARNING, 2000);
+    Notification warning = notification("alice", NotificationType.WARNING, 3000);
+    readWarning.setRead(true);
+    repository.save(info);
+    repository.save(readWarning);
+    repository.save(warning);
+
+    assertEquals(ids(List.of(warning, readWarning)),
+        ids(repository.findPage("alice", NotificationType.WARNING, false, null, 10)));
+    assertEquals(ids(List.of(warning, info)), ids(repository.findPage("alice", null, true, null, 10)));
+    assertEquals(ids(List.of(warning)),
+        ids(repository.findPage("alice", NotificationType.WARNING, true, null, 10)));
+    assertTrue(repository.findPage("nobody", null, false, null, 10).isEmpty());
+  }
+}
@@ -0,0 +1,183 @@
+package server.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import database.Database;
+
+public class JdbcNotificationRepositoryTest {
+
+  private JdbcNotificationRepository repository;
+  // Users of this test only, as the database outlives the test run
+  private String alice;
+  private String bob;
+
+  @Before
+  public void setUp() {
+    repository = new JdbcNotificationRepository();
+    alice = "alice-" + UUID.randomUUID();
+    bob = "bob-" + UUID.randomUUID();
+  }
+
+  private static Notification notification(String userId, long time) {
+    Notification notification = new Notification(userId, "Message at " + time, NotificationType.INFO);
+    notification.setTimestamp(new Date(time));
+    return notification;
+  }
+
+  private static List<String> ids(List<Notification> notifications) {
+    List<String> ids = new ArrayList<>();
+    for (Notification notification : notifications) {
+      ids.add(notification.getId());
+    }
+    return ids;
+  }
+
+  private static int count(String sql, String binding) throws SQLException {
+    try (Connection connection = Database.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setString(1, binding);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next() ? resultSet.getInt(1) : 0;
+      }
+    }
+  }
+
+  @Test
+  public void readsOwnQueuedWrites() {
+    for (int i = 0; i < 500; i++) {
+      repository.save(notification(alice, 1000 + i));
+    }
+
+    // Queued rows are committed before any read
+    assertEquals(500, repository.getUnreadCount(alice));
+    assertEquals(500, repository.findByUserId(alice).size());
+  }
+
+  @Test
+  public void groupCommitIsDurable() throws SQLException {
+    List<Notification> saved = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      Notification notification = notification(alice, 1000 + i);
+      repository.save(notification);
+      saved.add(notification);
+    }
+    repository.awaitPendingWrites();
+
+    // Visible to other connections once awaitPendingWrites returns
+    assertEquals(200, count("SELECT COUNT(*) FROM Notification WHERE user_id = ?", alice));
+    assertEquals(ids(saved), ids(repository.findByUserId(alice)));
+  }
+
+  @Test
+  public void saveCopiesTheNotification() {
+    Notification notification = notification(alice, 1000);
+    repository.save(notification);
+    notification.setMessage("Changed after save");
+
+    assertEquals("Message at 1000", repository.findById(notification.getId()).getMessage());
+  }
+
+  @Test
+  public void broadcastPayloadIsStoredOnce() throws SQLException {
+    String broadcastId = UUID.randomUUID().toString();
+    for (String userId : new String[] { alice, bob }) {
+      Notification notification = new Notification(userId, "Shared message", NotificationType.INFO, "42");
+      notification.setBroadcastId(broadcastId);
+      repository.save(notification);
+    }
+    repository.awaitPendingWrites();
+
+    assertEquals(1, count("SELECT COUNT(*) FROM NotificationBroadcast WHERE id = ?", broadcastId));
+    Notification received = repository.findByUserId(bob).get(0);
+    assertEquals("Shared message", received.getMessage());
+    assertEquals("42", received.getRelatedEntityId());
+    assertEquals(broadcastId, received.getBroadcastId());
+
+    // The payload goes with its last recipient
+    repository.delete(repository.findByUserId(alice).get(0).getId());
+    assertEquals(1, count("SELECT COUNT(*) FROM NotificationBroadcast WHERE id = ?", broadcastId));
+    repository.delete(received.getId());
+    assertEquals(0, count("SELECT COUNT(*) FROM NotificationBroadcast WHERE id = ?", broadcastId));
+  }
+
+  @Test
+  public void findPageWalksNewestFirst() {
+    List<Notification> saved = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      // Pairs share a timestamp, so the cursor has to break ties
+      Notification notification = notification(alice, 1000 + i / 2);
+      repository.save(notification);
+      saved.add(0, notification);
+    }
+
+    List<Notification> seen = new ArrayList<>();
+    Notification cursor = null;
+    List<Notification> page;
+    do {
+      page = repository.findPage(alice, null, false, cursor, 3);
+      seen.addAll(page);
+      cursor = page.isEmpty() ? cursor : page.get(page.size() - 1);
+    } while (page.size() == 3);
+
+    assertEquals(ids(saved), ids(seen));
+  }
+
+  @Test
+  public void findPageContinuesAfterDeletedCursor() {
+    Notification oldest = notification(alice, 1000);
+    Notification middle = notification(alice, 2000);
+    Notification newest = notification(alice, 3000);
+    repository.save(oldest);
+    repository.save(middle);
+    repository.save(newest);
+
+    repository.delete(middle.getId());
+
+    assertEquals(ids(List.of(oldest)), ids(repository.findPage(alice, null, false, middle, 10)));
+  }
+
+  @Test
+  public void findPageFiltersUnread() {
+    Notification read = notification(alice, 1000);
+    read.setRead(true);
+    Notification unread = notification(alice, 2000);
+    repository.save(read);
+    repository.save(unread);
+
+    assertEquals(ids(List.of(unread)), ids(repository.findPage(alice, null, true, null, 10)));
+    assertEquals(1, repository.markAllAsRead(alice));
+    assertTrue(repository.findPage(alice, null, true, null, 10).isEmpty());
+    assertEquals(0, repository.getUnreadCount(alice));
+  }
+
+  @Test
+  public void deleteExpiredAppliesAgeAndCount() {
+    for (int i = 0; i < 10; i++) {
+      repository.save(notification(alice, 1000 + i));
+    }
+    repository.save(notification(bob, System.currentTimeMillis()));
+
+    repository.deleteExpired(null, 4);
+    assertEquals(4, repository.findByUserId(alice).size());
+    assertEquals(1, repository.findByUserId(bob).size());
+
+    repository.deleteExpired(new Date(System.currentTimeMillis() - 60_000), 0);
+    assertEquals(0, repository.findByUserId(alice).size());
+    assertEquals(1, repository.findByUserId(bob).size());
+    assertNull(repository.findById("missing"));
+  }
+}
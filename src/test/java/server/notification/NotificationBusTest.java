@@ -0,0 +1,138 @@
+package server.notification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class NotificationBusTest {
+
+  /**
+   * Collects delivered batches; optionally holds the dispatcher inside the
+   * first delivery until released, so the queue can be filled
+   */
+  private static class RecordingObserver implements NotificationObserver {
+    final BlockingQueue<List<Notification>> batches = new LinkedBlockingQueue<>();
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release;
+
+    RecordingObserver(boolean hold) {
+      release = new CountDownLatch(hold ? 1 : 0);
+    }
+
+    @Override
+    public void onNotificationReceived(Notification notification) {
+      onNotificationsReceived(List.of(notification));
+    }
+
+    @Override
+    public void onNotificationsReceived(List<Notification> notifications) {
+      batches.add(new ArrayList<>(notifications));
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    List<Notification> nextBatch() throws InterruptedException {
+      return batches.poll(5, TimeUnit.SECONDS);
+    }
+  }
+
+  private static Notification notification(String userId, String message) {
+    return new Notification(userId, message, NotificationType.INFO);
+  }
+
+  @Test
+  public void burstIsDeliveredOncePerUserWithDuplicatesMerged() throws InterruptedException {
+    NotificationBus bus = new NotificationBus(100, 200, NotificationBus.OverflowPolicy.DROP_NEWEST);
+    RecordingObserver observer = new RecordingObserver(false);
+    bus.register(observer);
+
+    Notification first = notification("alice", "Event updated");
+    Notification duplicate = notification("alice", "Event updated");
+    Notification other = notification("alice", "Booking confirmed");
+    Notification forBob = notification("bob", "Event updated");
+    bus.publish(first);
+    bus.publish(duplicate);
+    bus.publish(other);
+    bus.publish(forBob);
+
+    assertEquals(List.of(first, other), observer.nextBatch());
+    assertEquals(List.of(forBob), observer.nextBatch());
+    assertNull(observer.batches.poll(300, TimeUnit.MILLISECONDS));
+
+    NotificationBus.Metrics metrics = bus.getMetrics();
+    assertEquals(4, metrics.getPublished());
+    assertEquals(3, metrics.getDelivered());
+    assertEquals(1, metrics.getMerged());
+    assertEquals(2, metrics.getBatches());
+  }
+
+  @Test
+  public void registeringTwiceDeliversOnce() throws InterruptedException {
+    NotificationBus bus = new NotificationBus(100, 0, NotificationBus.OverflowPolicy.DROP_NEWEST);
+    RecordingObserver observer = new RecordingObserver(false);
+    bus.register(observer);
+    bus.register(observer);
+
+    bus.publish(notification("alice", "Hello"));
+
+    assertNotNull(observer.nextBatch());
+    assertNull(observer.batches.poll(300, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void dropNewestRejectsWhenFull() throws InterruptedException {
+    NotificationBus bus = new NotificationBus(2, 0, NotificationBus.OverflowPolicy.DROP_NEWEST);
+    RecordingObserver observer = new RecordingObserver(true);
+    bus.register(observer);
+
+    // The dispatcher takes the first one and is held in the observer
+    bus.publish(notification("alice", "0"));
+    assertTrue(observer.entered.await(5, TimeUnit.SECONDS));
+    Notification second = notification("alice", "1");
+    Notification third = notification("alice", "2");
+    assertTrue(bus.publish(second));
+    assertTrue(bus.publish(third));
+    assertFalse(bus.publish(notification("alice", "3")));
+    assertEquals(1, bus.getMetrics().getDropped());
+
+    observer.release.countDown();
+    observer.nextBatch();
+    assertEquals(List.of(second, third), observer.nextBatch());
+  }
+
+  @Test
+  public void dropOldestMakesRoomWhenFull() throws InterruptedException {
+    NotificationBus bus = new NotificationBus(2, 0, NotificationBus.OverflowPolicy.DROP_OLDEST);
+    RecordingObserver observer = new RecordingObserver(true);
+    bus.register(observer);
+
+    bus.publish(notification("alice", "0"));
+    assertTrue(observer.entered.await(5, TimeUnit.SECONDS));
+    Notification third = notification("alice", "2");
+    Notification fourth = notification("alice", "3");
+    bus.publish(notification("alice", "1"));
+    bus.publish(third);
+    assertTrue(bus.publish(fourth));
+    assertEquals(1, bus.getMetrics().getDropped());
+    assertEquals(2, bus.getMetrics().getQueueDepth());
+
+    observer.release.countDown();
+    observer.nextBatch();
+    assertEquals(List.of(third, fourth), observer.nextBatch());
+  }
+}
@@ -0,0 +1,117 @@
+package server.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import database.Database;
+
+public class TicketSketchStoreTest {
+
+  @Before
+  public void setUp() throws SQLException {
+    try (Connection connection = Database.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("CREATE TABLE IF NOT EXISTS Ticket ("
+          + "ticket_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+          + "event_id INTEGER NOT NULL, "
+          + "customer_id INTEGER UNIQUE, "
+          + "ticket_type TEXT CHECK (ticket_type IN ('Regular', 'VIP')) NOT NULL, "
+          + "ticket_date TIMESTAMP NOT NULL, "
+          + "ticket_status TEXT CHECK (ticket_status IN ('Available', 'Sold', 'Canceled')) DEFAULT 'Available', "
+          + "price REAL NOT NULL CHECK (price > 0), "
+          + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+          + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+          + "CONSTRAINT ticket_unique UNIQUE (event_id, ticket_type))");
+      statement.execute("DELETE FROM Ticket");
+      // Dates as the application stores them
+      statement.execute("INSERT INTO Ticket (event_id, customer_id, ticket_type, ticket_date, ticket_status, price) "
+          + "VALUES (1, 10, 'VIP', '2025-05-07 09:19:56.492', 'Sold', 25.0), "
+          + "(1, 11, 'Regular', '2025-05-07 18:02:11.010', 'Sold', 15.0), "
+          + "(2, 12, 'VIP', '2025-05-09 10:21:23.172', 'Sold', 25.0), "
+          + "(3, 13, 'VIP', '2025-05-09 11:00:00.000', 'Available', 25.0)");
+    }
+  }
+
+  @Test
+  public void loadReadsTextTicketDates() {
+    TicketSketchStore store = new TicketSketchStore();
+
+    TicketSketch firstDay = store.summarize(LocalDate.of(2025, 5, 7), LocalDate.of(2025, 5, 7));
+    assertEquals(2, firstDay.getTickets());
+    assertEquals(40.0, firstDay.getRevenue(), 0.001);
+
+    // Tickets not sold are left out
+    TicketSketch thirdDay = store.summarize(LocalDate.of(2025, 5, 9), LocalDate.of(2025, 5, 9));
+    assertEquals(1, thirdDay.getTickets());
+  }
+
+  private static long insertTicket(int eventId, int customerId, String date) throws SQLException {
+    try (Connection connection = Database.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("INSERT INTO Ticket (event_id, customer_id, ticket_type, ticket_date, ticket_status, price) "
+          + "VALUES (" + eventId + ", " + customerId + ", 'VIP', '" + date + "', 'Sold', 25.0)");
+      try (ResultSet resultSet = statement.executeQuery("SELECT last_insert_rowid()")) {
+        resultSet.next();
+        return resultSet.getLong(1);
+      }
+    }
+  }
+
+  @Test
+  public void recordAfterLoadCountsNewTicket() throws SQLException {
+    TicketSketchStore store = new TicketSketchStore();
+    store.load();
+
+    long ticketId = insertTicket(4, 14, "2025-05-10 12:00:00.000");
+    store.record(ticketId, LocalDate.of(2025, 5, 10), 4, 14, 25.0);
+
+    assertEquals(1, store.summarize(LocalDate.of(2025, 5, 10), LocalDate.of(2025, 5, 10)).getTickets());
+  }
+
+  @Test
+  public void recordBeforeLoadIsLeftToTheScan() throws SQLException {
+    TicketSketchStore store = new TicketSketchStore();
+
+    long ticketId = insertTicket(4, 14, "2025-05-10 12:00:00.000");
+    store.record(ticketId, LocalDate.of(2025, 5, 10), 4, 14, 25.0);
+
+    assertEquals(1, store.summarize(LocalDate.of(2025, 5, 10), LocalDate.of(2025, 5, 10)).getTickets());
+  }
+
+  @Test
+  public void failedLoadIsRetried() throws SQLException {
+    TicketSketchStore store = new TicketSketchStore();
+    try (Connection connection = Database.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("ALTER TABLE Ticket RENAME TO TicketAway");
+    }
+    try {
+      assertEquals(0, store.summarize(LocalDate.of(2025, 5, 7), LocalDate.of(2025, 5, 9)).getTickets());
+    } finally {
+      try (Connection connection = Database.getConnection();
+          Statement statement = connection.createStatement()) {
+        statement.execute("ALTER TABLE TicketAway RENAME TO Ticket");
+      }
+    }
+
+    assertEquals(3, store.summarize(LocalDate.of(2025, 5, 7), LocalDate.of(2025, 5, 9)).getTickets());
+  }
+
+  @Test
+  public void toLocalDateUsesLeadingDate() {
+    assertEquals(LocalDate.of(2025, 5, 7), TicketSketchStore.toLocalDate("2025-05-07 09:19:56.492"));
+    assertEquals(LocalDate.of(2025, 5, 7), TicketSketchStore.toLocalDate("2025-05-07"));
+    assertEquals(LocalDate.of(2025, 5, 7), TicketSketchStore.toLocalDate(java.sql.Date.valueOf("2025-05-07")));
+    assertNull(TicketSketchStore.toLocalDate("yesterday"));
+    assertNull(TicketSketchStore.toLocalDate(null));
+  }
+}
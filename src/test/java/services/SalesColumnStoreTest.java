@@ -0,0 +1,60 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SalesColumnStoreTest {
+
+    private static Map<String, Object> sale(long saleId, String date, String category, int tickets, double revenue) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("sale_id", saleId);
+        row.put("sale_date", date);
+        row.put("category", category);
+        row.put("tickets_sold", tickets);
+        row.put("revenue", revenue);
+        return row;
+    }
+
+    @Test
+    public void appendReadsTextDates() {
+        SalesColumnStore store = new SalesColumnStore();
+
+        assertTrue(store.append(sale(1, "2025-05-07 09:19:56.492", "VIP", 3, 75.0)));
+
+        assertEquals(1, store.size());
+        assertEquals(LocalDate.of(2025, 5, 7).toEpochDay(), store.getEpochDay(0));
+        assertEquals("VIP", store.getCategory(0));
+    }
+
+    @Test
+    public void appendSkipsUnreadableDates() {
+        SalesColumnStore store = new SalesColumnStore();
+
+        assertFalse(store.append(sale(1, "not a date", "VIP", 3, 75.0)));
+
+        assertEquals(0, store.size());
+        assertEquals(1, store.getLastSaleId());
+    }
+
+    @Test
+    public void appendReplacesRowWithSameSaleId() {
+        SalesColumnStore store = new SalesColumnStore();
+        store.append(sale(1, "2025-05-07", "Regular", 10, 150.0));
+        store.append(sale(2, "2025-05-07", "VIP", 1, 25.0));
+
+        // The same sale read again after an in-place update
+        store.append(sale(1, "2025-05-07", "Regular", 11, 165.0));
+
+        assertEquals(2, store.size());
+        assertEquals(11, store.getTickets(0));
+        assertEquals(165.0, store.getRevenue(0), 0.001);
+        assertEquals(2, store.getLastSaleId());
+    }
+}
@@ -0,0 +1,71 @@
+package services;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import database.Database;
+
+public class SalesDataServiceTest {
+
+    @Before
+    public void setUp() throws SQLException {
+        try (Connection connection = Database.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS Sales ("
+                    + "sale_id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "sale_date TIMESTAMP NOT NULL, "
+                    + "tickets_sold INTEGER NOT NULL CHECK (tickets_sold >= 0), "
+                    + "revenue REAL NOT NULL CHECK (revenue >= 0), "
+                    + "category TEXT CHECK (category IN ('Regular', 'VIP', 'Premium')) NOT NULL, "
+                    + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                    + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            statement.execute("DELETE FROM Sales");
+            // A non-empty table, so the service does not insert sample data
+            statement.execute("INSERT INTO Sales (sale_date, tickets_sold, revenue, category) "
+                    + "VALUES ('2025-05-07 09:19:56.492', 10, 150.0, 'Regular')");
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = Database.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    @Test
+    public void refreshPicksUpInPlaceUpdates() throws SQLException {
+        SalesDataService service = new SalesDataService();
+        SalesColumnStore store = service.refreshSalesStore();
+        assertEquals(1, store.size());
+        assertEquals(10, store.getTickets(0));
+
+        // What BookingServer.recordSale does for a second sale on the same day
+        execute("UPDATE Sales SET tickets_sold = tickets_sold + 1, revenue = revenue + 15, "
+                + "updated_at = CURRENT_TIMESTAMP");
+
+        store = service.refreshSalesStore();
+        assertEquals(1, store.size());
+        assertEquals(11, store.getTickets(0));
+        assertEquals(165.0, store.getRevenue(0), 0.001);
+    }
+
+    @Test
+    public void refreshAppendsNewSales() throws SQLException {
+        SalesDataService service = new SalesDataService();
+        service.refreshSalesStore();
+
+        execute("INSERT INTO Sales (sale_date, tickets_sold, revenue, category) "
+                + "VALUES ('2025-05-08', 1, 25.0, 'VIP')");
+
+        SalesColumnStore store = service.refreshSalesStore();
+        assertEquals(2, store.size());
+        assertEquals("VIP", store.getCategory(1));
+    }
+}
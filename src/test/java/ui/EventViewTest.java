@@ -0,0 +1,64 @@
+package ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.time.LocalDate;
+
+import javax.swing.JSpinner;
+
+import org.junit.After;
+import org.junit.Test;
+
+import ui.pages.EventView;
+
+public class EventViewTest {
+
+    @After
+    public void tearDown() {
+        Router.clearAllData();
+    }
+
+    private static JSpinner findSpinner(Container container) {
+        for (Component component : container.getComponents()) {
+            if (component instanceof JSpinner) {
+                return (JSpinner) component;
+            }
+            if (component instanceof Container) {
+                JSpinner spinner = findSpinner((Container) component);
+                if (spinner != null) {
+                    return spinner;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void firstVisitUsesDateFromCalendar() {
+        LocalDate date = LocalDate.of(2025, 6, 14);
+        Router.putData("selectedDate", date);
+
+        EventView view = new EventView();
+
+        JSpinner spinner = findSpinner(view);
+        assertNotNull(spinner);
+        assertEquals(java.sql.Date.valueOf(date), spinner.getValue());
+        assertNull(Router.getData("selectedDate"));
+    }
+
+    @Test
+    public void refreshUsesDateFromCalendar() {
+        EventView view = new EventView();
+        LocalDate date = LocalDate.of(2025, 7, 1);
+        Router.putData("selectedDate", date);
+
+        view.refresh();
+
+        assertEquals(java.sql.Date.valueOf(date), findSpinner(view).getValue());
+        assertNull(Router.getData("selectedDate"));
+    }
+}
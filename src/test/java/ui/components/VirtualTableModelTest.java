@@ -0,0 +1,146 @@
+package ui.components;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class VirtualTableModelTest {
+
+  // Enough rows that small diffs are patched rather than rebuilt
+  private static final int ROWS = 200;
+
+  private VirtualTableModel model;
+  private final List<TableModelEvent> events = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    model = new VirtualTableModel(new String[] { "Name", "Tickets", "Revenue" },
+        new Class<?>[] { Object.class, Integer.class, Double.class });
+    model.setRows(keys(ROWS), rows(ROWS));
+    model.addTableModelListener(events::add);
+  }
+
+  private static long[] keys(int count) {
+    long[] keys = new long[count];
+    for (int i = 0; i < count; i++) {
+      keys[i] = 1000 + i;
+    }
+    return keys;
+  }
+
+  private static Object[][] rows(int count) {
+    Object[][] rows = new Object[count][];
+    for (int i = 0; i < count; i++) {
+      rows[i] = new Object[] { "Event " + i, i, i * 10.0 };
+    }
+    return rows;
+  }
+
+  private static String describe(TableModelEvent event) {
+    String kind = event.getType() == TableModelEvent.INSERT ? "insert"
+        : event.getType() == TableModelEvent.DELETE ? "delete" : "update";
+    return kind + " " + event.getFirstRow() + "-" + event.getLastRow();
+  }
+
+  private List<String> described() {
+    List<String> described = new ArrayList<>();
+    for (TableModelEvent event : events) {
+      described.add(describe(event));
+    }
+    return described;
+  }
+
+  @Test
+  public void unchangedReloadFiresNothing() {
+    model.setRows(keys(ROWS), rows(ROWS));
+
+    assertTrue(events.isEmpty());
+    assertEquals(ROWS, model.getRowCount());
+  }
+
+  @Test
+  public void changedRowIsUpdatedInPlace() {
+    Object[][] rows = rows(ROWS);
+    rows[5] = new Object[] { "Event 5", 6, 60.0 };
+
+    model.setRows(keys(ROWS), rows);
+
+    assertEquals(List.of("update 5-5"), described());
+    assertEquals(6, model.getValueAt(5, 1));
+    assertEquals(1005L, model.getKeyAt(5));
+  }
+
+  @Test
+  public void droppedAndAddedRowsAreAnnounced() {
+    long[] keys = keys(ROWS + 1);
+    Object[][] rows = rows(ROWS + 1);
+    // Row 3 is dropped; a new row is appended
+    long[] newKeys = new long[ROWS];
+    Object[][] newRows = new Object[ROWS][];
+    for (int i = 0, j = 0; i < ROWS + 1; i++) {
+      if (i != 3) {
+        newKeys[j] = keys[i];
+        newRows[j++] = rows[i];
+      }
+    }
+
+    model.setRows(newKeys, newRows);
+
+    assertEquals(List.of("delete 3-3", "insert " + (ROWS - 1) + "-" + (ROWS - 1)), described());
+    assertEquals(ROWS, model.getRowCount());
+    assertEquals(-1, model.indexOfKey(1003));
+    assertEquals(ROWS - 1, model.indexOfKey(1000 + ROWS));
+  }
+
+  @Test
+  public void changedRowMovesToItsSortedPosition() {
+    model.sortBy(1, true);
+    events.clear();
+    Object[][] rows = rows(ROWS);
+    rows[2] = new Object[] { "Event 2", 50, 20.0 };
+
+    model.setRows(keys(ROWS), rows);
+
+    // Ties keep the natural order, so it lands just before the existing 50
+    assertEquals(List.of("delete 2-2", "insert 49-49"), described());
+    assertEquals(1002L, model.getKeyAt(49));
+    assertEquals(1050L, model.getKeyAt(50));
+  }
+
+  @Test
+  public void reorderedListRebuildsView() {
+    long[] keys = keys(ROWS);
+    Object[][] rows = rows(ROWS);
+    long key = keys[0];
+    keys[0] = keys[1];
+    keys[1] = key;
+    Object[] row = rows[0];
+    rows[0] = rows[1];
+    rows[1] = row;
+
+    model.setRows(keys, rows);
+
+    // A single data-changed event rather than row events
+    assertEquals(1, events.size());
+    assertEquals(Integer.MAX_VALUE, events.get(0).getLastRow());
+    assertEquals(1001L, model.getKeyAt(0));
+    assertEquals(1000L, model.getKeyAt(1));
+  }
+
+  @Test
+  public void filterMatchesAnyColumnIgnoringCase() {
+    model.setFilter("EVENT 1");
+
+    // Event 1, Event 10-19 and Event 100-199
+    assertEquals(1 + 10 + 100, model.getRowCount());
+    model.setFilter(null);
+    assertEquals(ROWS, model.getRowCount());
+  }
+}